@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.mobile.android.app.tracking
+
+import com.duckduckgo.common.utils.ConflatedJob
+import com.duckduckgo.common.utils.DispatcherProvider
+import com.duckduckgo.di.scopes.VpnScope
+import com.duckduckgo.mobile.android.vpn.processor.requestingapp.AppNameResolver
+import com.duckduckgo.mobile.android.vpn.service.VpnServiceCallbacks
+import com.duckduckgo.mobile.android.vpn.state.VpnStateMonitor
+import com.duckduckgo.mobile.android.vpn.store.VpnDatabase
+import com.duckduckgo.mobile.android.vpn.trackers.AppTracker
+import com.duckduckgo.mobile.android.vpn.trackers.AppTrackerRepository
+import com.squareup.anvil.annotations.ContributesMultibinding
+import dagger.SingleInstanceIn
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.merge
+import kotlinx.coroutines.launch
+import logcat.logcat
+import java.util.concurrent.ConcurrentHashMap
+import javax.inject.Inject
+
+/**
+ * Caches the outcome of [RealAppTrackerDetector.evaluate] so that repeated lookups for the same (uid, hostname) do not hit
+ * the database, the package manager or bridge into coroutines.
+ *
+ * All cached state lives in a [Verdicts] generation that is replaced wholesale whenever one of its inputs changes (exclusion
+ * lists, system app overrides, exception rules or the blocklist itself). Callers grab the current generation once per lookup
+ * and write their results back into that same generation, so a result computed against stale inputs is dropped together with
+ * the old generation instead of leaking into the new one.
+ *
+ * It also rebuilds the [AppTrackerRepository] blocklist index of the VPN process whenever the stored blocklist changes.
+ */
+@ContributesMultibinding(
+    scope = VpnScope::class,
+    boundType = VpnServiceCallbacks::class,
+)
+@SingleInstanceIn(VpnScope::class)
+class AppTrackerVerdictCache @Inject constructor(
+    private val appTrackerRepository: AppTrackerRepository,
+    private val vpnDatabase: VpnDatabase,
+    private val dispatcherProvider: DispatcherProvider,
+) : VpnServiceCallbacks {
+
+    private val job = ConflatedJob()
+
+    @Volatile
+    private var verdicts = Verdicts()
+
+    fun verdicts(): Verdicts = verdicts
+
+    fun invalidate() {
+        verdicts = Verdicts()
+    }
+
+    override fun onVpnStarted(coroutineScope: CoroutineScope) {
+        invalidate()
+        job += coroutineScope.launch(dispatcherProvider.io()) {
+            merge(
+                appTrackerRepository.getAppExclusionListFlow().map { },
+                appTrackerRepository.getManualAppExclusionListFlow().map { },
+                vpnDatabase.vpnSystemAppsOverridesDao().getSystemAppOverridesFlow().map { },
+                vpnDatabase.vpnAppTrackerBlockingDao().getTrackerExceptionRulesFlow().map { },
+                vpnDatabase.vpnAppTrackerBlockingDao().getTrackerBlockListSizeFlow().map {
+                    // the blocklist is updated from the main process, so this process has to rebuild its own index before
+                    // verdicts are recomputed against it
+                    appTrackerRepository.reloadTrackerBlocklist()
+                },
+            ).collect {
+                logcat { "AppTP verdict cache invalidated" }
+                invalidate()
+            }
+        }
+    }
+
+    override fun onVpnReconfigured(coroutineScope: CoroutineScope) {
+        // registered VPN features may have changed
+        invalidate()
+    }
+
+    override fun onVpnStopped(
+        coroutineScope: CoroutineScope,
+        vpnStopReason: VpnStateMonitor.VpnStopReason,
+    ) {
+        job.cancel()
+        invalidate()
+    }
+
+    class Verdicts internal constructor() {
+        private val domainVerdicts = ConcurrentHashMap<DomainVerdictKey, DomainVerdict>()
+        private val uidVerdicts = ConcurrentHashMap<Int, UidVerdict>()
+
+        @Volatile
+        var isAppTpRegistered: Boolean? = null
+
+        fun uidVerdict(uid: Int): UidVerdict? = uidVerdicts[uid]
+
+        fun putUidVerdict(
+            uid: Int,
+            verdict: UidVerdict,
+        ) {
+            if (uidVerdicts.size >= MAX_UID_ENTRIES) uidVerdicts.clear()
+            uidVerdicts[uid] = verdict
+        }
+
+        fun domainVerdict(
+            uid: Int,
+            hostname: String,
+        ): DomainVerdict? = domainVerdicts[DomainVerdictKey(uid, hostname)]
+
+        fun putDomainVerdict(
+            uid: Int,
+            hostname: String,
+            verdict: DomainVerdict,
+        ) {
+            if (domainVerdicts.size >= MAX_DOMAIN_ENTRIES) domainVerdicts.clear()
+            domainVerdicts[DomainVerdictKey(uid, hostname)] = verdict
+        }
+    }
+
+    /**
+     * Per-uid protection state, resolved once per generation.
+     */
+    data class UidVerdict(
+        val packageId: String,
+        val isExcluded: Boolean,
+    )
+
+    sealed class DomainVerdict {
+        object Allowed : DomainVerdict()
+
+        data class Blocked(
+            val tracker: AppTracker,
+            val trackingApp: AppNameResolver.OriginatingApp,
+        ) : DomainVerdict()
+    }
+
+    private data class DomainVerdictKey(
+        val uid: Int,
+        val hostname: String,
+    )
+
+    companion object {
+        private const val MAX_UID_ENTRIES = 1_000
+        private const val MAX_DOMAIN_ENTRIES = 4_000
+    }
+}
@@ -21,6 +21,9 @@ import android.content.pm.PackageManager
 import android.util.LruCache
 import com.duckduckgo.common.utils.extensions.isDdgApp
 import com.duckduckgo.di.scopes.VpnScope
+import com.duckduckgo.mobile.android.app.tracking.AppTrackerVerdictCache.DomainVerdict
+import com.duckduckgo.mobile.android.app.tracking.AppTrackerVerdictCache.UidVerdict
+import com.duckduckgo.mobile.android.app.tracking.AppTrackerVerdictCache.Verdicts
 import com.duckduckgo.mobile.android.vpn.AppTpVpnFeature
 import com.duckduckgo.mobile.android.vpn.VpnFeaturesRegistry
 import com.duckduckgo.mobile.android.vpn.apps.isSystemApp
@@ -46,55 +49,58 @@ class RealAppTrackerDetector constructor(
     private val packageManager: PackageManager,
     private val vpnFeaturesRegistry: VpnFeaturesRegistry,
     private val context: Context,
+    private val verdictCache: AppTrackerVerdictCache,
 ) : AppTrackerDetector {
 
-    private fun isAppTpDisabled(): Boolean {
-        return runBlocking { !vpnFeaturesRegistry.isFeatureRegistered(AppTpVpnFeature.APPTP_VPN) }
+    private fun isAppTpDisabled(verdicts: Verdicts): Boolean {
+        val isRegistered = verdicts.isAppTpRegistered
+            ?: runBlocking { vpnFeaturesRegistry.isFeatureRegistered(AppTpVpnFeature.APPTP_VPN) }.also { verdicts.isAppTpRegistered = it }
+        return !isRegistered
     }
 
     // cache packageId -> app name
     private val appNamesCache = LruCache<String, AppNameResolver.OriginatingApp>(100)
 
     override fun evaluate(domain: String, uid: Int): AppTrackerDetector.AppTracker? {
+        // all cached state for this evaluation is read from and written to the same generation
+        val verdicts = verdictCache.verdicts()
+
         // Check if AppTP is enabled first
-        if (isAppTpDisabled()) {
+        if (isAppTpDisabled(verdicts)) {
             logcat { "App tracker detector is DISABLED" }
             return null
         }
 
         // `null` package ID means unknown app, return null to not block
-        val packageId = appNameResolver.getPackageIdForUid(uid) ?: return null
+        val uidVerdict = verdicts.uidVerdict(uid) ?: resolveUidVerdict(uid)?.also { verdicts.putUidVerdict(uid, it) } ?: return null
+        val packageId = uidVerdict.packageId
 
-        if (context.isDdgApp(packageId) || packageId.isInExclusionList()) {
+        if (uidVerdict.isExcluded) {
             logcat { "shouldAllowDomain: $packageId is excluded, allowing packet" }
             return null
         }
 
-        when (val type = appTrackerRepository.findTracker(domain, packageId)) {
-            AppTrackerType.NotTracker -> return null
-            is AppTrackerType.FirstParty -> return null
-            is AppTrackerType.ThirdParty -> {
-                if (isTrackerInExceptionRules(packageId = packageId, hostname = domain)) return null
-
-                val trackingApp = appNamesCache[packageId] ?: appNameResolver.getAppNameForPackageId(packageId)
-                appNamesCache.put(packageId, trackingApp)
-
-                // if the app name is unknown, do not block
-                if (trackingApp.isUnknown()) return null
+        val domainVerdict = verdicts.domainVerdict(uid, domain)
+            ?: resolveDomainVerdict(domain, packageId).also { verdicts.putDomainVerdict(uid, domain, it) }
 
+        return when (domainVerdict) {
+            DomainVerdict.Allowed -> null
+            is DomainVerdict.Blocked -> {
+                val tracker = domainVerdict.tracker
+                val trackingApp = domainVerdict.trackingApp
                 VpnTracker(
-                    trackerCompanyId = type.tracker.trackerCompanyId,
-                    company = type.tracker.owner.name,
-                    companyDisplayName = type.tracker.owner.displayName,
-                    domain = type.tracker.hostname,
+                    trackerCompanyId = tracker.trackerCompanyId,
+                    company = tracker.owner.name,
+                    companyDisplayName = tracker.owner.displayName,
+                    domain = tracker.hostname,
                     trackingApp = TrackingApp(trackingApp.packageId, trackingApp.appName),
                 ).run {
                     appTrackerRecorder.insertTracker(this)
                 }
-                return AppTrackerDetector.AppTracker(
-                    domain = type.tracker.hostname,
+                AppTrackerDetector.AppTracker(
+                    domain = tracker.hostname,
                     uid = uid,
-                    trackerCompanyDisplayName = type.tracker.owner.displayName,
+                    trackerCompanyDisplayName = tracker.owner.displayName,
                     trackingAppId = trackingApp.packageId,
                     trackingAppName = trackingApp.appName,
                 )
@@ -102,6 +108,35 @@ class RealAppTrackerDetector constructor(
         }
     }
 
+    private fun resolveUidVerdict(uid: Int): UidVerdict? {
+        val packageId = appNameResolver.getPackageIdForUid(uid) ?: return null
+        return UidVerdict(
+            packageId = packageId,
+            isExcluded = context.isDdgApp(packageId) || packageId.isInExclusionList(),
+        )
+    }
+
+    private fun resolveDomainVerdict(
+        domain: String,
+        packageId: String,
+    ): DomainVerdict {
+        when (val type = appTrackerRepository.findTracker(domain, packageId)) {
+            AppTrackerType.NotTracker -> return DomainVerdict.Allowed
+            is AppTrackerType.FirstParty -> return DomainVerdict.Allowed
+            is AppTrackerType.ThirdParty -> {
+                if (isTrackerInExceptionRules(packageId = packageId, hostname = domain)) return DomainVerdict.Allowed
+
+                val trackingApp = appNamesCache[packageId] ?: appNameResolver.getAppNameForPackageId(packageId)
+                appNamesCache.put(packageId, trackingApp)
+
+                // if the app name is unknown, do not block
+                if (trackingApp.isUnknown()) return DomainVerdict.Allowed
+
+                return DomainVerdict.Blocked(tracker = type.tracker, trackingApp = trackingApp)
+            }
+        }
+    }
+
     private fun isTrackerInExceptionRules(
         packageId: String,
         hostname: String,
@@ -140,6 +175,7 @@ object AppTrackerDetectorModule {
         packageManager: PackageManager,
         vpnFeaturesRegistry: VpnFeaturesRegistry,
         context: Context,
+        verdictCache: AppTrackerVerdictCache,
     ): AppTrackerDetector {
         return RealAppTrackerDetector(
             appTrackerRepository = appTrackerRepository,
@@ -149,6 +185,7 @@ object AppTrackerDetectorModule {
             packageManager = packageManager,
             vpnFeaturesRegistry = vpnFeaturesRegistry,
             context = context,
+            verdictCache = verdictCache,
         )
     }
 }
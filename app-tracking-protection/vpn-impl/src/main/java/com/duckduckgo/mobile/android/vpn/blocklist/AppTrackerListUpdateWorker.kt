@@ -32,6 +32,7 @@ import com.duckduckgo.mobile.android.vpn.di.AppTpBlocklistUpdateMutex
 import com.duckduckgo.mobile.android.vpn.pixels.DeviceShieldPixels
 import com.duckduckgo.mobile.android.vpn.store.VpnDatabase
 import com.duckduckgo.mobile.android.vpn.trackers.AppTrackerMetadata
+import com.duckduckgo.mobile.android.vpn.trackers.AppTrackerRepository
 import com.squareup.anvil.annotations.ContributesMultibinding
 import kotlinx.coroutines.sync.Mutex
 import kotlinx.coroutines.sync.withLock
@@ -50,6 +51,9 @@ class AppTrackerListUpdateWorker(context: Context, workerParameters: WorkerParam
     @Inject
     lateinit var vpnDatabase: VpnDatabase
 
+    @Inject
+    lateinit var appTrackerRepository: AppTrackerRepository
+
     @Inject
     lateinit var dispatchers: DispatcherProvider
 
@@ -111,6 +115,7 @@ class AppTrackerListUpdateWorker(context: Context, workerParameters: WorkerParam
                         AppTrackerMetadata(eTag = blocklist.etag.value),
                         blocklist.entities,
                     )
+                appTrackerRepository.reloadTrackerBlocklist()
 
                 return Result.success()
             }
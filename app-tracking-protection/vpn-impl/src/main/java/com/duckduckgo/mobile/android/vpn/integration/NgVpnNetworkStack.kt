@@ -193,9 +193,20 @@ class NgVpnNetworkStack @Inject constructor(
         logcat { "dnsResolved called for $dnsRR" }
     }
 
+    override fun onDnsResolved(batch: DnsRRBatch) {
+        for (index in 0 until batch.size) {
+            addressLookupLruCache.put(batch.resource(index), batch.qName(index))
+        }
+        logcat { "dnsResolved called for ${batch.size} records" }
+    }
+
     override fun isDomainBlocked(domainRR: DomainRR): Boolean {
-        logcat { "isDomainBlocked for $domainRR" }
-        return !shouldAllowDomain(domainRR.name, domainRR.uid)
+        return isDomainBlocked(domainRR.name, domainRR.uid)
+    }
+
+    override fun isDomainBlocked(name: String, uid: Int): Boolean {
+        logcat { "isDomainBlocked for $name ($uid)" }
+        return !shouldAllowDomain(name, uid)
     }
 
     override fun reportTLSParsingError(errorCode: Int) {
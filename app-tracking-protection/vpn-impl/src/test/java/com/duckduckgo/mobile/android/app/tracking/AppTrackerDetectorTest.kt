@@ -36,6 +36,8 @@ import org.junit.runner.RunWith
 import org.mockito.kotlin.any
 import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.verifyNoInteractions
 import org.mockito.kotlin.whenever
 
@@ -47,6 +49,7 @@ class AppTrackerDetectorTest {
     private val vpnAppTrackerBlockingDao: VpnAppTrackerBlockingDao = mock()
     private val packageManager: PackageManager = mock()
     private val vpnFeaturesRegistry: VpnFeaturesRegistry = mock()
+    private val verdictCache = AppTrackerVerdictCache(appTrackerRepository, mock(), mock())
 
     private lateinit var appTrackerDetector: AppTrackerDetector
 
@@ -66,6 +69,7 @@ class AppTrackerDetectorTest {
             packageManager,
             vpnFeaturesRegistry,
             InstrumentationRegistry.getInstrumentation().targetContext,
+            verdictCache,
         )
     }
 
@@ -345,6 +349,7 @@ class AppTrackerDetectorTest {
             packageManager,
             vpnFeaturesRegistry,
             InstrumentationRegistry.getInstrumentation().targetContext,
+            verdictCache,
         )
 
         assertNull(appTrackerDetectorDisabled.evaluate(TEST_APP_TRACKER.hostname, APP_UID))
@@ -353,6 +358,41 @@ class AppTrackerDetectorTest {
         verifyNoInteractions(appTrackerRepository)
     }
 
+    @Test
+    fun whenEvaluateSameTrackerTwiceThenResolveOnceAndRecordTwice() {
+        whenever(appTrackerRepository.findTracker(TEST_APP_TRACKER.hostname, APP_PACKAGE_ID))
+            .thenReturn(AppTrackerType.ThirdParty(TEST_APP_TRACKER))
+        whenever(appNameResolver.getPackageIdForUid(APP_UID)).thenReturn(APP_ORIGINATING_APP.packageId)
+        whenever(vpnAppTrackerBlockingDao.getRuleByTrackerDomain(TEST_APP_TRACKER.hostname)).thenReturn(null)
+
+        val first = appTrackerDetector.evaluate(TEST_APP_TRACKER.hostname, APP_UID)
+        val second = appTrackerDetector.evaluate(TEST_APP_TRACKER.hostname, APP_UID)
+
+        assertEquals(first, second)
+        verify(appTrackerRepository).findTracker(TEST_APP_TRACKER.hostname, APP_PACKAGE_ID)
+        verify(appTrackerRepository).getAppExclusionList()
+        verify(appNameResolver).getPackageIdForUid(APP_UID)
+        verify(vpnAppTrackerBlockingDao).getRuleByTrackerDomain(TEST_APP_TRACKER.hostname)
+        verify(appTrackerRecorder, times(2)).insertTracker(any())
+    }
+
+    @Test
+    fun whenVerdictCacheInvalidatedThenEvaluateAgainstNewState() {
+        whenever(appTrackerRepository.findTracker(TEST_APP_TRACKER.hostname, APP_PACKAGE_ID))
+            .thenReturn(AppTrackerType.ThirdParty(TEST_APP_TRACKER))
+        whenever(appNameResolver.getPackageIdForUid(APP_UID)).thenReturn(APP_ORIGINATING_APP.packageId)
+        whenever(vpnAppTrackerBlockingDao.getRuleByTrackerDomain(TEST_APP_TRACKER.hostname)).thenReturn(null)
+
+        assertEquals(TEST_APP_TRACKER.hostname, appTrackerDetector.evaluate(TEST_APP_TRACKER.hostname, APP_UID)?.domain)
+
+        whenever(appTrackerRepository.getManualAppExclusionList()).thenReturn(
+            listOf(AppTrackerManualExcludedApp(APP_PACKAGE_ID, false)),
+        )
+        verdictCache.invalidate()
+
+        assertNull(appTrackerDetector.evaluate(TEST_APP_TRACKER.hostname, APP_UID))
+    }
+
     @Test
     fun whenNullPackageIdThenEvaluateReturnsNull() {
         whenever(appNameResolver.getPackageIdForUid(APP_UID)).thenReturn(null)
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.mobile.android.app.tracking
+
+import com.duckduckgo.common.test.CoroutineTestRule
+import com.duckduckgo.mobile.android.vpn.dao.VpnAppTrackerBlockingDao
+import com.duckduckgo.mobile.android.vpn.dao.VpnAppTrackerSystemAppsOverridesDao
+import com.duckduckgo.mobile.android.vpn.state.VpnStateMonitor.VpnStopReason
+import com.duckduckgo.mobile.android.vpn.store.VpnDatabase
+import com.duckduckgo.mobile.android.vpn.trackers.AppTrackerRepository
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.emptyFlow
+import org.junit.Assert.assertNotSame
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+class AppTrackerVerdictCacheTest {
+
+    @get:Rule
+    val coroutineRule = CoroutineTestRule()
+
+    private val appTrackerRepository: AppTrackerRepository = mock()
+    private val vpnDatabase: VpnDatabase = mock()
+    private val blockingDao: VpnAppTrackerBlockingDao = mock()
+    private val systemAppsOverridesDao: VpnAppTrackerSystemAppsOverridesDao = mock()
+    private val blocklistSizeFlow = MutableSharedFlow<Int>(extraBufferCapacity = 1)
+
+    private val testee = AppTrackerVerdictCache(appTrackerRepository, vpnDatabase, coroutineRule.testDispatcherProvider)
+
+    @Before
+    fun setup() {
+        whenever(appTrackerRepository.getAppExclusionListFlow()).thenReturn(emptyFlow())
+        whenever(appTrackerRepository.getManualAppExclusionListFlow()).thenReturn(emptyFlow())
+        whenever(vpnDatabase.vpnAppTrackerBlockingDao()).thenReturn(blockingDao)
+        whenever(vpnDatabase.vpnSystemAppsOverridesDao()).thenReturn(systemAppsOverridesDao)
+        whenever(systemAppsOverridesDao.getSystemAppOverridesFlow()).thenReturn(emptyFlow())
+        whenever(blockingDao.getTrackerExceptionRulesFlow()).thenReturn(emptyFlow())
+        whenever(blockingDao.getTrackerBlockListSizeFlow()).thenReturn(blocklistSizeFlow)
+    }
+
+    @Test
+    fun whenBlocklistChangesThenIndexReloadedAndVerdictsInvalidated() {
+        testee.onVpnStarted(coroutineRule.testScope)
+        val verdicts = testee.verdicts()
+
+        blocklistSizeFlow.tryEmit(100)
+
+        verify(appTrackerRepository).reloadTrackerBlocklist()
+        assertNotSame(verdicts, testee.verdicts())
+
+        testee.onVpnStopped(coroutineRule.testScope, VpnStopReason.SELF_STOP())
+    }
+
+    @Test
+    fun whenBlocklistChangesAfterVpnStoppedThenIndexNotReloaded() {
+        testee.onVpnStarted(coroutineRule.testScope)
+        testee.onVpnStopped(coroutineRule.testScope, VpnStopReason.SELF_STOP())
+
+        blocklistSizeFlow.tryEmit(100)
+
+        verify(appTrackerRepository, times(0)).reloadTrackerBlocklist()
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.mobile.android.vpn.integration
+
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.duckduckgo.common.test.CoroutineTestRule
+import com.duckduckgo.mobile.android.app.tracking.AppTrackerDetector
+import com.duckduckgo.mobile.android.vpn.network.FakeDnsProvider
+import com.duckduckgo.vpn.network.api.DnsRR
+import com.duckduckgo.vpn.network.api.DnsRRBatch
+import com.duckduckgo.vpn.network.api.DomainRR
+import org.junit.Ignore
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.kotlin.mock
+
+/**
+ * Throughput microbenchmark for the [NgVpnNetworkStack] network callbacks, driven with synthetic events.
+ *
+ * Compares the per-event callbacks (one [DnsRR] / [DomainRR] allocated per event) against the batched DNS callback and the
+ * allocation-free `isDomainBlocked(name, uid)` overload.
+ *
+ * Not part of the regular test suite — the @Test method is @Ignore'd. To run, remove the @Ignore annotation, then:
+ *
+ *   ./gradlew :vpn-impl:testDebugUnitTest \
+ *     --tests "com.duckduckgo.mobile.android.vpn.integration.NgVpnNetworkStackBenchmark" \
+ *     --info
+ */
+@Ignore("Microbenchmark — remove this annotation and run with --info to see results")
+@RunWith(AndroidJUnit4::class)
+class NgVpnNetworkStackBenchmark {
+
+    @get:Rule
+    val coroutineRule = CoroutineTestRule()
+
+    private val appTrackerDetector = object : AppTrackerDetector {
+        override fun evaluate(domain: String, uid: Int): AppTrackerDetector.AppTracker? = null
+    }
+
+    private val qNames = Array(EVENTS) { "host$it.example.com" }
+    private val resources = Array(EVENTS) { "10.0.${it / 256}.${it % 256}" }
+
+    @Test
+    fun benchmarkPerEventVsBatched() {
+        val stack = NgVpnNetworkStack(
+            mock(),
+            { mock() },
+            mock(),
+            appTrackerDetector,
+            mock(),
+            mock(),
+            mock(),
+            coroutineRule.testScope,
+            coroutineRule.testDispatcherProvider,
+            FakeDnsProvider(),
+        )
+        val batch = ArrayDnsBatch(BATCH_SIZE)
+
+        repeat(WARMUP_ITERATIONS) {
+            dnsPerEvent(stack)
+            dnsBatched(stack, batch)
+            domainPerEvent(stack)
+            domainPrimitive(stack)
+        }
+
+        val dnsPerEvent = measureNanos { dnsPerEvent(stack) }
+        val dnsBatched = measureNanos { dnsBatched(stack, batch) }
+        val domainPerEvent = measureNanos { domainPerEvent(stack) }
+        val domainPrimitive = measureNanos { domainPrimitive(stack) }
+
+        val totalEvents = (MEASUREMENT_ITERATIONS * EVENTS).toLong()
+        println("===== NgVpnNetworkStack callback throughput =====")
+        println("Events per path:                 $totalEvents")
+        println("onDnsResolved(DnsRR):            ${dnsPerEvent / totalEvents} ns/event")
+        println("onDnsResolved(batch of $BATCH_SIZE):    ${dnsBatched / totalEvents} ns/event")
+        println("isDomainBlocked(DomainRR):       ${domainPerEvent / totalEvents} ns/event")
+        println("isDomainBlocked(name, uid):      ${domainPrimitive / totalEvents} ns/event")
+        println("=================================================")
+    }
+
+    private fun dnsPerEvent(stack: NgVpnNetworkStack) {
+        for (i in 0 until EVENTS) {
+            stack.onDnsResolved(DnsRR(0, qNames[i], qNames[i], resources[i], 60))
+        }
+    }
+
+    private fun dnsBatched(stack: NgVpnNetworkStack, batch: ArrayDnsBatch) {
+        for (i in 0 until EVENTS) {
+            batch.add(qNames[i], resources[i])
+            if (batch.size == BATCH_SIZE) {
+                stack.onDnsResolved(batch)
+                batch.size = 0
+            }
+        }
+    }
+
+    private fun domainPerEvent(stack: NgVpnNetworkStack) {
+        for (i in 0 until EVENTS) {
+            stack.isDomainBlocked(DomainRR(qNames[i], UID))
+        }
+    }
+
+    private fun domainPrimitive(stack: NgVpnNetworkStack) {
+        for (i in 0 until EVENTS) {
+            stack.isDomainBlocked(qNames[i], UID)
+        }
+    }
+
+    private inline fun measureNanos(block: () -> Unit): Long {
+        val start = System.nanoTime()
+        repeat(MEASUREMENT_ITERATIONS) { block() }
+        return System.nanoTime() - start
+    }
+
+    private class ArrayDnsBatch(capacity: Int) : DnsRRBatch {
+        private val qNames = arrayOfNulls<String>(capacity)
+        private val resources = arrayOfNulls<String>(capacity)
+        override var size: Int = 0
+
+        fun add(qName: String, resource: String) {
+            qNames[size] = qName
+            resources[size] = resource
+            size++
+        }
+
+        override fun time(index: Int): Long = 0
+        override fun qName(index: Int): String = qNames[index]!!
+        override fun aName(index: Int): String = qNames[index]!!
+        override fun resource(index: Int): String = resources[index]!!
+        override fun ttl(index: Int): Int = 60
+    }
+
+    companion object {
+        private const val EVENTS = 4_096
+        private const val BATCH_SIZE = 32
+        private const val UID = 10_123
+        private const val WARMUP_ITERATIONS = 5
+        private const val MEASUREMENT_ITERATIONS = 200
+    }
+}
@@ -341,6 +341,30 @@ class NgVpnNetworkStackTest {
         Assert.assertFalse(ngVpnNetworkStack.isAddressBlocked(AddressRR("1.1.1.1", uid)))
     }
 
+    @Test
+    fun whenIsDomainBlockedAndDomainIsTrackerThenReturnTrue() {
+        val uid = 1200
+        val tracker = AppTrackerDetector.AppTracker(
+            TRACKER_HOSTNAME,
+            uid,
+            "AppDisplayName",
+            "app.package.name",
+            "AppName",
+        )
+        whenever(appTrackerDetector.evaluate(TRACKER_HOSTNAME, uid)).thenReturn(tracker)
+
+        assertTrue(ngVpnNetworkStack.isDomainBlocked(TRACKER_HOSTNAME, uid))
+        assertTrue(ngVpnNetworkStack.isDomainBlocked(DomainRR(TRACKER_HOSTNAME, uid)))
+    }
+
+    @Test
+    fun whenIsDomainBlockedAndDomainIsNotTrackerThenReturnFalse() {
+        val uid = 1200
+        whenever(appTrackerDetector.evaluate(TRACKER_HOSTNAME, uid)).thenReturn(null)
+
+        assertFalse(ngVpnNetworkStack.isDomainBlocked(TRACKER_HOSTNAME, uid))
+    }
+
     private fun createDnsRecord(
         domain: String,
         address: String,
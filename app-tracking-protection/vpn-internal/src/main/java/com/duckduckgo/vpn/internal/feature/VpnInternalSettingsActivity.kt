@@ -46,6 +46,7 @@ import com.duckduckgo.vpn.internal.databinding.ActivityVpnInternalSettingsBindin
 import com.duckduckgo.vpn.internal.feature.bugreport.VpnBugReporter
 import com.duckduckgo.vpn.internal.feature.logs.DebugLoggingReceiver
 import com.duckduckgo.vpn.internal.feature.logs.LoggingExtensions
+import com.duckduckgo.vpn.internal.feature.network.ConnectionOwnerCacheStatsStore
 import com.duckduckgo.vpn.internal.feature.rules.ExceptionRulesDebugActivity
 import com.duckduckgo.vpn.internal.feature.trackers.DeleteTrackersDebugReceiver
 import com.google.android.material.snackbar.Snackbar
@@ -53,6 +54,7 @@ import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.*
 import kotlinx.coroutines.isActive
 import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
 import javax.inject.Inject
 
 @InjectWith(
@@ -80,6 +82,9 @@ class VpnInternalSettingsActivity : DuckDuckGoActivity() {
     @Inject
     lateinit var edgeToEdgeHandler: EdgeToEdgeHandler
 
+    @Inject
+    lateinit var connectionOwnerCacheStatsStore: ConnectionOwnerCacheStatsStore
+
     private val binding: ActivityVpnInternalSettingsBinding by viewBinding()
     private var debugLoggingReceiver: DebugLoggingReceiver? = null
     private var installedApps: Sequence<ApplicationInfo> = emptySequence()
@@ -199,12 +204,22 @@ class VpnInternalSettingsActivity : DuckDuckGoActivity() {
                 val isEnabled = appTrackingProtection.isEnabled()
                 binding.debugLoggingToggle.isEnabled = isEnabled && !appBuildConfig.isDebug
                 binding.settingsInfo.isVisible = !isEnabled
+                updateConnectionOwnerCacheStats()
 
                 delay(1_000)
             }
         }
     }
 
+    private suspend fun updateConnectionOwnerCacheStats() {
+        val stats = withContext(dispatchers.io()) { connectionOwnerCacheStatsStore.stats }
+        val lookups = stats.hits + stats.misses
+        val hitRate = if (lookups > 0) stats.hits * 100 / lookups else 0
+        binding.connectionOwnerUidCacheStats.setSecondaryText(
+            "hits=${stats.hits} misses=${stats.misses} hit rate=$hitRate% entries=${stats.size}",
+        )
+    }
+
     private fun setupDeleteTrackingHistory() {
         binding.deleteTrackingHistory.setOnClickListener {
             sendBroadcast(DeleteTrackersDebugReceiver.createIntent())
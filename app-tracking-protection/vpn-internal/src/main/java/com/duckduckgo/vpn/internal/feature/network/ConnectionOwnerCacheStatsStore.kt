@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.vpn.internal.feature.network
+
+import android.content.SharedPreferences
+import androidx.core.content.edit
+import com.duckduckgo.common.utils.ConflatedJob
+import com.duckduckgo.common.utils.DispatcherProvider
+import com.duckduckgo.data.store.api.SharedPreferencesProvider
+import com.duckduckgo.di.scopes.AppScope
+import com.duckduckgo.di.scopes.VpnScope
+import com.duckduckgo.mobile.android.vpn.service.VpnServiceCallbacks
+import com.duckduckgo.mobile.android.vpn.state.VpnStateMonitor.VpnStopReason
+import com.duckduckgo.vpn.network.api.ConnectionOwnerCacheStats
+import com.duckduckgo.vpn.network.api.VpnNetwork
+import com.squareup.anvil.annotations.ContributesBinding
+import com.squareup.anvil.annotations.ContributesMultibinding
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.isActive
+import kotlinx.coroutines.launch
+import javax.inject.Inject
+
+/**
+ * The connection owner UID cache lives in the :vpn process. This store is how its counters reach the internal settings
+ * screen in the main process.
+ */
+interface ConnectionOwnerCacheStatsStore {
+    var stats: ConnectionOwnerCacheStats
+}
+
+@ContributesBinding(AppScope::class)
+class RealConnectionOwnerCacheStatsStore @Inject constructor(
+    private val sharedPreferencesProvider: SharedPreferencesProvider,
+) : ConnectionOwnerCacheStatsStore {
+    private val prefs: SharedPreferences by lazy {
+        sharedPreferencesProvider.getSharedPreferences(FILENAME, multiprocess = true, migrate = false)
+    }
+
+    override var stats: ConnectionOwnerCacheStats
+        get() = ConnectionOwnerCacheStats(
+            hits = prefs.getLong(KEY_HITS, 0L),
+            misses = prefs.getLong(KEY_MISSES, 0L),
+            size = prefs.getInt(KEY_SIZE, 0),
+        )
+        set(value) {
+            prefs.edit {
+                putLong(KEY_HITS, value.hits)
+                putLong(KEY_MISSES, value.misses)
+                putInt(KEY_SIZE, value.size)
+            }
+        }
+
+    companion object {
+        private const val FILENAME = "com.duckduckgo.vpn.internal.feature.network.uid.cache.v1"
+        private const val KEY_HITS = "key_hits"
+        private const val KEY_MISSES = "key_misses"
+        private const val KEY_SIZE = "key_size"
+    }
+}
+
+@ContributesMultibinding(VpnScope::class)
+class ConnectionOwnerCacheStatsPublisher @Inject constructor(
+    private val vpnNetwork: VpnNetwork,
+    private val connectionOwnerCacheStatsStore: ConnectionOwnerCacheStatsStore,
+    private val dispatcherProvider: DispatcherProvider,
+) : VpnServiceCallbacks {
+
+    private val job = ConflatedJob()
+
+    override fun onVpnStarted(coroutineScope: CoroutineScope) {
+        job += coroutineScope.launch(dispatcherProvider.io()) {
+            while (isActive) {
+                connectionOwnerCacheStatsStore.stats = vpnNetwork.connectionOwnerCacheStats()
+                delay(PUBLISH_INTERVAL_MILLIS)
+            }
+        }
+    }
+
+    override fun onVpnStopped(
+        coroutineScope: CoroutineScope,
+        vpnStopReason: VpnStopReason,
+    ) {
+        job.cancel()
+    }
+
+    companion object {
+        private const val PUBLISH_INTERVAL_MILLIS = 5_000L
+    }
+}
@@ -50,6 +50,10 @@ class FakeAppTrackerRepository : AppTrackerRepository {
         }
     }
 
+    override fun reloadTrackerBlocklist() {
+        // noop
+    }
+
     override fun getAppExclusionList(): List<AppTrackerExcludedPackage> {
         return appExclusionList.map { AppTrackerExcludedPackage(it.key, it.value) }
     }
@@ -32,6 +32,9 @@ interface VpnAppTrackerBlockingDao {
     @Query("SELECT * FROM vpn_app_tracker_blocking_list WHERE :subdomain LIKE '%' || hostname LIMIT 1")
     fun getTrackerBySubdomain(subdomain: String): AppTracker?
 
+    @Query("SELECT * FROM vpn_app_tracker_blocking_list")
+    fun getTrackerBlocklist(): List<AppTracker>
+
     @Query("SELECT * from vpn_app_tracker_blocking_list_metadata ORDER BY id DESC LIMIT 1")
     fun getTrackerBlocklistMetadata(): AppTrackerMetadata?
 
@@ -47,6 +50,9 @@ interface VpnAppTrackerBlockingDao {
     @Query("SELECT COUNT(*) FROM vpn_app_tracker_blocking_list")
     fun getTrackerBlockListSize(): Int
 
+    @Query("SELECT COUNT(*) FROM vpn_app_tracker_blocking_list")
+    fun getTrackerBlockListSizeFlow(): Flow<Int>
+
     @Query("DELETE FROM vpn_app_tracker_blocking_app_packages")
     fun deleteAppPackages()
 
@@ -85,6 +91,9 @@ interface VpnAppTrackerBlockingDao {
     @Query("SELECT * from vpn_app_tracker_blocking_app_packages where packageName=:packageName")
     fun getEntityByAppPackageId(packageName: String): AppTrackerPackage?
 
+    @Query("SELECT * from vpn_app_tracker_blocking_app_packages")
+    fun getAppPackages(): List<AppTrackerPackage>
+
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     fun insertExclusionList(exclusionList: List<AppTrackerExcludedPackage>)
 
@@ -23,6 +23,7 @@ import androidx.room.Query
 import androidx.room.Transaction
 import com.duckduckgo.mobile.android.vpn.trackers.AppTrackerSystemAppOverrideListMetadata
 import com.duckduckgo.mobile.android.vpn.trackers.AppTrackerSystemAppOverridePackage
+import kotlinx.coroutines.flow.Flow
 
 @Dao
 interface VpnAppTrackerSystemAppsOverridesDao {
@@ -43,6 +44,9 @@ interface VpnAppTrackerSystemAppsOverridesDao {
     @Query("SELECT * FROM vpn_app_tracker_system_app_override_list")
     fun getSystemAppOverrides(): List<AppTrackerSystemAppOverridePackage>
 
+    @Query("SELECT * FROM vpn_app_tracker_system_app_override_list")
+    fun getSystemAppOverridesFlow(): Flow<List<AppTrackerSystemAppOverridePackage>>
+
     @Query("SELECT * from vpn_app_tracker_system_app_override_list_metadata ORDER BY id DESC LIMIT 1")
     fun getSystemAppOverridesMetadata(): AppTrackerSystemAppOverrideListMetadata?
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.mobile.android.vpn.trackers
+
+import java.util.Locale
+
+/**
+ * Immutable in-memory snapshot of the app tracker blocklist.
+ *
+ * Trackers are keyed by hostname and looked up walking the labels of the requested hostname from the most to the least specific
+ * suffix, eg. `a.b.tracker.com` -> `b.tracker.com` -> `tracker.com` -> `com`. A lookup costs one hash probe per label and never
+ * touches the database.
+ */
+class AppTrackerBlocklistIndex private constructor(
+    private val trackerByHostname: Map<String, AppTracker>,
+    private val entityNameByPackage: Map<String, String>,
+) {
+
+    val size: Int
+        get() = trackerByHostname.size
+
+    fun findTracker(hostname: String): AppTracker? {
+        if (hostname.isEmpty()) return null
+        var candidate: String = hostname.lowercase(Locale.ROOT)
+        while (true) {
+            trackerByHostname[candidate]?.let { return it }
+            val dot = candidate.indexOf('.')
+            if (dot < 0) return null
+            candidate = candidate.substring(dot + 1)
+        }
+    }
+
+    fun entityNameForPackage(packageName: String): String? {
+        return entityNameByPackage[packageName]
+    }
+
+    companion object {
+        val EMPTY = AppTrackerBlocklistIndex(emptyMap(), emptyMap())
+
+        fun build(
+            trackers: List<AppTracker>,
+            appPackages: List<AppTrackerPackage>,
+        ): AppTrackerBlocklistIndex {
+            val trackerByHostname = HashMap<String, AppTracker>(trackers.size * 2)
+            trackers.forEach { tracker ->
+                trackerByHostname[tracker.hostname.lowercase(Locale.ROOT)] = tracker
+            }
+            val entityNameByPackage = HashMap<String, String>(appPackages.size * 2)
+            appPackages.forEach { entityNameByPackage[it.packageName] = it.entityName }
+
+            return AppTrackerBlocklistIndex(trackerByHostname, entityNameByPackage)
+        }
+    }
+}
@@ -28,6 +28,12 @@ interface AppTrackerRepository {
         packageName: String,
     ): AppTrackerType
 
+    /**
+     * Rebuilds the in-memory blocklist index from the database. Call after a new blocklist has been stored, including the
+     * bundled one the database is pre-populated with.
+     */
+    fun reloadTrackerBlocklist()
+
     fun getAppExclusionList(): List<AppTrackerExcludedPackage>
 
     fun getAppExclusionListFlow(): Flow<List<AppTrackerExcludedPackage>>
@@ -52,12 +58,16 @@ class RealAppTrackerRepository(
     private val vpnSystemAppsOverrides: VpnAppTrackerSystemAppsOverridesDao,
 ) : AppTrackerRepository {
 
+    @Volatile
+    private var blocklistIndex: AppTrackerBlocklistIndex? = null
+
     override fun findTracker(
         hostname: String,
         packageName: String,
     ): AppTrackerType {
-        val tracker = vpnAppTrackerBlockingDao.getTrackerBySubdomain(hostname) ?: return AppTrackerType.NotTracker
-        val entityName = vpnAppTrackerBlockingDao.getEntityByAppPackageId(packageName)
+        val index = blocklistIndex()
+        val tracker = index.findTracker(hostname) ?: return AppTrackerType.NotTracker
+        val entityName = index.entityNameForPackage(packageName)
         if (firstPartyTracker(tracker, entityName)) {
             return AppTrackerType.FirstParty(tracker)
         }
@@ -65,12 +75,31 @@ class RealAppTrackerRepository(
         return AppTrackerType.ThirdParty(tracker)
     }
 
+    override fun reloadTrackerBlocklist() {
+        blocklistIndex = loadBlocklistIndex()
+    }
+
+    private fun blocklistIndex(): AppTrackerBlocklistIndex {
+        blocklistIndex?.let { return it }
+
+        // an empty index is cached too: the blocklist is pre-populated asynchronously when the database is created, and
+        // that change reloads the index like any other blocklist change does
+        return loadBlocklistIndex().also { blocklistIndex = it }
+    }
+
+    private fun loadBlocklistIndex(): AppTrackerBlocklistIndex {
+        return AppTrackerBlocklistIndex.build(
+            trackers = vpnAppTrackerBlockingDao.getTrackerBlocklist(),
+            appPackages = vpnAppTrackerBlockingDao.getAppPackages(),
+        )
+    }
+
     private fun firstPartyTracker(
         tracker: AppTracker,
-        entityName: AppTrackerPackage?,
+        entityName: String?,
     ): Boolean {
         if (entityName == null) return false
-        return tracker.owner.name == entityName.entityName
+        return tracker.owner.name == entityName
     }
 
     override fun getAppExclusionList(): List<AppTrackerExcludedPackage> {
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.mobile.android.vpn.trackers
+
+import androidx.room.Room
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import com.duckduckgo.mobile.android.vpn.store.R
+import com.duckduckgo.mobile.android.vpn.store.VpnDatabase
+import com.squareup.moshi.Moshi
+import org.junit.After
+import org.junit.Before
+import org.junit.Ignore
+import org.junit.Test
+import org.junit.runner.RunWith
+import kotlin.random.Random
+
+/**
+ * Microbenchmark comparing the SQL `LIKE` suffix scan ([com.duckduckgo.mobile.android.vpn.dao.VpnAppTrackerBlockingDao.getTrackerBySubdomain])
+ * against the in-memory [AppTrackerBlocklistIndex], using the app tracker blocklist bundled in the app
+ * (`R.raw.full_app_trackers_blocklist`).
+ *
+ * Not part of the regular test suite — the @Test method is @Ignore'd. To run, remove the @Ignore annotation, then:
+ *
+ *   ./gradlew :vpn-store:testDebugUnitTest \
+ *     --tests "com.duckduckgo.mobile.android.vpn.trackers.AppTrackerBlocklistBenchmark" \
+ *     --info
+ *
+ * Hostname mix: 90% non-tracker hosts, 10% tracker hosts (half exact, half `cdn.<tracker>` subdomains).
+ */
+@Ignore("Microbenchmark — remove this annotation and run with --info to see results")
+@RunWith(AndroidJUnit4::class)
+class AppTrackerBlocklistBenchmark {
+
+    private lateinit var vpnDatabase: VpnDatabase
+    private lateinit var blocklist: AppTrackerBlocklist
+    private lateinit var hostnames: List<String>
+
+    @Before
+    fun setup() {
+        val context = InstrumentationRegistry.getInstrumentation().targetContext.applicationContext
+        val json = context.resources.openRawResource(R.raw.full_app_trackers_blocklist).bufferedReader().use { it.readText() }
+        blocklist = AppTrackerJsonParser.parseAppTrackerJson(Moshi.Builder().build(), json)
+
+        vpnDatabase = Room.inMemoryDatabaseBuilder(context, VpnDatabase::class.java).allowMainThreadQueries().build()
+        vpnDatabase.vpnAppTrackerBlockingDao().insertTrackerBlocklist(blocklist.trackers)
+        hostnames = buildHostnameMix(blocklist.trackers)
+    }
+
+    @After
+    fun tearDown() {
+        vpnDatabase.close()
+    }
+
+    @Test
+    fun benchmarkSqlVsIndex() {
+        val dao = vpnDatabase.vpnAppTrackerBlockingDao()
+        val index = AppTrackerBlocklistIndex.build(blocklist.trackers, blocklist.packages)
+
+        repeat(WARMUP_ITERATIONS) {
+            hostnames.forEach { dao.getTrackerBySubdomain(it) }
+            hostnames.forEach { index.findTracker(it) }
+        }
+
+        val sqlTotal = measureNanos { dao.getTrackerBySubdomain(it) }
+        val indexTotal = measureNanos { index.findTracker(it) }
+
+        val totalCalls = (MEASUREMENT_ITERATIONS * hostnames.size).toLong()
+        val sqlPerCall = sqlTotal / totalCalls
+        val indexPerCall = indexTotal / totalCalls
+
+        println("===== App tracker blocklist lookup microbenchmark =====")
+        println("Trackers in blocklist:  ${blocklist.trackers.size}")
+        println("Hostname mix size:      ${hostnames.size} (90% non-tracker, 10% tracker)")
+        println("Total calls per path:   $totalCalls")
+        println()
+        println("SQL LIKE scan:          $sqlPerCall ns/call")
+        println("In-memory index:        $indexPerCall ns/call")
+        if (indexPerCall > 0L) {
+            println("Speedup:                ${"%.1f".format(sqlPerCall.toDouble() / indexPerCall.toDouble())}x")
+        }
+        println("=======================================================")
+    }
+
+    private inline fun measureNanos(lookup: (String) -> Unit): Long {
+        val start = System.nanoTime()
+        repeat(MEASUREMENT_ITERATIONS) {
+            hostnames.forEach { lookup(it) }
+        }
+        return System.nanoTime() - start
+    }
+
+    private fun buildHostnameMix(trackers: List<AppTracker>): List<String> {
+        val random = Random(SEED)
+        val nonTracker = List(MIX_NON_TRACKER) { "api$it.nontracker.example" }
+        val trackerHosts = trackers.shuffled(random).take(MIX_TRACKER).mapIndexed { idx, tracker ->
+            if (idx % 2 == 0) tracker.hostname else "cdn.${tracker.hostname}"
+        }
+        return nonTracker + trackerHosts
+    }
+
+    companion object {
+        private const val MIX_NON_TRACKER = 180
+        private const val MIX_TRACKER = 20
+        private const val WARMUP_ITERATIONS = 5
+        private const val MEASUREMENT_ITERATIONS = 50
+        private const val SEED = 42L
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.mobile.android.vpn.trackers
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+
+class AppTrackerBlocklistIndexTest {
+
+    private val index = AppTrackerBlocklistIndex.build(
+        trackers = listOf(
+            tracker("doubleclick.net", "Google"),
+            tracker("g.doubleclick.net", "Google Ads"),
+            tracker("facebook.com", "Facebook"),
+        ),
+        appPackages = listOf(AppTrackerPackage("com.facebook.katana", "Facebook")),
+    )
+
+    @Test
+    fun whenHostnameIsTrackerThenReturnTracker() {
+        assertEquals("facebook.com", index.findTracker("facebook.com")?.hostname)
+    }
+
+    @Test
+    fun whenSubdomainIsTrackerThenReturnMostSpecificTracker() {
+        assertEquals("g.doubleclick.net", index.findTracker("foo.g.doubleclick.net")?.hostname)
+        assertEquals("doubleclick.net", index.findTracker("ad.doubleclick.net")?.hostname)
+    }
+
+    @Test
+    fun whenHostnameHasDifferentCaseThenReturnTracker() {
+        assertEquals("facebook.com", index.findTracker("Graph.FACEBOOK.com")?.hostname)
+    }
+
+    @Test
+    fun whenHostnameIsNotTrackerThenReturnNull() {
+        assertNull(index.findTracker("not.tracker.net"))
+        assertNull(index.findTracker(""))
+    }
+
+    @Test
+    fun whenHostnameOnlySharesSuffixWithoutLabelBoundaryThenReturnNull() {
+        assertNull(index.findTracker("notfacebook.com"))
+    }
+
+    @Test
+    fun whenPackageIsKnownThenReturnEntityName() {
+        assertEquals("Facebook", index.entityNameForPackage("com.facebook.katana"))
+        assertNull(index.entityNameForPackage("com.example"))
+    }
+
+    private fun tracker(hostname: String, owner: String): AppTracker {
+        return AppTracker(
+            hostname = hostname,
+            trackerCompanyId = 1,
+            owner = TrackerOwner(name = owner, displayName = owner),
+            app = TrackerApp(score = 1, prevalence = 1.0),
+        )
+    }
+}
@@ -67,6 +67,25 @@ class AppTrackerRepositoryTest {
         assertNotTrackerType(appTrackerRepository.findTracker("not.tracker.net", ""))
     }
 
+    @Test
+    fun whenBlocklistStoredAfterEmptyIndexLoadedThenTrackerFoundOnceReloaded() {
+        val emptyDatabase = Room.inMemoryDatabaseBuilder(
+            InstrumentationRegistry.getInstrumentation().targetContext.applicationContext,
+            VpnDatabase::class.java,
+        ).allowMainThreadQueries().build()
+        val repository = RealAppTrackerRepository(emptyDatabase.vpnAppTrackerBlockingDao(), emptyDatabase.vpnSystemAppsOverridesDao())
+        assertNotTrackerType(repository.findTracker("tracker.com", ""))
+
+        emptyDatabase.vpnAppTrackerBlockingDao().insertTrackerBlocklist(
+            listOf(AppTracker("tracker.com", 1, TrackerOwner("Tracker", "Tracker"), TrackerApp(1, 1.0))),
+        )
+        assertNotTrackerType(repository.findTracker("tracker.com", ""))
+
+        repository.reloadTrackerBlocklist()
+        assertTrackerTypeFound(repository.findTracker("tracker.com", ""))
+        emptyDatabase.close()
+    }
+
     private fun assertTrackerTypeFound(tracker: AppTrackerType) {
         assertFalse(tracker is AppTrackerType.NotTracker)
     }
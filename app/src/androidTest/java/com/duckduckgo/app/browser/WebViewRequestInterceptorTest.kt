@@ -35,7 +35,7 @@ import com.duckduckgo.app.fakes.FakeMaliciousSiteBlockerWebViewIntegration
 import com.duckduckgo.app.fakes.UserAgentFake
 import com.duckduckgo.app.fakes.UserAllowListRepositoryFake
 import com.duckduckgo.app.pixels.remoteconfig.AndroidBrowserConfigFeature
-import com.duckduckgo.app.privacy.db.PrivacyProtectionCountDao
+import com.duckduckgo.app.privacy.db.PrivacyProtectionRecorder
 import com.duckduckgo.app.privacy.db.UserAllowListRepository
 import com.duckduckgo.app.statistics.model.Atb
 import com.duckduckgo.app.statistics.store.StatisticsDataStore
@@ -43,7 +43,6 @@ import com.duckduckgo.app.surrogates.ResourceSurrogates
 import com.duckduckgo.app.surrogates.SurrogateResponse
 import com.duckduckgo.app.trackerdetection.CloakedCnameDetector
 import com.duckduckgo.app.trackerdetection.db.WebTrackerBlocked
-import com.duckduckgo.app.trackerdetection.db.WebTrackersBlockedDao
 import com.duckduckgo.app.trackerdetection.model.Entity
 import com.duckduckgo.app.trackerdetection.model.TdsEntity
 import com.duckduckgo.app.trackerdetection.model.TrackerStatus
@@ -75,6 +74,8 @@ import org.junit.Test
 import org.mockito.ArgumentMatchers.anyMap
 import org.mockito.ArgumentMatchers.anyString
 import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
+import org.mockito.kotlin.argThat
 import org.mockito.kotlin.argumentCaptor
 import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
@@ -97,7 +98,7 @@ class WebViewRequestInterceptorTest {
     private val mockContentBlocking: ContentBlocking = mock()
     private val mockTrackerAllowlist: TrackerAllowlist = mock()
     private val mockUserAllowListRepository: UserAllowListRepository = mock()
-    private val mockPrivacyProtectionCountDao: PrivacyProtectionCountDao = mock()
+    private val mockPrivacyProtectionRecorder: PrivacyProtectionRecorder = mock()
     private val mockGpc: Gpc = mock()
     private val mockWebBackForwardList: WebBackForwardList = mock()
     private val mockAdClickManager: AdClickManager = mock()
@@ -117,7 +118,6 @@ class WebViewRequestInterceptorTest {
     )
     private var fakeMaliciousSiteBlockerWebViewIntegration: MaliciousSiteBlockerWebViewIntegration = FakeMaliciousSiteBlockerWebViewIntegration(true)
     private val fakeAndroidBrowserConfigFeature = FakeFeatureToggleFactory.create(AndroidBrowserConfigFeature::class.java)
-    private val mockWebTrackersBlockedDao: WebTrackersBlockedDao = mock()
 
     private var webView: WebView = mock()
 
@@ -131,7 +131,7 @@ class WebViewRequestInterceptorTest {
             trackerDetector = mockTrackerDetector,
             httpsUpgrader = mockHttpsUpgrader,
             resourceSurrogates = mockResourceSurrogates,
-            privacyProtectionCountDao = mockPrivacyProtectionCountDao,
+            privacyProtectionRecorder = mockPrivacyProtectionRecorder,
             gpc = mockGpc,
             userAgentProvider = userAgentProvider,
             adClickManager = mockAdClickManager,
@@ -147,7 +147,6 @@ class WebViewRequestInterceptorTest {
             appCoroutineScope = coroutinesTestRule.testScope,
             androidBrowserConfigFeature = fakeAndroidBrowserConfigFeature,
             isMainProcess = true,
-            webTrackersBlockedDao = mockWebTrackersBlockedDao,
         )
     }
 
@@ -202,7 +201,7 @@ class WebViewRequestInterceptorTest {
             trackerDetector = mockTrackerDetector,
             httpsUpgrader = mockHttpsUpgrader,
             resourceSurrogates = mockResourceSurrogates,
-            privacyProtectionCountDao = mockPrivacyProtectionCountDao,
+            privacyProtectionRecorder = mockPrivacyProtectionRecorder,
             gpc = mockGpc,
             userAgentProvider = userAgentProvider,
             adClickManager = mockAdClickManager,
@@ -218,7 +217,6 @@ class WebViewRequestInterceptorTest {
             appCoroutineScope = coroutinesTestRule.testScope,
             androidBrowserConfigFeature = fakeAndroidBrowserConfigFeature,
             isMainProcess = true,
-            webTrackersBlockedDao = mockWebTrackersBlockedDao,
         )
         testee.shouldIntercept(
             request = mockRequest,
@@ -692,7 +690,7 @@ class WebViewRequestInterceptorTest {
     }
 
     @Test
-    fun whenInterceptFromServiceWorkerAndDirectTrackerBlockedThenInsertIntoWebTrackersBlockedDao() = runTest {
+    fun whenInterceptFromServiceWorkerAndDirectTrackerBlockedThenRecordTrackerBlocked() = runTest {
         whenever(mockResourceSurrogates.get(any())).thenReturn(SurrogateResponse(responseAvailable = false))
         whenever(mockRequest.url).thenReturn("foo.com".toUri())
         whenever(mockRequest.requestHeaders).thenReturn(emptyMap())
@@ -703,18 +701,18 @@ class WebViewRequestInterceptorTest {
             documentUrl = "foo.com".toUri(),
         )
 
-        verify(mockWebTrackersBlockedDao).insert(any())
+        verify(mockPrivacyProtectionRecorder).recordTrackerBlocked(any())
     }
 
     @Test
-    fun whenInterceptFromServiceWorkerAndCloakedCnameTrackerBlockedThenInsertIntoWebTrackersBlockedDao() = runTest {
+    fun whenInterceptFromServiceWorkerAndCloakedCnameTrackerBlockedThenRecordTrackerBlocked() = runTest {
         whenever(mockRequest.requestHeaders).thenReturn(emptyMap())
         configureNull()
         configureBlockedCnameTrackingEvent(trackerUrl = "uncloaked-host.com")
 
         val uri = "host.com".toUri()
         whenever(mockRequest.url).thenReturn(uri)
-        whenever(mockCloakedCnameDetector.detectCnameCloakedHost(anyString(), any())).thenReturn("uncloaked-host.com")
+        whenever(mockCloakedCnameDetector.detectCnameCloakedHost(any<ParsedRequest>(), any<ParsedRequest>())).thenReturn("uncloaked-host.com")
 
         testee.shouldInterceptFromServiceWorker(
             request = mockRequest,
@@ -722,7 +720,7 @@ class WebViewRequestInterceptorTest {
         )
 
         val captor = argumentCaptor<WebTrackerBlocked>()
-        verify(mockWebTrackersBlockedDao).insert(captor.capture())
+        verify(mockPrivacyProtectionRecorder).recordTrackerBlocked(captor.capture())
         assertEquals("uncloaked-host.com", captor.firstValue.trackerUrl)
     }
 
@@ -767,7 +765,7 @@ class WebViewRequestInterceptorTest {
 
         val uri = "host.com".toUri()
         whenever(mockRequest.url).thenReturn(uri)
-        whenever(mockCloakedCnameDetector.detectCnameCloakedHost(anyString(), any())).thenReturn(null)
+        whenever(mockCloakedCnameDetector.detectCnameCloakedHost(any<ParsedRequest>(), any<ParsedRequest>())).thenReturn(null)
 
         val response = testee.shouldIntercept(
             request = mockRequest,
@@ -776,7 +774,7 @@ class WebViewRequestInterceptorTest {
             webViewClientListener = null,
         )
 
-        verify(mockCloakedCnameDetector).detectCnameCloakedHost("foo.com", uri)
+        verify(mockCloakedCnameDetector).detectCnameCloakedHost(argThat<ParsedRequest> { this.url == "foo.com" }, argThat { this.uri == uri })
         assertRequestCanContinueToLoad(response)
     }
 
@@ -788,7 +786,7 @@ class WebViewRequestInterceptorTest {
 
         val uri = "host.com".toUri()
         whenever(mockRequest.url).thenReturn(uri)
-        whenever(mockCloakedCnameDetector.detectCnameCloakedHost(anyString(), any())).thenReturn("uncloaked-host.com")
+        whenever(mockCloakedCnameDetector.detectCnameCloakedHost(any<ParsedRequest>(), any<ParsedRequest>())).thenReturn("uncloaked-host.com")
 
         val response = testee.shouldIntercept(
             request = mockRequest,
@@ -797,7 +795,7 @@ class WebViewRequestInterceptorTest {
             webViewClientListener = null,
         )
 
-        verify(mockCloakedCnameDetector).detectCnameCloakedHost("foo.com", uri)
+        verify(mockCloakedCnameDetector).detectCnameCloakedHost(argThat<ParsedRequest> { this.url == "foo.com" }, argThat { this.uri == uri })
         assertRequestCanContinueToLoad(response)
     }
 
@@ -807,7 +805,7 @@ class WebViewRequestInterceptorTest {
 
         val uri = "host.com".toUri()
         whenever(mockRequest.url).thenReturn(uri)
-        whenever(mockCloakedCnameDetector.detectCnameCloakedHost(anyString(), any())).thenReturn("uncloaked-host.com")
+        whenever(mockCloakedCnameDetector.detectCnameCloakedHost(any<ParsedRequest>(), any<ParsedRequest>())).thenReturn("uncloaked-host.com")
 
         val response = testee.shouldIntercept(
             request = mockRequest,
@@ -816,19 +814,19 @@ class WebViewRequestInterceptorTest {
             webViewClientListener = null,
         )
 
-        verify(mockCloakedCnameDetector).detectCnameCloakedHost("foo.com", uri)
+        verify(mockCloakedCnameDetector).detectCnameCloakedHost(argThat<ParsedRequest> { this.url == "foo.com" }, argThat { this.uri == uri })
         assertCancelledResponse(response)
     }
 
     @Test
-    fun whenCloakedCnameTrackerIsBlockedThenInsertIntoWebTrackersBlockedDaoWithUncloakedUrl() = runTest {
+    fun whenCloakedCnameTrackerIsBlockedThenRecordTrackerBlockedWithUncloakedUrl() = runTest {
         configureNull()
         configureShouldNotUpgrade()
         configureBlockedCnameTrackingEvent(trackerUrl = "uncloaked-host.com", entity = TdsEntity("Tracker Inc", "Tracker Inc", 10.0))
 
         val uri = "host.com".toUri()
         whenever(mockRequest.url).thenReturn(uri)
-        whenever(mockCloakedCnameDetector.detectCnameCloakedHost(anyString(), any())).thenReturn("uncloaked-host.com")
+        whenever(mockCloakedCnameDetector.detectCnameCloakedHost(any<ParsedRequest>(), any<ParsedRequest>())).thenReturn("uncloaked-host.com")
 
         testee.shouldIntercept(
             request = mockRequest,
@@ -838,7 +836,7 @@ class WebViewRequestInterceptorTest {
         )
 
         val captor = argumentCaptor<WebTrackerBlocked>()
-        verify(mockWebTrackersBlockedDao).insert(captor.capture())
+        verify(mockPrivacyProtectionRecorder).recordTrackerBlocked(captor.capture())
         assertEquals("uncloaked-host.com", captor.firstValue.trackerUrl)
         assertEquals("Tracker Inc", captor.firstValue.trackerCompany)
     }
@@ -863,7 +861,7 @@ class WebViewRequestInterceptorTest {
         configureShouldNotUpgrade()
         configureSubframeRequest()
         configureRequestInBlocklist()
-        whenever(mockContentBlocking.isAnException(anyString())).thenReturn(true)
+        whenever(mockContentBlocking.isAnException(anyString(), anyOrNull())).thenReturn(true)
         val response = testee.shouldIntercept(
             request = mockRequest,
             documentUri = "foo.com".toUri(),
@@ -879,7 +877,7 @@ class WebViewRequestInterceptorTest {
         configureShouldNotUpgrade()
         configureSubframeRequest()
         configureRequestInBlocklist()
-        whenever(mockTrackerAllowlist.isAnException(anyString(), anyString())).thenReturn(true)
+        whenever(mockTrackerAllowlist.isAnException(anyString(), anyOrNull(), anyString(), anyOrNull(), anyString())).thenReturn(true)
         val response = testee.shouldIntercept(
             request = mockRequest,
             documentUri = "foo.com".toUri(),
@@ -910,7 +908,7 @@ class WebViewRequestInterceptorTest {
     fun whenRequestIsNotInBlocklistThenContinueToLoad() = runTest {
         configureShouldNotUpgrade()
         configureSubframeRequest()
-        whenever(requestBlocklist.containedInBlocklist(any(), any())).thenReturn(false)
+        whenever(requestBlocklist.containedInBlocklist(any<ParsedRequest>(), any<ParsedRequest>())).thenReturn(false)
         val response = testee.shouldIntercept(
             request = mockRequest,
             documentUri = "foo.com".toUri(),
@@ -930,7 +928,7 @@ class WebViewRequestInterceptorTest {
     }
 
     private fun configureRequestInBlocklist() {
-        whenever(requestBlocklist.containedInBlocklist(any(), any())).thenReturn(true)
+        whenever(requestBlocklist.containedInBlocklist(any<ParsedRequest>(), any<ParsedRequest>())).thenReturn(true)
     }
 
     private fun configureShouldBlock() {
@@ -957,12 +955,13 @@ class WebViewRequestInterceptorTest {
         )
         whenever(mockRequest.isForMainFrame).thenReturn(false)
         whenever(mockTrackerDetector.evaluate(anyString(), any<Uri>(), eq(true), anyMap())).thenReturn(trackingEvent)
-        whenever(mockTrackerDetector.evaluate(any<Uri>(), any<Uri>(), eq(true), anyMap())).thenReturn(trackingEvent)
+        whenever(mockTrackerDetector.evaluate(any<ParsedRequest>(), any<ParsedRequest>(), eq(true), anyMap())).thenReturn(trackingEvent)
     }
 
     private fun configureNull() {
         whenever(mockRequest.isForMainFrame).thenReturn(false)
         whenever(mockTrackerDetector.evaluate(anyString(), any<Uri>(), eq(true), anyMap())).thenReturn(null)
+        whenever(mockTrackerDetector.evaluate(any<ParsedRequest>(), any<ParsedRequest>(), eq(true), anyMap())).thenReturn(null)
     }
 
     private fun configureBlockedCnameTrackingEvent(trackerUrl: String = "", entity: Entity? = null) {
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.app.global.startup
+
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.duckduckgo.app.getApp
+import com.duckduckgo.espresso.InternalPrivacyTest
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.util.concurrent.TimeUnit
+
+/**
+ * Fails when a span recorded while the app started took longer than its budget. Spans are only recorded on internal builds, so
+ * this runs in the internal build's Flank config, on emulators that are slower than the mid-range devices the budgets are for.
+ */
+@RunWith(AndroidJUnit4::class)
+class StartupSpanBudgetTest {
+
+    @Test
+    @InternalPrivacyTest
+    fun whenAppStartedThenNoStartupSpanIsOverBudget() {
+        val overBudget = getApp().startupTraces.spansOverBudget(EMULATOR_HEADROOM)
+
+        assertTrue(
+            "Start-up spans over budget: " +
+                overBudget.joinToString { "${it.name} on ${it.thread} took ${TimeUnit.NANOSECONDS.toMillis(it.durationNanos)}ms" },
+            overBudget.isEmpty(),
+        )
+    }
+
+    companion object {
+        // emulators run start-up several times slower than a mid-range device, and vary more between runs
+        private const val EMULATOR_HEADROOM = 4
+    }
+}
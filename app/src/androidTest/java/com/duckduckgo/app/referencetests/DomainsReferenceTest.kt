@@ -35,7 +35,7 @@ import com.duckduckgo.app.fakes.UserAgentFake
 import com.duckduckgo.app.fakes.UserAllowListRepositoryFake
 import com.duckduckgo.app.global.db.AppDatabase
 import com.duckduckgo.app.pixels.remoteconfig.AndroidBrowserConfigFeature
-import com.duckduckgo.app.privacy.db.PrivacyProtectionCountDao
+import com.duckduckgo.app.privacy.db.PrivacyProtectionRecorder
 import com.duckduckgo.app.privacy.db.UserAllowListRepository
 import com.duckduckgo.app.surrogates.ResourceSurrogateLoader
 import com.duckduckgo.app.surrogates.ResourceSurrogatesImpl
@@ -53,7 +53,6 @@ import com.duckduckgo.app.trackerdetection.api.TdsJson
 import com.duckduckgo.app.trackerdetection.db.TdsCnameEntityDao
 import com.duckduckgo.app.trackerdetection.db.TdsDomainEntityDao
 import com.duckduckgo.app.trackerdetection.db.TdsEntityDao
-import com.duckduckgo.app.trackerdetection.db.WebTrackersBlockedDao
 import com.duckduckgo.common.test.CoroutineTestRule
 import com.duckduckgo.common.test.FileUtilities
 import com.duckduckgo.feature.toggles.api.FakeFeatureToggleFactory
@@ -105,10 +104,9 @@ class DomainsReferenceTest(private val testCase: TestCase) {
     private val mockContentBlocking: ContentBlocking = mock()
     private val mockTrackerAllowlist: TrackerAllowlist = mock()
     private val mockRequestBlocklist: RequestBlocklist = mock()
-    private var mockWebTrackersBlockedDao: WebTrackersBlockedDao = mock()
     private var mockHttpsUpgrader: HttpsUpgrader = mock()
     private var mockRequest: WebResourceRequest = mock()
-    private val mockPrivacyProtectionCountDao: PrivacyProtectionCountDao = mock()
+    private val mockPrivacyProtectionRecorder: PrivacyProtectionRecorder = mock()
     private val mockRequestFilterer: RequestFilterer = mock()
     private val mockDuckPlayer: DuckPlayer = mock()
     private val mockUserAllowListRepository: UserAllowListRepository = mock()
@@ -176,7 +174,7 @@ class DomainsReferenceTest(private val testCase: TestCase) {
             trackerDetector = trackerDetector,
             httpsUpgrader = mockHttpsUpgrader,
             resourceSurrogates = resourceSurrogates,
-            privacyProtectionCountDao = mockPrivacyProtectionCountDao,
+            privacyProtectionRecorder = mockPrivacyProtectionRecorder,
             gpc = mockGpc,
             userAgentProvider = userAgentProvider,
             adClickManager = mockAdClickManager,
@@ -192,7 +190,6 @@ class DomainsReferenceTest(private val testCase: TestCase) {
             appCoroutineScope = coroutinesTestRule.testScope,
             androidBrowserConfigFeature = fakeAndroidBrowserConfigFeature,
             isMainProcess = true,
-            webTrackersBlockedDao = mockWebTrackersBlockedDao,
         )
     }
 
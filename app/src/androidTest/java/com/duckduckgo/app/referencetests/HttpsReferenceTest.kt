@@ -20,6 +20,7 @@ import androidx.core.net.toUri
 import androidx.room.Room
 import androidx.test.annotation.UiThreadTest
 import androidx.test.platform.app.InstrumentationRegistry
+import com.duckduckgo.app.browser.DomainSuffixSet
 import com.duckduckgo.app.privacy.db.UserAllowListRepository
 import com.duckduckgo.app.statistics.pixels.Pixel
 import com.duckduckgo.app.trackerdetection.api.ActionJsonAdapter
@@ -36,6 +37,7 @@ import com.duckduckgo.httpsupgrade.impl.HttpsBloomFilterFactoryImpl
 import com.duckduckgo.httpsupgrade.impl.HttpsDataPersister
 import com.duckduckgo.httpsupgrade.impl.HttpsFalsePositivesJsonAdapter
 import com.duckduckgo.httpsupgrade.impl.HttpsUpgraderImpl
+import com.duckduckgo.httpsupgrade.impl.RealHttpsFalsePositives
 import com.duckduckgo.httpsupgrade.store.HttpsBloomFilterSpec
 import com.duckduckgo.httpsupgrade.store.HttpsBloomFilterSpecDao
 import com.duckduckgo.httpsupgrade.store.HttpsFalsePositiveDomain
@@ -78,6 +80,7 @@ class HttpsReferenceTest(private val testCase: TestCase) {
 
     private lateinit var db: HttpsUpgradeDatabase
     private lateinit var bloomFalsePositiveDao: HttpsFalsePositivesDao
+    private lateinit var httpsFalsePositives: RealHttpsFalsePositives
     private lateinit var bloomFilterFactory: HttpsBloomFilterFactory
     private lateinit var httpsBloomFilterSpecDao: HttpsBloomFilterSpecDao
     private lateinit var https: Https
@@ -135,7 +138,7 @@ class HttpsReferenceTest(private val testCase: TestCase) {
         initialiseBloomFilter()
         initialiseRemoteConfig()
 
-        testee = HttpsUpgraderImpl(bloomFilterFactory, bloomFalsePositiveDao, toggle = mockFeatureToggle, https = https)
+        testee = HttpsUpgraderImpl(bloomFilterFactory, httpsFalsePositives, toggle = mockFeatureToggle, https = https)
         testee.reloadData()
     }
 
@@ -170,8 +173,10 @@ class HttpsReferenceTest(private val testCase: TestCase) {
         whenever(mockFeatureToggle.isFeatureEnabled(PrivacyFeatureName.HttpsFeatureName.value, isEnabled)).thenReturn(isEnabled)
         whenever(mockHttpsRepository.exceptions).thenReturn(CopyOnWriteArrayList(httpsExceptions))
         whenever(mockUnprotectedTemporaryRepository.exceptions).thenReturn(exceptionsUnprotectedTemporary)
+        whenever(mockUnprotectedTemporaryRepository.exceptionDomains)
+            .thenReturn(DomainSuffixSet.fromDomains(exceptionsUnprotectedTemporary.map { it.domain }))
 
-        https = RealHttps(mockHttpsRepository, RealUnprotectedTemporary(mockUnprotectedTemporaryRepository), mockUserAllowListRepository)
+        https = RealHttps(mockHttpsRepository, RealUnprotectedTemporary(mockUnprotectedTemporaryRepository), mockUserAllowListRepository, mock())
     }
 
     private fun initialiseBloomFilter() {
@@ -181,10 +186,11 @@ class HttpsReferenceTest(private val testCase: TestCase) {
             .build()
 
         bloomFalsePositiveDao = db.httpsFalsePositivesDao()
+        httpsFalsePositives = RealHttpsFalsePositives(bloomFalsePositiveDao)
         httpsBloomFilterSpecDao = db.httpsBloomFilterSpecDao()
 
         val binaryDataStore = BinaryDataStore(context)
-        val httpsDataPersister = HttpsDataPersister(binaryDataStore, httpsBloomFilterSpecDao, bloomFalsePositiveDao, db)
+        val httpsDataPersister = HttpsDataPersister(binaryDataStore, httpsBloomFilterSpecDao, bloomFalsePositiveDao, db, httpsFalsePositives)
 
         val embeddedDataPersister = TestHttpsEmbeddedDataPersister(
             httpsDataPersister,
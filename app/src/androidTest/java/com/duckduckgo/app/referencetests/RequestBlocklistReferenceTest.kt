@@ -28,6 +28,7 @@ import androidx.test.annotation.UiThreadTest
 import androidx.test.platform.app.InstrumentationRegistry
 import com.duckduckgo.adblocking.api.duckplayer.DuckPlayer
 import com.duckduckgo.adclick.api.AdClickManager
+import com.duckduckgo.app.browser.DomainSuffixSet
 import com.duckduckgo.app.browser.WebViewRequestInterceptor
 import com.duckduckgo.app.browser.useragent.provideUserAgentOverridePluginPoint
 import com.duckduckgo.app.browser.webview.MaliciousSiteBlockerWebViewIntegration
@@ -35,7 +36,7 @@ import com.duckduckgo.app.fakes.FakeMaliciousSiteBlockerWebViewIntegration
 import com.duckduckgo.app.fakes.UserAgentFake
 import com.duckduckgo.app.global.db.AppDatabase
 import com.duckduckgo.app.pixels.remoteconfig.AndroidBrowserConfigFeature
-import com.duckduckgo.app.privacy.db.PrivacyProtectionCountDao
+import com.duckduckgo.app.privacy.db.PrivacyProtectionRecorder
 import com.duckduckgo.app.privacy.db.RealUserAllowListRepository
 import com.duckduckgo.app.privacy.db.UserAllowListDao
 import com.duckduckgo.app.surrogates.ResourceSurrogateLoader
@@ -54,7 +55,6 @@ import com.duckduckgo.app.trackerdetection.api.TdsJson
 import com.duckduckgo.app.trackerdetection.db.TdsCnameEntityDao
 import com.duckduckgo.app.trackerdetection.db.TdsDomainEntityDao
 import com.duckduckgo.app.trackerdetection.db.TdsEntityDao
-import com.duckduckgo.app.trackerdetection.db.WebTrackersBlockedDao
 import com.duckduckgo.common.test.CoroutineTestRule
 import com.duckduckgo.common.test.FileUtilities
 import com.duckduckgo.feature.toggles.api.FakeFeatureToggleFactory
@@ -123,10 +123,9 @@ class RequestBlocklistReferenceTest(private val testCase: TestCase) {
     private val unprotectedTemporaryRepository: UnprotectedTemporaryRepository = mock()
     private val trackerAllowlistRepository: TrackerAllowlistRepository = mock()
     private lateinit var contentBlocking: RealContentBlocking
-    private var mockWebTrackersBlockedDao: WebTrackersBlockedDao = mock()
     private var mockHttpsUpgrader: HttpsUpgrader = mock()
     private var mockRequest: WebResourceRequest = mock()
-    private val mockPrivacyProtectionCountDao: PrivacyProtectionCountDao = mock()
+    private val mockPrivacyProtectionRecorder: PrivacyProtectionRecorder = mock()
     private val mockRequestFilterer: RequestFilterer = mock()
     private val mockDuckPlayer: DuckPlayer = mock()
     private val requestBlocklistFeature: RequestBlocklistFeature = FakeFeatureToggleFactory.create(RequestBlocklistFeature::class.java)
@@ -216,7 +215,7 @@ class RequestBlocklistReferenceTest(private val testCase: TestCase) {
             trackerDetector = trackerDetector,
             httpsUpgrader = mockHttpsUpgrader,
             resourceSurrogates = resourceSurrogates,
-            privacyProtectionCountDao = mockPrivacyProtectionCountDao,
+            privacyProtectionRecorder = mockPrivacyProtectionRecorder,
             gpc = mockGpc,
             userAgentProvider = userAgentProvider,
             adClickManager = mockAdClickManager,
@@ -232,7 +231,6 @@ class RequestBlocklistReferenceTest(private val testCase: TestCase) {
             androidBrowserConfigFeature = fakeAndroidBrowserConfigFeature,
             appCoroutineScope = coroutinesTestRule.testScope,
             isMainProcess = true,
-            webTrackersBlockedDao = mockWebTrackersBlockedDao,
         )
     }
 
@@ -358,10 +356,13 @@ class RequestBlocklistReferenceTest(private val testCase: TestCase) {
         }
 
         whenever(unprotectedTemporaryRepository.exceptions).thenReturn(CopyOnWriteArrayList(unprotectedTemporaryExceptions))
+        whenever(unprotectedTemporaryRepository.exceptionDomains)
+            .thenReturn(DomainSuffixSet.fromDomains(unprotectedTemporaryExceptions.map { it.domain }))
         val unprotectedTemporary = RealUnprotectedTemporary(unprotectedTemporaryRepository)
 
         whenever(contentBlockingRepository.exceptions).thenReturn(CopyOnWriteArrayList(contentBlockingExceptions))
-        contentBlocking = RealContentBlocking(contentBlockingRepository, fakeToggle, unprotectedTemporary)
+        whenever(contentBlockingRepository.exceptionDomains).thenReturn(DomainSuffixSet.fromDomains(contentBlockingExceptions.map { it.domain }))
+        contentBlocking = RealContentBlocking(contentBlockingRepository, fakeToggle, unprotectedTemporary, mock())
     }
 
     private fun setupTrackerAllowlist(configObject: JSONObject) {
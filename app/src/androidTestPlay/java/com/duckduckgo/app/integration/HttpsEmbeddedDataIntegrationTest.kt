@@ -27,6 +27,7 @@ import com.duckduckgo.httpsupgrade.impl.HttpsBloomFilterFactoryImpl
 import com.duckduckgo.httpsupgrade.impl.HttpsDataPersister
 import com.duckduckgo.httpsupgrade.impl.HttpsFalsePositivesJsonAdapter
 import com.duckduckgo.httpsupgrade.impl.HttpsUpgraderImpl
+import com.duckduckgo.httpsupgrade.impl.RealHttpsFalsePositives
 import com.duckduckgo.httpsupgrade.store.HttpsUpgradeDatabase
 import com.duckduckgo.httpsupgrade.store.PlayHttpsEmbeddedDataPersister
 import com.duckduckgo.privacy.config.api.Https
@@ -62,6 +63,7 @@ class HttpsEmbeddedDataIntegrationTest {
 
         val httpsBloomSpecDao = db.httpsBloomFilterSpecDao()
         val httpsFalsePositivesDao = db.httpsFalsePositivesDao()
+        val httpsFalsePositives = RealHttpsFalsePositives(httpsFalsePositivesDao)
         val binaryDataStore = BinaryDataStore(context)
 
         val persister = HttpsDataPersister(
@@ -69,13 +71,14 @@ class HttpsEmbeddedDataIntegrationTest {
             httpsBloomSpecDao,
             httpsFalsePositivesDao,
             db,
+            httpsFalsePositives,
         )
 
         val embeddedDataPersister = PlayHttpsEmbeddedDataPersister(persister, binaryDataStore, httpsBloomSpecDao, context, moshi)
 
         val context = InstrumentationRegistry.getInstrumentation().targetContext
         val factory = HttpsBloomFilterFactoryImpl(httpsBloomSpecDao, binaryDataStore, embeddedDataPersister, persister, mockPixel, context)
-        httpsUpgrader = HttpsUpgraderImpl(factory, httpsFalsePositivesDao, mockFeatureToggle, mockHttps)
+        httpsUpgrader = HttpsUpgraderImpl(factory, httpsFalsePositives, mockFeatureToggle, mockHttps)
         httpsUpgrader.reloadData()
     }
 
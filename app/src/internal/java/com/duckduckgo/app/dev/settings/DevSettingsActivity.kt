@@ -40,6 +40,8 @@ import com.duckduckgo.app.dev.settings.DevSettingsViewModel.Command.CustomTabs
 import com.duckduckgo.app.dev.settings.DevSettingsViewModel.Command.Notifications
 import com.duckduckgo.app.dev.settings.DevSettingsViewModel.Command.OpenUASelector
 import com.duckduckgo.app.dev.settings.DevSettingsViewModel.Command.SendTdsIntent
+import com.duckduckgo.app.dev.settings.DevSettingsViewModel.Command.ShareStartupTrace
+import com.duckduckgo.app.dev.settings.DevSettingsViewModel.Command.ShowStartupTasks
 import com.duckduckgo.app.dev.settings.DevSettingsViewModel.Command.Tabs
 import com.duckduckgo.app.dev.settings.customtabs.CustomTabsInternalSettingsActivity
 import com.duckduckgo.app.dev.settings.db.UAOverride
@@ -48,13 +50,16 @@ import com.duckduckgo.app.dev.settings.privacy.TrackerDataDevReceiver.Companion.
 import com.duckduckgo.app.dev.settings.tabs.DevTabsActivity
 import com.duckduckgo.common.ui.DuckDuckGoActivity
 import com.duckduckgo.common.ui.menu.PopupMenu
+import com.duckduckgo.common.ui.view.dialog.TextAlertDialogBuilder
 import com.duckduckgo.common.ui.viewbinding.viewBinding
 import com.duckduckgo.common.utils.edgetoedge.EdgeToEdgeHandler
 import com.duckduckgo.di.scopes.ActivityScope
 import com.duckduckgo.feature.toggles.api.Toggle
 import com.duckduckgo.privacy.config.internal.PrivacyConfigInternalSettingsActivity
+import com.duckduckgo.traces.api.StartupSpan
 import kotlinx.coroutines.flow.launchIn
 import kotlinx.coroutines.flow.onEach
+import java.util.concurrent.TimeUnit
 import javax.inject.Inject
 
 @InjectWith(ActivityScope::class)
@@ -113,6 +118,8 @@ class DevSettingsActivity : DuckDuckGoActivity() {
                 Thread.sleep(10000)
             }
         }
+        binding.startupTasks.setOnClickListener { viewModel.onStartupTasksClicked() }
+        binding.shareStartupTrace.setOnClickListener { viewModel.onShareStartupTraceClicked() }
         binding.overrideUserAgentSelector.setOnClickListener { viewModel.onUserAgentSelectorClicked() }
         binding.overridePrivacyRemoteConfigUrl.setOnClickListener { viewModel.onRemotePrivacyUrlClicked() }
         binding.customTabs.setOnClickListener { viewModel.customTabsClicked() }
@@ -148,6 +155,8 @@ class DevSettingsActivity : DuckDuckGoActivity() {
             Notifications -> showNotifications()
             Tabs -> showTabs()
             is Command.Toast -> showToast(it.message)
+            is ShowStartupTasks -> showStartupTasks(it.startupTasks)
+            is ShareStartupTrace -> shareStartupTrace(it.trace)
         }
     }
 
@@ -192,6 +201,31 @@ class DevSettingsActivity : DuckDuckGoActivity() {
         startActivity(DevTabsActivity.intent(this))
     }
 
+    private fun showStartupTasks(startupTasks: List<StartupSpan>) {
+        val message = if (startupTasks.isEmpty()) {
+            getString(R.string.devStartupTasksNone)
+        } else {
+            startupTasks.joinToString(separator = "\n") {
+                "${it.name}: ${TimeUnit.NANOSECONDS.toMillis(it.durationNanos)}ms " +
+                    "(cpu ${TimeUnit.NANOSECONDS.toMillis(it.cpuTimeNanos)}ms, ${it.thread})"
+            }
+        }
+        TextAlertDialogBuilder(this)
+            .setTitle(R.string.devStartupTasks)
+            .setMessage(message)
+            .setPositiveButton(R.string.devStartupTasksClose)
+            .setCancellable(true)
+            .show()
+    }
+
+    private fun shareStartupTrace(trace: String) {
+        val intent = Intent(Intent.ACTION_SEND).apply {
+            type = "application/json"
+            putExtra(Intent.EXTRA_TEXT, trace)
+        }
+        startActivity(Intent.createChooser(intent, getString(R.string.devShareStartupTrace)))
+    }
+
     private fun showToast(message: String) {
         Toast.makeText(this, message, Toast.LENGTH_SHORT).show()
     }
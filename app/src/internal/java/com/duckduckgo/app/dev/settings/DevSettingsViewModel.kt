@@ -23,6 +23,7 @@ import com.duckduckgo.app.dev.settings.db.DevSettingsDataStore
 import com.duckduckgo.app.dev.settings.db.UAOverride
 import com.duckduckgo.app.survey.api.SurveyEndpointDataStore
 import com.duckduckgo.di.scopes.ActivityScope
+import com.duckduckgo.traces.api.StartupSpan
 import com.duckduckgo.traces.api.StartupTraces
 import com.duckduckgo.user.agent.api.UserAgentProvider
 import kotlinx.coroutines.channels.BufferOverflow
@@ -59,6 +60,8 @@ class DevSettingsViewModel @Inject constructor(
         data object Notifications : Command()
         data object Tabs : Command()
         data class Toast(val message: String) : Command()
+        data class ShowStartupTasks(val startupTasks: List<StartupSpan>) : Command()
+        data class ShareStartupTrace(val trace: String) : Command()
     }
 
     private val viewState = MutableStateFlow(ViewState())
@@ -93,6 +96,17 @@ class DevSettingsViewModel @Inject constructor(
         }
     }
 
+    fun onStartupTasksClicked() {
+        val startupTasks = startupTraces.spans()
+            .filter { it.category == StartupSpan.CATEGORY_PLUGIN }
+            .sortedByDescending { it.durationNanos }
+        viewModelScope.launch { command.send(Command.ShowStartupTasks(startupTasks)) }
+    }
+
+    fun onShareStartupTraceClicked() {
+        viewModelScope.launch { command.send(Command.ShareStartupTrace(startupTraces.exportTrace())) }
+    }
+
     fun onOverrideUAToggled(enabled: Boolean) {
         devSettingsDataStore.overrideUA = enabled
         viewModelScope.launch {
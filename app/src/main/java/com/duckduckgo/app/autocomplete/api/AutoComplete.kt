@@ -16,7 +16,6 @@
 
 package com.duckduckgo.app.autocomplete.api
 
-import android.net.Uri
 import androidx.annotation.VisibleForTesting
 import androidx.core.net.toUri
 import com.duckduckgo.app.autocomplete.AutocompleteTabsFeature
@@ -44,10 +43,7 @@ import com.duckduckgo.browser.api.autocomplete.AutoComplete.AutoCompleteSuggesti
 import com.duckduckgo.browser.api.autocomplete.AutoCompleteFactory
 import com.duckduckgo.browsermode.api.BrowserMode
 import com.duckduckgo.browsermode.api.BrowserModeDataProvider
-import com.duckduckgo.common.utils.AppUrl
-import com.duckduckgo.common.utils.AppUrl.Url
 import com.duckduckgo.common.utils.DispatcherProvider
-import com.duckduckgo.common.utils.UrlScheme
 import com.duckduckgo.common.utils.baseHost
 import com.duckduckgo.common.utils.extensions.combine
 import com.duckduckgo.common.utils.toStringDropScheme
@@ -91,7 +87,7 @@ class DefaultAutoComplete @Inject constructor(
 class AutoCompleteApi constructor(
     private val autoCompleteService: AutoCompleteService,
     private val savedSitesRepository: SavedSitesRepository,
-    private val navigationHistory: NavigationHistory,
+    private val localAutoCompleteIndex: LocalAutoCompleteIndex,
     private val autoCompleteScorer: AutoCompleteScorer,
     private val tabRepositoryProvider: BrowserModeDataProvider<TabRepository>,
     private val browserMode: BrowserMode,
@@ -373,22 +369,25 @@ class AutoCompleteApi constructor(
 
     private fun getAutoCompleteBookmarkResults(query: String): Flow<List<RankedSuggestion<AutoCompleteBookmarkSuggestion>>> =
         runCatching {
-            savedSitesRepository.getBookmarks()
-                .map { rankBookmarks(query, it) }
+            localAutoCompleteIndex.bookmarks()
+                .map { rankBookmarks(query, it.candidates(query, query.split(" "))) }
                 .distinctUntilChanged()
         }.getOrElse { flowOf(emptyList()) }
 
     private fun getAutoCompleteFavoritesResults(query: String): Flow<List<RankedSuggestion<AutoCompleteBookmarkSuggestion>>> =
         runCatching {
-            savedSitesRepository.getFavorites()
-                .map { rankFavorites(query, it) }
+            localAutoCompleteIndex.favorites()
+                .map { rankFavorites(query, it.candidates(query, query.split(" "))) }
                 .distinctUntilChanged()
         }.getOrElse { flowOf(emptyList()) }
 
     private fun getAutoCompleteHistoryResults(query: String): Flow<List<RankedSuggestion<AutoCompleteHistoryRelatedSuggestion>>> =
         runCatching {
-            navigationHistory.getHistory()
-                .map { rankHistory(query, it) }
+            localAutoCompleteIndex.history()
+                .map { index ->
+                    val queryTokens = query.tokensFrom()
+                    rankHistory(query, queryTokens, index.candidates(query, queryTokens))
+                }
                 .distinctUntilChanged()
         }.getOrElse { flowOf(emptyList()) }
 
@@ -438,9 +437,10 @@ class AutoCompleteApi constructor(
 
     private fun rankHistory(
         query: String,
+        queryTokens: List<String>,
         history: List<HistoryEntry>,
     ): List<RankedSuggestion<AutoCompleteHistoryRelatedSuggestion>> {
-        return history.asSequence().sortHistoryByRank(query)
+        return history.asSequence().sortHistoryByRank(query, queryTokens)
     }
 
     private fun Sequence<TabEntity>.sortTabsByRank(query: String): List<RankedSuggestion<AutoCompleteSwitchToTabSuggestion>> {
@@ -478,23 +478,14 @@ class AutoCompleteApi constructor(
             .toList()
     }
 
-    private fun Sequence<HistoryEntry>.sortHistoryByRank(query: String): List<RankedSuggestion<AutoCompleteHistoryRelatedSuggestion>> {
-        return this.let { entries ->
-            entries.filterIsInstance<VisitedSERP>()
-                .groupBy { it.query }
-                .mapNotNull { (query, suggestions) ->
-                    val sanitizedUrl =
-                        Uri.Builder()
-                            .scheme(UrlScheme.https)
-                            .appendQueryParameter(AppUrl.ParamKey.QUERY, query)
-                            .authority(Url.HOST)
-                            .build()
-
-                    suggestions.firstOrNull()?.let { suggestion ->
-                        VisitedSERP(sanitizedUrl, suggestion.title, query, suggestions.flatMap { it.visits })
-                    }
-                } + entries.filterIsInstance<VisitedPage>()
-        }
+    /**
+     * Ranks history entries whose SERP visits were already merged by query, see [mergeSerpVisits]
+     */
+    private fun Sequence<HistoryEntry>.sortHistoryByRank(
+        query: String,
+        queryTokens: List<String>,
+    ): List<RankedSuggestion<AutoCompleteHistoryRelatedSuggestion>> {
+        return this
             .map { entry ->
                 when (entry) {
                     is VisitedPage -> {
@@ -513,7 +504,7 @@ class AutoCompleteApi constructor(
                         )
                     }
                 }.let { suggestion ->
-                    RankedSuggestion(suggestion, autoCompleteScorer.score(entry.title, entry.url, entry.visits.size, query))
+                    RankedSuggestion(suggestion, autoCompleteScorer.score(entry.title, entry.url, entry.visits.size, query, queryTokens))
                 }
             }.filter { it.score > 0 }
             .toList()
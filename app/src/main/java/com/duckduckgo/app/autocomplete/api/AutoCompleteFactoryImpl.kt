@@ -38,7 +38,7 @@ import javax.inject.Inject
 class AutoCompleteFactoryImpl @Inject constructor(
     private val autoCompleteService: AutoCompleteService,
     private val savedSitesRepository: SavedSitesRepository,
-    private val navigationHistory: NavigationHistory,
+    private val localAutoCompleteIndex: LocalAutoCompleteIndex,
     private val autoCompleteScorer: AutoCompleteScorer,
     private val tabRepositoryProvider: BrowserModeDataProvider<TabRepository>,
     private val autocompleteTabsFeature: AutocompleteTabsFeature,
@@ -54,7 +54,7 @@ class AutoCompleteFactoryImpl @Inject constructor(
         return AutoCompleteApi(
             autoCompleteService = autoCompleteService,
             savedSitesRepository = savedSitesRepository,
-            navigationHistory = navigationHistory,
+            localAutoCompleteIndex = localAutoCompleteIndex,
             autoCompleteScorer = autoCompleteScorer,
             tabRepositoryProvider = tabRepositoryProvider,
             browserMode = browserMode,
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.app.autocomplete.api
+
+import java.util.TreeMap
+
+/**
+ * The strings an autocomplete entry can be matched on, see [AutoCompleteIndex]
+ */
+class SearchKeys(
+    /** Matched from their start, e.g. urls */
+    val prefixes: List<String>,
+    /** Matched from their start or from the start of any word, i.e. after any space, e.g. titles */
+    val words: List<String> = emptyList(),
+    /** Matched anywhere, e.g. domains. Usually shared by many entries, so they are indexed once. */
+    val substrings: List<String> = emptyList(),
+)
+
+/**
+ * In-memory index over local autocomplete entries, so that a query only ranks the entries that can match it instead of all of
+ * them.
+ *
+ * Entries are bucketed by the first [GRAM_LENGTH] case-folded characters of every position their [SearchKeys] can be matched
+ * from. [candidates] returns a superset of the entries that match, which the caller still ranks, so results are the same
+ * as ranking every entry. The index is updated incrementally: [update] only re-indexes the entries that changed.
+ */
+class AutoCompleteIndex<T : Any>(
+    private val searchKeysOf: (T) -> SearchKeys,
+) {
+    private val entries = HashMap<T, IndexedEntry>()
+    private val entriesByGram = TreeMap<String, MutableSet<T>>()
+    private val entriesBySubstring = HashMap<String, MutableSet<T>>()
+    private val substringsByGram = HashMap<String, MutableSet<String>>()
+
+    val size: Int
+        @Synchronized get() = entries.size
+
+    /**
+     * Replaces the indexed entries with [newEntries], in their order. Entries that are equal to an indexed one keep their
+     * index data.
+     */
+    @Synchronized
+    fun update(newEntries: List<T>) {
+        entries.values.forEach { it.ordinals.clear() }
+        newEntries.forEachIndexed { ordinal, entry ->
+            entries.getOrPut(entry) { index(entry) }.ordinals.add(ordinal)
+        }
+        val removed = entries.filterValues { it.ordinals.isEmpty() }
+        removed.forEach { (entry, indexed) ->
+            entries.remove(entry)
+            unindex(entry, indexed)
+        }
+    }
+
+    /**
+     * @return every entry that may match [query] or, when there is more than one, all of the [tokens], in the order they were
+     * last [update]d with.
+     *
+     * An entry may match [query] if one of its keys starts with it, ignoring trailing slashes, or if [query] is at least
+     * [GRAM_LENGTH] characters long and one of its substring keys contains it. It may match [tokens] if, for each of them, one
+     * of its keys starts with it.
+     */
+    @Synchronized
+    fun candidates(
+        query: String,
+        tokens: List<String> = emptyList(),
+    ): List<T> {
+        val prefix = query.trimEnd('/').caseFolded()
+        if (prefix.isEmpty()) return entriesInOrder(entries.keys)
+
+        val matches = HashSet<T>()
+        addPrefixMatches(prefix, matches)
+        val folded = query.caseFolded()
+        if (folded.length >= GRAM_LENGTH) {
+            substringsByGram[folded.substring(0, GRAM_LENGTH)]?.forEach { substring ->
+                if (substring.contains(folded)) matches.addAll(entriesBySubstring.getValue(substring))
+            }
+        }
+
+        val foldedTokens = tokens.map { it.caseFolded() }.filter { it.isNotEmpty() }
+        if (tokens.size > 1 && foldedTokens.isNotEmpty()) {
+            val matchesPerToken = foldedTokens.map { token -> HashSet<T>().also { addPrefixMatches(token, it) } }
+            val allTokens = matchesPerToken.minBy { it.size }
+            matchesPerToken.forEach { if (it !== allTokens) allTokens.retainAll(it) }
+            matches.addAll(allTokens)
+        }
+
+        return entriesInOrder(matches)
+    }
+
+    private fun addPrefixMatches(
+        prefix: String,
+        matches: MutableSet<T>,
+    ) {
+        if (prefix.length >= GRAM_LENGTH) {
+            entriesByGram[prefix.substring(0, GRAM_LENGTH)]?.let { matches.addAll(it) }
+        } else {
+            // grams that start with a prefix shorter than a gram are contiguous in the sorted map
+            for ((gram, gramEntries) in entriesByGram.tailMap(prefix)) {
+                if (!gram.startsWith(prefix)) break
+                matches.addAll(gramEntries)
+            }
+        }
+    }
+
+    private fun entriesInOrder(matches: Collection<T>): List<T> {
+        val ordered = ArrayList<Pair<Int, T>>(matches.size)
+        matches.forEach { entry -> entries.getValue(entry).ordinals.forEach { ordered.add(it to entry) } }
+        ordered.sortBy { it.first }
+        return ordered.map { it.second }
+    }
+
+    private fun index(entry: T): IndexedEntry {
+        val keys = searchKeysOf(entry)
+        val grams = HashSet<String>()
+        keys.prefixes.forEach { key -> key.caseFolded().gramAt(0)?.let { grams.add(it) } }
+        keys.words.forEach { key ->
+            val folded = key.caseFolded()
+            folded.gramAt(0)?.let { grams.add(it) }
+            folded.forEachIndexed { index, char ->
+                if (char == ' ') folded.gramAt(index + 1)?.let { grams.add(it) }
+            }
+        }
+        grams.forEach { entriesByGram.getOrPut(it) { HashSet() }.add(entry) }
+
+        val substrings = keys.substrings.map { it.caseFolded() }.filter { it.length >= GRAM_LENGTH }.distinct()
+        substrings.forEach { substring ->
+            entriesBySubstring.getOrPut(substring) {
+                for (start in 0..substring.length - GRAM_LENGTH) {
+                    substringsByGram.getOrPut(substring.substring(start, start + GRAM_LENGTH)) { HashSet() }.add(substring)
+                }
+                HashSet()
+            }.add(entry)
+        }
+
+        return IndexedEntry(grams.toTypedArray(), substrings)
+    }
+
+    private fun unindex(
+        entry: T,
+        indexed: IndexedEntry,
+    ) {
+        indexed.grams.forEach { gram ->
+            val gramEntries = entriesByGram[gram] ?: return@forEach
+            gramEntries.remove(entry)
+            if (gramEntries.isEmpty()) entriesByGram.remove(gram)
+        }
+        indexed.substrings.forEach { substring ->
+            val substringEntries = entriesBySubstring[substring] ?: return@forEach
+            substringEntries.remove(entry)
+            if (substringEntries.isEmpty()) {
+                entriesBySubstring.remove(substring)
+                for (start in 0..substring.length - GRAM_LENGTH) {
+                    val gram = substring.substring(start, start + GRAM_LENGTH)
+                    val gramSubstrings = substringsByGram[gram] ?: continue
+                    gramSubstrings.remove(substring)
+                    if (gramSubstrings.isEmpty()) substringsByGram.remove(gram)
+                }
+            }
+        }
+    }
+
+    private fun String.gramAt(start: Int): String? {
+        if (start >= length) return null
+        return substring(start, minOf(length, start + GRAM_LENGTH))
+    }
+
+    private class IndexedEntry(
+        val grams: Array<String>,
+        val substrings: List<String>,
+    ) {
+        /** Positions of the entry in the last update, more than one if it was listed more than once */
+        val ordinals = ArrayList<Int>(1)
+    }
+
+    companion object {
+        internal const val GRAM_LENGTH = 3
+    }
+}
+
+/**
+ * Folds case the way `ignoreCase` comparisons do, character by character, so that a case-insensitive match of two strings is an
+ * exact match of their folded forms.
+ */
+internal fun String.caseFolded(): String {
+    val folded = CharArray(length)
+    for (index in indices) {
+        folded[index] = this[index].uppercaseChar().lowercaseChar()
+    }
+    return String(folded)
+}
@@ -103,19 +103,4 @@ class RealAutoCompleteScorer @Inject constructor() : AutoCompleteScorer {
 
         return score
     }
-
-    private fun Uri.naked(): String {
-        val host = host?.takeUnless { it.isEmpty() } ?: return toString().removePrefix("//")
-
-        val builder = buildUpon()
-
-        builder.scheme(null)
-        builder.authority(host.removePrefix("www."))
-
-        if (path?.lastOrNull() == '/') {
-            builder.path(path!!.dropLast(1))
-        }
-
-        return builder.build().toString().removePrefix("//")
-    }
 }
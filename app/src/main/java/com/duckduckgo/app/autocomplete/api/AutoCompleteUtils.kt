@@ -32,4 +32,22 @@ fun String.tokensFrom(): List<String> {
         .map { it.lowercase() }
 }
 
+/**
+ * @return the url without scheme, "www." and trailing slash of the path, as matched by the [AutoCompleteScorer]
+ */
+internal fun Uri.naked(): String {
+    val host = host?.takeUnless { it.isEmpty() } ?: return toString().removePrefix("//")
+
+    val builder = buildUpon()
+
+    builder.scheme(null)
+    builder.authority(host.removePrefix("www."))
+
+    if (path?.lastOrNull() == '/') {
+        builder.path(path!!.dropLast(1))
+    }
+
+    return builder.build().toString().removePrefix("//")
+}
+
 const val DEFAULT_SCORE = -1
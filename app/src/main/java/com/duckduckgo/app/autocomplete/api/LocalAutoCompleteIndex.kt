@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.app.autocomplete.api
+
+import android.net.Uri
+import androidx.core.net.toUri
+import com.duckduckgo.app.di.AppCoroutineScope
+import com.duckduckgo.common.utils.AppUrl
+import com.duckduckgo.common.utils.AppUrl.Url
+import com.duckduckgo.common.utils.DispatcherProvider
+import com.duckduckgo.common.utils.UrlScheme
+import com.duckduckgo.common.utils.baseHost
+import com.duckduckgo.common.utils.toStringDropScheme
+import com.duckduckgo.di.scopes.AppScope
+import com.duckduckgo.history.api.HistoryEntry
+import com.duckduckgo.history.api.HistoryEntry.VisitedPage
+import com.duckduckgo.history.api.HistoryEntry.VisitedSERP
+import com.duckduckgo.history.api.NavigationHistory
+import com.duckduckgo.savedsites.api.SavedSitesRepository
+import com.duckduckgo.savedsites.api.models.SavedSite.Bookmark
+import com.duckduckgo.savedsites.api.models.SavedSite.Favorite
+import com.squareup.anvil.annotations.ContributesBinding
+import dagger.SingleInstanceIn
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.SharingStarted
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.shareIn
+import javax.inject.Inject
+
+/**
+ * Indexes of the local autocomplete sources, shared by every [AutoCompleteApi].
+ *
+ * Each source is collected once while autocomplete is in use, instead of once per query, and its index is kept up to date
+ * as the source changes.
+ */
+interface LocalAutoCompleteIndex {
+    /**
+     * History entries, with the SERP visits of the same query merged into a single entry
+     */
+    fun history(): Flow<AutoCompleteIndex<HistoryEntry>>
+
+    fun bookmarks(): Flow<AutoCompleteIndex<Bookmark>>
+
+    fun favorites(): Flow<AutoCompleteIndex<Favorite>>
+}
+
+@ContributesBinding(AppScope::class)
+@SingleInstanceIn(AppScope::class)
+class RealLocalAutoCompleteIndex @Inject constructor(
+    private val navigationHistory: NavigationHistory,
+    private val savedSitesRepository: SavedSitesRepository,
+    @AppCoroutineScope private val appCoroutineScope: CoroutineScope,
+    private val dispatchers: DispatcherProvider,
+) : LocalAutoCompleteIndex {
+
+    private val history by lazy {
+        navigationHistory.getHistory().map { mergeSerpVisits(it) }.indexed(::historySearchKeys)
+    }
+
+    private val bookmarks by lazy {
+        savedSitesRepository.getBookmarks().indexed { savedSiteSearchKeys(it.title, it.url) }
+    }
+
+    private val favorites by lazy {
+        savedSitesRepository.getFavorites().indexed { savedSiteSearchKeys(it.title, it.url) }
+    }
+
+    override fun history(): Flow<AutoCompleteIndex<HistoryEntry>> = history
+
+    override fun bookmarks(): Flow<AutoCompleteIndex<Bookmark>> = bookmarks
+
+    override fun favorites(): Flow<AutoCompleteIndex<Favorite>> = favorites
+
+    private fun <T : Any> Flow<List<T>>.indexed(searchKeysOf: (T) -> SearchKeys): Flow<AutoCompleteIndex<T>> {
+        val index = AutoCompleteIndex(searchKeysOf)
+        return map { entries ->
+            index.update(entries)
+            index
+        }
+            .flowOn(dispatchers.computation())
+            // kept while the user types, so that each keystroke doesn't reload the source; the source is reloaded, and the
+            // index updated with what changed meanwhile, the next time autocomplete is used
+            .shareIn(appCoroutineScope, SharingStarted.WhileSubscribed(STOP_TIMEOUT_MILLIS, replayExpirationMillis = 0), replay = 1)
+    }
+
+    companion object {
+        private const val STOP_TIMEOUT_MILLIS = 5_000L
+    }
+}
+
+/**
+ * Merges the [VisitedSERP]s of the same query into a single entry for the query's SERP, followed by the [VisitedPage]s
+ */
+internal fun mergeSerpVisits(entries: List<HistoryEntry>): List<HistoryEntry> {
+    return entries.filterIsInstance<VisitedSERP>()
+        .groupBy { it.query }
+        .mapNotNull { (query, suggestions) ->
+            val sanitizedUrl =
+                Uri.Builder()
+                    .scheme(UrlScheme.https)
+                    .appendQueryParameter(AppUrl.ParamKey.QUERY, query)
+                    .authority(Url.HOST)
+                    .build()
+
+            suggestions.firstOrNull()?.let { suggestion ->
+                VisitedSERP(sanitizedUrl, suggestion.title, query, suggestions.flatMap { it.visits })
+            }
+        } + entries.filterIsInstance<VisitedPage>()
+}
+
+/**
+ * Keys [RealAutoCompleteScorer] matches history entries on
+ */
+internal fun historySearchKeys(entry: HistoryEntry): SearchKeys {
+    return SearchKeys(
+        prefixes = listOf(entry.url.naked()),
+        words = listOfNotNull(entry.title?.lowercase()),
+        substrings = listOfNotNull(entry.url.host?.removePrefix("www.")),
+    )
+}
+
+/**
+ * Keys saved sites and tabs are matched on by [AutoCompleteApi]: their title, their url without scheme and their domain
+ */
+internal fun savedSiteSearchKeys(
+    title: String,
+    url: String,
+): SearchKeys {
+    val uri = url.toUri()
+    return SearchKeys(
+        prefixes = listOfNotNull(uri.toStringDropScheme().removePrefix("www."), uri.baseHost),
+        words = listOf(title),
+    )
+}
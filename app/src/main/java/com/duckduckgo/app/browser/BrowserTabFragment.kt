@@ -375,6 +375,9 @@ import com.duckduckgo.site.permissions.api.SitePermissionsDialogLauncher
 import com.duckduckgo.site.permissions.api.SitePermissionsGrantedListener
 import com.duckduckgo.site.permissions.api.SitePermissionsManager.SitePermissions
 import com.duckduckgo.subscriptions.api.Subscriptions
+import com.duckduckgo.traces.api.StartupSpan
+import com.duckduckgo.traces.api.StartupTraces
+import com.duckduckgo.traces.api.span
 import com.duckduckgo.user.agent.api.ClientBrandHintProvider
 import com.duckduckgo.user.agent.api.UserAgentProvider
 import com.duckduckgo.voice.api.VoiceSearchLauncher
@@ -410,6 +413,7 @@ import org.json.JSONObject
 import org.json.JSONTokener
 import java.io.File
 import java.util.Locale
+import java.util.concurrent.atomic.AtomicBoolean
 import javax.inject.Inject
 import javax.inject.Named
 import javax.inject.Provider
@@ -457,6 +461,9 @@ class BrowserTabFragment :
     @Inject
     lateinit var webViewModeInitializer: WebViewModeInitializer
 
+    @Inject
+    lateinit var startupTraces: StartupTraces
+
     @Inject
     lateinit var viewModelFactory: FragmentViewModelFactory
 
@@ -1056,6 +1063,27 @@ class BrowserTabFragment :
     // see discussion in https://github.com/duckduckgo/Android/pull/4027#discussion_r1433373625
     private val jsOrientationHandler = JsOrientationHandler()
 
+    override fun onCreateView(
+        inflater: LayoutInflater,
+        container: ViewGroup?,
+        savedInstanceState: Bundle?,
+    ): View? {
+        return traceIfFirst(isFirstInflation, StartupSpan.FIRST_BROWSER_TAB_INFLATION) {
+            super.onCreateView(inflater, container, savedInstanceState)
+        }
+    }
+
+    /**
+     * Only the first tab and WebView of the process are start-up work, later ones are not traced
+     */
+    private inline fun <T> traceIfFirst(
+        isFirst: AtomicBoolean,
+        spanName: String,
+        block: () -> T,
+    ): T {
+        return if (isFirst.compareAndSet(true, false)) startupTraces.span(spanName, StartupSpan.CATEGORY_UI, block) else block()
+    }
+
     override fun onCreate(savedInstanceState: Bundle?) {
         super.onCreate(savedInstanceState)
         logcat { "onCreate called for tabId=$tabId" }
@@ -4113,13 +4141,14 @@ class BrowserTabFragment :
         }
 
         val webViewLayout = R.layout.include_duckduckgo_browser_webview
-        webView =
+        webView = traceIfFirst(isFirstWebViewCreation, StartupSpan.FIRST_WEBVIEW_CREATION) {
             layoutInflater
                 .inflate(
                     webViewLayout,
                     binding.webViewContainer,
                     true,
                 ).findViewById<DuckDuckGoWebView>(R.id.browserWebView)
+        }
 
         webView?.let {
             val bindResult = webViewModeInitializer.bind(it, browserMode)
@@ -5498,6 +5527,9 @@ class BrowserTabFragment :
 
         private const val COOKIES_ANIMATION_DELAY = 400L
 
+        private val isFirstInflation = AtomicBoolean(true)
+        private val isFirstWebViewCreation = AtomicBoolean(true)
+
         private const val AUTOCOMPLETE_PADDING_DP = 6
 
         private const val SITE_SECURITY_WARNING = "Warning: Security Risk"
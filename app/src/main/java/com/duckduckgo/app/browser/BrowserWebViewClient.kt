@@ -662,6 +662,7 @@ class BrowserWebViewClient @Inject constructor(
                 // We call this for any url but it will only be processed for an internal tester verification url
                 internalTestUserChecker.verifyVerificationCompleted(it)
             }
+            requestInterceptor.onPageFinished()
 
             val navigationList = webView.safeCopyBackForwardList() ?: return
             webViewClientListener?.run {
@@ -32,13 +32,12 @@ import com.duckduckgo.app.browser.webview.RealMaliciousSiteBlockerWebViewIntegra
 import com.duckduckgo.app.di.AppCoroutineScope
 import com.duckduckgo.app.di.IsMainProcess
 import com.duckduckgo.app.pixels.remoteconfig.AndroidBrowserConfigFeature
-import com.duckduckgo.app.privacy.db.PrivacyProtectionCountDao
+import com.duckduckgo.app.privacy.db.PrivacyProtectionRecorder
 import com.duckduckgo.app.privacy.db.UserAllowListRepository
 import com.duckduckgo.app.privacy.model.TrustedSites
 import com.duckduckgo.app.surrogates.ResourceSurrogates
 import com.duckduckgo.app.trackerdetection.CloakedCnameDetector
 import com.duckduckgo.app.trackerdetection.db.WebTrackerBlocked
-import com.duckduckgo.app.trackerdetection.db.WebTrackersBlockedDao
 import com.duckduckgo.app.trackerdetection.model.TrackerStatus
 import com.duckduckgo.app.trackerdetection.model.TrackingEvent
 import com.duckduckgo.common.utils.AppUrl
@@ -79,6 +78,8 @@ interface RequestInterceptor {
 
     fun onPageStarted(url: String)
 
+    fun onPageFinished()
+
     @WorkerThread
     fun shouldOverrideUrlLoading(
         webViewClientListener: WebViewClientListener?,
@@ -94,7 +95,7 @@ class WebViewRequestInterceptor(
     private val resourceSurrogates: ResourceSurrogates,
     private val trackerDetector: TrackerDetector,
     private val httpsUpgrader: HttpsUpgrader,
-    private val privacyProtectionCountDao: PrivacyProtectionCountDao,
+    private val privacyProtectionRecorder: PrivacyProtectionRecorder,
     private val gpc: Gpc,
     private val userAgentProvider: UserAgentProvider,
     private val adClickManager: AdClickManager,
@@ -110,7 +111,6 @@ class WebViewRequestInterceptor(
     private val androidBrowserConfigFeature: AndroidBrowserConfigFeature,
     @AppCoroutineScope private val appCoroutineScope: CoroutineScope,
     @IsMainProcess private val isMainProcess: Boolean,
-    private val webTrackersBlockedDao: WebTrackersBlockedDao,
 ) : RequestInterceptor {
 
     private var checkMaliciousAfterHttpsUpgrade = false
@@ -128,10 +128,15 @@ class WebViewRequestInterceptor(
     }
 
     override fun onPageStarted(url: String) {
+        trackerDetector.onPageStarted(url)
         requestFilterer.registerOnPageCreated(url)
         maliciousSiteBlockerWebViewIntegration.onPageLoadStarted(url)
     }
 
+    override fun onPageFinished() {
+        privacyProtectionRecorder.flush()
+    }
+
     /**
      * Notify the application of a resource request and allow the application to return the data.
      *
@@ -182,7 +187,7 @@ class WebViewRequestInterceptor(
             }
 
             webViewClientListener?.upgradedToHttps()
-            privacyProtectionCountDao.incrementUpgradeCount()
+            privacyProtectionRecorder.incrementUpgradeCount()
             return WebResourceResponse(null, null, null)
         }
 
@@ -216,9 +221,19 @@ class WebViewRequestInterceptor(
             webViewClientListener?.pageHasHttpResources(documentUri)
         }
 
-        if (!request.isForMainFrame && requestBlocklist.containedInBlocklist(documentUri, url)) {
-            val isContentBlockingException = contentBlocking.isAnException(documentUrlString)
-            val isInTrackerAllowList = trackerAllowlist.isAnException(documentUrlString, urlString)
+        // parsed once here and shared by all the checks below
+        val parsedUrl = ParsedRequest.of(url)
+        val parsedDocument = ParsedRequest.of(documentUri)
+
+        if (!request.isForMainFrame && requestBlocklist.containedInBlocklist(parsedDocument, parsedUrl)) {
+            val isContentBlockingException = contentBlocking.isAnException(documentUrlString, parsedDocument.baseHost)
+            val isInTrackerAllowList = trackerAllowlist.isAnException(
+                documentUrlString,
+                parsedDocument.baseHost,
+                urlString,
+                parsedUrl.baseHost,
+                parsedUrl.portStrippedUrl,
+            )
             val isUserAllowlisted = userAllowListRepository.isUriInUserAllowList(documentUri)
 
             if (!isContentBlockingException && !isInTrackerAllowList && !isUserAllowlisted) {
@@ -228,7 +243,7 @@ class WebViewRequestInterceptor(
             return null
         }
 
-        return getWebResourceResponse(request, documentUri, webViewClientListener)
+        return getWebResourceResponse(request, parsedUrl, parsedDocument, webViewClientListener)
     }
 
     override fun shouldOverrideUrlLoading(
@@ -258,7 +273,7 @@ class WebViewRequestInterceptor(
             return null
         }
 
-        return getWebResourceResponse(request, documentUrl, null)
+        return getWebResourceResponse(request, ParsedRequest.of(request.url), ParsedRequest.of(documentUrl), null)
     }
 
     private fun shouldBlock(
@@ -348,10 +363,11 @@ class WebViewRequestInterceptor(
 
     private fun getWebResourceResponse(
         request: WebResourceRequest,
-        documentUrl: Uri,
+        url: ParsedRequest,
+        documentUrl: ParsedRequest,
         webViewClientListener: WebViewClientListener?,
     ): WebResourceResponse? {
-        val trackingEvent = trackingEvent(request, documentUrl, webViewClientListener)
+        val trackingEvent = trackingEvent(request, url, documentUrl, webViewClientListener)
         if (trackingEvent?.status == TrackerStatus.BLOCKED) {
             recordTrackerBlocked(trackingEvent)
             return blockRequest(trackingEvent, request, webViewClientListener)
@@ -359,8 +375,8 @@ class WebViewRequestInterceptor(
             trackingEvent.status == TrackerStatus.ALLOWED ||
             trackingEvent.status == TrackerStatus.SAME_ENTITY_ALLOWED
         ) {
-            cloakedCnameDetector.detectCnameCloakedHost(documentUrl.toString(), request.url)?.let { uncloakedHost ->
-                trackingEvent(request, documentUrl, webViewClientListener, false, uncloakedHost)?.let { cloakedTrackingEvent ->
+            cloakedCnameDetector.detectCnameCloakedHost(documentUrl, url)?.let { uncloakedHost ->
+                trackingEvent(request, url, documentUrl, webViewClientListener, false, uncloakedHost)?.let { cloakedTrackingEvent ->
                     if (cloakedTrackingEvent.status == TrackerStatus.BLOCKED) {
                         recordTrackerBlocked(cloakedTrackingEvent)
                         return blockRequest(cloakedTrackingEvent, request, webViewClientListener)
@@ -386,7 +402,7 @@ class WebViewRequestInterceptor(
         }
 
         logcat { "Blocking request ${request.url}" }
-        privacyProtectionCountDao.incrementBlockedTrackerCount()
+        privacyProtectionRecorder.incrementBlockedTrackerCount()
         return WebResourceResponse(null, null, null)
     }
 
@@ -437,19 +453,20 @@ class WebViewRequestInterceptor(
 
     private fun trackingEvent(
         request: WebResourceRequest,
-        documentUrl: Uri?,
+        url: ParsedRequest,
+        documentUrl: ParsedRequest,
         webViewClientListener: WebViewClientListener?,
         checkFirstParty: Boolean = true,
         uncloakedHost: String? = null,
     ): TrackingEvent? {
-        if (request.isForMainFrame || documentUrl == null) {
+        if (request.isForMainFrame) {
             return null
         }
 
         val trackingEvent = if (uncloakedHost != null) {
-            trackerDetector.evaluate(uncloakedHost, documentUrl, checkFirstParty, request.requestHeaders)
+            trackerDetector.evaluate(uncloakedHost, documentUrl.uri, checkFirstParty, request.requestHeaders)
         } else {
-            trackerDetector.evaluate(request.url, documentUrl, checkFirstParty, request.requestHeaders)
+            trackerDetector.evaluate(url, documentUrl, checkFirstParty, request.requestHeaders)
         } ?: return null
         webViewClientListener?.trackerDetected(trackingEvent)
         return trackingEvent
@@ -457,7 +474,7 @@ class WebViewRequestInterceptor(
 
     private fun recordTrackerBlocked(trackingEvent: TrackingEvent) {
         val trackerCompany = trackingEvent.entity?.displayName ?: "Undefined"
-        webTrackersBlockedDao.insert(WebTrackerBlocked(trackerUrl = trackingEvent.trackerUrl, trackerCompany = trackerCompany))
+        privacyProtectionRecorder.recordTrackerBlocked(WebTrackerBlocked(trackerUrl = trackingEvent.trackerUrl, trackerCompany = trackerCompany))
     }
 
     private fun appUrlPixel(url: Uri?): Boolean =
@@ -24,12 +24,17 @@ import com.duckduckgo.app.browser.BuildConfig
 import com.duckduckgo.app.di.AppComponent
 import com.duckduckgo.app.di.AppComponentFactory
 import com.duckduckgo.app.di.AppCoroutineScope
+import com.duckduckgo.app.global.startup.MainProcessStartupScheduler
 import com.duckduckgo.app.lifecycle.MainProcessLifecycleObserver
 import com.duckduckgo.app.lifecycle.PirProcessLifecycleObserver
 import com.duckduckgo.app.lifecycle.VpnProcessLifecycleObserver
 import com.duckduckgo.common.utils.DispatcherProvider
 import com.duckduckgo.common.utils.plugins.PluginPoint
 import com.duckduckgo.referral.api.AppInstallationReferrerStateListener
+import com.duckduckgo.traces.api.StartupSpan
+import com.duckduckgo.traces.api.StartupSpanTimer
+import com.duckduckgo.traces.api.StartupTraces
+import com.duckduckgo.traces.api.span
 import dagger.android.AndroidInjector
 import dagger.android.HasDaggerInjector
 import dagger.android.getFactory
@@ -60,6 +65,12 @@ open class DuckDuckGoApplication : HasDaggerInjector, MultiProcessApplication()
     @Inject
     lateinit var primaryLifecycleObserverPluginPoint: PluginPoint<MainProcessLifecycleObserver>
 
+    @Inject
+    lateinit var mainProcessStartupScheduler: MainProcessStartupScheduler
+
+    @Inject
+    lateinit var startupTraces: StartupTraces
+
     @Inject
     lateinit var vpnLifecycleObserverPluginPoint: PluginPoint<VpnProcessLifecycleObserver>
 
@@ -93,11 +104,10 @@ open class DuckDuckGoApplication : HasDaggerInjector, MultiProcessApplication()
         configureUncaughtExceptionHandler()
 
         // Deprecated, we need to move all these into AppLifecycleEventObserver
-        ProcessLifecycleOwner.get().lifecycle.apply {
-            primaryLifecycleObserverPluginPoint.getPlugins().forEach {
-                addObserver(it)
-            }
+        val mainProcessPlugins = startupTraces.span(StartupSpan.PLUGIN_POINT_INSTANTIATION, StartupSpan.CATEGORY_APP) {
+            primaryLifecycleObserverPluginPoint.getPlugins()
         }
+        mainProcessStartupScheduler.schedule(ProcessLifecycleOwner.get(), mainProcessPlugins)
 
         appCoroutineScope.launch(dispatchers.io()) {
             referralStateListener.initialiseReferralRetrieval()
@@ -162,8 +172,11 @@ open class DuckDuckGoApplication : HasDaggerInjector, MultiProcessApplication()
     }
 
     private fun configureDependencyInjection() {
+        // StartupTraces is only injected at the end, so the span is recorded once the graph exists
+        val timer = StartupSpanTimer.start()
         daggerAppComponent = AppComponentFactory.create(this, applicationCoroutineScope)
         daggerAppComponent.inject(this)
+        startupTraces.recordSpan(timer.stop(StartupSpan.DEPENDENCY_INJECTION, StartupSpan.CATEGORY_APP))
     }
 
     private fun configureStrictMode() {
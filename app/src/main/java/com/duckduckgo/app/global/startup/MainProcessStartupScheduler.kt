@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.app.global.startup
+
+import android.annotation.SuppressLint
+import android.os.Looper
+import androidx.lifecycle.DefaultLifecycleObserver
+import androidx.lifecycle.LifecycleOwner
+import com.duckduckgo.app.di.AppCoroutineScope
+import com.duckduckgo.app.lifecycle.MainProcessLifecycleObserver
+import com.duckduckgo.app.lifecycle.MainProcessStartupTask
+import com.duckduckgo.app.lifecycle.MainProcessStartupTask.StartupStage.BACKGROUND
+import com.duckduckgo.app.lifecycle.MainProcessStartupTask.StartupStage.IDLE
+import com.duckduckgo.common.utils.DispatcherProvider
+import com.duckduckgo.di.scopes.AppScope
+import com.duckduckgo.traces.api.StartupSpan.Companion.CATEGORY_PLUGIN
+import com.duckduckgo.traces.api.StartupTraces
+import com.duckduckgo.traces.api.span
+import dagger.SingleInstanceIn
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.suspendCancellableCoroutine
+import logcat.LogPriority.WARN
+import logcat.logcat
+import javax.inject.Inject
+import kotlin.coroutines.resume
+
+/**
+ * Registers the [MainProcessLifecycleObserver] plugins on the process lifecycle and records each plugin's `onCreate` as a span
+ * into [StartupTraces].
+ *
+ * Plugins that are also [MainProcessStartupTask]s don't get `onCreate` from the lifecycle, it is instead called off the start-up
+ * critical path, as declared by the task. Every other plugin still gets `onCreate` on the main thread, in order, when it is registered.
+ */
+@SingleInstanceIn(AppScope::class)
+class MainProcessStartupScheduler @Inject constructor(
+    @AppCoroutineScope private val appCoroutineScope: CoroutineScope,
+    private val dispatcherProvider: DispatcherProvider,
+    private val startupTraces: StartupTraces,
+) {
+
+    @OptIn(ExperimentalCoroutinesApi::class)
+    private val backgroundDispatcher by lazy { dispatcherProvider.io().limitedParallelism(MAX_PARALLEL_BACKGROUND_TASKS) }
+
+    fun schedule(
+        owner: LifecycleOwner,
+        observers: Collection<MainProcessLifecycleObserver>,
+    ) {
+        val startupTasks = mutableListOf<ScheduledTask>()
+        observers.forEach { observer ->
+            if (observer is MainProcessStartupTask) {
+                startupTasks.add(ScheduledTask(observer, observer))
+                owner.lifecycle.addObserver(DeferredCreateObserver(observer))
+            } else {
+                // the process lifecycle is already created, so adding the observer calls its onCreate right away
+                startupTraces.span(observer.javaClass.simpleName, CATEGORY_PLUGIN) { owner.lifecycle.addObserver(observer) }
+            }
+        }
+        scheduleStartupTasks(owner, startupTasks)
+    }
+
+    private fun scheduleStartupTasks(
+        owner: LifecycleOwner,
+        startupTasks: List<ScheduledTask>,
+    ) {
+        val tasksByName = startupTasks.groupBy { it.task.startupTaskName }
+
+        startupTasks.sortedByDescending { it.task.startupPriority }.forEach { scheduled ->
+            val name = scheduled.task.startupTaskName
+            val dependencies = if (isInDependencyCycle(name, tasksByName)) {
+                logcat(WARN) { "Startup task $name is in a dependency cycle, running it without waiting for its dependencies" }
+                emptyList()
+            } else {
+                scheduled.task.startupDependencies.flatMap { tasksByName[it].orEmpty() }.map { it.completed }
+            }
+            val dispatcher = when (scheduled.task.startupStage) {
+                BACKGROUND -> backgroundDispatcher
+                IDLE -> dispatcherProvider.main()
+            }
+
+            appCoroutineScope.launch(dispatcher) {
+                try {
+                    dependencies.awaitAll()
+                    if (scheduled.task.startupStage == IDLE) awaitMainThreadIdle()
+                    startupTraces.span(name, CATEGORY_PLUGIN) { scheduled.observer.onCreate(owner) }
+                } finally {
+                    // a task that failed must not hold back the tasks depending on it
+                    scheduled.completed.complete(Unit)
+                }
+            }
+        }
+    }
+
+    private fun isInDependencyCycle(
+        name: String,
+        tasksByName: Map<String, List<ScheduledTask>>,
+    ): Boolean {
+        val visited = mutableSetOf<String>()
+        val pending = ArrayDeque(tasksByName[name].orEmpty().flatMap { it.task.startupDependencies })
+        while (pending.isNotEmpty()) {
+            val dependency = pending.removeFirst()
+            if (dependency == name) return true
+            if (visited.add(dependency)) {
+                tasksByName[dependency]?.forEach { pending.addAll(it.task.startupDependencies) }
+            }
+        }
+        return false
+    }
+
+    private suspend fun awaitMainThreadIdle() = suspendCancellableCoroutine<Unit> { continuation ->
+        Looper.getMainLooper().queue.addIdleHandler {
+            continuation.resume(Unit)
+            false
+        }
+    }
+
+    private class ScheduledTask(
+        val observer: MainProcessLifecycleObserver,
+        val task: MainProcessStartupTask,
+    ) {
+        val completed = CompletableDeferred<Unit>()
+    }
+
+    /**
+     * Forwards every lifecycle callback but onCreate, which the scheduler calls instead
+     */
+    @SuppressLint("NoLifecycleObserver") // only forwards the callbacks of a main process plugin
+    private class DeferredCreateObserver(private val observer: MainProcessLifecycleObserver) : DefaultLifecycleObserver {
+        override fun onStart(owner: LifecycleOwner) = observer.onStart(owner)
+        override fun onResume(owner: LifecycleOwner) = observer.onResume(owner)
+        override fun onPause(owner: LifecycleOwner) = observer.onPause(owner)
+        override fun onStop(owner: LifecycleOwner) = observer.onStop(owner)
+        override fun onDestroy(owner: LifecycleOwner) = observer.onDestroy(owner)
+    }
+
+    companion object {
+        private const val MAX_PARALLEL_BACKGROUND_TASKS = 4
+    }
+}
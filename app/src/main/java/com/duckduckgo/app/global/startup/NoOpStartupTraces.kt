@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.app.global.startup
+
+import com.duckduckgo.di.scopes.AppScope
+import com.duckduckgo.traces.api.StartupSpan
+import com.duckduckgo.traces.api.StartupTraces
+import com.squareup.anvil.annotations.ContributesBinding
+import javax.inject.Inject
+
+/**
+ * Start-up traces are only recorded on internal builds, which bind their own [StartupTraces]
+ */
+@ContributesBinding(AppScope::class)
+class NoOpStartupTraces @Inject constructor() : StartupTraces {
+    override var isTraceEnabled: Boolean
+        get() = false
+        set(_) {}
+
+    override fun recordSpan(span: StartupSpan) {}
+
+    override fun spans(): List<StartupSpan> = emptyList()
+
+    override fun spansOverBudget(headroom: Int): List<StartupSpan> = emptyList()
+
+    override fun exportTrace(): String = ""
+}
@@ -47,12 +47,36 @@ abstract class PrivacyProtectionCountDao {
         }
     }
 
+    /**
+     * Adds counts accumulated in memory in a single write, see [PrivacyProtectionRecorder]
+     */
+    @Transaction
+    open fun incrementCounts(
+        blockedTrackers: Long,
+        upgrades: Long,
+    ) {
+        if (blockedTrackers == 0L && upgrades == 0L) return
+        val changedRows = incrementCountsIfExists(blockedTrackers, upgrades)
+        if (changedRows == 0) {
+            initialiseCounts(PrivacyProtectionCountsEntity(blockedTrackerCount = blockedTrackers, upgradeCount = upgrades))
+        }
+    }
+
     @Query("UPDATE privacy_protection_count SET blocked_tracker_count = blocked_tracker_count + 1")
     protected abstract fun incrementBlockedTrackerCountIfExists(): Int
 
     @Query("UPDATE privacy_protection_count SET upgrade_count = upgrade_count + 1")
     protected abstract fun incrementUpgradeCountIfExists(): Int
 
+    @Query(
+        "UPDATE privacy_protection_count SET blocked_tracker_count = blocked_tracker_count + :blockedTrackers, " +
+            "upgrade_count = upgrade_count + :upgrades",
+    )
+    protected abstract fun incrementCountsIfExists(
+        blockedTrackers: Long,
+        upgrades: Long,
+    ): Int
+
     @Insert
     abstract fun initialiseCounts(entity: PrivacyProtectionCountsEntity)
 }
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.app.privacy.db
+
+import androidx.annotation.WorkerThread
+import androidx.lifecycle.LifecycleOwner
+import com.duckduckgo.app.di.AppCoroutineScope
+import com.duckduckgo.app.global.db.AppDatabase
+import com.duckduckgo.app.lifecycle.MainProcessLifecycleObserver
+import com.duckduckgo.app.trackerdetection.db.WebTrackerBlocked
+import com.duckduckgo.app.trackerdetection.db.WebTrackersBlockedDao
+import com.duckduckgo.common.utils.DispatcherProvider
+import com.duckduckgo.di.scopes.AppScope
+import com.squareup.anvil.annotations.ContributesBinding
+import com.squareup.anvil.annotations.ContributesMultibinding
+import dagger.SingleInstanceIn
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import logcat.LogPriority.WARN
+import logcat.asLog
+import logcat.logcat
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.LongAdder
+import javax.inject.Inject
+
+/**
+ * Records the privacy protection events of intercepted requests. Recording only touches memory so it is safe to call for
+ * every request; events are written to the database in batches.
+ */
+interface PrivacyProtectionRecorder {
+    fun incrementBlockedTrackerCount()
+
+    fun incrementUpgradeCount()
+
+    fun recordTrackerBlocked(tracker: WebTrackerBlocked)
+
+    /**
+     * Writes everything recorded so far to the database, in the background
+     */
+    fun flush()
+}
+
+@ContributesMultibinding(
+    scope = AppScope::class,
+    boundType = MainProcessLifecycleObserver::class,
+)
+@ContributesBinding(
+    scope = AppScope::class,
+    boundType = PrivacyProtectionRecorder::class,
+)
+@SingleInstanceIn(AppScope::class)
+class BatchedPrivacyProtectionRecorder @Inject constructor(
+    private val appDatabase: AppDatabase,
+    private val privacyProtectionCountDao: PrivacyProtectionCountDao,
+    private val webTrackersBlockedDao: WebTrackersBlockedDao,
+    @AppCoroutineScope private val appCoroutineScope: CoroutineScope,
+    private val dispatchers: DispatcherProvider,
+) : PrivacyProtectionRecorder, MainProcessLifecycleObserver {
+
+    // striped, so that concurrent request threads don't contend on a single counter
+    private val blockedTrackers = LongAdder()
+    private val upgrades = LongAdder()
+
+    // totals already written; counters are never reset, so increments racing with a flush are picked up by the next one
+    private var flushedBlockedTrackers = 0L
+    private var flushedUpgrades = 0L
+
+    // bounded, so records can't pile up while writes keep failing; the oldest ones are dropped first
+    private val batchedTrackers = ArrayDeque<WebTrackerBlocked>()
+    private var droppedTrackers = 0L
+    private val flushScheduled = AtomicBoolean(false)
+
+    override fun incrementBlockedTrackerCount() {
+        blockedTrackers.increment()
+        scheduleFlush()
+    }
+
+    override fun incrementUpgradeCount() {
+        upgrades.increment()
+        scheduleFlush()
+    }
+
+    override fun recordTrackerBlocked(tracker: WebTrackerBlocked) {
+        synchronized(batchedTrackers) {
+            if (batchedTrackers.size >= MAX_BATCHED_TRACKERS) {
+                batchedTrackers.removeFirst()
+                droppedTrackers++
+            }
+            batchedTrackers.addLast(tracker)
+        }
+        scheduleFlush()
+    }
+
+    override fun flush() {
+        appCoroutineScope.launch(dispatchers.io()) {
+            flushToDatabase()
+        }
+    }
+
+    override fun onStop(owner: LifecycleOwner) {
+        flush()
+    }
+
+    private fun scheduleFlush() {
+        if (!flushScheduled.compareAndSet(false, true)) return
+        appCoroutineScope.launch(dispatchers.io()) {
+            delay(PERIODIC_FLUSH_DELAY_MS)
+            flushScheduled.set(false)
+            flushToDatabase()
+        }
+    }
+
+    @WorkerThread
+    @Synchronized
+    private fun flushToDatabase() {
+        val blockedTrackersTotal = blockedTrackers.sum()
+        val upgradesTotal = upgrades.sum()
+        val blockedTrackersDelta = blockedTrackersTotal - flushedBlockedTrackers
+        val upgradesDelta = upgradesTotal - flushedUpgrades
+        val (toInsert, droppedBeforeFlush) = synchronized(batchedTrackers) { batchedTrackers.toList() to droppedTrackers }
+        if (blockedTrackersDelta == 0L && upgradesDelta == 0L && toInsert.isEmpty()) return
+
+        try {
+            appDatabase.runInTransaction {
+                privacyProtectionCountDao.incrementCounts(blockedTrackers = blockedTrackersDelta, upgrades = upgradesDelta)
+                if (toInsert.isNotEmpty()) {
+                    webTrackersBlockedDao.insertAll(toInsert)
+                }
+            }
+        } catch (e: Exception) {
+            // nothing is dropped, the next flush retries everything recorded so far
+            logcat(WARN) { "Failed to flush privacy protection events into db: ${e.asLog()}" }
+            return
+        }
+        // only the flushed records are removed, records added while writing are kept for the next flush
+        synchronized(batchedTrackers) {
+            // flushed records that were dropped while writing aren't in the batch anymore
+            val stillBatched = toInsert.size - (droppedTrackers - droppedBeforeFlush).toInt()
+            repeat(stillBatched.coerceAtLeast(0)) { batchedTrackers.removeFirst() }
+        }
+        flushedBlockedTrackers = blockedTrackersTotal
+        flushedUpgrades = upgradesTotal
+        logcat { "Flushed $blockedTrackersDelta blocked trackers, $upgradesDelta upgrades and ${toInsert.size} tracker records into db" }
+    }
+
+    companion object {
+        private const val PERIODIC_FLUSH_DELAY_MS: Long = 1_000
+        private const val MAX_BATCHED_TRACKERS = 5_000
+    }
+}
@@ -17,6 +17,8 @@
 package com.duckduckgo.app.trackerdetection
 
 import android.net.Uri
+import androidx.annotation.WorkerThread
+import com.duckduckgo.app.browser.ParsedRequest
 import com.duckduckgo.app.privacy.db.UserAllowListRepository
 import com.duckduckgo.app.trackerdetection.db.TdsCnameEntityDao
 import com.duckduckgo.common.utils.UrlScheme
@@ -30,36 +32,88 @@ import javax.inject.Inject
 
 interface CloakedCnameDetector {
     fun detectCnameCloakedHost(documentUrl: String?, url: Uri): String?
+
+    /**
+     * Same as [detectCnameCloakedHost] for urls that were already parsed by the caller.
+     */
+    fun detectCnameCloakedHost(documentUrl: ParsedRequest?, url: ParsedRequest): String? =
+        detectCnameCloakedHost(documentUrl?.url, url.uri)
+}
+
+interface CloakedCnameRefresher {
+    /**
+     * Reloads the CNAME cloaking table from the TDS data currently persisted.
+     */
+    @WorkerThread
+    fun refresh()
 }
 
-@ContributesBinding(AppScope::class)
+@ContributesBinding(AppScope::class, boundType = CloakedCnameDetector::class)
+@ContributesBinding(AppScope::class, boundType = CloakedCnameRefresher::class)
 @SingleInstanceIn(AppScope::class)
 class CloakedCnameDetectorImpl @Inject constructor(
     private val tdsCnameEntityDao: TdsCnameEntityDao,
     private val trackerAllowlist: TrackerAllowlist,
     private val userAllowListRepository: UserAllowListRepository,
-) : CloakedCnameDetector {
+) : CloakedCnameDetector, CloakedCnameRefresher {
+
+    /**
+     * Immutable cloaked host -> uncloaked host table, replaced wholesale on [refresh] so that lookups never hit the database.
+     */
+    @Volatile
+    private var uncloakedHosts: Map<String, String>? = null
+
+    override fun refresh() {
+        // same lock as the lazy load in activeUncloakedHosts, so a load that started before the refresh cannot overwrite it
+        synchronized(this) {
+            uncloakedHosts = loadUncloakedHosts()
+        }
+    }
 
     override fun detectCnameCloakedHost(documentUrl: String?, url: Uri): String? {
         if (documentUrl != null && trackerAllowlist.isAnException(documentUrl, url.toString()) ||
             userAllowListRepository.isUriInUserAllowList(url)
         ) { return null }
 
-        url.host?.let { host ->
-            tdsCnameEntityDao.get(host)?.let { cnameEntity ->
-                var uncloakedHostName = cnameEntity.uncloakedHostName
-                logcat(VERBOSE) { "$host is a CNAME cloaked host. Uncloaked host name: $uncloakedHostName" }
-                url.path?.let { path ->
-                    uncloakedHostName += path
-                }
-                uncloakedHostName = if (url.scheme != null) {
-                    "${url.scheme}://$uncloakedHostName"
-                } else {
-                    "${UrlScheme.http}://$uncloakedHostName"
-                }
-                return uncloakedHostName
-            }
+        return uncloakedUrl(url, url.host ?: return null)
+    }
+
+    override fun detectCnameCloakedHost(documentUrl: ParsedRequest?, url: ParsedRequest): String? {
+        if (documentUrl != null &&
+            trackerAllowlist.isAnException(documentUrl.url, documentUrl.baseHost, url.url, url.baseHost, url.portStrippedUrl) ||
+            userAllowListRepository.isUriInUserAllowList(url.uri)
+        ) { return null }
+
+        return uncloakedUrl(url.uri, url.host ?: return null)
+    }
+
+    private fun uncloakedUrl(url: Uri, host: String): String? {
+        val uncloakedHostName = activeUncloakedHosts()[host] ?: return null
+        logcat(VERBOSE) { "$host is a CNAME cloaked host. Uncloaked host name: $uncloakedHostName" }
+
+        val scheme = url.scheme ?: UrlScheme.http
+        val path = url.path
+        return StringBuilder(scheme.length + SCHEME_SEPARATOR.length + uncloakedHostName.length + (path?.length ?: 0))
+            .append(scheme)
+            .append(SCHEME_SEPARATOR)
+            .append(uncloakedHostName)
+            .apply { if (path != null) append(path) }
+            .toString()
+    }
+
+    private fun activeUncloakedHosts(): Map<String, String> {
+        uncloakedHosts?.let { return it }
+        return synchronized(this) {
+            uncloakedHosts?.let { return it }
+            loadUncloakedHosts().also { uncloakedHosts = it }
         }
-        return null
+    }
+
+    @WorkerThread
+    private fun loadUncloakedHosts(): Map<String, String> =
+        tdsCnameEntityDao.getAll().associate { it.cloakedHostName to it.uncloakedHostName }
+
+    companion object {
+        private const val SCHEME_SEPARATOR = "://"
     }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.app.trackerdetection
+
+import com.duckduckgo.app.trackerdetection.model.Entity
+
+/**
+ * Per page load state for [TrackerDetectorImpl], created when a page starts loading.
+ *
+ * Holds the document-level inputs of tracker evaluation, which don't change for the subresources of a page, and a bounded
+ * cache of rule matching results so that identical requests on the same page skip client matching and entity lookups.
+ */
+internal class DocumentEvaluationContext(
+    documentEntity: () -> Entity?,
+    isDocumentAllowListed: () -> Boolean,
+    isContentBlockingException: () -> Boolean,
+) {
+    val documentEntity: Entity? by lazy(documentEntity)
+    val isDocumentAllowListed: Boolean by lazy(isDocumentAllowListed)
+    val isContentBlockingException: Boolean by lazy(isContentBlockingException)
+
+    private val matches = object : LinkedHashMap<MatchKey, Match>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<MatchKey, Match>?): Boolean = size > MAX_MATCHES
+    }
+
+    fun match(
+        url: String,
+        requestHeaders: Map<String, String>,
+    ): Match? = synchronized(matches) { matches[MatchKey(url, requestHeaders)] }
+
+    fun putMatch(
+        url: String,
+        requestHeaders: Map<String, String>,
+        match: Match,
+    ) {
+        synchronized(matches) { matches[MatchKey(url, requestHeaders)] = match }
+    }
+
+    /**
+     * Result of matching a request against the blocking clients, along with the entities resolved for it.
+     */
+    class Match(
+        val result: Client.Result,
+        val urlNetwork: Entity?,
+        val entity: Entity?,
+    )
+
+    /**
+     * Request headers are part of the key because they determine the request type that rule options and exceptions match on.
+     */
+    private data class MatchKey(
+        val url: String,
+        val requestHeaders: Map<String, String>,
+    )
+
+    companion object {
+        private const val MAX_MATCHES = 256
+    }
+}
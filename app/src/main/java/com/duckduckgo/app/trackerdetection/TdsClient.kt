@@ -18,13 +18,14 @@ package com.duckduckgo.app.trackerdetection
 
 import android.net.Uri
 import com.duckduckgo.app.browser.Domain
+import com.duckduckgo.app.browser.DomainSuffixMap
+import com.duckduckgo.app.browser.DomainSuffixSet
 import com.duckduckgo.app.browser.UriString.Companion.host
 import com.duckduckgo.app.browser.UriString.Companion.sameOrSubdomain
 import com.duckduckgo.app.trackerdetection.model.Action.BLOCK
 import com.duckduckgo.app.trackerdetection.model.Action.IGNORE
 import com.duckduckgo.app.trackerdetection.model.Rule
 import com.duckduckgo.app.trackerdetection.model.TdsTracker
-import logcat.logcat
 
 class TdsClient(
     override val name: Client.ClientName,
@@ -39,21 +40,12 @@ class TdsClient(
     private val compiledTrackers: List<CompiledTracker> = trackers.map { tracker ->
         CompiledTracker(
             tracker = tracker,
-            rules = tracker.rules.map { rule ->
-                val regex = if (precompileRegex) {
-                    runCatching { ".*${rule.rule}.*".toRegex() }
-                        .onFailure { logcat { "TDS rule failed to compile, skipping: ${rule.rule} (${it.message})" } }
-                        .getOrNull()
-                } else {
-                    null
-                }
-                CompiledRule(rule = rule, regex = regex)
-            },
+            matcher = if (this.precompileRegex) TdsRuleMatcher(tracker.rules) else null,
         )
     }
 
-    private val compiledTrackerByDomain: Map<String, CompiledTracker> by lazy {
-        compiledTrackers.associateBy { it.tracker.domain.value }
+    private val compiledTrackerByDomain: DomainSuffixMap<CompiledTracker> by lazy {
+        DomainSuffixMap(compiledTrackers.associateBy { it.tracker.domain.value })
     }
 
     override fun matches(
@@ -91,23 +83,13 @@ class TdsClient(
     private fun findCompiledTracker(host: String?): CompiledTracker? {
         if (host.isNullOrEmpty()) return null
         return if (optimizeTrackerEvaluationV3) {
-            findCompiledTrackerByLabelWalk(host)
+            compiledTrackerByDomain.findSameOrParentOf(host)
         } else {
             val domain = Domain(host)
             compiledTrackers.firstOrNull { sameOrSubdomain(domain, it.tracker.domain) }
         }
     }
 
-    private fun findCompiledTrackerByLabelWalk(host: String): CompiledTracker? {
-        var candidate: String = host
-        while (true) {
-            compiledTrackerByDomain[candidate]?.let { return it }
-            val dot = candidate.indexOf('.')
-            if (dot < 0) return null
-            candidate = candidate.substring(dot + 1)
-        }
-    }
-
     private fun matchesTrackerEntry(
         compiled: CompiledTracker,
         url: String,
@@ -115,58 +97,84 @@ class TdsClient(
         requestHeaders: Map<String, String>,
     ): MatchedResult {
         // The request type depends only on (url, requestHeaders), so it is invariant across rules. Computing it once.
-        var type: String? = null
-        var typeResolved = false
-        compiled.rules.forEach { compiledRule ->
-            val rule = compiledRule.rule
-            val regex = if (precompileRegex) {
-                compiledRule.regex ?: return@forEach
-            } else {
-                ".*${rule.rule}.*".toRegex()
+        val type by lazy(LazyThreadSafetyMode.NONE) { urlToTypeMapper.map(url, requestHeaders) }
+        val rules = compiled.tracker.rules
+        val ruleDomains = if (optimizeTrackerEvaluationV3) compiled.ruleDomains else null
+        val matcher = compiled.matcher
+        if (matcher != null) {
+            var index = matcher.nextMatch(url)
+            while (index >= 0) {
+                matchedRuleResult(rules[index], ruleDomains?.get(index), documentUrl) { type }?.let { return it }
+                index = matcher.nextMatch(url, index + 1)
             }
-            if (url.matches(regex)) {
-                if (!typeResolved) {
-                    type = urlToTypeMapper.map(url, requestHeaders)
-                    typeResolved = true
-                }
-
-                if (rule.options != null) {
-                    if (!matchedDomainAndTypes(rule.options.domains, rule.options.types, documentUrl, type)) {
-                        // Continue to the next rule instead
-                        return@forEach
-                    }
+        } else {
+            rules.forEachIndexed { index, rule ->
+                if (url.matches(".*${rule.rule}.*".toRegex())) {
+                    matchedRuleResult(rule, ruleDomains?.get(index), documentUrl) { type }?.let { return it }
                 }
+            }
+        }
 
-                if (rule.exceptions != null) {
-                    if (matchedDomainAndTypes(rule.exceptions.domains, rule.exceptions.types, documentUrl, type)) {
-                        return MatchedResult(shouldBlock = false, isATracker = true)
-                    }
-                }
+        return MatchedResult(shouldBlock = (compiled.tracker.defaultAction == BLOCK), isATracker = true)
+    }
 
-                if (rule.action == IGNORE) {
-                    return MatchedResult(shouldBlock = false, isATracker = true)
-                }
+    /**
+     * @return the result for a [rule] whose pattern matched the url, or null if evaluation should continue with the next rule
+     */
+    private inline fun matchedRuleResult(
+        rule: Rule,
+        ruleDomains: RuleDomains?,
+        documentUrl: Uri,
+        type: () -> String?,
+    ): MatchedResult? {
+        if (rule.options != null) {
+            val matchesDomain = matchesDomain(rule.options.domains, ruleDomains?.options, documentUrl)
+            if (!matchedDomainAndTypes(rule.options.domains, matchesDomain, rule.options.types, type())) {
+                // Continue to the next rule instead
+                return null
+            }
+        }
 
-                if (rule.surrogate?.isNotEmpty() == true) {
-                    return MatchedResult(shouldBlock = true, surrogate = rule.surrogate, isATracker = true)
-                }
-                // Null means no action which we should default to block
-                if (rule.action == BLOCK || rule.action == null) {
-                    return MatchedResult(shouldBlock = true, isATracker = true)
-                }
+        if (rule.exceptions != null) {
+            val matchesDomain = matchesDomain(rule.exceptions.domains, ruleDomains?.exceptions, documentUrl)
+            if (matchedDomainAndTypes(rule.exceptions.domains, matchesDomain, rule.exceptions.types, type())) {
+                return MatchedResult(shouldBlock = false, isATracker = true)
             }
         }
 
-        return MatchedResult(shouldBlock = (compiled.tracker.defaultAction == BLOCK), isATracker = true)
+        if (rule.action == IGNORE) {
+            return MatchedResult(shouldBlock = false, isATracker = true)
+        }
+
+        if (rule.surrogate?.isNotEmpty() == true) {
+            return MatchedResult(shouldBlock = true, surrogate = rule.surrogate, isATracker = true)
+        }
+        // Null means no action which we should default to block
+        if (rule.action == BLOCK || rule.action == null) {
+            return MatchedResult(shouldBlock = true, isATracker = true)
+        }
+        return null
+    }
+
+    /**
+     * @return whether [documentUrl] is the same as, or a subdomain of, any of the [ruleDomains], answered from their [index]
+     * when there is one, or null when the rule has no domains
+     */
+    private fun matchesDomain(
+        ruleDomains: List<String>?,
+        index: DomainSuffixSet?,
+        documentUrl: Uri,
+    ): Boolean? {
+        ruleDomains ?: return null
+        return index?.containsSameOrParentOf(documentUrl.host) ?: ruleDomains.any { domain -> sameOrSubdomain(documentUrl, domain) }
     }
 
     private fun matchedDomainAndTypes(
         ruleDomains: List<String>?,
+        matchesDomain: Boolean?,
         ruleTypes: List<String>?,
-        documentUrl: Uri,
         type: String?,
     ): Boolean {
-        val matchesDomain = ruleDomains?.any { domain -> sameOrSubdomain(documentUrl, domain) }
         val matchesType = ruleTypes?.contains(type)
 
         return when {
@@ -183,14 +191,25 @@ class TdsClient(
         }
     }
 
-    private data class CompiledRule(
-        val rule: Rule,
-        val regex: Regex?,
-    )
-
-    private data class CompiledTracker(
+    private class CompiledTracker(
         val tracker: TdsTracker,
-        val rules: List<CompiledRule>,
+        /** Precompiled rule engine, only built when regex precompilation is enabled. */
+        val matcher: TdsRuleMatcher?,
+    ) {
+        /** Option and exception domains of every rule, in the order of [TdsTracker.rules]. Only built for trackers that get matched. */
+        val ruleDomains: List<RuleDomains> by lazy {
+            tracker.rules.map { rule ->
+                RuleDomains(
+                    options = rule.options?.domains?.let { DomainSuffixSet.fromDomains(it) },
+                    exceptions = rule.exceptions?.domains?.let { DomainSuffixSet.fromDomains(it) },
+                )
+            }
+        }
+    }
+
+    private class RuleDomains(
+        val options: DomainSuffixSet?,
+        val exceptions: DomainSuffixSet?,
     )
 
     private data class MatchedResult(
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.app.trackerdetection
+
+import com.duckduckgo.app.trackerdetection.model.Rule
+import logcat.logcat
+
+/**
+ * Rule engine for the rules of a single TDS tracker, built once when the [TdsClient] is created.
+ *
+ * Every rule is compiled once and paired with a literal that any URL matching the rule must contain. [nextMatch] walks the
+ * rules in their original order and only runs a rule's regex when the URL contains its literal, so the common "tracker domain,
+ * no rule matches" case is answered with plain substring searches.
+ *
+ * TDS rules are matched as `url.matches(".*rule.*")`. For URLs, which never contain line terminators, that is equivalent to
+ * finding `rule` anywhere in the URL, which is what this matcher does, without the leading `.*` backtracking.
+ */
+internal class TdsRuleMatcher(rules: List<Rule>) {
+
+    private val compiledRules: List<CompiledRule> = rules.map { rule ->
+        val regex = runCatching { rule.rule.toRegex() }
+            .onFailure { logcat { "TDS rule failed to compile, skipping: ${rule.rule} (${it.message})" } }
+            .getOrNull()
+        CompiledRule(regex = regex, literal = if (regex != null) requiredLiteral(rule.rule) else null)
+    }
+
+    val size: Int
+        get() = compiledRules.size
+
+    /**
+     * @return the index of the first rule at or after [fromIndex] that matches [url], or -1 if none does
+     */
+    fun nextMatch(
+        url: String,
+        fromIndex: Int = 0,
+    ): Int {
+        for (index in fromIndex until compiledRules.size) {
+            val compiled = compiledRules[index]
+            val regex = compiled.regex ?: continue
+            if (compiled.literal != null && !url.contains(compiled.literal)) continue
+            if (regex.containsMatchIn(url)) return index
+        }
+        return -1
+    }
+
+    private class CompiledRule(
+        val regex: Regex?,
+        val literal: String?,
+    )
+
+    companion object {
+        private const val MIN_LITERAL_LENGTH = 2
+
+        /**
+         * Extracts the longest literal substring that every match of [pattern] must contain, or null when one cannot be
+         * safely determined (alternations, inline flags, unsupported escapes...). Groups and character classes are treated
+         * as opaque, which only ever makes the literal shorter, never wrong.
+         */
+        internal fun requiredLiteral(pattern: String): String? {
+            if (pattern.contains("(?")) return null
+
+            var longest = ""
+            val current = StringBuilder()
+
+            fun endRun() {
+                if (current.length > longest.length) longest = current.toString()
+                current.setLength(0)
+            }
+
+            fun appendLiteral(
+                char: Char,
+                nextIndex: Int,
+            ) {
+                when (pattern.getOrNull(nextIndex)) {
+                    // the char is optional, it can't be part of the required literal
+                    '*', '?', '{' -> endRun()
+                    // the char is required but what follows is not necessarily adjacent to it
+                    '+' -> {
+                        current.append(char)
+                        endRun()
+                    }
+                    else -> current.append(char)
+                }
+            }
+
+            var index = 0
+            while (index < pattern.length) {
+                when (val char = pattern[index]) {
+                    '\\' -> {
+                        val escaped = pattern.getOrNull(index + 1) ?: return null
+                        when {
+                            escaped in SHORTHAND_CLASSES -> endRun()
+                            escaped.isLetterOrDigit() -> return null
+                            else -> appendLiteral(escaped, index + 2)
+                        }
+                        index += 2
+                    }
+                    '|', ')' -> return null
+                    '[' -> {
+                        endRun()
+                        index = skipCharacterClass(pattern, index) ?: return null
+                    }
+                    '(' -> {
+                        endRun()
+                        index = skipGroup(pattern, index) ?: return null
+                    }
+                    '{' -> {
+                        endRun()
+                        index = pattern.indexOf('}', index).takeIf { it >= 0 }?.plus(1) ?: return null
+                    }
+                    '.', '^', '$', '*', '+', '?' -> {
+                        endRun()
+                        index++
+                    }
+                    else -> {
+                        appendLiteral(char, index + 1)
+                        index++
+                    }
+                }
+            }
+            endRun()
+
+            return longest.takeIf { it.length >= MIN_LITERAL_LENGTH }
+        }
+
+        /** @return the index right after the class that starts at [start], or null if it is not closed */
+        private fun skipCharacterClass(
+            pattern: String,
+            start: Int,
+        ): Int? {
+            var index = start + 1
+            // a ']' right after '[' or '[^' is a literal
+            if (pattern.getOrNull(index) == '^') index++
+            if (pattern.getOrNull(index) == ']') index++
+            while (index < pattern.length) {
+                when (pattern[index]) {
+                    '\\' -> index += 2
+                    '[' -> return null // nested classes / intersections are not supported
+                    ']' -> return index + 1
+                    else -> index++
+                }
+            }
+            return null
+        }
+
+        /** @return the index right after the group that starts at [start], or null if it is not closed */
+        private fun skipGroup(
+            pattern: String,
+            start: Int,
+        ): Int? {
+            var depth = 0
+            var index = start
+            while (index < pattern.length) {
+                when (pattern[index]) {
+                    '\\' -> {
+                        index += 2
+                        continue
+                    }
+                    '[' -> {
+                        index = skipCharacterClass(pattern, index) ?: return null
+                        continue
+                    }
+                    '(' -> depth++
+                    ')' -> {
+                        depth--
+                        if (depth == 0) return index + 1
+                    }
+                }
+                index++
+            }
+            return null
+        }
+
+        private val SHORTHAND_CLASSES = setOf('d', 'D', 'w', 'W', 's', 'S', 'b', 'B')
+    }
+}
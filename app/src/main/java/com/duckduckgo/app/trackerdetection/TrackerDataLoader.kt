@@ -23,6 +23,8 @@ import com.duckduckgo.app.browser.R
 import com.duckduckgo.app.di.AppCoroutineScope
 import com.duckduckgo.app.global.db.AppDatabase
 import com.duckduckgo.app.lifecycle.MainProcessLifecycleObserver
+import com.duckduckgo.app.lifecycle.MainProcessStartupTask
+import com.duckduckgo.app.lifecycle.MainProcessStartupTask.StartupStage
 import com.duckduckgo.app.lifecycle.PirProcessLifecycleObserver
 import com.duckduckgo.app.pixels.remoteconfig.OptimizeTrackerEvaluationRCWrapper
 import com.duckduckgo.app.pixels.remoteconfig.PrecompileTdsRegexRCWrapper
@@ -66,13 +68,19 @@ class TrackerDataLoader @Inject constructor(
     private val moshi: Moshi,
     private val urlToTypeMapper: UrlToTypeMapper,
     private val entityLookupRefresher: EntityLookupRefresher,
+    private val cloakedCnameRefresher: CloakedCnameRefresher,
     private val dispatcherProvider: DispatcherProvider,
     private val optimizeTrackerEvaluationRCWrapper: OptimizeTrackerEvaluationRCWrapper,
     private val precompileTdsRegexRCWrapper: PrecompileTdsRegexRCWrapper,
-) : MainProcessLifecycleObserver, PirProcessLifecycleObserver {
+) : MainProcessLifecycleObserver, MainProcessStartupTask, PirProcessLifecycleObserver {
+
+    override val startupStage: StartupStage = StartupStage.BACKGROUND
+
+    override val startupTaskName: String = MainProcessStartupTask.TRACKER_DATA_LOADED
 
     override fun onCreate(owner: LifecycleOwner) {
-        appCoroutineScope.launch(dispatcherProvider.io()) { loadData() }
+        // already called off the main thread, loading synchronously lets other start-up tasks depend on TRACKER_DATA_LOADED
+        loadData()
     }
 
     override fun onPirProcessCreated() {
@@ -129,6 +137,7 @@ class TrackerDataLoader @Inject constructor(
         )
         trackerDetectorClientProvider.addClient(client)
         entityLookupRefresher.refresh()
+        cloakedCnameRefresher.refresh()
     }
 
     companion object {
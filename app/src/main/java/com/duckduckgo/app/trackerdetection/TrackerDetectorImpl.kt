@@ -18,11 +18,14 @@ package com.duckduckgo.app.trackerdetection
 
 import android.net.Uri
 import androidx.annotation.VisibleForTesting
+import androidx.core.net.toUri
 import com.duckduckgo.adclick.api.AdClickManager
+import com.duckduckgo.app.browser.ParsedRequest
 import com.duckduckgo.app.browser.UriString.Companion.removePort
 import com.duckduckgo.app.browser.UriString.Companion.sameOrSubdomainPair
 import com.duckduckgo.app.privacy.db.UserAllowListRepository
 import com.duckduckgo.app.trackerdetection.Client.ClientType.BLOCKING
+import com.duckduckgo.app.trackerdetection.DocumentEvaluationContext.Match
 import com.duckduckgo.app.trackerdetection.model.Entity
 import com.duckduckgo.app.trackerdetection.model.TrackerStatus
 import com.duckduckgo.app.trackerdetection.model.TrackerType
@@ -58,6 +61,15 @@ class TrackerDetectorImpl @Inject constructor(
     @Volatile
     private var blockingClients: List<Client> = emptyList()
 
+    /**
+     * Evaluation contexts of the most recently started pages, keyed by document url. Requests from documents without a context
+     * (e.g. a page that hasn't gone through [onPageStarted]) are evaluated without memoization.
+     */
+    private val documentContexts = object : LinkedHashMap<String, DocumentEvaluationContext>(MAX_DOCUMENT_CONTEXTS, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, DocumentEvaluationContext>?): Boolean =
+            size > MAX_DOCUMENT_CONTEXTS
+    }
+
     /**
      * Adds a new client. If the client's name matches an existing client, old client is replaced
      */
@@ -65,6 +77,18 @@ class TrackerDetectorImpl @Inject constructor(
         clients.removeAll { client.name == it.name }
         clients.add(client)
         blockingClients = clients.filter { it.name.type == BLOCKING }
+        // memoized matches were computed against the previous clients
+        synchronized(documentContexts) { documentContexts.clear() }
+    }
+
+    override fun onPageStarted(documentUrl: String) {
+        val document = documentUrl.toUri()
+        val context = DocumentEvaluationContext(
+            documentEntity = { entityLookup.entityForUrl(document) },
+            isDocumentAllowListed = { userAllowListRepository.isDocumentAllowListed(document) },
+            isContentBlockingException = { contentBlocking.isAnException(documentUrl) },
+        )
+        synchronized(documentContexts) { documentContexts[documentUrl] = context }
     }
 
     override fun evaluate(
@@ -82,15 +106,24 @@ class TrackerDetectorImpl @Inject constructor(
             return null
         }
 
-        val result = blockingClients
-            .firstNotNullOfOrNull { it.matches(cleanedUrl, documentUrl, requestHeaders) } ?: Client.Result.NO_MATCH
-
-        val urlNetwork = entityLookup.entityForUrl(url)
-        val sameEntity = sameNetwork(urlNetwork, documentUrl)
-        val entity = if (result.entityName != null) entityLookup.entityForName(result.entityName) else urlNetwork
-        val isDocumentInAllowedList = userAllowListRepository.isDocumentAllowListed(documentUrl)
+        val context = documentContext(documentUrlString)
+        val match = match(
+            context = context,
+            urlString = urlString,
+            requestHeaders = requestHeaders,
+            matchClients = { blockingClients.firstNotNullOfOrNull { it.matches(cleanedUrl, documentUrl, requestHeaders) } },
+            urlNetwork = { entityLookup.entityForUrl(url) },
+        )
 
-        return evaluate(documentUrlString, urlString, result, sameEntity, isDocumentInAllowedList, entity)
+        return evaluate(
+            documentUrlString = documentUrlString,
+            urlString = urlString,
+            documentUrl = documentUrl,
+            match = match,
+            context = context,
+            trackerAllowlisted = { trackerAllowlist.isAnException(documentUrlString, urlString) },
+            contentBlockingException = { contentBlocking.isAnException(documentUrlString) },
+        )
     }
 
     override fun evaluate(
@@ -107,33 +140,97 @@ class TrackerDetectorImpl @Inject constructor(
             return null
         }
 
-        val result = blockingClients
-            .firstNotNullOfOrNull { it.matches(cleanedUrl, documentUrl, requestHeaders) } ?: Client.Result.NO_MATCH
+        val context = documentContext(documentUrlString)
+        val match = match(
+            context = context,
+            urlString = url,
+            requestHeaders = requestHeaders,
+            matchClients = { blockingClients.firstNotNullOfOrNull { it.matches(cleanedUrl, documentUrl, requestHeaders) } },
+            urlNetwork = { entityLookup.entityForUrl(url) },
+        )
+
+        return evaluate(
+            documentUrlString = documentUrlString,
+            urlString = url,
+            documentUrl = documentUrl,
+            match = match,
+            context = context,
+            trackerAllowlisted = { trackerAllowlist.isAnException(documentUrlString, url) },
+            contentBlockingException = { contentBlocking.isAnException(documentUrlString) },
+        )
+    }
+
+    override fun evaluate(
+        url: ParsedRequest,
+        documentUrl: ParsedRequest,
+        checkFirstParty: Boolean,
+        requestHeaders: Map<String, String>,
+    ): TrackingEvent? {
+        if (checkFirstParty && url.isSameOrSubdomainPair(documentUrl)) {
+            logcat(VERBOSE) { "$url is a first party url" }
+            return null
+        }
+
+        val context = documentContext(documentUrl.url)
+        val match = match(
+            context = context,
+            urlString = url.url,
+            requestHeaders = requestHeaders,
+            matchClients = { blockingClients.firstNotNullOfOrNull { it.matches(url.portStrippedUri, documentUrl.uri, requestHeaders) } },
+            urlNetwork = { entityLookup.entityForUrl(url.uri) },
+        )
+
+        return evaluate(
+            documentUrlString = documentUrl.url,
+            urlString = url.url,
+            documentUrl = documentUrl.uri,
+            match = match,
+            context = context,
+            trackerAllowlisted = {
+                trackerAllowlist.isAnException(documentUrl.url, documentUrl.baseHost, url.url, url.baseHost, url.portStrippedUrl)
+            },
+            contentBlockingException = { contentBlocking.isAnException(documentUrl.url, documentUrl.baseHost) },
+        )
+    }
 
-        val urlNetwork = entityLookup.entityForUrl(url)
-        val sameEntity = sameNetwork(urlNetwork, documentUrl)
-        val entity = if (result.entityName != null) entityLookup.entityForName(result.entityName) else urlNetwork
-        val isDocumentInAllowedList = userAllowListRepository.isDocumentAllowListed(documentUrl)
+    private fun documentContext(documentUrl: String): DocumentEvaluationContext? =
+        synchronized(documentContexts) { documentContexts[documentUrl] }
 
-        return evaluate(documentUrlString, url, result, sameEntity, isDocumentInAllowedList, entity)
+    private inline fun match(
+        context: DocumentEvaluationContext?,
+        urlString: String,
+        requestHeaders: Map<String, String>,
+        matchClients: () -> Client.Result?,
+        urlNetwork: () -> Entity?,
+    ): Match {
+        context?.match(urlString, requestHeaders)?.let { return it }
+
+        val result = matchClients() ?: Client.Result.NO_MATCH
+        val network = urlNetwork()
+        val entity = if (result.entityName != null) entityLookup.entityForName(result.entityName) else network
+        return Match(result, network, entity).also { context?.putMatch(urlString, requestHeaders, it) }
     }
 
-    private fun evaluate(
+    private inline fun evaluate(
         documentUrlString: String,
         urlString: String,
-        result: Client.Result,
-        sameEntity: Boolean,
-        isDocumentInAllowedList: Boolean,
-        entity: Entity?,
+        documentUrl: Uri,
+        match: Match,
+        context: DocumentEvaluationContext?,
+        trackerAllowlisted: () -> Boolean,
+        contentBlockingException: () -> Boolean,
     ): TrackingEvent {
+        val result = match.result
+        val sameEntity = sameNetwork(match.urlNetwork, documentUrl, context)
+        val isDocumentInAllowedList = context?.isDocumentAllowListed ?: userAllowListRepository.isDocumentAllowListed(documentUrl)
         val isInAdClickAllowList = adClickManager.isExemption(documentUrlString, urlString)
-        val isInTrackerAllowList = trackerAllowlist.isAnException(documentUrlString, urlString)
+        val isInTrackerAllowList = trackerAllowlisted()
         val isATrackerAllowed = result.isATracker && !result.matches
         val shouldBlock = result.matches &&
             !sameEntity &&
             !isInTrackerAllowList &&
             !isInAdClickAllowList &&
-            !contentBlocking.isAnException(documentUrlString)
+            !(context?.isContentBlockingException ?: contentBlockingException())
 
         val status = when {
             sameEntity -> TrackerStatus.SAME_ENTITY_ALLOWED
@@ -148,7 +245,7 @@ class TrackerDetectorImpl @Inject constructor(
 
         logcat(VERBOSE) { "$documentUrlString resource $urlString WAS identified as a tracker and status=$status" }
 
-        return TrackingEvent(documentUrlString, urlString, result.categories, entity, result.surrogate, status, type)
+        return TrackingEvent(documentUrlString, urlString, result.categories, match.entity, result.surrogate, status, type)
     }
 
     private fun removePortFromUrl(uri: Uri): Uri {
@@ -176,15 +273,20 @@ class TrackerDetectorImpl @Inject constructor(
     private fun sameNetwork(
         urlNetwork: Entity?,
         documentUrl: Uri,
+        context: DocumentEvaluationContext?,
     ): Boolean {
         if (urlNetwork == null) return false
-        val documentNetwork = entityLookup.entityForUrl(documentUrl) ?: return false
+        val documentNetwork = (if (context != null) context.documentEntity else entityLookup.entityForUrl(documentUrl)) ?: return false
         return urlNetwork.name == documentNetwork.name
     }
 
     @VisibleForTesting
     val clientCount
         get() = clients.count()
+
+    companion object {
+        private const val MAX_DOCUMENT_CONTEXTS = 16
+    }
 }
 
 private fun UserAllowListRepository.isDocumentAllowListed(document: Uri?): Boolean {
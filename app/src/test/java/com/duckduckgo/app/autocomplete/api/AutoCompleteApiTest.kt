@@ -2165,7 +2165,12 @@ class AutoCompleteApiTest {
         return AutoCompleteApi(
             mockAutoCompleteService,
             mockSavedSitesRepository,
-            mockNavigationHistory,
+            RealLocalAutoCompleteIndex(
+                mockNavigationHistory,
+                mockSavedSitesRepository,
+                coroutineTestRule.testScope,
+                coroutineTestRule.testDispatcherProvider,
+            ),
             RealAutoCompleteScorer(),
             mockTabRepositoryProvider,
             BrowserMode.REGULAR,
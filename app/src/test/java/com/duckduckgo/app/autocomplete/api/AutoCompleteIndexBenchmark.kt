@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.app.autocomplete.api
+
+import androidx.core.net.toUri
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.duckduckgo.history.api.HistoryEntry
+import com.duckduckgo.history.api.HistoryEntry.VisitedPage
+import com.duckduckgo.savedsites.api.models.SavedSite.Bookmark
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Ignore
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.time.LocalDateTime
+import kotlin.random.Random
+
+/**
+ * Microbenchmark comparing ranking every local autocomplete entry per query (what [AutoCompleteApi] did before
+ * [AutoCompleteIndex]) against ranking only the candidates of the index, over 50k synthetic history entries and 10k
+ * synthetic bookmarks.
+ *
+ * Not part of the regular test suite — the @Test method is @Ignore'd. To run, remove the @Ignore annotation, then:
+ *
+ *   JAVA_HOME=/path/to/java21 ./gradlew :app:testPlayDebugUnitTest \
+ *     --tests "com.duckduckgo.app.autocomplete.api.AutoCompleteIndexBenchmark" \
+ *     --info
+ *
+ * Queries are typed one character at a time, as autocomplete sees them, from a mix of domains, title words and misses.
+ * Both paths are checked to return the same top results before timing.
+ */
+@Ignore("Microbenchmark — remove this annotation and run with --info to see results")
+@RunWith(AndroidJUnit4::class)
+class AutoCompleteIndexBenchmark {
+
+    private val scorer = RealAutoCompleteScorer()
+
+    private lateinit var history: List<HistoryEntry>
+    private lateinit var bookmarks: List<Bookmark>
+    private lateinit var queries: List<String>
+
+    @Before
+    fun setup() {
+        val random = Random(SEED)
+        history = List(HISTORY_ENTRIES) { index ->
+            val site = SITES[index % SITES.size]
+            VisitedPage(
+                url = "https://www.$site${index % 50}.com/${WORDS.random(random)}/$index".toUri(),
+                title = "${WORDS.random(random)} ${WORDS.random(random)} $site",
+                visits = List(random.nextInt(1, 5)) { LocalDateTime.now() },
+            )
+        }
+        bookmarks = List(BOOKMARKS) { index ->
+            val site = SITES.random(random)
+            Bookmark(
+                id = "bookmark$index",
+                title = "${WORDS.random(random)} $site",
+                url = "https://$site.org/${WORDS.random(random)}/$index",
+                lastModified = null,
+            )
+        }
+        queries = (SITES.take(4) + WORDS.take(4) + listOf("zzqx", "cooking recipes"))
+            .flatMap { query -> (1..query.length).map { query.substring(0, it) } }
+    }
+
+    @Test
+    fun benchmarkLinearVsIndexed() {
+        val historyIndex = AutoCompleteIndex(::historySearchKeys).apply { update(history) }
+        val bookmarkIndex = AutoCompleteIndex<Bookmark> { savedSiteSearchKeys(it.title, it.url) }.apply { update(bookmarks) }
+
+        queries.forEach { query ->
+            assertEquals(rankHistory(query, history), rankHistory(query, historyIndex.candidates(query, query.tokensFrom())))
+            assertEquals(rankBookmarks(query, bookmarks), rankBookmarks(query, bookmarkIndex.candidates(query, query.split(" "))))
+        }
+
+        repeat(WARMUP_ITERATIONS) {
+            runLinear()
+            runIndexed(historyIndex, bookmarkIndex)
+        }
+
+        val linearTotal = measureNanos { runLinear() }
+        val indexedTotal = measureNanos { runIndexed(historyIndex, bookmarkIndex) }
+
+        val totalQueries = (MEASUREMENT_ITERATIONS * queries.size).toLong()
+        val linearPerQuery = linearTotal / totalQueries
+        val indexedPerQuery = indexedTotal / totalQueries
+
+        println("===== Local autocomplete linear vs indexed microbenchmark =====")
+        println("History entries:                 ${history.size}")
+        println("Bookmarks:                       ${bookmarks.size}")
+        println("Queries (one per keystroke):     ${queries.size}")
+        println("Measurement iterations:          $MEASUREMENT_ITERATIONS")
+        println()
+        println("Linear (rank every entry):       $linearPerQuery ns/query")
+        println("Indexed (rank candidates):       $indexedPerQuery ns/query")
+        if (indexedPerQuery > 0L) {
+            val speedup = linearPerQuery.toDouble() / indexedPerQuery.toDouble()
+            println("Speedup:                         ${"%.1f".format(speedup)}x")
+        }
+        println("===============================================================")
+    }
+
+    private fun runLinear() {
+        queries.forEach { query ->
+            rankHistory(query, history)
+            rankBookmarks(query, bookmarks)
+        }
+    }
+
+    private fun runIndexed(
+        historyIndex: AutoCompleteIndex<HistoryEntry>,
+        bookmarkIndex: AutoCompleteIndex<Bookmark>,
+    ) {
+        queries.forEach { query ->
+            rankHistory(query, historyIndex.candidates(query, query.tokensFrom()))
+            rankBookmarks(query, bookmarkIndex.candidates(query, query.split(" ")))
+        }
+    }
+
+    private fun rankHistory(
+        query: String,
+        entries: List<HistoryEntry>,
+    ): List<HistoryEntry> {
+        val tokens = query.tokensFrom()
+        return entries.map { it to scorer.score(it.title, it.url, it.visits.size, query, tokens) }
+            .filter { it.second > 0 }
+            .sortedByDescending { it.second }
+            .take(RESULTS)
+            .map { it.first }
+    }
+
+    // Same cost profile as the bookmark ranking of AutoCompleteApi: title and url prefix and token checks for every entry
+    private fun rankBookmarks(
+        query: String,
+        entries: List<Bookmark>,
+    ): List<Bookmark> {
+        val tokens = query.split(" ")
+        return entries.filter { bookmark ->
+            val url = bookmark.url.toUri()
+            val keys = savedSiteSearchKeys(bookmark.title, bookmark.url)
+            keys.prefixes.any { it.startsWith(query, ignoreCase = true) } ||
+                bookmark.title.startsWith(query, ignoreCase = true) ||
+                (
+                    tokens.size > 1 &&
+                        tokens.all { token -> bookmark.title.contains(" $token", ignoreCase = true) || url.host?.startsWith(token) == true }
+                    )
+        }.take(RESULTS)
+    }
+
+    private inline fun measureNanos(block: () -> Unit): Long {
+        val start = System.nanoTime()
+        repeat(MEASUREMENT_ITERATIONS) { block() }
+        return System.nanoTime() - start
+    }
+
+    companion object {
+        private const val SEED = 42
+        private const val HISTORY_ENTRIES = 50_000
+        private const val BOOKMARKS = 10_000
+        private const val RESULTS = 12
+        private const val WARMUP_ITERATIONS = 2
+        private const val MEASUREMENT_ITERATIONS = 5
+
+        private val SITES = listOf("example", "wikipedia", "duckduckgo", "github", "news", "shop", "weather", "maps", "mail", "video")
+        private val WORDS = listOf("cooking", "recipes", "travel", "kotlin", "android", "privacy", "football", "music", "garden", "home")
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.app.autocomplete.api
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class AutoCompleteIndexTest {
+
+    private val testee = AutoCompleteIndex<Entry> { entry ->
+        SearchKeys(prefixes = listOf(entry.url), words = listOf(entry.title), substrings = listOf(entry.domain))
+    }
+
+    @Test
+    fun whenQueryIsPrefixOfUrlThenEntryIsCandidate() {
+        val entry = Entry(url = "example.com/path", title = "Title", domain = "example.com")
+        testee.update(listOf(entry))
+
+        assertEquals(listOf(entry), testee.candidates("exa"))
+        assertEquals(listOf(entry), testee.candidates("example.com/pa"))
+        assertEquals(listOf(entry), testee.candidates("e"))
+    }
+
+    @Test
+    fun whenQueryIsPrefixOfAnyTitleWordThenEntryIsCandidate() {
+        val entry = Entry(url = "example.com", title = "Cooking with friends", domain = "example.com")
+        testee.update(listOf(entry))
+
+        assertEquals(listOf(entry), testee.candidates("cook"))
+        assertEquals(listOf(entry), testee.candidates("with fr"))
+        assertEquals(listOf(entry), testee.candidates("fr"))
+    }
+
+    @Test
+    fun whenQueryIsInsideDomainThenEntryIsCandidate() {
+        val entry = Entry(url = "news.example.com", title = "Title", domain = "news.example.com")
+        testee.update(listOf(entry))
+
+        assertEquals(listOf(entry), testee.candidates("ample"))
+    }
+
+    @Test
+    fun whenQueryIsInsideDomainButShorterThanGramThenEntryIsNotCandidate() {
+        val entry = Entry(url = "news.example.com", title = "Title", domain = "news.example.com")
+        testee.update(listOf(entry))
+
+        assertTrue(testee.candidates("am").isEmpty())
+    }
+
+    @Test
+    fun whenQueryDoesNotMatchThenNoCandidates() {
+        testee.update(listOf(Entry(url = "example.com", title = "Title", domain = "example.com")))
+
+        assertTrue(testee.candidates("foo").isEmpty())
+    }
+
+    @Test
+    fun whenEveryTokenMatchesThenEntryIsCandidate() {
+        val entry = Entry(url = "example.com", title = "Cooking with friends", domain = "example.com")
+        testee.update(listOf(entry))
+
+        assertEquals(listOf(entry), testee.candidates("friends example", listOf("friends", "example")))
+    }
+
+    @Test
+    fun whenOnlySomeTokensMatchThenEntryIsNotCandidate() {
+        testee.update(listOf(Entry(url = "example.com", title = "Cooking with friends", domain = "example.com")))
+
+        assertTrue(testee.candidates("friends foo", listOf("friends", "foo")).isEmpty())
+    }
+
+    @Test
+    fun whenQueryHasTrailingSlashThenItIsIgnored() {
+        val entry = Entry(url = "example.com", title = "Title", domain = "example.com")
+        testee.update(listOf(entry))
+
+        assertEquals(listOf(entry), testee.candidates("example.com/"))
+    }
+
+    @Test
+    fun whenQueryHasDifferentCaseThenEntryIsCandidate() {
+        val entry = Entry(url = "example.com", title = "Cooking", domain = "example.com")
+        testee.update(listOf(entry))
+
+        assertEquals(listOf(entry), testee.candidates("COOK"))
+        assertEquals(listOf(entry), testee.candidates("Exam"))
+    }
+
+    @Test
+    fun whenQueryIsEmptyThenAllEntriesAreCandidates() {
+        val entries = listOf(
+            Entry(url = "example.com", title = "Title", domain = "example.com"),
+            Entry(url = "foo.com", title = "Foo", domain = "foo.com"),
+        )
+        testee.update(entries)
+
+        assertEquals(entries, testee.candidates(""))
+    }
+
+    @Test
+    fun whenSeveralEntriesMatchThenCandidatesKeepUpdateOrder() {
+        val entries = List(20) { Entry(url = "example$it.com", title = "Title $it", domain = "example$it.com") }
+        testee.update(entries.reversed())
+
+        assertEquals(entries.reversed(), testee.candidates("exa"))
+    }
+
+    @Test
+    fun whenEntryIsListedTwiceThenItIsCandidateTwice() {
+        val entry = Entry(url = "example.com", title = "Title", domain = "example.com")
+        val other = Entry(url = "example.org", title = "Title", domain = "example.org")
+        testee.update(listOf(entry, other, entry))
+
+        assertEquals(listOf(entry, other, entry), testee.candidates("exa"))
+    }
+
+    @Test
+    fun whenUpdatedThenRemovedEntriesAreNoLongerCandidates() {
+        val kept = Entry(url = "example.com", title = "Title", domain = "example.com")
+        val removed = Entry(url = "example.org", title = "Title", domain = "example.org")
+        testee.update(listOf(kept, removed))
+
+        testee.update(listOf(kept))
+
+        assertEquals(listOf(kept), testee.candidates("exa"))
+        assertTrue(testee.candidates("ple.org").isEmpty())
+        assertEquals(1, testee.size)
+    }
+
+    @Test
+    fun whenUpdatedThenAddedEntriesAreCandidatesInNewOrder() {
+        val first = Entry(url = "example.com", title = "Title", domain = "example.com")
+        val added = Entry(url = "example.org", title = "Title", domain = "example.org")
+        testee.update(listOf(first))
+
+        testee.update(listOf(added, first))
+
+        assertEquals(listOf(added, first), testee.candidates("exa"))
+        assertEquals(listOf(added), testee.candidates("ple.org"))
+    }
+
+    @Test
+    fun whenEntrySharingDomainIsRemovedThenOthersWithDomainAreStillCandidates() {
+        val kept = Entry(url = "example.com/a", title = "A", domain = "example.com")
+        val removed = Entry(url = "example.com/b", title = "B", domain = "example.com")
+        testee.update(listOf(kept, removed))
+
+        testee.update(listOf(kept))
+
+        assertEquals(listOf(kept), testee.candidates("ample"))
+    }
+
+    private data class Entry(
+        val url: String,
+        val title: String,
+        val domain: String,
+    )
+}
@@ -65,6 +65,7 @@ import com.duckduckgo.app.autocomplete.AutocompleteTabsFeature
 import com.duckduckgo.app.autocomplete.api.AutoCompleteApi
 import com.duckduckgo.app.autocomplete.api.AutoCompleteScorer
 import com.duckduckgo.app.autocomplete.api.AutoCompleteService
+import com.duckduckgo.app.autocomplete.api.RealLocalAutoCompleteIndex
 import com.duckduckgo.app.browser.LongPressHandler.RequiredAction
 import com.duckduckgo.app.browser.LongPressHandler.RequiredAction.DownloadFile
 import com.duckduckgo.app.browser.LongPressHandler.RequiredAction.OpenInNewTab
@@ -773,7 +774,12 @@ class BrowserTabViewModelTest {
                 AutoCompleteApi(
                     mockAutoCompleteService,
                     mockSavedSitesRepository,
-                    mockNavigationHistory,
+                    RealLocalAutoCompleteIndex(
+                        mockNavigationHistory,
+                        mockSavedSitesRepository,
+                        coroutineRule.testScope,
+                        coroutineRule.testDispatcherProvider,
+                    ),
                     mockAutoCompleteScorer,
                     tabRepositoryProvider,
                     BrowserMode.REGULAR,
@@ -2317,7 +2323,7 @@ class BrowserTabViewModelTest {
         whenever(mockTabRepository.flowTabs).thenReturn(
             flowOf(listOf(TabEntity(tabId = "1", position = 1, url = "https://example.com", title = "query"))),
         )
-        whenever(mockAutoCompleteScorer.score("query", "https://foo.com".toUri(), 1, "query")).thenReturn(1)
+        whenever(mockAutoCompleteScorer.score("query", "https://foo.com".toUri(), 1, "query", listOf("query"))).thenReturn(1)
         whenever(mockUserStageStore.getUserAppStage()).thenReturn(ESTABLISHED)
     }
 
@@ -1043,6 +1043,16 @@ class BrowserWebViewClientTest {
         verify(internalTestUserChecker).verifyVerificationCompleted(EXAMPLE_URL)
     }
 
+    @Test
+    fun whenOnPageFinishedThenInterceptorCallOnPageFinished() {
+        val mockWebView = getImmediatelyInvokedMockWebView()
+        whenever(mockWebView.progress).thenReturn(100)
+        whenever(mockWebView.settings).thenReturn(mock())
+        whenever(mockWebView.safeCopyBackForwardList()).thenReturn(TestBackForwardList())
+        testee.onPageFinished(mockWebView, EXAMPLE_URL)
+        verify(requestInterceptor).onPageFinished()
+    }
+
     @Test
     fun whenOnReceivedHttpErrorThenCallVerifyVerificationErrorReceived() {
         val mockWebView = getImmediatelyInvokedMockWebView()
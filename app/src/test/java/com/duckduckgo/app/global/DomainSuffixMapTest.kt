@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.app.global
+
+import com.duckduckgo.app.browser.DomainSuffixMap
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Test
+
+class DomainSuffixMapTest {
+
+    private val testee = DomainSuffixMap(
+        mapOf(
+            "example.com" to "example",
+            "tracker.example.com" to "tracker",
+            "co.uk" to "uk",
+        ),
+    )
+
+    @Test
+    fun whenHostIsAKeyThenGetReturnsItsValue() {
+        assertEquals("example", testee["example.com"])
+        assertEquals("tracker", testee["tracker.example.com"])
+    }
+
+    @Test
+    fun whenHostIsOnlyASubdomainOfAKeyThenGetReturnsNull() {
+        assertNull(testee["sub.example.com"])
+    }
+
+    @Test
+    fun whenHostIsAKeyThenFindSameOrParentOfReturnsItsValue() {
+        assertEquals("example", testee.findSameOrParentOf("example.com"))
+    }
+
+    @Test
+    fun whenHostIsASubdomainOfAKeyThenFindSameOrParentOfReturnsItsValue() {
+        assertEquals("example", testee.findSameOrParentOf("a.b.example.com"))
+    }
+
+    @Test
+    fun whenHostIsASubdomainOfSeveralKeysThenFindSameOrParentOfReturnsTheMostSpecific() {
+        assertEquals("tracker", testee.findSameOrParentOf("tracker.example.com"))
+        assertEquals("tracker", testee.findSameOrParentOf("cdn.tracker.example.com"))
+    }
+
+    @Test
+    fun whenHostOnlyEndsWithAKeyThenFindSameOrParentOfReturnsNull() {
+        assertNull(testee.findSameOrParentOf("notexample.com"))
+        assertNull(testee.findSameOrParentOf("example.com.evil.org"))
+    }
+
+    @Test
+    fun whenHostIsAParentOfAKeyThenFindSameOrParentOfReturnsNull() {
+        assertNull(testee.findSameOrParentOf("com"))
+        assertNull(testee.findSameOrParentOf("uk"))
+    }
+
+    @Test
+    fun whenHostIsNullOrEmptyThenNothingMatches() {
+        assertNull(testee[null])
+        assertNull(testee.findSameOrParentOf(null))
+        assertNull(testee.findSameOrParentOf(""))
+        assertFalse(testee.containsSameOrParentOf(""))
+    }
+
+    @Test
+    fun whenKeyIsEmptyThenItIsIgnored() {
+        val map = DomainSuffixMap(mapOf("" to 1, "example.com" to 2))
+
+        assertEquals(1, map.size)
+        assertNull(map.findSameOrParentOf("foo"))
+    }
+
+    @Test
+    fun whenMapHasManyKeysThenEveryKeyAndSubdomainIsFound() {
+        val keys = List(1_000) { "domain$it.example$it.com" }
+        val map = DomainSuffixMap(keys.associateWith { it })
+
+        keys.forEach { key ->
+            assertEquals(key, map[key])
+            assertEquals(key, map.findSameOrParentOf("sub.$key"))
+        }
+        assertNull(map.findSameOrParentOf("example1.com"))
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.app.global
+
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.duckduckgo.app.browser.DomainSuffixSet
+import com.duckduckgo.app.browser.UriString.Companion.host
+import com.duckduckgo.app.browser.UriString.Companion.sameOrSubdomain
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class DomainSuffixSetTest {
+
+    @Test
+    fun whenHostIsInTheSetThenContainsIsTrue() {
+        val testee = DomainSuffixSet(listOf("example.com"))
+
+        assertTrue("example.com" in testee)
+        assertFalse("sub.example.com" in testee)
+    }
+
+    @Test
+    fun whenHostIsASubdomainOfAnEntryThenContainsSameOrParentOfIsTrue() {
+        val testee = DomainSuffixSet(listOf("example.com"))
+
+        assertTrue(testee.containsSameOrParentOf("example.com"))
+        assertTrue(testee.containsSameOrParentOf("sub.example.com"))
+        assertFalse(testee.containsSameOrParentOf("notexample.com"))
+        assertFalse(testee.containsSameOrParentOf(null))
+    }
+
+    @Test
+    fun whenBuiltFromDomainsThenWwwPrefixIsDropped() {
+        val testee = DomainSuffixSet.fromDomains(listOf("www.example.com"))
+
+        assertTrue(testee.containsSameOrParentOf("example.com"))
+        assertTrue(testee.containsSameOrParentOf("sub.example.com"))
+    }
+
+    @Test
+    fun whenBuiltFromDomainsWithUrlsThenTheirHostsAreUsed() {
+        val testee = DomainSuffixSet.fromDomains(listOf("https://www.example.com/path", "http://other.org:8080"))
+
+        assertEquals(2, testee.size)
+        assertTrue(testee.containsSameOrParentOf("sub.example.com"))
+        assertTrue(testee.containsSameOrParentOf("other.org"))
+    }
+
+    @Test
+    fun whenBuiltFromDomainsThenMatchesAgreeWithSameOrSubdomain() {
+        val domains = listOf("example.com", "www.tracker.net", "https://cdn.site.org/x", "co.uk", "localhost")
+        val urls = listOf(
+            "https://example.com/",
+            "https://www.example.com/a",
+            "https://a.b.example.com",
+            "https://notexample.com",
+            "http://tracker.net",
+            "http://sub.tracker.net",
+            "https://site.org",
+            "https://img.cdn.site.org",
+            "https://bbc.co.uk",
+            "http://localhost:8080",
+            "https://example.com.evil.org",
+        )
+        val testee = DomainSuffixSet.fromDomains(domains)
+
+        urls.forEach { url ->
+            val expected = domains.any { sameOrSubdomain(url, it) }
+            assertEquals(url, expected, testee.containsSameOrParentOf(host(url)))
+        }
+    }
+
+    @Test
+    fun whenBuiltFromNoDomainsThenSetIsEmpty() {
+        val testee = DomainSuffixSet.fromDomains(emptyList())
+
+        assertTrue(testee.isEmpty())
+        assertFalse(testee.containsSameOrParentOf("example.com"))
+    }
+}
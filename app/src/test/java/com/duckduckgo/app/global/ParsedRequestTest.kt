@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.app.global
+
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.duckduckgo.app.browser.ParsedRequest
+import com.duckduckgo.app.browser.UriString
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class ParsedRequestTest {
+
+    @Test
+    fun whenUrlHasNoPortThenPortStrippedUrlIsTheUrl() {
+        val request = ParsedRequest.of("https://www.example.com/path?q=1")
+
+        assertSame(request.url, request.portStrippedUrl)
+        assertSame(request.uri, request.portStrippedUri)
+    }
+
+    @Test
+    fun whenUrlHasPortThenPortStrippedUrlMatchesRemovePort() {
+        val url = "https://www.example.com:8080/path?q=1"
+
+        assertEquals(UriString.removePort(url), ParsedRequest.of(url).portStrippedUrl)
+    }
+
+    @Test
+    fun whenHostHasWwwPrefixThenBaseHostMatchesUriStringHost() {
+        val url = "https://www.example.com/path"
+        val request = ParsedRequest.of(url)
+
+        assertEquals("www.example.com", request.host)
+        assertEquals(UriString.host(url), request.baseHost)
+    }
+
+    @Test
+    fun whenUrlHasNoHostThenHostViewsAreEmpty() {
+        val request = ParsedRequest.of("about:blank")
+
+        assertNull(request.host)
+        assertNull(request.baseHost)
+        assertEquals(0, request.labelCount)
+    }
+
+    @Test
+    fun whenHostHasLabelsThenLabelsAreIndexedFromTheRight() {
+        val request = ParsedRequest.of("https://a.b.example.co.uk/path")
+
+        assertEquals(5, request.labelCount)
+        assertEquals("uk", request.label(0))
+        assertEquals("co", request.label(1))
+        assertEquals("a", request.label(4))
+        assertEquals("example.co.uk", request.hostSuffix(3))
+        assertEquals("a.b.example.co.uk", request.hostSuffix(5))
+    }
+
+    @Test
+    fun whenHostHasPublicSuffixThenETldPlusOneIsTheRegistrableDomain() {
+        assertEquals("example.co.uk", ParsedRequest.of("https://a.b.example.co.uk/path").eTldPlusOne)
+        assertNull(ParsedRequest.of("https://co.uk/path").eTldPlusOne)
+        assertNull(ParsedRequest.of("not a url").eTldPlusOne)
+    }
+
+    @Test
+    fun whenComparedToDomainsThenMatchesSameOrSubdomain() {
+        val domains = listOf("example.com", "www.example.com", "sub.example.com", "ample.com", "com", "http://example.com/home.html", "")
+        val urls = listOf("https://example.com/", "https://www.example.com/", "https://sub.example.com/", "https://notexample.com/")
+
+        urls.forEach { url ->
+            val request = ParsedRequest.of(url)
+            domains.forEach { domain ->
+                assertEquals("$url vs $domain", UriString.sameOrSubdomain(url, domain), request.isSameOrSubdomainOf(domain))
+            }
+        }
+    }
+
+    @Test
+    fun whenHostsAreSameOrSubdomainOfEachOtherThenIsSameOrSubdomainPair() {
+        val document = ParsedRequest.of("https://example.com/")
+
+        assertTrue(ParsedRequest.of("https://cdn.example.com/a.js").isSameOrSubdomainPair(document))
+        assertTrue(document.isSameOrSubdomainPair(ParsedRequest.of("https://cdn.example.com/a.js")))
+        assertFalse(ParsedRequest.of("https://notexample.com/a.js").isSameOrSubdomainPair(document))
+    }
+}
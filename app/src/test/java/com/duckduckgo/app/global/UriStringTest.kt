@@ -18,7 +18,9 @@ package com.duckduckgo.app.global
 
 import androidx.core.net.toUri
 import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.duckduckgo.app.browser.Domain
 import com.duckduckgo.app.browser.UriString.Companion.isWebUrl
+import com.duckduckgo.app.browser.UriString.Companion.normalizedHost
 import com.duckduckgo.app.browser.UriString.Companion.removePort
 import com.duckduckgo.app.browser.UriString.Companion.sameOrSubdomain
 import org.junit.Assert.assertEquals
@@ -130,6 +132,30 @@ class UriStringTest {
         assertFalse(sameOrSubdomain("http://example.com/index.html".toUri(), "??.example.com/home.html"))
     }
 
+    @Test
+    fun whenDomainIsSameOrSubdomainOfParentDomainThenSameOrSubdomainIsTrue() {
+        assertTrue(sameOrSubdomain(Domain("example.com"), Domain("example.com")))
+        assertTrue(sameOrSubdomain(Domain("sub.example.com"), Domain("example.com")))
+    }
+
+    @Test
+    fun whenDomainOnlyEndsWithParentDomainThenSameOrSubdomainIsFalse() {
+        assertFalse(sameOrSubdomain(Domain("notexample.com"), Domain("example.com")))
+        assertFalse(sameOrSubdomain(Domain("example.com"), Domain("sub.example.com")))
+        assertFalse(sameOrSubdomain(null, Domain("example.com")))
+    }
+
+    @Test
+    fun whenDomainIsBareThenNormalizedHostOnlyDropsWwwPrefix() {
+        assertEquals("example.com", normalizedHost("www.example.com"))
+        assertEquals("sub.example.com", normalizedHost("sub.example.com"))
+    }
+
+    @Test
+    fun whenDomainIsAUrlThenNormalizedHostIsItsHost() {
+        assertEquals("example.com", normalizedHost("https://www.example.com:8080/path"))
+    }
+
     @Test
     fun whenUserIsPresentThenIsWebUrlIsFalse() {
         val input = "http://example.com@sample.com"
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.app.global.startup
+
+import androidx.lifecycle.Lifecycle
+import androidx.lifecycle.LifecycleOwner
+import androidx.lifecycle.LifecycleRegistry
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.duckduckgo.app.lifecycle.MainProcessLifecycleObserver
+import com.duckduckgo.app.lifecycle.MainProcessStartupTask
+import com.duckduckgo.app.lifecycle.MainProcessStartupTask.StartupStage
+import com.duckduckgo.common.test.CoroutineTestRule
+import com.duckduckgo.traces.api.StartupSpan
+import com.duckduckgo.traces.api.StartupTraces
+import kotlinx.coroutines.test.StandardTestDispatcher
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class MainProcessStartupSchedulerTest {
+
+    @get:Rule
+    val coroutineRule = CoroutineTestRule(StandardTestDispatcher())
+
+    private val events = mutableListOf<String>()
+    private val startupTraces = FakeStartupTraces()
+    private val owner = FakeLifecycleOwner()
+
+    private val testee = MainProcessStartupScheduler(
+        appCoroutineScope = coroutineRule.testScope,
+        dispatcherProvider = coroutineRule.testDispatcherProvider,
+        startupTraces = startupTraces,
+    )
+
+    @Test
+    fun whenObserverIsNotStartupTaskThenOnCreateCalledWhenScheduled() {
+        testee.schedule(owner, listOf(TestObserver("observer")))
+
+        assertEquals(listOf("observer:onCreate"), events)
+        assertEquals(listOf("TestObserver"), startupTraces.spans().map { it.name })
+    }
+
+    @Test
+    fun whenObserverIsStartupTaskThenOnCreateOnlyCalledByScheduler() {
+        testee.schedule(owner, listOf(TestTask("task")))
+
+        assertTrue(events.isEmpty())
+
+        advanceUntilIdle()
+
+        assertEquals(listOf("task:onCreate"), events)
+        assertEquals(listOf("task"), startupTraces.spans().map { it.name })
+    }
+
+    @Test
+    fun whenObserverIsStartupTaskThenOtherLifecycleCallbacksStillDelivered() {
+        testee.schedule(owner, listOf(TestTask("task")))
+        advanceUntilIdle()
+
+        owner.registry.currentState = Lifecycle.State.RESUMED
+
+        assertEquals(listOf("task:onCreate", "task:onStart", "task:onResume"), events)
+    }
+
+    @Test
+    fun whenStartupTaskHasDependencyThenRunsAfterIt() {
+        testee.schedule(
+            owner,
+            listOf(
+                TestTask("dependency"),
+                TestTask("dependant", dependencies = setOf("dependency"), priority = 10),
+            ),
+        )
+        advanceUntilIdle()
+
+        assertEquals(listOf("dependency:onCreate", "dependant:onCreate"), events)
+    }
+
+    @Test
+    fun whenStartupTasksReadyAtSameTimeThenHigherPriorityRunsFirst() {
+        testee.schedule(
+            owner,
+            listOf(
+                TestTask("low", priority = 1),
+                TestTask("high", priority = 10),
+            ),
+        )
+        advanceUntilIdle()
+
+        assertEquals(listOf("high:onCreate", "low:onCreate"), events)
+    }
+
+    @Test
+    fun whenStartupTaskDependsOnUnknownTaskThenStillRuns() {
+        testee.schedule(owner, listOf(TestTask("task", dependencies = setOf("unknown"))))
+        advanceUntilIdle()
+
+        assertEquals(listOf("task:onCreate"), events)
+    }
+
+    @Test
+    fun whenStartupTasksDependOnEachOtherThenBothStillRun() {
+        testee.schedule(
+            owner,
+            listOf(
+                TestTask("first", dependencies = setOf("second")),
+                TestTask("second", dependencies = setOf("first")),
+            ),
+        )
+        advanceUntilIdle()
+
+        assertEquals(setOf("first:onCreate", "second:onCreate"), events.toSet())
+    }
+
+    private fun advanceUntilIdle() {
+        coroutineRule.testScope.testScheduler.advanceUntilIdle()
+    }
+
+    private open inner class TestObserver(private val name: String) : MainProcessLifecycleObserver {
+        override fun onCreate(owner: LifecycleOwner) {
+            events.add("$name:onCreate")
+        }
+
+        override fun onStart(owner: LifecycleOwner) {
+            events.add("$name:onStart")
+        }
+
+        override fun onResume(owner: LifecycleOwner) {
+            events.add("$name:onResume")
+        }
+    }
+
+    private inner class TestTask(
+        override val startupTaskName: String,
+        override val startupDependencies: Set<String> = emptySet(),
+        override val startupPriority: Int = 0,
+    ) : TestObserver(startupTaskName), MainProcessStartupTask {
+        override val startupStage: StartupStage = StartupStage.BACKGROUND
+    }
+
+    private class FakeLifecycleOwner : LifecycleOwner {
+        val registry = LifecycleRegistry(this).apply { currentState = Lifecycle.State.CREATED }
+        override val lifecycle: Lifecycle get() = registry
+    }
+
+    private class FakeStartupTraces : StartupTraces {
+        private val spans = mutableListOf<StartupSpan>()
+
+        override var isTraceEnabled: Boolean = false
+
+        override fun recordSpan(span: StartupSpan) {
+            spans.add(span)
+        }
+
+        override fun spans(): List<StartupSpan> = spans.toList()
+
+        override fun spansOverBudget(headroom: Int): List<StartupSpan> = emptyList()
+
+        override fun exportTrace(): String = ""
+    }
+}
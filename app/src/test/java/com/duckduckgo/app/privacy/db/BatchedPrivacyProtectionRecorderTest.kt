@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.app.privacy.db
+
+import androidx.room.Room
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import com.duckduckgo.app.global.db.AppDatabase
+import com.duckduckgo.app.trackerdetection.db.WebTrackerBlocked
+import com.duckduckgo.app.trackerdetection.db.WebTrackersBlockedDao
+import com.duckduckgo.common.test.CoroutineTestRule
+import kotlinx.coroutines.test.runTest
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.whenever
+import java.time.LocalDateTime
+
+@RunWith(AndroidJUnit4::class)
+class BatchedPrivacyProtectionRecorderTest {
+
+    @get:Rule
+    val coroutineRule = CoroutineTestRule()
+
+    private lateinit var db: AppDatabase
+    private lateinit var testee: BatchedPrivacyProtectionRecorder
+
+    @Before
+    fun before() {
+        db = Room.inMemoryDatabaseBuilder(InstrumentationRegistry.getInstrumentation().targetContext, AppDatabase::class.java)
+            .allowMainThreadQueries()
+            .build()
+        testee = BatchedPrivacyProtectionRecorder(
+            db,
+            db.privacyProtectionCountsDao(),
+            db.webTrackersBlockedDao(),
+            coroutineRule.testScope,
+            coroutineRule.testDispatcherProvider,
+        )
+    }
+
+    @After
+    fun after() {
+        db.close()
+    }
+
+    @Test
+    fun whenEventsRecordedThenNothingIsWrittenBeforeFlush() = runTest {
+        testee.incrementBlockedTrackerCount()
+        testee.incrementUpgradeCount()
+        testee.recordTrackerBlocked(WebTrackerBlocked(trackerUrl = "tracker.com", trackerCompany = "Tracker Inc"))
+
+        assertEquals(0, db.privacyProtectionCountsDao().getTrackersBlockedCount())
+        assertEquals(0, db.privacyProtectionCountsDao().getUpgradeCount())
+        assertEquals(0, trackersBlockedCount())
+    }
+
+    @Test
+    fun whenFlushThenRecordedEventsAreWritten() = runTest {
+        repeat(3) {
+            testee.incrementBlockedTrackerCount()
+            testee.recordTrackerBlocked(WebTrackerBlocked(trackerUrl = "tracker$it.com", trackerCompany = "Tracker Inc"))
+        }
+        testee.incrementUpgradeCount()
+
+        testee.flush()
+
+        assertEquals(3, db.privacyProtectionCountsDao().getTrackersBlockedCount())
+        assertEquals(1, db.privacyProtectionCountsDao().getUpgradeCount())
+        assertEquals(3, trackersBlockedCount())
+    }
+
+    @Test
+    fun whenFlushedTwiceThenEventsAreOnlyWrittenOnce() = runTest {
+        testee.incrementBlockedTrackerCount()
+        testee.recordTrackerBlocked(WebTrackerBlocked(trackerUrl = "tracker.com", trackerCompany = "Tracker Inc"))
+
+        testee.flush()
+        testee.flush()
+
+        assertEquals(1, db.privacyProtectionCountsDao().getTrackersBlockedCount())
+        assertEquals(1, trackersBlockedCount())
+    }
+
+    @Test
+    fun whenFlushFailsThenRecordedEventsAreWrittenByNextFlush() = runTest {
+        val webTrackersBlockedDao: WebTrackersBlockedDao = mock()
+        whenever(webTrackersBlockedDao.insertAll(any()))
+            .thenThrow(IllegalStateException())
+            .thenAnswer { db.webTrackersBlockedDao().insertAll(it.getArgument(0)) }
+        testee = BatchedPrivacyProtectionRecorder(
+            db,
+            db.privacyProtectionCountsDao(),
+            webTrackersBlockedDao,
+            coroutineRule.testScope,
+            coroutineRule.testDispatcherProvider,
+        )
+        testee.incrementBlockedTrackerCount()
+        testee.recordTrackerBlocked(WebTrackerBlocked(trackerUrl = "tracker.com", trackerCompany = "Tracker Inc"))
+
+        testee.flush()
+
+        assertEquals(0, db.privacyProtectionCountsDao().getTrackersBlockedCount())
+        assertEquals(0, trackersBlockedCount())
+
+        testee.flush()
+
+        assertEquals(1, db.privacyProtectionCountsDao().getTrackersBlockedCount())
+        assertEquals(1, trackersBlockedCount())
+    }
+
+    @Test
+    fun whenFlushesKeepFailingThenOnlyTheNewestRecordsAreKept() = runTest {
+        val webTrackersBlockedDao: WebTrackersBlockedDao = mock()
+        whenever(webTrackersBlockedDao.insertAll(any()))
+            .thenThrow(IllegalStateException())
+            .thenAnswer { db.webTrackersBlockedDao().insertAll(it.getArgument(0)) }
+        testee = BatchedPrivacyProtectionRecorder(
+            db,
+            db.privacyProtectionCountsDao(),
+            webTrackersBlockedDao,
+            coroutineRule.testScope,
+            coroutineRule.testDispatcherProvider,
+        )
+        repeat(5_001) { testee.recordTrackerBlocked(WebTrackerBlocked(trackerUrl = "tracker$it.com", trackerCompany = "Tracker Inc")) }
+
+        testee.flush()
+        testee.flush()
+
+        assertEquals(5_000, trackersBlockedCount())
+    }
+
+    @Test
+    fun whenFlushDelayElapsedThenRecordedEventsAreWritten() = runTest {
+        testee.incrementBlockedTrackerCount()
+        testee.incrementBlockedTrackerCount()
+
+        coroutineRule.testDispatcher.scheduler.advanceTimeBy(1_001)
+
+        assertEquals(2, db.privacyProtectionCountsDao().getTrackersBlockedCount())
+    }
+
+    @Test
+    fun whenAppIsBackgroundedThenRecordedEventsAreWritten() = runTest {
+        testee.incrementUpgradeCount()
+
+        testee.onStop(mock())
+
+        assertEquals(1, db.privacyProtectionCountsDao().getUpgradeCount())
+    }
+
+    private suspend fun trackersBlockedCount(): Int {
+        return db.webTrackersBlockedDao().getTrackersCountBetween(
+            startTime = WebTrackerBlocked.timestamp(LocalDateTime.now().minusDays(1)),
+            endTime = WebTrackerBlocked.timestamp(LocalDateTime.now().plusDays(1)),
+        )
+    }
+}
@@ -84,4 +84,19 @@ class PrivacyProtectionCountDaoTest {
         assertEquals(5, dao.getTrackersBlockedCount())
         assertEquals(3, dao.getUpgradeCount())
     }
+
+    @Test
+    fun whenCountsIncrementedFrom0ThenBothCountsAreInitialised() {
+        dao.incrementCounts(blockedTrackers = 3, upgrades = 2)
+        assertEquals(3, dao.getTrackersBlockedCount())
+        assertEquals(2, dao.getUpgradeCount())
+    }
+
+    @Test
+    fun whenCountsIncrementedThenBothCountsAreAdded() {
+        dao.incrementBlockedTrackerCount()
+        dao.incrementCounts(blockedTrackers = 3, upgrades = 2)
+        assertEquals(4, dao.getTrackersBlockedCount())
+        assertEquals(2, dao.getUpgradeCount())
+    }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.app.sync.algorithm
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule
+import androidx.room.Room
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import com.duckduckgo.app.bookmarks.BookmarkTestUtils.bookmarksRoot
+import com.duckduckgo.app.bookmarks.BookmarkTestUtils.favouritesRoot
+import com.duckduckgo.app.global.db.AppDatabase
+import com.duckduckgo.app.sync.FakeCrypto
+import com.duckduckgo.app.sync.FakeDisplayModeSettingsRepository
+import com.duckduckgo.common.test.CoroutineTestRule
+import com.duckduckgo.common.utils.formatters.time.DatabaseDateFormatter
+import com.duckduckgo.savedsites.api.models.SavedSitesNames
+import com.duckduckgo.savedsites.impl.MissingEntitiesRelationReconciler
+import com.duckduckgo.savedsites.impl.RealFavoritesDelegate
+import com.duckduckgo.savedsites.impl.RealSavedSitesRepository
+import com.duckduckgo.savedsites.impl.sync.RealSyncSavedSitesRepository
+import com.duckduckgo.savedsites.impl.sync.SyncBookmarkEntries
+import com.duckduckgo.savedsites.impl.sync.SyncBookmarkPage
+import com.duckduckgo.savedsites.impl.sync.SyncSavedSiteResponseFolder
+import com.duckduckgo.savedsites.impl.sync.SyncSavedSitesRepository
+import com.duckduckgo.savedsites.impl.sync.SyncSavedSitesResponseEntry
+import com.duckduckgo.savedsites.impl.sync.algorithm.RealSavedSitesDuplicateFinder
+import com.duckduckgo.savedsites.impl.sync.algorithm.RealSavedSitesSyncPersisterAlgorithm
+import com.duckduckgo.savedsites.impl.sync.algorithm.SavedSitesDeduplicationPersister
+import com.duckduckgo.savedsites.impl.sync.algorithm.SavedSitesLocalWinsPersister
+import com.duckduckgo.savedsites.impl.sync.algorithm.SavedSitesRemoteWinsPersister
+import com.duckduckgo.savedsites.impl.sync.algorithm.SavedSitesTimestampPersister
+import com.duckduckgo.savedsites.impl.sync.store.RealSavedSitesSyncEntitiesStore
+import com.duckduckgo.savedsites.impl.sync.store.SavedSitesSyncMetadataDatabase
+import com.duckduckgo.sync.api.engine.SyncableDataPersister.SyncConflictResolution
+import com.duckduckgo.sync.api.engine.SyncableDataPersister.SyncConflictResolution.DEDUPLICATION
+import com.duckduckgo.sync.api.engine.SyncableDataPersister.SyncConflictResolution.TIMESTAMP
+import org.junit.Assert.assertEquals
+import org.junit.Ignore
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.time.OffsetDateTime
+import java.time.ZoneOffset
+
+/**
+ * Microbenchmark of [RealSavedSitesSyncPersisterAlgorithm.processEntries] merging a payload of 20k bookmarks in 2k folders,
+ * as when a large desktop bookmark collection is first synced onto a phone, against real (in-memory) Room databases.
+ *
+ * Not part of the regular test suite — the @Test method is @Ignore'd. To run, remove the @Ignore annotation, then:
+ *
+ *   JAVA_HOME=/path/to/java21 ./gradlew :app:testPlayDebugUnitTest \
+ *     --tests "com.duckduckgo.app.sync.algorithm.SavedSitesSyncPersisterAlgorithmBenchmark" \
+ *     --info
+ *
+ * Each scenario runs twice: with the merge committed in a single transaction, and with every write committed on its own as
+ * before. In-memory databases don't sync to disk, so the second path is much slower on a device than measured here.
+ */
+@Ignore("Microbenchmark — remove this annotation and run with --info to see results")
+@RunWith(AndroidJUnit4::class)
+class SavedSitesSyncPersisterAlgorithmBenchmark {
+
+    @get:Rule
+    @Suppress("unused")
+    var instantTaskExecutorRule = InstantTaskExecutorRule()
+
+    @get:Rule
+    var coroutinesTestRule = CoroutineTestRule()
+
+    private val lastModified = DatabaseDateFormatter.iso8601(OffsetDateTime.now(ZoneOffset.UTC).minusHours(2))
+    private val clientModifiedSince = DatabaseDateFormatter.iso8601(OffsetDateTime.now(ZoneOffset.UTC).minusHours(3))
+
+    @Test
+    fun benchmarkFirstSyncOfLargeBookmarkTree() {
+        val payload = buildPayload()
+
+        println("===== Bookmark sync merge microbenchmark =====")
+        println("Folders:                         $FOLDERS")
+        println("Bookmarks:                       ${FOLDERS * BOOKMARKS_PER_FOLDER}")
+        println()
+        listOf(true, false).forEach { singleTransaction ->
+            val label = if (singleTransaction) "single transaction" else "commit per write"
+            // first sync onto an empty device, then the same payload again, where every entity is already present
+            val (firstSync, resync) = measureMillis(payload, singleTransaction, DEDUPLICATION, TIMESTAMP)
+            println("Deduplication, empty device ($label):   $firstSync ms")
+            println("Timestamp, all present ($label):        $resync ms")
+        }
+        println("==============================================")
+    }
+
+    private fun measureMillis(
+        payload: SyncBookmarkEntries,
+        singleTransaction: Boolean,
+        vararg conflictResolutions: SyncConflictResolution,
+    ): List<Long> {
+        val db = Room.inMemoryDatabaseBuilder(InstrumentationRegistry.getInstrumentation().targetContext, AppDatabase::class.java)
+            .allowMainThreadQueries()
+            .build()
+        val metadataDb = Room.inMemoryDatabaseBuilder(
+            InstrumentationRegistry.getInstrumentation().targetContext,
+            SavedSitesSyncMetadataDatabase::class.java,
+        )
+            .allowMainThreadQueries()
+            .build()
+        try {
+            val entitiesDao = db.syncEntitiesDao()
+            val relationsDao = db.syncRelationsDao()
+            entitiesDao.insert(bookmarksRoot)
+            entitiesDao.insert(favouritesRoot)
+
+            val realSyncRepository = RealSyncSavedSitesRepository(
+                entitiesDao,
+                relationsDao,
+                metadataDb.syncMetadataDao(),
+                RealSavedSitesSyncEntitiesStore(InstrumentationRegistry.getInstrumentation().context),
+            )
+            val syncRepository = if (singleTransaction) {
+                realSyncRepository
+            } else {
+                object : SyncSavedSitesRepository by realSyncRepository {
+                    override fun <T> runInTransaction(block: () -> T): T = block()
+                }
+            }
+            val repository = RealSavedSitesRepository(
+                entitiesDao,
+                relationsDao,
+                RealFavoritesDelegate(
+                    entitiesDao,
+                    relationsDao,
+                    FakeDisplayModeSettingsRepository(),
+                    MissingEntitiesRelationReconciler(entitiesDao),
+                    coroutinesTestRule.testDispatcherProvider,
+                ),
+                MissingEntitiesRelationReconciler(entitiesDao),
+                coroutinesTestRule.testDispatcherProvider,
+            )
+            val algorithm = RealSavedSitesSyncPersisterAlgorithm(
+                FakeCrypto(),
+                repository,
+                syncRepository,
+                SavedSitesDeduplicationPersister(repository, syncRepository, RealSavedSitesDuplicateFinder(repository)),
+                SavedSitesTimestampPersister(repository, syncRepository),
+                SavedSitesRemoteWinsPersister(repository, syncRepository),
+                SavedSitesLocalWinsPersister(repository, syncRepository),
+            )
+
+            return conflictResolutions.map { conflictResolution ->
+                val start = System.nanoTime()
+                algorithm.processEntries(payload, conflictResolution, clientModifiedSince)
+                ((System.nanoTime() - start) / 1_000_000).also {
+                    assertEquals(FOLDERS * BOOKMARKS_PER_FOLDER, repository.bookmarksCount().toInt())
+                }
+            }
+        } finally {
+            db.close()
+            metadataDb.close()
+        }
+    }
+
+    private fun buildPayload(): SyncBookmarkEntries {
+        val entries = mutableListOf<SyncSavedSitesResponseEntry>()
+        val folderIds = List(FOLDERS) { "folder$it" }
+        folderIds.forEachIndexed { folderIndex, folderId ->
+            val bookmarkIds = List(BOOKMARKS_PER_FOLDER) { "bookmark${folderIndex * BOOKMARKS_PER_FOLDER + it}" }
+            bookmarkIds.forEach { bookmarkId ->
+                entries.add(entry(bookmarkId, title = "Title $bookmarkId", page = SyncBookmarkPage("https://$bookmarkId.example.com/")))
+            }
+            entries.add(entry(folderId, title = "Folder $folderId", folder = SyncSavedSiteResponseFolder(bookmarkIds)))
+        }
+        entries.add(
+            entry(SavedSitesNames.BOOKMARKS_ROOT, title = SavedSitesNames.BOOKMARKS_NAME, folder = SyncSavedSiteResponseFolder(folderIds)),
+        )
+        return SyncBookmarkEntries(entries, lastModified)
+    }
+
+    private fun entry(
+        id: String,
+        title: String,
+        page: SyncBookmarkPage? = null,
+        folder: SyncSavedSiteResponseFolder? = null,
+    ) = SyncSavedSitesResponseEntry(id = id, title = title, page = page, folder = folder, deleted = null, last_modified = lastModified)
+
+    companion object {
+        private const val FOLDERS = 2_000
+        private const val BOOKMARKS_PER_FOLDER = 10
+    }
+}
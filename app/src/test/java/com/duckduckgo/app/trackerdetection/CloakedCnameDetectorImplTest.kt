@@ -17,6 +17,7 @@
 package com.duckduckgo.app.trackerdetection
 
 import android.net.Uri
+import com.duckduckgo.app.browser.ParsedRequest
 import com.duckduckgo.app.privacy.db.UserAllowListRepository
 import com.duckduckgo.app.trackerdetection.db.TdsCnameEntityDao
 import com.duckduckgo.app.trackerdetection.model.TdsCnameEntity
@@ -27,12 +28,16 @@ import org.junit.Before
 import org.junit.Test
 import org.mockito.ArgumentMatchers.anyString
 import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 
 class CloakedCnameDetectorImplTest {
 
-    private lateinit var testee: CloakedCnameDetector
+    private lateinit var testee: CloakedCnameDetectorImpl
     private val mockCnameEntityDao: TdsCnameEntityDao = mock()
     private val mockTrackerAllowList: TrackerAllowlist = mock()
     private val mockUri: Uri = mock()
@@ -52,7 +57,7 @@ class CloakedCnameDetectorImplTest {
     @Test
     fun whenDetectCnameAndCnameDetectedThenReturnUncloakedHost() {
         whenever(mockUri.host).thenReturn("host.com")
-        whenever(mockCnameEntityDao.get(any())).thenReturn(TdsCnameEntity("host.com", "uncloaked-host.com"))
+        whenever(mockCnameEntityDao.getAll()).thenReturn(listOf(TdsCnameEntity("host.com", "uncloaked-host.com")))
         assertEquals("http://uncloaked-host.com", testee.detectCnameCloakedHost("foo.com", mockUri))
     }
 
@@ -60,14 +65,14 @@ class CloakedCnameDetectorImplTest {
     fun whenDetectCnameAndCnameDetectedAndHasSchemeThenReturnUncloakedHostWithScheme() {
         whenever(mockUri.host).thenReturn("host.com")
         whenever(mockUri.scheme).thenReturn("https")
-        whenever(mockCnameEntityDao.get(any())).thenReturn(TdsCnameEntity("host.com", "uncloaked-host.com"))
+        whenever(mockCnameEntityDao.getAll()).thenReturn(listOf(TdsCnameEntity("host.com", "uncloaked-host.com")))
         assertEquals("https://uncloaked-host.com", testee.detectCnameCloakedHost("foo.com", mockUri))
     }
 
     @Test
     fun whenDetectCnameAndCnameNotDetectedThenReturnNull() {
         whenever(mockUri.host).thenReturn("host.com")
-        whenever(mockCnameEntityDao.get(any())).thenReturn(null)
+        whenever(mockCnameEntityDao.getAll()).thenReturn(emptyList())
         assertEquals(null, testee.detectCnameCloakedHost("foo.com", mockUri))
     }
 
@@ -75,7 +80,7 @@ class CloakedCnameDetectorImplTest {
     fun whenDetectCnameAndCnameDetectedAndHasPathThenReturnUncloakedHostWithPathAppended() {
         whenever(mockUri.host).thenReturn("host.com")
         whenever(mockUri.path).thenReturn("/path")
-        whenever(mockCnameEntityDao.get(any())).thenReturn(TdsCnameEntity("host.com", "uncloaked-host.com"))
+        whenever(mockCnameEntityDao.getAll()).thenReturn(listOf(TdsCnameEntity("host.com", "uncloaked-host.com")))
         assertEquals("http://uncloaked-host.com/path", testee.detectCnameCloakedHost("foo.com", mockUri))
     }
 
@@ -84,10 +89,34 @@ class CloakedCnameDetectorImplTest {
         whenever(mockUri.host).thenReturn("host.com")
         whenever(mockUri.path).thenReturn("/path")
         whenever(mockUri.scheme).thenReturn("https")
-        whenever(mockCnameEntityDao.get(any())).thenReturn(TdsCnameEntity("host.com", "uncloaked-host.com"))
+        whenever(mockCnameEntityDao.getAll()).thenReturn(listOf(TdsCnameEntity("host.com", "uncloaked-host.com")))
         assertEquals("https://uncloaked-host.com/path", testee.detectCnameCloakedHost("foo.com", mockUri))
     }
 
+    @Test
+    fun whenDetectCnameCalledRepeatedlyThenCnameTableIsLoadedOnce() {
+        whenever(mockUri.host).thenReturn("host.com")
+        whenever(mockCnameEntityDao.getAll()).thenReturn(listOf(TdsCnameEntity("host.com", "uncloaked-host.com")))
+
+        testee.detectCnameCloakedHost("foo.com", mockUri)
+        testee.detectCnameCloakedHost("foo.com", mockUri)
+
+        verify(mockCnameEntityDao, times(1)).getAll()
+        verify(mockCnameEntityDao, never()).get(any())
+    }
+
+    @Test
+    fun whenRefreshedThenNewCnameTableIsUsed() {
+        whenever(mockUri.host).thenReturn("host.com")
+        whenever(mockCnameEntityDao.getAll()).thenReturn(emptyList())
+        assertNull(testee.detectCnameCloakedHost("foo.com", mockUri))
+
+        whenever(mockCnameEntityDao.getAll()).thenReturn(listOf(TdsCnameEntity("host.com", "uncloaked-host.com")))
+        testee.refresh()
+
+        assertEquals("http://uncloaked-host.com", testee.detectCnameCloakedHost("foo.com", mockUri))
+    }
+
     @Test
     fun whenRequestUrlIsInAllowListThenReturnNull() {
         whenever(mockTrackerAllowList.isAnException(anyString(), anyString())).thenReturn(true)
@@ -99,4 +128,25 @@ class CloakedCnameDetectorImplTest {
         whenever(mockUserAllowListRepository.isUriInUserAllowList(any())).thenReturn(true)
         assertNull(testee.detectCnameCloakedHost("foo.com", mockUri))
     }
+
+    @Test
+    fun whenDetectCnameWithParsedRequestAndCnameDetectedThenReturnUncloakedHost() {
+        whenever(mockUri.host).thenReturn("host.com")
+        whenever(mockUri.scheme).thenReturn("https")
+        whenever(mockUri.path).thenReturn("/path")
+        whenever(mockCnameEntityDao.getAll()).thenReturn(listOf(TdsCnameEntity("host.com", "uncloaked-host.com")))
+
+        val uncloaked = testee.detectCnameCloakedHost(ParsedRequest.of(mock<Uri>()), ParsedRequest.of(mockUri))
+
+        assertEquals("https://uncloaked-host.com/path", uncloaked)
+    }
+
+    @Test
+    fun whenParsedRequestUrlIsInAllowListThenReturnNull() {
+        whenever(mockUri.host).thenReturn("host.com")
+        whenever(mockCnameEntityDao.getAll()).thenReturn(listOf(TdsCnameEntity("host.com", "uncloaked-host.com")))
+        whenever(mockTrackerAllowList.isAnException(anyString(), anyOrNull(), anyString(), anyOrNull(), anyString())).thenReturn(true)
+
+        assertNull(testee.detectCnameCloakedHost(ParsedRequest.of(mock<Uri>()), ParsedRequest.of(mockUri)))
+    }
 }
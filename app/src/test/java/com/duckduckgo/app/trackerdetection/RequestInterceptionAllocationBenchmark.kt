@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.app.trackerdetection
+
+import android.net.Uri
+import androidx.core.net.toUri
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.duckduckgo.adclick.api.AdClickManager
+import com.duckduckgo.app.browser.DomainSuffixSet
+import com.duckduckgo.app.browser.ParsedRequest
+import com.duckduckgo.app.fakes.UserAllowListRepositoryFake
+import com.duckduckgo.app.trackerdetection.Client.ClientName.TDS
+import com.duckduckgo.app.trackerdetection.api.ActionJsonAdapter
+import com.duckduckgo.app.trackerdetection.api.TdsJson
+import com.duckduckgo.app.trackerdetection.db.TdsCnameEntityDao
+import com.duckduckgo.app.trackerdetection.model.Entity
+import com.duckduckgo.app.trackerdetection.model.TdsTracker
+import com.duckduckgo.feature.toggles.api.FeatureException
+import com.duckduckgo.feature.toggles.api.FeatureToggle
+import com.duckduckgo.privacy.config.api.UnprotectedTemporary
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionIndex
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptions
+import com.duckduckgo.privacy.config.impl.features.contentblocking.RealContentBlocking
+import com.duckduckgo.privacy.config.impl.features.trackerallowlist.OptimizeTrackerAllowListRCWrapper
+import com.duckduckgo.privacy.config.impl.features.trackerallowlist.RealTrackerAllowlist
+import com.duckduckgo.privacy.config.store.AllowlistRuleEntity
+import com.duckduckgo.privacy.config.store.ContentBlockingExceptionEntity
+import com.duckduckgo.privacy.config.store.TrackerAllowlistEntity
+import com.duckduckgo.privacy.config.store.features.contentblocking.ContentBlockingRepository
+import com.duckduckgo.privacy.config.store.features.trackerallowlist.CompiledRule
+import com.duckduckgo.privacy.config.store.features.trackerallowlist.TrackerAllowlistRepository
+import com.duckduckgo.privacy.config.store.features.trackerallowlist.buildRulesByDomain
+import com.squareup.moshi.Moshi
+import okio.buffer
+import okio.source
+import org.junit.Before
+import org.junit.Ignore
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.whenever
+import java.io.File
+import java.lang.management.ManagementFactory
+import java.util.concurrent.CopyOnWriteArrayList
+import kotlin.random.Random
+
+/**
+ * Microbenchmark comparing the bytes allocated per intercepted subresource request when the request and document urls are
+ * handed to the interception collaborators as [Uri]/[String] (each of them parsing the urls again) against handing them a
+ * [ParsedRequest] built once per request, as `WebViewRequestInterceptor` does.
+ *
+ * Each request goes through [TrackerDetectorImpl.evaluate] (TDS client from `R.raw.tds`, real tracker allowlist and content
+ * blocking with synthetic exception lists) and [CloakedCnameDetectorImpl.detectCnameCloakedHost], which is the path taken by
+ * every non-blocked subresource.
+ *
+ * Not part of the regular test suite — the class is @Ignore'd. To run, remove the @Ignore annotation, then:
+ *
+ *   JAVA_HOME=/path/to/java21 ./gradlew :app:testPlayDebugUnitTest \
+ *     --tests "com.duckduckgo.app.trackerdetection.RequestInterceptionAllocationBenchmark" \
+ *     --info
+ *
+ * Allocations are measured with `com.sun.management.ThreadMXBean.getThreadAllocatedBytes`, so this needs a HotSpot based JVM.
+ * They are reported in bytes rather than object counts, which is what the JVM tracks per thread; the ratio between both paths is
+ * what matters. Robolectric's shadows allocate on their own, so absolute numbers are higher than on a device.
+ */
+@Ignore("Microbenchmark — remove this annotation and run with --info to see results")
+@RunWith(AndroidJUnit4::class)
+class RequestInterceptionAllocationBenchmark {
+
+    private val threadMXBean = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+
+    private lateinit var trackerDetector: TrackerDetectorImpl
+    private lateinit var cloakedCnameDetector: CloakedCnameDetectorImpl
+    private lateinit var urls: List<String>
+
+    @Before
+    fun setup() {
+        val moshi = Moshi.Builder().add(ActionJsonAdapter()).build()
+        val tdsJson = locateTdsFile().source().buffer().use { moshi.adapter(TdsJson::class.java).fromJson(it) }!!
+        val trackers = tdsJson.jsonToTrackers().values.toList()
+        urls = buildUrlMix(trackers)
+
+        val featureToggle = object : FeatureToggle {
+            override fun isFeatureEnabled(featureName: String, defaultValue: Boolean): Boolean = true
+        }
+        val trackerAllowlist = RealTrackerAllowlist(
+            FakeTrackerAllowlistRepository(trackers),
+            featureToggle,
+            object : OptimizeTrackerAllowListRCWrapper {
+                override val enabled: Boolean = true
+            },
+        )
+        val contentBlocking = RealContentBlocking(
+            FakeContentBlockingRepository(),
+            featureToggle,
+            object : UnprotectedTemporary {
+                override fun isAnException(url: String): Boolean = false
+                override val unprotectedTemporaryExceptions: List<FeatureException> = emptyList()
+            },
+            // not built yet, so exceptions are answered from the repository
+            object : PrivacyExceptionIndex {
+                override fun exceptionsFor(host: String?): PrivacyExceptions? = null
+                override fun rebuild() = Unit
+            },
+        )
+        val userAllowListRepository = UserAllowListRepositoryFake()
+        val adClickManager = object : AdClickManager by mock<AdClickManager>() {
+            override fun isExemption(documentUrl: String, url: String): Boolean = false
+        }
+
+        trackerDetector = TrackerDetectorImpl(NullEntityLookup, userAllowListRepository, contentBlocking, trackerAllowlist, adClickManager)
+        trackerDetector.addClient(
+            TdsClient(TDS, trackers, RealUrlToTypeMapper(), optimizeTrackerEvaluationV3 = true, precompileRegex = true),
+        )
+
+        val cnameDao: TdsCnameEntityDao = mock()
+        whenever(cnameDao.getAll()).thenReturn(emptyList())
+        cloakedCnameDetector = CloakedCnameDetectorImpl(cnameDao, trackerAllowlist, userAllowListRepository)
+    }
+
+    private fun locateTdsFile(): File {
+        // Test runner CWD is usually the module root (`app/`); fall back to repo root.
+        listOf("src/main/res/raw/tds.json", "app/src/main/res/raw/tds.json").forEach {
+            val file = File(it)
+            if (file.exists()) return file
+        }
+        error("Could not locate tds.json. CWD: ${File(".").absolutePath}")
+    }
+
+    @Test
+    fun benchmarkAllocationsPerRequest() {
+        repeat(WARMUP_ITERATIONS) {
+            runUnparsed()
+            runParsed()
+        }
+
+        val unparsed = measure { runUnparsed() }
+        val parsed = measure { runParsed() }
+
+        val totalRequests = (MEASUREMENT_ITERATIONS * urls.size).toLong()
+
+        println("===== Request interception allocation microbenchmark =====")
+        println("URL mix size:                    ${urls.size} (90% non-tracker, 10% tracker)")
+        println("Measurement iterations:          $MEASUREMENT_ITERATIONS")
+        println("Total requests per path:         $totalRequests")
+        println()
+        println("Uri/String (re-parsed):          ${unparsed.bytes / totalRequests} bytes/request, ${unparsed.nanos / totalRequests} ns/request")
+        println("ParsedRequest (parsed once):     ${parsed.bytes / totalRequests} bytes/request, ${parsed.nanos / totalRequests} ns/request")
+        if (parsed.bytes > 0L) {
+            println("Allocation reduction:            ${"%.1f".format(unparsed.bytes.toDouble() / parsed.bytes.toDouble())}x")
+        }
+        println("==========================================================")
+    }
+
+    private fun runUnparsed() {
+        trackerDetector.onPageStarted(DOCUMENT_URL_STRING)
+        urls.forEach { url ->
+            val uri = url.toUri()
+            trackerDetector.evaluate(uri, DOCUMENT_URL, requestHeaders = REQUEST_HEADERS)
+            cloakedCnameDetector.detectCnameCloakedHost(DOCUMENT_URL_STRING, uri)
+        }
+    }
+
+    private fun runParsed() {
+        trackerDetector.onPageStarted(DOCUMENT_URL_STRING)
+        urls.forEach { url ->
+            // the request uri is what WebView hands over, the document one is parsed again for every request
+            val request = ParsedRequest.of(url.toUri())
+            val document = ParsedRequest.of(DOCUMENT_URL)
+            trackerDetector.evaluate(request, document, requestHeaders = REQUEST_HEADERS)
+            cloakedCnameDetector.detectCnameCloakedHost(document, request)
+        }
+    }
+
+    private inline fun measure(block: () -> Unit): Measurement {
+        val threadId = Thread.currentThread().id
+        val startBytes = threadMXBean.getThreadAllocatedBytes(threadId)
+        val startNanos = System.nanoTime()
+        repeat(MEASUREMENT_ITERATIONS) { block() }
+        return Measurement(
+            bytes = threadMXBean.getThreadAllocatedBytes(threadId) - startBytes,
+            nanos = System.nanoTime() - startNanos,
+        )
+    }
+
+    private fun buildUrlMix(trackers: List<TdsTracker>): List<String> {
+        val random = Random(SEED)
+        val nonTracker = List(URL_MIX_NON_TRACKER) {
+            "https://nontracker$it.example/script.js?v=$it"
+        }
+        val trackerUrls = trackers.shuffled(random).take(URL_MIX_TRACKER).mapIndexed { idx, tracker ->
+            if (idx % 2 == 0) {
+                "https://${tracker.domain.value}/script.js"
+            } else {
+                "https://cdn.${tracker.domain.value}:8443/script.js"
+            }
+        }
+        return nonTracker + trackerUrls
+    }
+
+    private class Measurement(
+        val bytes: Long,
+        val nanos: Long,
+    )
+
+    private object NullEntityLookup : EntityLookup {
+        override fun entityForUrl(url: String): Entity? = null
+
+        override fun entityForUrl(url: Uri): Entity? = null
+
+        override fun entityForName(name: String): Entity? = null
+    }
+
+    /** Allowlist with a rule for a sample of the trackers, so that tracker requests go through rule matching. */
+    private class FakeTrackerAllowlistRepository(trackers: List<TdsTracker>) : TrackerAllowlistRepository {
+        override val exceptions: List<TrackerAllowlistEntity> = trackers.shuffled(Random(SEED)).take(ALLOWLISTED_TRACKERS).map {
+            TrackerAllowlistEntity(
+                domain = it.domain.value,
+                rules = listOf(AllowlistRuleEntity(rule = "${it.domain.value}/allowed.js", domains = listOf("example.com"), reason = "")),
+            )
+        }
+        override val rulesByDomain: Map<String, List<CompiledRule>> = buildRulesByDomain(exceptions)
+
+        override fun updateAll(exceptions: List<TrackerAllowlistEntity>) = Unit
+    }
+
+    private class FakeContentBlockingRepository : ContentBlockingRepository {
+        override val exceptions: CopyOnWriteArrayList<FeatureException> =
+            CopyOnWriteArrayList(List(CONTENT_BLOCKING_EXCEPTIONS) { FeatureException("excepted$it.example", null) })
+        override val exceptionDomains: DomainSuffixSet = DomainSuffixSet.fromDomains(exceptions.map { it.domain })
+
+        override fun updateAll(exceptions: List<ContentBlockingExceptionEntity>) = Unit
+    }
+
+    companion object {
+        private const val URL_MIX_NON_TRACKER = 180
+        private const val URL_MIX_TRACKER = 20
+        private const val WARMUP_ITERATIONS = 5
+        private const val MEASUREMENT_ITERATIONS = 200
+        private const val ALLOWLISTED_TRACKERS = 100
+        private const val CONTENT_BLOCKING_EXCEPTIONS = 50
+        private const val SEED = 42L
+
+        private const val DOCUMENT_URL_STRING = "https://www.example.com/page"
+        private val DOCUMENT_URL = DOCUMENT_URL_STRING.toUri()
+        private val REQUEST_HEADERS = mapOf("Accept" to "*/*")
+    }
+}
@@ -34,8 +34,8 @@ import java.io.File
 import kotlin.random.Random
 
 /**
- * Microbenchmark comparing V2 (Domain-based linear scan with cached sameOrSubdomain)
- * and V3 (HashMap label-walk) lookup paths in [TdsClient.matches], using the actual
+ * Microbenchmark comparing V2 (Domain-based linear scan with sameOrSubdomain)
+ * and V3 (DomainSuffixMap lookup) paths in [TdsClient.matches], using the actual
  * TDS dataset bundled in the app (`R.raw.tds`).
  *
  * Not part of the regular test suite — the @Test method is @Ignore'd. To run, remove
@@ -56,9 +56,6 @@ import kotlin.random.Random
  * Caveats:
  *  - Robolectric (AndroidJUnit4) adds JVM-level overhead vs pure-JVM benchmarks.
  *    Absolute numbers are noisier than JMH; ratios are still meaningful.
- *  - The V2 path's `sameOrSubdomain(Domain, Domain)` cache (250k LRU) warms up
- *    quickly on a fixed URL set, so V2's measured cost reflects the warm-cache
- *    case — its best showing.
  *
  * For end-to-end production validation, query the page-load wide event in the
  * data warehouse with `tracker_optimization_enabled_v3` as the discriminator.
@@ -114,8 +111,8 @@ class TdsClientBenchmark {
         println("Measurement iterations:          $MEASUREMENT_ITERATIONS")
         println("Total calls per path:            $totalCalls")
         println()
-        println("V2 (linear + cached sameOrSubdomain): $v2PerCall ns/call")
-        println("V3 (HashMap label-walk):              $v3PerCall ns/call")
+        println("V2 (linear sameOrSubdomain):          $v2PerCall ns/call")
+        println("V3 (DomainSuffixMap):                 $v3PerCall ns/call")
         if (v3PerCall > 0L) {
             val speedup = v2PerCall.toDouble() / v3PerCall.toDouble()
             println("Speedup:                              ${"%.1f".format(speedup)}x")
@@ -123,7 +120,50 @@ class TdsClientBenchmark {
         println("=============================================")
     }
 
-    private fun measureNanos(client: TdsClient): Long {
+    /**
+     * Compares per-request rule evaluation (a fresh `.*rule.*` regex per rule and request) against the precompiled
+     * [TdsRuleMatcher] on a corpus of subresource URLs that all hit tracker hosts, which is where rule evaluation happens.
+     *
+     * Pass `-Dtds.benchmark.corpus=/path/to/urls.txt` (one URL per line, e.g. exported from a heavy page load) to run
+     * against a recorded corpus; otherwise a corpus is synthesized from the rules in tds.json.
+     */
+    @Test
+    fun benchmarkRuleEvaluation() {
+        val corpus = System.getProperty(CORPUS_PROPERTY)?.let { path -> File(path).readLines().filter { it.isNotBlank() } }
+            ?: buildRuleCorpus(trackers)
+        val perRequestClient = TdsClient(TDS, trackers, mockUrlToTypeMapper, optimizeTrackerEvaluationV3 = true, precompileRegex = false)
+        val precompiledClient = TdsClient(TDS, trackers, mockUrlToTypeMapper, optimizeTrackerEvaluationV3 = true, precompileRegex = true)
+
+        repeat(WARMUP_ITERATIONS) {
+            corpus.forEach { perRequestClient.matches(it, DOCUMENT_URL, mapOf()) }
+            corpus.forEach { precompiledClient.matches(it, DOCUMENT_URL, mapOf()) }
+        }
+
+        val perRequestTotal = measureNanos(perRequestClient, corpus)
+        val precompiledTotal = measureNanos(precompiledClient, corpus)
+
+        val totalCalls = (MEASUREMENT_ITERATIONS * corpus.size).toLong()
+        val perRequestPerCall = perRequestTotal / totalCalls
+        val precompiledPerCall = precompiledTotal / totalCalls
+
+        println("===== TdsClient rule evaluation microbenchmark =====")
+        println("Corpus:                          ${System.getProperty(CORPUS_PROPERTY) ?: "synthesized from tds.json rules"}")
+        println("Corpus size:                     ${corpus.size}")
+        println("Total calls per path:            $totalCalls")
+        println()
+        println("Per-request regex:               $perRequestPerCall ns/call")
+        println("Precompiled rule matcher:        $precompiledPerCall ns/call")
+        if (precompiledPerCall > 0L) {
+            val speedup = perRequestPerCall.toDouble() / precompiledPerCall.toDouble()
+            println("Speedup:                         ${"%.1f".format(speedup)}x")
+        }
+        println("====================================================")
+    }
+
+    private fun measureNanos(
+        client: TdsClient,
+        urls: List<String> = this.urls,
+    ): Long {
         val start = System.nanoTime()
         repeat(MEASUREMENT_ITERATIONS) {
             urls.forEach { client.matches(it, DOCUMENT_URL, mapOf()) }
@@ -131,6 +171,21 @@ class TdsClientBenchmark {
         return System.nanoTime() - start
     }
 
+    private fun buildRuleCorpus(trackers: List<TdsTracker>): List<String> {
+        val random = Random(SEED)
+        return trackers.filter { it.rules.isNotEmpty() }
+            .shuffled(random)
+            .take(RULE_CORPUS_TRACKERS)
+            .flatMapIndexed { idx, tracker ->
+                // a request that is unlikely to match any rule, and one built from a rule so that it usually does
+                val literal = tracker.rules.random(random).rule.replace("\\", "")
+                listOf(
+                    "https://${tracker.domain.value}/assets/app-$idx.js?v=${random.nextInt()}",
+                    if (literal.contains(tracker.domain.value)) "https://$literal" else "https://${tracker.domain.value}/$literal",
+                )
+            }
+    }
+
     private fun buildUrlMix(trackers: List<TdsTracker>): List<String> {
         val random = Random(SEED)
         val nonTracker = List(URL_MIX_NON_TRACKER) {
@@ -153,6 +208,8 @@ class TdsClientBenchmark {
         private const val WARMUP_ITERATIONS = 5
         private const val MEASUREMENT_ITERATIONS = 500
         private const val SEED = 42L
+        private const val RULE_CORPUS_TRACKERS = 150
+        private const val CORPUS_PROPERTY = "tds.benchmark.corpus"
 
         private val DOCUMENT_URL = "https://example.com/page".toUri()
     }
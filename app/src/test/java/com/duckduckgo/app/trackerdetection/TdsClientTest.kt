@@ -452,6 +452,31 @@ class TdsClientTest {
         }
     }
 
+    @Test
+    fun whenV3DisabledAndPrecompileRequestedThenRulesAreEvaluatedOnLegacyPath() {
+        // The precompiled matcher would skip the invalid rule and fall back to the defaultAction,
+        // so only the legacy per-call path reaches it after the first rule fails to match.
+        val rules = listOf(
+            Rule("api\\.tracker\\.com\\/other", BLOCK, null, null, null),
+            Rule("api\\.tracker\\.com\\/auth(", BLOCK, null, null, null),
+        )
+
+        val testee = TdsClient(
+            TDS,
+            listOf(TdsTracker(trackerDomain, IGNORE, OWNER, CATEGORY, rules)),
+            mockUrlToTypeMapper,
+            optimizeTrackerEvaluationV3 = false,
+            precompileRegex = true,
+        )
+
+        try {
+            testee.matches(url, DOCUMENT_URL, mapOf())
+            fail("Expected the legacy path to evaluate the invalid rule — precompiled matcher ran with V3 disabled")
+        } catch (_: PatternSyntaxException) {
+            // expected — legacy path compiles the invalid regex per-call and throws
+        }
+    }
+
     @Test
     fun whenV3EnabledAndUrlHasExactHostMatchThenTrackerIsFound() {
         val tracker = TdsTracker(Domain("tracker.com"), BLOCK, OWNER, CATEGORY, emptyList())
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.app.trackerdetection
+
+import com.duckduckgo.app.trackerdetection.TdsRuleMatcher.Companion.requiredLiteral
+import com.duckduckgo.app.trackerdetection.model.Rule
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+
+class TdsRuleMatcherTest {
+
+    @Test
+    fun whenRuleIsPlainTextThenRequiredLiteralIsTheWholeRule() {
+        assertEquals("example.com/ads", requiredLiteral("example\\.com\\/ads"))
+    }
+
+    @Test
+    fun whenRuleHasOptionalCharsThenTheyAreExcludedFromTheLiteral() {
+        assertEquals("tracker", requiredLiteral("ab?tracker"))
+        assertEquals("pixe", requiredLiteral("pixel*.gif"))
+        assertEquals("beacon", requiredLiteral("beacon+js"))
+    }
+
+    @Test
+    fun whenRuleHasGroupsAndClassesThenTheyBreakTheLiteral() {
+        assertEquals(".example.com", requiredLiteral("[a-z]+\\.example\\.com(:\\d+)?/collect"))
+        assertEquals("analytics", requiredLiteral("(a|b)analytics[0-9]"))
+    }
+
+    @Test
+    fun whenRuleCannotBeAnalysedThenRequiredLiteralIsNull() {
+        assertNull(requiredLiteral("ads|tracking"))
+        assertNull(requiredLiteral("(?i)tracker"))
+        assertNull(requiredLiteral("\\Qtracker\\E"))
+        assertNull(requiredLiteral("(tracker)\\1"))
+        assertNull(requiredLiteral("a.b.c"))
+    }
+
+    @Test
+    fun whenUrlMatchesRuleThenNextMatchReturnsItsIndex() {
+        val matcher = TdsRuleMatcher(listOf(rule("example\\.com\\/ads"), rule("example\\.com\\/pixel")))
+
+        assertEquals(1, matcher.nextMatch("https://example.com/pixel.gif"))
+        assertEquals(-1, matcher.nextMatch("https://example.com/script.js"))
+    }
+
+    @Test
+    fun whenSeveralRulesMatchThenNextMatchWalksThemInOrder() {
+        val matcher = TdsRuleMatcher(listOf(rule("example\\.com"), rule("nomatch"), rule("\\/ads\\/")))
+        val url = "https://example.com/ads/banner.js"
+
+        assertEquals(0, matcher.nextMatch(url))
+        assertEquals(2, matcher.nextMatch(url, 1))
+        assertEquals(-1, matcher.nextMatch(url, 3))
+    }
+
+    @Test
+    fun whenRuleIsInvalidRegexThenItIsSkipped() {
+        val matcher = TdsRuleMatcher(listOf(rule("example.com/(unclosed"), rule("example\\.com")))
+
+        assertEquals(1, matcher.nextMatch("https://example.com/(unclosed"))
+    }
+
+    @Test
+    fun whenRulesAreMatchedThenResultIsTheSameAsFullRegexMatch() {
+        val rules = listOf(
+            "example\\.com\\/ads\\/",
+            "^https:\\/\\/cdn\\.",
+            "tracker[0-9]+\\.js",
+            "pixel\\.gif\\?id=",
+            "\\/collect$",
+            "a+b",
+            "(foo|bar)baz",
+        ).map { rule(it) }
+        val urls = listOf(
+            "https://example.com/ads/banner.js",
+            "https://cdn.example.com/tracker12.js",
+            "http://cdn.example.com/tracker.js",
+            "https://example.com/pixel.gif?id=1",
+            "https://example.com/v1/collect",
+            "https://example.com/v1/collect?x=1",
+            "https://example.com/aaab",
+            "https://example.com/barbaz",
+            "https://example.com/bazbar",
+        )
+        val matcher = TdsRuleMatcher(rules)
+
+        urls.forEach { url ->
+            rules.forEachIndexed { index, rule ->
+                val expected = url.matches(".*${rule.rule}.*".toRegex())
+                assertEquals("$url / ${rule.rule}", expected, matcher.nextMatch(url, index) == index)
+            }
+        }
+    }
+
+    private fun rule(pattern: String) = Rule(pattern, null, null, null, null)
+}
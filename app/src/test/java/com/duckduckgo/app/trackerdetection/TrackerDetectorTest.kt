@@ -20,6 +20,7 @@ import android.net.Uri
 import androidx.core.net.toUri
 import androidx.test.ext.junit.runners.AndroidJUnit4
 import com.duckduckgo.adclick.api.AdClickManager
+import com.duckduckgo.app.browser.ParsedRequest
 import com.duckduckgo.app.privacy.db.UserAllowListRepository
 import com.duckduckgo.app.trackerdetection.Client.ClientName
 import com.duckduckgo.app.trackerdetection.Client.ClientName.EASYLIST
@@ -36,7 +37,10 @@ import org.junit.runner.RunWith
 import org.mockito.ArgumentMatchers.anyMap
 import org.mockito.ArgumentMatchers.anyString
 import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 
 @RunWith(AndroidJUnit4::class)
@@ -664,6 +668,126 @@ class TrackerDetectorTest {
         )
     }
 
+    @Test
+    fun whenPageStartedThenRepeatedRequestsAreMatchedOnce() {
+        val client = alwaysMatchingClient(CLIENT_A)
+        trackerDetector.addClient(client)
+        trackerDetector.onPageStarted("http://example.com/index.com")
+
+        repeat(3) {
+            trackerDetector.evaluate("http://thirdparty.com/update.js", "http://example.com/index.com".toUri(), requestHeaders = mapOf())
+        }
+
+        verify(client, times(1)).matches(anyString(), any<Uri>(), anyMap())
+        verify(mockUserAllowListRepository, times(1)).isDomainInUserAllowList("example.com")
+    }
+
+    @Test
+    fun whenPageStartedAgainThenDocumentStateIsReevaluated() {
+        trackerDetector.addClient(alwaysMatchingClient(CLIENT_A))
+        trackerDetector.onPageStarted("http://example.com/index.com")
+        trackerDetector.evaluate("http://thirdparty.com/update.js", "http://example.com/index.com".toUri(), requestHeaders = mapOf())
+
+        whenever(mockUserAllowListRepository.isDomainInUserAllowList("example.com")).thenReturn(true)
+        trackerDetector.onPageStarted("http://example.com/index.com")
+        val event = trackerDetector.evaluate("http://thirdparty.com/update.js", "http://example.com/index.com".toUri(), requestHeaders = mapOf())
+
+        assertEquals(TrackerStatus.USER_ALLOWED, event?.status)
+    }
+
+    @Test
+    fun whenPageNotStartedThenEveryRequestIsMatched() {
+        val client = alwaysMatchingClient(CLIENT_A)
+        trackerDetector.addClient(client)
+
+        repeat(3) {
+            trackerDetector.evaluate("http://thirdparty.com/update.js", "http://example.com/index.com".toUri(), requestHeaders = mapOf())
+        }
+
+        verify(client, times(3)).matches(anyString(), any<Uri>(), anyMap())
+    }
+
+    @Test
+    fun whenParsedRequestAndAllClientsMatchThenEvaluateReturnsBlockedTrackingEvent() {
+        trackerDetector.addClient(alwaysMatchingClient(CLIENT_A))
+        val expected = TrackingEvent(
+            documentUrl = "http://example.com/index.com",
+            trackerUrl = "http://thirdparty.com:8080/update.js",
+            categories = null,
+            entity = null,
+            surrogateId = null,
+            status = TrackerStatus.BLOCKED,
+            type = TrackerType.OTHER,
+        )
+        val actual = trackerDetector.evaluate(
+            ParsedRequest.of("http://thirdparty.com:8080/update.js"),
+            ParsedRequest.of("http://example.com/index.com"),
+            requestHeaders = mapOf(),
+        )
+        assertEquals(expected, actual)
+    }
+
+    @Test
+    fun whenParsedRequestThenClientsAreMatchedAgainstUrlWithoutPort() {
+        val client = alwaysMatchingClient(CLIENT_A)
+        trackerDetector.addClient(client)
+
+        trackerDetector.evaluate(
+            ParsedRequest.of("http://thirdparty.com:8080/update.js"),
+            ParsedRequest.of("http://example.com/index.com"),
+            requestHeaders = mapOf(),
+        )
+
+        verify(client).matches(Uri.parse("http://thirdparty.com/update.js"), Uri.parse("http://example.com/index.com"), mapOf())
+    }
+
+    @Test
+    fun whenParsedRequestIsInAllowlistThenEvaluateReturnsUnblockedTrackingEvent() {
+        whenever(mockTrackerAllowlist.isAnException(anyString(), anyOrNull(), anyString(), anyOrNull(), anyString())).thenReturn(true)
+        trackerDetector.addClient(alwaysMatchingClient(CLIENT_A))
+
+        val actual = trackerDetector.evaluate(
+            ParsedRequest.of("http://thirdparty.com/update.js"),
+            ParsedRequest.of("http://example.com/index.com"),
+            requestHeaders = mapOf(),
+        )
+
+        assertEquals(TrackerStatus.SITE_BREAKAGE_ALLOWED, actual?.status)
+    }
+
+    @Test
+    fun whenParsedRequestSiteIsInContentBlockingExceptionsListThenEvaluateReturnsUnblockedTrackingEvent() {
+        whenever(mockContentBlocking.isAnException(anyString(), anyOrNull())).thenReturn(true)
+        trackerDetector.addClient(alwaysMatchingClient(CLIENT_A))
+
+        val actual = trackerDetector.evaluate(
+            ParsedRequest.of("http://thirdparty.com/update.js"),
+            ParsedRequest.of("http://example.com/index.com"),
+            requestHeaders = mapOf(),
+        )
+
+        assertEquals(TrackerStatus.ALLOWED, actual?.status)
+    }
+
+    @Test
+    fun whenParsedRequestIsSubdomainOfDocumentThenEvaluateReturnsNull() {
+        trackerDetector.addClient(alwaysMatchingClient(CLIENT_A))
+        assertNull(
+            trackerDetector.evaluate(
+                ParsedRequest.of("http://mobile.example.com/update.js"),
+                ParsedRequest.of("http://example.com/index.com"),
+                requestHeaders = mapOf(),
+            ),
+        )
+        assertNull(
+            trackerDetector.evaluate(
+                ParsedRequest.of("http://example.com/update.js"),
+                ParsedRequest.of("http://mobile.example.com/index.com"),
+                requestHeaders = mapOf(),
+            ),
+        )
+    }
+
     private fun alwaysMatchingClient(name: ClientName): Client {
         val client: Client = mock()
         whenever(client.name).thenReturn(name)
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.app.browser
+
+/**
+ * Immutable map keyed by host that answers exact and same-or-subdomain lookups without allocating.
+ *
+ * A host matches a key when it is equal to it or ends with `".$key"`, the same rule as [UriString.sameOrSubdomain]. Keys are
+ * compared as given, see [DomainSuffixSet.fromDomains] to build one from privacy config style domain lists.
+ *
+ * Entries live in an open addressing table keyed by [String.hashCode]. Lookups walk the host from its last character to its
+ * first, updating the hash of the current suffix as they go, and probe the table at every label boundary, so a lookup is a
+ * single pass over the host and never creates the intermediate substrings a `substring(indexOf('.') + 1)` walk would.
+ */
+class DomainSuffixMap<V : Any>(entries: Map<String, V>) {
+
+    private val keys: Array<String?>
+    private val values: Array<Any?>
+    private val mask: Int
+
+    val size: Int
+
+    init {
+        var capacity = MIN_CAPACITY
+        while (capacity < entries.size * 2) capacity = capacity shl 1
+        keys = arrayOfNulls(capacity)
+        values = arrayOfNulls(capacity)
+        mask = capacity - 1
+
+        var count = 0
+        entries.forEach { (key, value) ->
+            // an empty key would only ever match an empty host, which UriString.sameOrSubdomain never matches either
+            if (key.isEmpty()) return@forEach
+            var slot = spread(key.hashCode()) and mask
+            while (keys[slot] != null) slot = (slot + 1) and mask
+            keys[slot] = key
+            values[slot] = value
+            count++
+        }
+        size = count
+    }
+
+    fun isEmpty(): Boolean = size == 0
+
+    /**
+     * @return the value stored for exactly [host], or null if there is none
+     */
+    operator fun get(host: String?): V? {
+        if (host.isNullOrEmpty()) return null
+        return valueAt(find(host, 0, host.hashCode()))
+    }
+
+    /**
+     * @return the value of the most specific key that [host] is the same as, or a subdomain of, or null if there is none
+     */
+    fun findSameOrParentOf(host: String?): V? {
+        if (host.isNullOrEmpty() || isEmpty()) return null
+        var found = -1
+        var hash = 0
+        var power = 1
+        for (index in host.length - 1 downTo 0) {
+            // hash of host[index, length), the same value String.hashCode() returns for that substring
+            hash += host[index].code * power
+            power *= 31
+            if (index == 0 || host[index - 1] == '.') {
+                val slot = find(host, index, hash)
+                if (slot >= 0) found = slot
+            }
+        }
+        return valueAt(found)
+    }
+
+    /**
+     * @return whether [host] is the same as, or a subdomain of, any key
+     */
+    fun containsSameOrParentOf(host: String?): Boolean {
+        if (host.isNullOrEmpty() || isEmpty()) return false
+        var hash = 0
+        var power = 1
+        for (index in host.length - 1 downTo 0) {
+            hash += host[index].code * power
+            power *= 31
+            if ((index == 0 || host[index - 1] == '.') && find(host, index, hash) >= 0) return true
+        }
+        return false
+    }
+
+    /** @return the slot of the key equal to `host[start, host.length)`, or -1 */
+    private fun find(
+        host: String,
+        start: Int,
+        hash: Int,
+    ): Int {
+        val length = host.length - start
+        var slot = spread(hash) and mask
+        while (true) {
+            val key = keys[slot] ?: return -1
+            if (key.length == length && key.hashCode() == hash && key.regionMatches(0, host, start, length)) return slot
+            slot = (slot + 1) and mask
+        }
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun valueAt(slot: Int): V? = if (slot < 0) null else values[slot] as V
+
+    companion object {
+        private const val MIN_CAPACITY = 4
+
+        private fun spread(hash: Int): Int = hash xor (hash ushr 16)
+    }
+}
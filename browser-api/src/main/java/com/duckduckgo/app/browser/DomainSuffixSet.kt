@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.app.browser
+
+/**
+ * Immutable set of hosts answering "is this host, or one of its parent domains, in the set" without allocating.
+ *
+ * Meant to be built once whenever an exception list changes and then queried from the request interception threads, instead of
+ * running [UriString.sameOrSubdomain] against every entry of the list for every request. See [DomainSuffixMap].
+ */
+class DomainSuffixSet(hosts: Collection<String>) {
+
+    private val map = DomainSuffixMap(hosts.associateWith { Unit })
+
+    val size: Int
+        get() = map.size
+
+    fun isEmpty(): Boolean = map.isEmpty()
+
+    /**
+     * @return whether exactly [host] is in the set
+     */
+    operator fun contains(host: String?): Boolean = map[host] != null
+
+    /**
+     * @return whether [host] is the same as, or a subdomain of, any host in the set
+     */
+    fun containsSameOrParentOf(host: String?): Boolean = map.containsSameOrParentOf(host)
+
+    companion object {
+        val EMPTY = DomainSuffixSet(emptyList())
+
+        /**
+         * Builds a set from privacy config style [domains], normalized the same way [UriString.sameOrSubdomain] normalizes its
+         * parent: a leading "www." is dropped and entries that are not bare domains are reduced to their host.
+         */
+        fun fromDomains(domains: Iterable<String>): DomainSuffixSet {
+            val hosts = domains.mapNotNull { UriString.normalizedHost(it) }
+            return if (hosts.isEmpty()) EMPTY else DomainSuffixSet(hosts)
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.app.browser
+
+import android.net.Uri
+import okhttp3.HttpUrl
+import okhttp3.HttpUrl.Companion.toHttpUrlOrNull
+
+/**
+ * A request url parsed once and handed to every check a request goes through, so that each of them doesn't parse it again.
+ *
+ * Only [uri], [url] and [host] are resolved upfront. The other views are derived on first access and kept for the lifetime of
+ * the instance. Instances are meant to be confined to the thread handling the request.
+ *
+ * The host comparisons follow the semantics of their [UriString] counterparts, but compare label boundaries in place instead
+ * of building `".$parent"` strings or re-parsing either side.
+ */
+class ParsedRequest private constructor(
+    val uri: Uri,
+    val url: String,
+) {
+    /** host of [uri], or null if it has none */
+    val host: String? = uri.host
+
+    private var cachedBaseHost: String? = null
+    private var cachedPortStrippedUri: Uri? = null
+    private var labelStarts: IntArray? = null
+    private var httpUrlResolved = false
+    private var httpUrl: HttpUrl? = null
+
+    /** [host] without its `www.` prefix, as returned by [UriString.host] */
+    val baseHost: String?
+        get() {
+            val host = host ?: return null
+            return cachedBaseHost ?: host.removePrefix(WWW_PREFIX).also { cachedBaseHost = it }
+        }
+
+    /** [uri] without its port, as returned by [UriString.removePort] */
+    val portStrippedUri: Uri
+        get() = cachedPortStrippedUri ?: stripPort(uri).also { cachedPortStrippedUri = it }
+
+    /** [url] without its port, as returned by [UriString.removePort] */
+    val portStrippedUrl: String
+        get() = portStrippedUri.let { if (it === uri) url else it.toString() }
+
+    /** [url] as normalized by OkHttp, or null if it isn't a well-formed http(s) url */
+    val normalizedUrl: String?
+        get() = resolveHttpUrl()?.toString()
+
+    /** the registrable domain (eTLD+1) of [host], or null if it has none (e.g. ip addresses or public suffixes) */
+    val eTldPlusOne: String?
+        get() = resolveHttpUrl()?.topPrivateDomain()
+
+    /** number of labels in [host], 0 if it has none */
+    val labelCount: Int
+        get() = resolveLabelStarts().size
+
+    /**
+     * @return the label of [host] at [index], counting from the right: 0 is the top level domain
+     */
+    fun label(index: Int): String {
+        val starts = resolveLabelStarts()
+        val start = starts[index]
+        val end = if (index == 0) host!!.length else starts[index - 1] - 1
+        return host!!.substring(start, end)
+    }
+
+    /**
+     * @return the last [labels] labels of [host], e.g. `hostSuffix(2)` is `example.com` for `www.example.com`
+     */
+    fun hostSuffix(labels: Int): String = host!!.substring(resolveLabelStarts()[labels - 1])
+
+    /**
+     * Same as [UriString.sameOrSubdomain]: whether [baseHost] is [domain] or one of its subdomains.
+     */
+    fun isSameOrSubdomainOf(domain: String): Boolean = UriString.sameOrSubdomainOfHost(baseHost, domain)
+
+    /**
+     * Same as [UriString.sameOrSubdomainPair]: whether either of [host] and the host of [other] is the same as or a subdomain of
+     * the other one.
+     */
+    fun isSameOrSubdomainPair(other: ParsedRequest): Boolean {
+        val first = host ?: return false
+        val second = other.host ?: return false
+        return UriString.isSameOrSubdomainHost(first, second, 0) || UriString.isSameOrSubdomainHost(second, first, 0)
+    }
+
+    private fun resolveHttpUrl(): HttpUrl? {
+        if (!httpUrlResolved) {
+            httpUrl = url.toHttpUrlOrNull()
+            httpUrlResolved = true
+        }
+        return httpUrl
+    }
+
+    private fun resolveLabelStarts(): IntArray {
+        labelStarts?.let { return it }
+        val host = host.orEmpty()
+        val starts = if (host.isEmpty()) {
+            EMPTY_LABELS
+        } else {
+            IntArray(host.count { it == '.' } + 1).also { starts ->
+                var end = host.length
+                for (index in starts.indices) {
+                    val dot = host.lastIndexOf('.', end - 1)
+                    starts[index] = dot + 1
+                    end = dot
+                }
+            }
+        }
+        labelStarts = starts
+        return starts
+    }
+
+    override fun toString(): String = url
+
+    companion object {
+        private const val WWW_PREFIX = "www."
+        private val EMPTY_LABELS = IntArray(0)
+
+        fun of(uri: Uri): ParsedRequest = ParsedRequest(uri, uri.toString())
+
+        fun of(url: String): ParsedRequest = ParsedRequest(Uri.parse(url), url)
+
+        private fun stripPort(uri: Uri): Uri {
+            return try {
+                if (uri.port == -1) uri else uri.buildUpon().authority(uri.host).build()
+            } catch (e: Exception) {
+                uri
+            }
+        }
+    }
+}
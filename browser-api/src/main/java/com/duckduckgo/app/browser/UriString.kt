@@ -17,7 +17,6 @@
 package com.duckduckgo.app.browser
 
 import android.net.Uri
-import androidx.collection.LruCache
 import androidx.core.util.PatternsCompat
 import com.duckduckgo.common.utils.UrlScheme
 import com.duckduckgo.common.utils.baseHost
@@ -31,10 +30,10 @@ class UriString {
     companion object {
         private const val LOCALHOST = "localhost"
         private const val SPACE = " "
+        private const val WWW_PREFIX = "www."
         private val webUrlRegex by lazy { PatternsCompat.WEB_URL.toRegex() }
         private val domainRegex by lazy { PatternsCompat.DOMAIN_NAME.toRegex() }
         private val inputQueryCleanupRegex by lazy { "['\"\n]|\\s+".toRegex() }
-        private val cache = LruCache<Int, Boolean>(250_000)
 
         fun extractUrl(inputQuery: String, cleanInputQuery: Boolean): String? {
             val processedQuery = if (cleanInputQuery) {
@@ -85,10 +84,7 @@ class UriString {
             parent: Domain,
         ): Boolean {
             child ?: return false
-            val hash = (child.value + parent.value).hashCode()
-            return cache.get(hash) ?: (parent == child || child.value.endsWith(".${parent.value}")).also {
-                cache.put(hash, it)
-            }
+            return isSameOrSubdomainHost(child.value, parent.value, 0)
         }
 
         fun sameOrSubdomain(
@@ -109,6 +105,56 @@ class UriString {
             return parentHost == childHost || childHost.endsWith(".$parentHost")
         }
 
+        /**
+         * Same as [sameOrSubdomain] for a child host that was already extracted, e.g. [ParsedRequest.baseHost]. When [parent] is
+         * a bare domain, as in the privacy config exception lists, it is compared in place instead of being parsed.
+         */
+        fun sameOrSubdomainOfHost(
+            childHost: String?,
+            parent: String,
+        ): Boolean {
+            childHost ?: return false
+            if (!isBareHost(parent)) {
+                val parentHost = host(parent) ?: return false
+                return isSameOrSubdomainHost(childHost, parentHost, 0)
+            }
+            val parentStart = if (parent.startsWith(WWW_PREFIX)) WWW_PREFIX.length else 0
+            return isSameOrSubdomainHost(childHost, parent, parentStart)
+        }
+
+        /**
+         * @return [domain] as the parent host [sameOrSubdomain] compares against, i.e. without a leading "www.", or null if it
+         * has no host. Bare domains, as in the privacy config exception lists, are not parsed.
+         */
+        fun normalizedHost(domain: String): String? {
+            return if (isBareHost(domain)) domain.removePrefix(WWW_PREFIX) else host(domain)
+        }
+
+        /**
+         * @return whether [child] is the same as, or a subdomain of, the host that starts at [parentStart] in [parent]
+         */
+        internal fun isSameOrSubdomainHost(
+            child: String,
+            parent: String,
+            parentStart: Int,
+        ): Boolean {
+            val parentLength = parent.length - parentStart
+            if (parentLength == 0) return child.isEmpty()
+            if (child.length == parentLength) return child.regionMatches(0, parent, parentStart, parentLength)
+            val offset = child.length - parentLength
+            return offset > 0 && child[offset - 1] == '.' && child.regionMatches(offset, parent, parentStart, parentLength)
+        }
+
+        private fun isBareHost(domain: String): Boolean {
+            if (domain.isEmpty()) return false
+            for (char in domain) {
+                if (char == ':' || char == '/' || char == '?' || char == '#' || char == '@' || char == '\\' || char.isWhitespace()) {
+                    return false
+                }
+            }
+            return true
+        }
+
         fun sameOrSubdomainPair(
             first: Uri,
             second: String,
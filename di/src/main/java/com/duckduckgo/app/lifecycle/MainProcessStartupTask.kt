@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.app.lifecycle
+
+/**
+ * Optionally implemented by [MainProcessLifecycleObserver] plugins whose `onCreate` does not need to run on the main thread before the
+ * first frame is drawn.
+ *
+ * The start-up scheduler calls `onCreate` of these plugins according to their [startupStage], once every task named in
+ * [startupDependencies] has completed, and ahead of any lower [startupPriority] task that is ready at the same time.
+ * Everything `onCreate` starts should be done by the time it returns, so that dependent tasks can rely on it.
+ *
+ * The other lifecycle callbacks are still delivered on the main thread, and `onStart` can be delivered before `onCreate` has completed.
+ */
+interface MainProcessStartupTask {
+    val startupStage: StartupStage
+
+    /**
+     * Name other tasks use in their [startupDependencies]
+     */
+    val startupTaskName: String
+        get() = javaClass.simpleName
+
+    /**
+     * Names of the tasks that have to complete before this one starts. Names that don't belong to any task are ignored
+     */
+    val startupDependencies: Set<String>
+        get() = emptySet()
+
+    val startupPriority: Int
+        get() = 0
+
+    enum class StartupStage {
+        /** `onCreate` runs on a bounded pool of background threads */
+        BACKGROUND,
+
+        /** `onCreate` runs on the main thread, the first time it goes idle after its dependencies completed */
+        IDLE,
+    }
+
+    companion object {
+        /** Name of the task that loads the tracker data set (TDS) into the tracker detector */
+        const val TRACKER_DATA_LOADED = "TrackerDataLoaded"
+    }
+}
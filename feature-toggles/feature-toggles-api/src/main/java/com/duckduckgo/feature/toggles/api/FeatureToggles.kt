@@ -438,6 +438,9 @@ internal class ToggleImpl constructor(
     private val ioDispatcher: CoroutineDispatcher,
 ) : Toggle {
 
+    @Volatile
+    private var compiledState: CompiledState? = null
+
     override fun equals(other: Any?): Boolean {
         if (other !is Toggle) {
             return false
@@ -507,50 +510,50 @@ internal class ToggleImpl constructor(
     }
 
     override fun isEnabled(): Boolean {
-        // This fun is in there because it should never be called outside this method
-        fun Toggle.State.evaluateTargetMatching(isExperiment: Boolean): Boolean {
-            val variant = appVariantProvider.invoke()
-            // no targets then consider always treated
-            if (this.targets.isEmpty()) {
-                return true
-            }
-            // if it's an experiment we only check target variants and ignore all the rest
-            // this is because the (retention) experiments define their targets some place else
-            val variantTargets = this.targets.mapNotNull { it.variantKey }
-            if (isExperiment && variantTargets.isNotEmpty()) {
-                return variantTargets.contains(variant)
-            }
-            // finally, check all other targets
-            val nonVariantTargets = this.targets.filter { it.variantKey == null }
-
-            // callback should never be null, but if it is, consider targets a match
-            return callback?.matchesToggleTargets(nonVariantTargets) ?: true
-        }
-
-        // This fun is in there because it should never be called outside this method
-        fun evaluateLocalEnable(state: State, isExperiment: Boolean): Boolean {
-            // variants are only considered for Experiment feature flags
-            val doTargetsMatch = state.evaluateTargetMatching(isExperiment)
-
-            return state.enable &&
-                doTargetsMatch &&
-                appVersionProvider.invoke() >= (state.minSupportedVersion ?: 0)
-        }
         // check if it should always be enabled for internal builds
         if (isInternalAlwaysEnabled && flavorNameProvider.invoke().lowercase() == "internal") {
             return true
         }
         // If there's not assigned variant yet and is an experiment feature, set default variant
-        if (appVariantProvider.invoke() == null && isExperiment) {
+        if (isExperiment && appVariantProvider.invoke() == null) {
             forceDefaultVariant.invoke()
         }
 
         // normal check
-        return store.get(key)?.let { state ->
-            state.remoteEnableState?.let { remoteState ->
-                remoteState && evaluateLocalEnable(state, isExperiment)
-            } ?: evaluateLocalEnable(state, isExperiment)
-        } ?: return defaultValue
+        val compiled = compiledState() ?: return defaultValue
+        return compiled.enabledForAppVersion && compiled.matchesTargets()
+    }
+
+    private fun CompiledState.matchesTargets(): Boolean {
+        // no targets then consider always treated
+        if (!hasTargets) {
+            return true
+        }
+        // if it's an experiment we only check target variants and ignore all the rest
+        // this is because the (retention) experiments define their targets some place else
+        if (isExperiment && variantTargets.isNotEmpty()) {
+            return variantTargets.contains(appVariantProvider.invoke())
+        }
+        // finally, check all other targets
+        // callback should never be null, but if it is, consider targets a match
+        return callback?.matchesToggleTargets(nonVariantTargets) ?: true
+    }
+
+    /**
+     * @return the stored [State] compiled for [isEnabled], or null when there is none. The compiled state is kept until the
+     * store is written to again, so that when nothing changed [isEnabled] is a volatile read followed by the checks that
+     * can change at runtime: the build flavor for [Toggle.InternalAlwaysEnabled], the assigned variant and the targets.
+     */
+    private fun compiledState(): CompiledState? {
+        val version = (store as? CachedToggleStore)?.version()
+        compiledState?.let { compiled ->
+            if (version != null && compiled.storeVersion == version) return compiled
+        }
+        // like the store, don't cache a missing state
+        val state = store.get(key) ?: return null
+        return CompiledState(storeVersion = version ?: -1, state = state, appVersion = appVersionProvider.invoke()).also {
+            if (version != null) compiledState = it
+        }
     }
 
     @Suppress("NAME_SHADOWING")
@@ -580,7 +583,7 @@ internal class ToggleImpl constructor(
             isInternalAlwaysEnabled to "Internal builds forced-enabled",
         )
         val info = metadata.filter { it.first }.joinToString(",") { it.second }
-        return store.get(key)?.copy(metadataInfo = info)
+        return compiledState()?.state?.copy(metadataInfo = info)
     }
 
     private fun evaluateRolloutThreshold(
@@ -654,10 +657,10 @@ internal class ToggleImpl constructor(
         )
     }
 
-    override fun getSettings(): String? = store.get(key)?.settings
+    override fun getSettings(): String? = compiledState()?.state?.settings
 
     override fun getExceptions(): List<FeatureException> {
-        return store.get(key)?.exceptions.orEmpty()
+        return compiledState()?.state?.exceptions.orEmpty()
     }
 
     override suspend fun getCohort(): Cohort? {
@@ -678,3 +681,21 @@ internal class ToggleImpl constructor(
         return cohort.cohortName.lowercase() == getCohort()?.name?.lowercase() && isEnabled()
     }
 }
+
+/**
+ * The parts of [state] that [ToggleImpl.isEnabled] evaluates, computed once per stored state, including the check against
+ * [appVersion], which doesn't change while the app runs.
+ * Targets are only split here, whether they match depends on the assigned variant and on the user so it is checked on
+ * every call.
+ */
+private class CompiledState(
+    val storeVersion: Long,
+    val state: State,
+    appVersion: Int,
+) {
+    /** The remote and the local enabled states combined, and [appVersion] at least the minimum supported version */
+    val enabledForAppVersion: Boolean = state.remoteEnableState != false && state.enable && appVersion >= (state.minSupportedVersion ?: 0)
+    val hasTargets: Boolean = state.targets.isNotEmpty()
+    val variantTargets: Set<String> = state.targets.mapNotNullTo(HashSet()) { it.variantKey }
+    val nonVariantTargets: List<State.Target> = state.targets.filter { it.variantKey == null }
+}
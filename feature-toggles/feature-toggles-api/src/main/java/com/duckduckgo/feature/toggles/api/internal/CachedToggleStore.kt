@@ -18,37 +18,32 @@ package com.duckduckgo.feature.toggles.api.internal
 
 import com.duckduckgo.feature.toggles.api.Toggle
 import com.duckduckgo.feature.toggles.api.Toggle.State
-import com.google.common.cache.CacheBuilder
-import com.google.common.cache.CacheLoader
-import com.google.common.cache.LoadingCache
 import org.jetbrains.annotations.TestOnly
-import java.util.Optional
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.CopyOnWriteArraySet
-import kotlin.jvm.optionals.getOrNull
+import java.util.concurrent.atomic.AtomicLong
 
+/**
+ * [Toggle.Store] that keeps every [State] it has read or written in memory, so each one is only decoded from the
+ * backing [store] once. There is no size limit, there is one small [State] per feature flag.
+ */
 class CachedToggleStore constructor(
     private val store: Toggle.Store,
 ) : Toggle.Store {
     private val listeners = CopyOnWriteArraySet<Listener>()
 
-    private val cache: LoadingCache<String, Optional<State>> =
-        CacheBuilder
-            .newBuilder()
-            .maximumSize(50)
-            .build(
-                object : CacheLoader<String, Optional<State>>() {
-                    override fun load(key: String): Optional<State> = Optional.ofNullable(store.get(key))
-                },
-            )
+    private val cache = ConcurrentHashMap<String, State>()
+    private val version = AtomicLong()
 
     override fun set(
         key: String,
         state: State,
     ) {
-        cache.asMap().compute(key) { k, _ ->
+        cache.compute(key) { k, _ ->
             store.set(k, state)
-            Optional.of(state)
+            state
         }
+        version.incrementAndGet()
         // Notify AFTER compute() to avoid deadlocks or re-entrancy into the cache/store.
         // If the store.set() above throws, this never runs (which is what we want).
         // Swallow listener exceptions so they don't break writes.
@@ -95,19 +90,24 @@ class CachedToggleStore constructor(
      */
     @TestOnly
     fun invalidateAll() {
-        cache.invalidateAll()
+        cache.clear()
+        version.incrementAndGet()
     }
 
     override fun get(key: String): State? {
-        val value = cache.get(key).getOrNull()
-        if (value == null) {
-            // avoid negative caching
-            cache.invalidate(key)
-        }
-
-        return value
+        cache[key]?.let { return it }
+        // avoid negative caching
+        val value = store.get(key) ?: return null
+        // a concurrent set() wins over the value just read
+        return cache.putIfAbsent(key, value) ?: value
     }
 
+    /**
+     * @return a number that changes every time a [State] is written to this store, so that values derived from the
+     * stored states can tell whether they are still current
+     */
+    internal fun version(): Long = version.get()
+
     interface Listener {
         fun onToggleStored(key: String, newValue: State)
     }
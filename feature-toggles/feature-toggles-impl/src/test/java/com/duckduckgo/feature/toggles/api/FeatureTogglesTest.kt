@@ -229,6 +229,18 @@ class FeatureTogglesTest {
         assertTrue(feature.enabledByDefault().isEnabled())
     }
 
+    @Test
+    fun whenStateIsWrittenDirectlyToTheStoreThenIsEnabledReflectsIt() {
+        feature.enabledByDefault().setRawStoredState(Toggle.State(enable = true))
+        assertTrue(feature.enabledByDefault().isEnabled())
+
+        toggleStore.set("test_enabledByDefault", Toggle.State(remoteEnableState = false, enable = false))
+        assertFalse(feature.enabledByDefault().isEnabled())
+
+        toggleStore.set("test_enabledByDefault", Toggle.State(remoteEnableState = true, enable = true))
+        assertTrue(feature.enabledByDefault().isEnabled())
+    }
+
     @Test
     fun testInternalAlwaysEnabledAnnotation() {
         assertFalse(feature.internal().isEnabled())
@@ -66,4 +66,16 @@ class CachedToggleStoreTest {
         val actual = cachedToggleStore.get("test")
         assertEquals(expected, actual)
     }
+
+    @Test
+    fun `states are kept in memory regardless of how many toggles are stored`() {
+        val keys = List(500) { "test_$it" }
+        val expected = Toggle.State(remoteEnableState = true, settings = "")
+        keys.forEach { cachedToggleStore.set(it, expected) }
+
+        // bypass the wrapper, so only cached states are returned unchanged
+        keys.forEach { store.set(it, expected.copy(remoteEnableState = false)) }
+
+        keys.forEach { assertEquals(expected, cachedToggleStore.get(it)) }
+    }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.history.api
+
+import android.net.Uri
+import java.time.LocalDateTime
+
+/**
+ * A history entry with the aggregate of its visits, for callers that don't need every visit.
+ * @property url The URL of the history entry.
+ * @property title The title of the history entry.
+ * @property query The search query, if the entry is a search engine results page (SERP).
+ * @property visitCount The number of visits to the history entry.
+ * @property lastVisit The time of the most recent visit.
+ */
+data class HistoryEntrySummary(
+    val url: Uri,
+    val title: String,
+    val query: String?,
+    val visitCount: Int,
+    val lastVisit: LocalDateTime,
+)
+
+/**
+ * A change to the history, as emitted by [NavigationHistory.getHistoryChanges].
+ */
+sealed class HistoryChange {
+    /**
+     * An entry was visited, either for the first time or again.
+     * @property entry The entry, with all of its visits.
+     */
+    data class EntryVisited(val entry: HistoryEntry) : HistoryChange()
+
+    /**
+     * The entry for [url] was removed.
+     */
+    data class EntryRemoved(val url: Uri) : HistoryChange()
+
+    /**
+     * All history entries were removed.
+     */
+    data object Cleared : HistoryChange()
+
+    /**
+     * Entries that can't be described individually were removed, e.g. old or per-tab entries. Load the history again.
+     */
+    data object Invalidated : HistoryChange()
+}
@@ -34,6 +34,26 @@ interface NavigationHistory {
      */
     fun getHistory(): Flow<List<HistoryEntry>>
 
+    /**
+     * Emits every change to the history from the time of collection, without reloading the history, e.g. to keep
+     * a copy of [getHistory] up to date.
+     * @return [Flow] of [HistoryChange].
+     */
+    fun getHistoryChanges(): Flow<HistoryChange>
+
+    /**
+     * Retrieves every [HistoryEntrySummary], aggregated by the storage instead of loading every visit.
+     * @return [List] of [HistoryEntrySummary].
+     */
+    suspend fun getHistorySummaries(): List<HistoryEntrySummary>
+
+    /**
+     * Retrieves the most frequently and recently visited entries.
+     * @param limit The maximum number of entries to return.
+     * @return [List] of up to [limit] [HistoryEntrySummary], highest frecency first.
+     */
+    suspend fun getTopHistory(limit: Int): List<HistoryEntrySummary>
+
     /**
      * Clears all history entries.
      */
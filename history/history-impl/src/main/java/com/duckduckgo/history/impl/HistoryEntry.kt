@@ -18,8 +18,10 @@ package com.duckduckgo.history.impl
 
 import androidx.core.net.toUri
 import com.duckduckgo.history.api.HistoryEntry
+import com.duckduckgo.history.api.HistoryEntrySummary
 import com.duckduckgo.history.api.HistoryEntry.VisitedPage
 import com.duckduckgo.history.api.HistoryEntry.VisitedSERP
+import com.duckduckgo.history.impl.store.HistoryEntryVisitStats
 import com.duckduckgo.history.impl.store.HistoryEntryWithVisits
 import java.time.LocalDateTime
 
@@ -31,3 +33,14 @@ fun HistoryEntryWithVisits.toHistoryEntry(): HistoryEntry? {
         VisitedPage(historyEntry.url.toUri(), historyEntry.title, visits.map { LocalDateTime.parse(it.timestamp) })
     }
 }
+
+fun HistoryEntryVisitStats.toHistoryEntrySummary(): HistoryEntrySummary? {
+    if (historyEntry.url.isBlank()) return null
+    return HistoryEntrySummary(
+        url = historyEntry.url.toUri(),
+        title = historyEntry.title,
+        query = historyEntry.query?.takeIf { historyEntry.isSerp && it.isNotBlank() },
+        visitCount = visitCount,
+        lastVisit = LocalDateTime.parse(lastVisit),
+    )
+}
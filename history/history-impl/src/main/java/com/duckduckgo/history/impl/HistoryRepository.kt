@@ -16,19 +16,43 @@
 
 package com.duckduckgo.history.impl
 
+import androidx.core.net.toUri
 import com.duckduckgo.common.utils.DispatcherProvider
+import com.duckduckgo.common.utils.formatters.time.DatabaseDateFormatter
+import com.duckduckgo.history.api.HistoryChange
+import com.duckduckgo.history.api.HistoryChange.Cleared
+import com.duckduckgo.history.api.HistoryChange.EntryRemoved
+import com.duckduckgo.history.api.HistoryChange.EntryVisited
+import com.duckduckgo.history.api.HistoryChange.Invalidated
 import com.duckduckgo.history.api.HistoryEntry
+import com.duckduckgo.history.api.HistoryEntrySummary
 import com.duckduckgo.history.impl.store.HistoryDao
 import com.duckduckgo.history.impl.store.HistoryDataStore
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.NonCancellable
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.asSharedFlow
 import kotlinx.coroutines.flow.distinctUntilChanged
-import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.onSubscription
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
 import kotlinx.coroutines.withContext
 import java.time.LocalDateTime
 
 interface HistoryRepository {
     fun getHistory(): Flow<List<HistoryEntry>>
 
+    fun getHistoryChanges(): Flow<HistoryChange>
+
+    suspend fun getHistorySummaries(): List<HistoryEntrySummary>
+
+    suspend fun getTopHistory(
+        limit: Int,
+        now: LocalDateTime,
+    ): List<HistoryEntrySummary>
+
     suspend fun saveToHistory(
         url: String,
         title: String?,
@@ -60,10 +84,59 @@ class RealHistoryRepository(
     private val historyDataStore: HistoryDataStore,
 ) : HistoryRepository {
 
-    override fun getHistory(): Flow<List<HistoryEntry>> =
-        historyDao.getHistoryEntriesWithVisitsFlow()
-            .map { entries -> entries.mapNotNull { it.toHistoryEntry() } }
-            .distinctUntilChanged()
+    private val changes = MutableSharedFlow<HistoryChange>(extraBufferCapacity = CHANGES_BUFFER_CAPACITY)
+
+    private val writeMutex = Mutex()
+
+    // guarded by writeMutex
+    private var reloadPending = false
+    private var invalidating = false
+
+    /**
+     * Loads the history once per collection and then applies [changes] to it, instead of reloading every entry with all
+     * of its visits whenever any of them changes.
+     */
+    override fun getHistory(): Flow<List<HistoryEntry>> = flow {
+        // keyed by url, in the order the entries were loaded or first visited
+        val entries = LinkedHashMap<String, HistoryEntry>()
+        // the initial load happens once subscribed, so that no change is missed in between
+        changes.onSubscription { emit(Invalidated) }.collect { change ->
+            when (change) {
+                is EntryVisited -> entries[change.entry.url.toString()] = change.entry
+                is EntryRemoved -> entries.remove(change.url.toString())
+                Cleared -> entries.clear()
+                Invalidated -> {
+                    entries.clear()
+                    historyDao.getHistoryEntriesWithVisits()
+                        .mapNotNull { it.toHistoryEntry() }
+                        .forEach { entries[it.url.toString()] = it }
+                }
+            }
+            emit(entries.values.toList())
+        }
+    }.distinctUntilChanged()
+
+    override fun getHistoryChanges(): Flow<HistoryChange> = changes.asSharedFlow()
+
+    override suspend fun getHistorySummaries(): List<HistoryEntrySummary> {
+        return withContext(dispatcherProvider.io()) {
+            historyDao.getHistoryEntryVisitStats().mapNotNull { it.toHistoryEntrySummary() }
+        }
+    }
+
+    override suspend fun getTopHistory(
+        limit: Int,
+        now: LocalDateTime,
+    ): List<HistoryEntrySummary> {
+        return withContext(dispatcherProvider.io()) {
+            historyDao.getTopHistoryEntryVisitStats(
+                limit = limit,
+                dayAgo = DatabaseDateFormatter.timestamp(now.minusDays(1)),
+                weekAgo = DatabaseDateFormatter.timestamp(now.minusWeeks(1)),
+                monthAgo = DatabaseDateFormatter.timestamp(now.minusMonths(1)),
+            ).mapNotNull { it.toHistoryEntrySummary() }
+        }
+    }
 
     override suspend fun saveToHistory(
         url: String,
@@ -72,7 +145,7 @@ class RealHistoryRepository(
         isSerp: Boolean,
         tabId: String,
     ) {
-        withContext(dispatcherProvider.io()) {
+        writeAndPublish {
             historyDao.updateOrInsertVisit(
                 url,
                 title ?: "",
@@ -81,30 +154,40 @@ class RealHistoryRepository(
                 LocalDateTime.now(),
                 tabId,
             )
+            // only read the entry back when someone is following the changes
+            if (changes.subscriptionCount.value > 0) {
+                historyDao.getHistoryEntryWithVisitsByUrl(url)?.toHistoryEntry()?.let { EntryVisited(it) }
+            } else {
+                null
+            }
         }
     }
 
     override suspend fun removeHistoryForTab(tabId: String) {
-        withContext(dispatcherProvider.io()) {
+        writeAndPublish {
             historyDao.deleteHistoryForTab(tabId)
+            Invalidated
         }
     }
 
     override suspend fun clearHistory() {
-        withContext(dispatcherProvider.io()) {
+        writeAndPublish {
             historyDao.deleteAll()
+            Cleared
         }
     }
 
     override suspend fun removeHistoryEntryByUrl(url: String) {
-        withContext(dispatcherProvider.io()) {
+        writeAndPublish {
             historyDao.deleteEntriesByUrl(url)
+            if (url.isNotBlank()) EntryRemoved(url.toUri()) else null
         }
     }
 
     override suspend fun removeHistoryEntryByQuery(query: String) {
-        withContext(dispatcherProvider.io()) {
+        writeAndPublish {
             historyDao.deleteEntriesByQuery(query)
+            Invalidated
         }
     }
 
@@ -121,15 +204,63 @@ class RealHistoryRepository(
     }
 
     override suspend fun clearEntriesOlderThan(dateTime: LocalDateTime) {
-        withContext(dispatcherProvider.io()) {
+        writeAndPublish {
             historyDao.deleteEntriesOlderThan(dateTime)
+            Invalidated
         }
     }
 
     override suspend fun hasHistory(): Boolean {
         return withContext(dispatcherProvider.io()) {
-            historyDao.getHistoryEntriesWithVisits()
-                .any { it.toHistoryEntry() != null }
+            historyDao.hasHistoryEntries()
         }
     }
+
+    /**
+     * Runs [write] and publishes the change it returns, if any, under [writeMutex], so that changes are published in the
+     * same order as their writes were applied.
+     *
+     * Publishing never suspends under [writeMutex]. Once a collector falls [CHANGES_BUFFER_CAPACITY] changes behind, the
+     * change is dropped and a single writer queues [Invalidated] behind the buffered changes, outside the lock, so the
+     * collector reloads the history once it catches up while the other writes carry on.
+     */
+    private suspend fun writeAndPublish(write: suspend () -> HistoryChange?) {
+        writeMutex.withLock {
+            val change = withContext(dispatcherProvider.io()) { write() } ?: return
+            if (!reloadPending && changes.tryEmit(change)) return
+            reloadPending = true
+            if (invalidating) return
+            invalidating = true
+        }
+        publishInvalidated()
+    }
+
+    /**
+     * Queues [Invalidated] until no change has been dropped since it was last queued. A change dropped while waiting is
+     * covered by queueing [Invalidated] again, as the reload may already have read the history before that write.
+     */
+    private suspend fun publishInvalidated() {
+        try {
+            do {
+                writeMutex.withLock { reloadPending = false }
+                changes.emit(Invalidated)
+                val again = writeMutex.withLock {
+                    reloadPending.also { if (!it) invalidating = false }
+                }
+            } while (again)
+        } catch (e: CancellationException) {
+            // hand the pending reload over to the next write
+            withContext(NonCancellable) {
+                writeMutex.withLock {
+                    reloadPending = true
+                    invalidating = false
+                }
+            }
+            throw e
+        }
+    }
+
+    companion object {
+        private const val CHANGES_BUFFER_CAPACITY = 64
+    }
 }
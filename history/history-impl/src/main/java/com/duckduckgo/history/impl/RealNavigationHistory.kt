@@ -20,11 +20,14 @@ import com.duckduckgo.app.browser.DuckDuckGoUrlDetector
 import com.duckduckgo.common.utils.CurrentTimeProvider
 import com.duckduckgo.common.utils.DispatcherProvider
 import com.duckduckgo.di.scopes.AppScope
+import com.duckduckgo.history.api.HistoryChange
 import com.duckduckgo.history.api.HistoryEntry
+import com.duckduckgo.history.api.HistoryEntrySummary
 import com.duckduckgo.history.api.NavigationHistory
 import com.duckduckgo.history.impl.remoteconfig.HistoryFeature
 import com.squareup.anvil.annotations.ContributesBinding
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.emptyFlow
 import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.runBlocking
 import javax.inject.Inject
@@ -61,6 +64,20 @@ class RealNavigationHistory @Inject constructor(
         return if (isHistoryFeatureAvailable() && isHistoryUserEnabled) historyRepository.getHistory() else flowOf(emptyList())
     }
 
+    override fun getHistoryChanges(): Flow<HistoryChange> {
+        val isHistoryUserEnabled = runBlocking(dispatcherProvider.io()) { isHistoryUserEnabled() }
+        return if (isHistoryFeatureAvailable() && isHistoryUserEnabled) historyRepository.getHistoryChanges() else emptyFlow()
+    }
+
+    override suspend fun getHistorySummaries(): List<HistoryEntrySummary> {
+        return if (isHistoryFeatureAvailable() && isHistoryUserEnabled()) historyRepository.getHistorySummaries() else emptyList()
+    }
+
+    override suspend fun getTopHistory(limit: Int): List<HistoryEntrySummary> {
+        if (!isHistoryFeatureAvailable() || !isHistoryUserEnabled()) return emptyList()
+        return historyRepository.getTopHistory(limit, currentTimeProvider.localDateTimeNow())
+    }
+
     override suspend fun clearHistory() {
         historyRepository.clearHistory()
     }
@@ -23,7 +23,6 @@ import androidx.room.OnConflictStrategy
 import androidx.room.Query
 import androidx.room.Transaction
 import com.duckduckgo.common.utils.formatters.time.DatabaseDateFormatter
-import kotlinx.coroutines.flow.Flow
 import java.time.LocalDateTime
 
 @Dao
@@ -33,8 +32,42 @@ interface HistoryDao {
     suspend fun getHistoryEntriesWithVisits(): List<HistoryEntryWithVisits>
 
     @Transaction
-    @Query("SELECT * FROM history_entries")
-    fun getHistoryEntriesWithVisitsFlow(): Flow<List<HistoryEntryWithVisits>>
+    @Query("SELECT * FROM history_entries WHERE url = :url LIMIT 1")
+    suspend fun getHistoryEntryWithVisitsByUrl(url: String): HistoryEntryWithVisits?
+
+    @Query("SELECT EXISTS(SELECT 1 FROM history_entries WHERE TRIM(url) != '')")
+    suspend fun hasHistoryEntries(): Boolean
+
+    /**
+     * Every entry with its visit count and last visit, aggregated by the database instead of loading every visit
+     */
+    @Query(
+        "SELECT history_entries.*, visits.visitCount, visits.lastVisit FROM history_entries " +
+            "INNER JOIN (" +
+            "SELECT historyEntryId, COUNT(*) AS visitCount, MAX(timestamp) AS lastVisit FROM visits_list GROUP BY historyEntryId" +
+            ") AS visits ON visits.historyEntryId = history_entries.id",
+    )
+    suspend fun getHistoryEntryVisitStats(): List<HistoryEntryVisitStats>
+
+    /**
+     * The [limit] entries with the highest frecency: every visit counts for more the more recent it is, using the
+     * [DatabaseDateFormatter.timestamp]s a day, a week and a month before now as boundaries.
+     */
+    @Query(
+        "SELECT history_entries.*, visits.visitCount, visits.lastVisit FROM history_entries " +
+            "INNER JOIN (" +
+            "SELECT historyEntryId, COUNT(*) AS visitCount, MAX(timestamp) AS lastVisit, " +
+            "SUM(CASE WHEN timestamp >= :dayAgo THEN 100 WHEN timestamp >= :weekAgo THEN 70 WHEN timestamp >= :monthAgo THEN 50 ELSE 30 END) " +
+            "AS frecency FROM visits_list GROUP BY historyEntryId" +
+            ") AS visits ON visits.historyEntryId = history_entries.id " +
+            "ORDER BY visits.frecency DESC, visits.lastVisit DESC LIMIT :limit",
+    )
+    suspend fun getTopHistoryEntryVisitStats(
+        limit: Int,
+        dayAgo: String,
+        weekAgo: String,
+        monthAgo: String,
+    ): List<HistoryEntryVisitStats>
 
     @Query("UPDATE history_entries SET title = :title WHERE id = :id")
     suspend fun updateTitle(id: Long, title: String)
@@ -74,3 +74,16 @@ data class HistoryEntryWithVisits(
     )
     val visits: List<VisitEntity>,
 )
+
+/**
+ * Represents a history entry along with the aggregate of its visits.
+ *
+ * @property historyEntry The history entry.
+ * @property visitCount The number of visits to the history entry.
+ * @property lastVisit The timestamp of the most recent visit, see [VisitEntity.timestamp].
+ */
+data class HistoryEntryVisitStats(
+    @Embedded val historyEntry: HistoryEntryEntity,
+    val visitCount: Int,
+    val lastVisit: String,
+)
@@ -21,6 +21,7 @@ import com.duckduckgo.app.browser.DuckDuckGoUrlDetector
 import com.duckduckgo.common.test.CoroutineTestRule
 import com.duckduckgo.common.utils.CurrentTimeProvider
 import com.duckduckgo.history.api.HistoryEntry
+import com.duckduckgo.history.api.HistoryEntrySummary
 import com.duckduckgo.history.impl.remoteconfig.HistoryFeature
 import kotlinx.coroutines.flow.firstOrNull
 import kotlinx.coroutines.flow.flowOf
@@ -237,4 +238,38 @@ class HistoryTest {
 
         assertFalse(testee.hasHistory())
     }
+
+    @Test
+    fun whenGetTopHistoryThenRepositoryCalledWithCurrentTime() = runTest {
+        val now = LocalDateTime.of(2000, JANUARY, 1, 0, 0)
+        whenever(mockCurrentTimeProvider.localDateTimeNow()).thenReturn(now)
+
+        testee.getTopHistory(10)
+
+        verify(mockHistoryRepository).getTopHistory(eq(10), eq(now))
+    }
+
+    @Test
+    fun whenGetTopHistoryAndHistoryUserDisabledThenReturnEmptyList() = runTest {
+        whenever(mockHistoryRepository.isHistoryUserEnabled(any())).thenReturn(false)
+
+        assertEquals(emptyList<HistoryEntrySummary>(), testee.getTopHistory(10))
+        verify(mockHistoryRepository, never()).getTopHistory(any(), any())
+    }
+
+    @Test
+    fun whenGetHistorySummariesAndFeatureDisabledThenReturnEmptyList() = runTest {
+        whenever(mockHistoryFeature.shouldStoreHistory).thenReturn(false)
+
+        assertEquals(emptyList<HistoryEntrySummary>(), testee.getHistorySummaries())
+        verify(mockHistoryRepository, never()).getHistorySummaries()
+    }
+
+    @Test
+    fun whenGetHistoryChangesAndHistoryUserDisabledThenRepositoryNotCalled() = runTest {
+        whenever(mockHistoryRepository.isHistoryUserEnabled(any())).thenReturn(false)
+
+        assertEquals(null, testee.getHistoryChanges().firstOrNull())
+        verify(mockHistoryRepository, never()).getHistoryChanges()
+    }
 }
@@ -16,15 +16,25 @@
 
 package com.duckduckgo.history.impl
 
+import androidx.core.net.toUri
 import androidx.test.ext.junit.runners.AndroidJUnit4
+import app.cash.turbine.test
 import com.duckduckgo.common.test.CoroutineTestRule
+import com.duckduckgo.history.api.HistoryChange
+import com.duckduckgo.history.api.HistoryChange.Cleared
+import com.duckduckgo.history.api.HistoryChange.EntryVisited
+import com.duckduckgo.history.api.HistoryChange.Invalidated
+import com.duckduckgo.history.api.HistoryEntry
+import com.duckduckgo.history.api.HistoryEntrySummary
 import com.duckduckgo.history.impl.store.HistoryDao
 import com.duckduckgo.history.impl.store.HistoryDataStore
 import com.duckduckgo.history.impl.store.HistoryEntryEntity
+import com.duckduckgo.history.impl.store.HistoryEntryVisitStats
 import com.duckduckgo.history.impl.store.HistoryEntryWithVisits
 import com.duckduckgo.history.impl.store.VisitEntity
+import kotlinx.coroutines.CompletableDeferred
 import kotlinx.coroutines.flow.firstOrNull
-import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.launch
 import kotlinx.coroutines.test.runTest
 import org.junit.Assert.assertEquals
 import org.junit.Assert.assertFalse
@@ -34,11 +44,15 @@ import org.junit.Rule
 import org.junit.Test
 import org.junit.runner.RunWith
 import org.mockito.kotlin.any
+import org.mockito.kotlin.doSuspendableAnswer
 import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.times
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 import java.time.LocalDateTime
+import java.time.Month.FEBRUARY
 import java.time.Month.JANUARY
 
 @RunWith(AndroidJUnit4::class)
@@ -59,7 +73,6 @@ class RealHistoryRepositoryTest {
 
     @Before
     fun setup() = runTest {
-        whenever(mockHistoryDao.getHistoryEntriesWithVisitsFlow()).thenReturn(flowOf(emptyList()))
         whenever(mockHistoryDao.getHistoryEntriesWithVisits()).thenReturn(emptyList())
     }
 
@@ -140,9 +153,7 @@ class RealHistoryRepositoryTest {
 
     @Test
     fun whenHasHistoryAndEntriesExistThenReturnsTrue() = runTest {
-        whenever(mockHistoryDao.getHistoryEntriesWithVisits()).thenReturn(
-            listOf(historyEntryWithVisits("https://example.com", "Example")),
-        )
+        whenever(mockHistoryDao.hasHistoryEntries()).thenReturn(true)
 
         val result = testee.hasHistory()
 
@@ -151,12 +162,10 @@ class RealHistoryRepositoryTest {
 
     @Test
     fun whenGetHistoryThenReturnsEntriesFromDao() = runTest {
-        whenever(mockHistoryDao.getHistoryEntriesWithVisitsFlow()).thenReturn(
-            flowOf(
-                listOf(
-                    historyEntryWithVisits("https://example.com", "Example"),
-                    historyEntryWithVisits("https://other.com", "Other", id = 2),
-                ),
+        whenever(mockHistoryDao.getHistoryEntriesWithVisits()).thenReturn(
+            listOf(
+                historyEntryWithVisits("https://example.com", "Example"),
+                historyEntryWithVisits("https://other.com", "Other", id = 2),
             ),
         )
 
@@ -167,12 +176,10 @@ class RealHistoryRepositoryTest {
 
     @Test
     fun whenGetHistoryWithBlankUrlThenEntryIsFilteredOut() = runTest {
-        whenever(mockHistoryDao.getHistoryEntriesWithVisitsFlow()).thenReturn(
-            flowOf(
-                listOf(
-                    historyEntryWithVisits("https://example.com", "Example"),
-                    historyEntryWithVisits("", "Blank"),
-                ),
+        whenever(mockHistoryDao.getHistoryEntriesWithVisits()).thenReturn(
+            listOf(
+                historyEntryWithVisits("https://example.com", "Example"),
+                historyEntryWithVisits("", "Blank"),
             ),
         )
 
@@ -181,6 +188,150 @@ class RealHistoryRepositoryTest {
         assertEquals(1, result!!.size)
     }
 
+    @Test
+    fun whenEntryVisitedWhileCollectingHistoryThenOnlyThatEntryIsReloaded() = runTest {
+        whenever(mockHistoryDao.getHistoryEntriesWithVisits()).thenReturn(listOf(historyEntryWithVisits("https://example.com", "Example")))
+        whenever(mockHistoryDao.getHistoryEntryWithVisitsByUrl("https://other.com")).thenReturn(
+            historyEntryWithVisits("https://other.com", "Other", id = 2),
+        )
+
+        testee.getHistory().test {
+            assertEquals(listOf("https://example.com"), awaitItem().map { it.url.toString() })
+
+            testee.saveToHistory("https://other.com", "Other", null, false, "tab1")
+
+            assertEquals(listOf("https://example.com", "https://other.com"), awaitItem().map { it.url.toString() })
+            cancelAndIgnoreRemainingEvents()
+        }
+        verify(mockHistoryDao, times(1)).getHistoryEntriesWithVisits()
+    }
+
+    @Test
+    fun whenEntryRemovedByUrlWhileCollectingHistoryThenItIsRemovedWithoutReloading() = runTest {
+        whenever(mockHistoryDao.getHistoryEntriesWithVisits()).thenReturn(
+            listOf(historyEntryWithVisits("https://example.com", "Example"), historyEntryWithVisits("https://other.com", "Other", id = 2)),
+        )
+
+        testee.getHistory().test {
+            assertEquals(2, awaitItem().size)
+
+            testee.removeHistoryEntryByUrl("https://other.com")
+
+            assertEquals(listOf("https://example.com"), awaitItem().map { it.url.toString() })
+            cancelAndIgnoreRemainingEvents()
+        }
+        verify(mockHistoryDao, times(1)).getHistoryEntriesWithVisits()
+    }
+
+    @Test
+    fun whenHistoryClearedWhileCollectingHistoryThenEmptyListEmitted() = runTest {
+        whenever(mockHistoryDao.getHistoryEntriesWithVisits()).thenReturn(listOf(historyEntryWithVisits("https://example.com", "Example")))
+
+        testee.getHistory().test {
+            assertEquals(1, awaitItem().size)
+
+            testee.clearHistory()
+
+            assertEquals(emptyList<HistoryEntry>(), awaitItem())
+            cancelAndIgnoreRemainingEvents()
+        }
+    }
+
+    @Test
+    fun whenOldEntriesClearedWhileCollectingHistoryThenHistoryIsReloaded() = runTest {
+        whenever(mockHistoryDao.getHistoryEntriesWithVisits()).thenReturn(
+            listOf(historyEntryWithVisits("https://example.com", "Example"), historyEntryWithVisits("https://other.com", "Other", id = 2)),
+            listOf(historyEntryWithVisits("https://other.com", "Other", id = 2)),
+        )
+
+        testee.getHistory().test {
+            assertEquals(2, awaitItem().size)
+
+            testee.clearEntriesOlderThan(LocalDateTime.of(2000, JANUARY, 1, 0, 0))
+
+            assertEquals(listOf("https://other.com"), awaitItem().map { it.url.toString() })
+            cancelAndIgnoreRemainingEvents()
+        }
+    }
+
+    @Test
+    fun whenHistoryClearedWhileVisitIsSavedThenChangesArePublishedInWriteOrder() = runTest {
+        val readBack = CompletableDeferred<Unit>()
+        whenever(mockHistoryDao.getHistoryEntryWithVisitsByUrl("https://example.com")).doSuspendableAnswer {
+            readBack.await()
+            historyEntryWithVisits("https://example.com", "Example")
+        }
+
+        testee.getHistoryChanges().test {
+            launch { testee.saveToHistory("https://example.com", "Example", null, false, "tab1") }
+            launch { testee.clearHistory() }
+            testScheduler.runCurrent()
+            readBack.complete(Unit)
+
+            assertTrue(awaitItem() is EntryVisited)
+            assertEquals(Cleared, awaitItem())
+            cancelAndIgnoreRemainingEvents()
+        }
+    }
+
+    @Test
+    fun whenChangesCollectorIsStuckThenWritesAreNotStalledAndCollectorIsInvalidated() = runTest {
+        val unblock = CompletableDeferred<Unit>()
+        val received = mutableListOf<HistoryChange>()
+        val collector = launch {
+            testee.getHistoryChanges().collect {
+                received.add(it)
+                unblock.await()
+            }
+        }
+        testScheduler.runCurrent()
+
+        val writes = (1..100).map { launch { testee.clearHistory() } }
+        testScheduler.runCurrent()
+
+        verify(mockHistoryDao, times(100)).deleteAll()
+
+        unblock.complete(Unit)
+        writes.forEach { it.join() }
+        testScheduler.runCurrent()
+
+        assertEquals(Invalidated, received.last())
+        collector.cancel()
+    }
+
+    @Test
+    fun whenSaveToHistoryAndNobodyCollectsChangesThenEntryIsNotReadBack() = runTest {
+        testee.saveToHistory("url", "title", null, false, "tab1")
+
+        verify(mockHistoryDao, never()).getHistoryEntryWithVisitsByUrl(any())
+    }
+
+    @Test
+    fun whenGetTopHistoryThenDaoCalledWithFrecencyBoundaries() = runTest {
+        whenever(mockHistoryDao.getTopHistoryEntryVisitStats(any(), any(), any(), any())).thenReturn(
+            listOf(
+                HistoryEntryVisitStats(
+                    HistoryEntryEntity(id = 1, url = "https://duckduckgo.com?q=query", title = "query", query = "query", isSerp = true),
+                    visitCount = 3,
+                    lastVisit = "2000-01-31T00:00:00",
+                ),
+            ),
+        )
+
+        val result = testee.getTopHistory(5, LocalDateTime.of(2000, FEBRUARY, 1, 0, 0))
+
+        verify(mockHistoryDao).getTopHistoryEntryVisitStats(
+            eq(5),
+            eq("2000-01-31T00:00:00"),
+            eq("2000-01-25T00:00:00"),
+            eq("2000-01-01T00:00:00"),
+        )
+        assertEquals(
+            listOf(HistoryEntrySummary("https://duckduckgo.com?q=query".toUri(), "query", "query", 3, LocalDateTime.of(2000, JANUARY, 31, 0, 0))),
+            result,
+        )
+    }
+
     private fun historyEntryWithVisits(
         url: String,
         title: String,
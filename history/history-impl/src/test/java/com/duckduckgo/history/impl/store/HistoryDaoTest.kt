@@ -27,6 +27,7 @@ import org.junit.Test
 import org.junit.runner.RunWith
 import java.time.LocalDateTime
 import java.time.Month.JANUARY
+import java.time.Month.MARCH
 
 @RunWith(AndroidJUnit4::class)
 class HistoryDaoTest {
@@ -262,4 +263,84 @@ class HistoryDaoTest {
             Assert.assertEquals(1, historyEntriesWithVisits.count())
         }
     }
+
+    @Test
+    fun whenNoEntriesThenHasHistoryEntriesIsFalse() {
+        runTest {
+            Assert.assertFalse(historyDao.hasHistoryEntries())
+        }
+    }
+
+    @Test
+    fun whenOnlyBlankUrlEntriesThenHasHistoryEntriesIsFalse() {
+        runTest {
+            historyDao.updateOrInsertVisit("", "title", null, false, LocalDateTime.of(2000, JANUARY, 1, 0, 0), "tabId")
+
+            Assert.assertFalse(historyDao.hasHistoryEntries())
+        }
+    }
+
+    @Test
+    fun whenEntryExistsThenHasHistoryEntriesIsTrue() {
+        runTest {
+            historyDao.updateOrInsertVisit("url", "title", null, false, LocalDateTime.of(2000, JANUARY, 1, 0, 0), "tabId")
+
+            Assert.assertTrue(historyDao.hasHistoryEntries())
+        }
+    }
+
+    @Test
+    fun whenGetHistoryEntryVisitStatsThenVisitsAreAggregatedPerEntry() {
+        runTest {
+            historyDao.updateOrInsertVisit("url1", "title1", null, false, LocalDateTime.of(2000, JANUARY, 1, 0, 0), "tabId")
+            historyDao.updateOrInsertVisit("url1", "title1", null, false, LocalDateTime.of(2000, JANUARY, 3, 0, 0), "tabId")
+            historyDao.updateOrInsertVisit("url1", "title1", null, false, LocalDateTime.of(2000, JANUARY, 2, 0, 0), "tabId")
+            historyDao.updateOrInsertVisit("url2", "title2", null, false, LocalDateTime.of(2000, JANUARY, 1, 0, 0), "tabId")
+
+            val stats = historyDao.getHistoryEntryVisitStats().associateBy { it.historyEntry.url }
+
+            Assert.assertEquals(2, stats.size)
+            Assert.assertEquals(3, stats.getValue("url1").visitCount)
+            Assert.assertEquals("2000-01-03T00:00:00", stats.getValue("url1").lastVisit)
+            Assert.assertEquals(1, stats.getValue("url2").visitCount)
+            Assert.assertEquals("2000-01-01T00:00:00", stats.getValue("url2").lastVisit)
+        }
+    }
+
+    @Test
+    fun whenGetTopHistoryEntryVisitStatsThenRecentVisitsWeighMore() {
+        runTest {
+            // three visits over a month ago
+            repeat(3) { day ->
+                historyDao.updateOrInsertVisit("old", "old", null, false, LocalDateTime.of(2000, JANUARY, day + 1, 0, 0), "tabId")
+            }
+            // two visits in the last day
+            historyDao.updateOrInsertVisit("recent", "recent", null, false, LocalDateTime.of(2000, MARCH, 1, 10, 0), "tabId")
+            historyDao.updateOrInsertVisit("recent", "recent", null, false, LocalDateTime.of(2000, MARCH, 1, 11, 0), "tabId")
+            historyDao.updateOrInsertVisit("single", "single", null, false, LocalDateTime.of(2000, JANUARY, 1, 0, 0), "tabId")
+
+            val top = historyDao.getTopHistoryEntryVisitStats(
+                limit = 2,
+                dayAgo = "2000-02-29T12:00:00",
+                weekAgo = "2000-02-23T12:00:00",
+                monthAgo = "2000-01-31T12:00:00",
+            )
+
+            Assert.assertEquals(listOf("recent", "old"), top.map { it.historyEntry.url })
+        }
+    }
+
+    @Test
+    fun whenGetHistoryEntryWithVisitsByUrlThenOnlyThatEntryIsReturned() {
+        runTest {
+            historyDao.updateOrInsertVisit("url1", "title1", null, false, LocalDateTime.of(2000, JANUARY, 1, 0, 0), "tabId")
+            historyDao.updateOrInsertVisit("url1", "title1", null, false, LocalDateTime.of(2000, JANUARY, 2, 0, 0), "tabId")
+            historyDao.updateOrInsertVisit("url2", "title2", null, false, LocalDateTime.of(2000, JANUARY, 1, 0, 0), "tabId")
+
+            val entry = historyDao.getHistoryEntryWithVisitsByUrl("url1")
+
+            Assert.assertEquals("url1", entry?.historyEntry?.url)
+            Assert.assertEquals(2, entry?.visits?.size)
+        }
+    }
 }
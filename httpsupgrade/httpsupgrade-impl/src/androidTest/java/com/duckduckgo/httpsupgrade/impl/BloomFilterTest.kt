@@ -19,6 +19,7 @@ package com.duckduckgo.httpsupgrade.impl
 import androidx.test.platform.app.InstrumentationRegistry
 import com.duckduckgo.httpsupgrade.impl.BloomFilter.Config.ProbabilityConfig
 import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
 import org.junit.Assert.assertTrue
 import org.junit.Test
 
@@ -40,6 +41,23 @@ class BloomFilterTest {
         assertTrue(testee.contains("abc"))
     }
 
+    @Test
+    fun whenBloomFilterClosedThenContainsIsFalse() {
+        testee = BloomFilter(context, ProbabilityConfig(FILTER_ELEMENT_COUNT, TARGET_ERROR_RATE))
+        testee.add("abc")
+        testee.close()
+        assertFalse(testee.contains("abc"))
+        assertNull(testee.containsOrNull("abc"))
+    }
+
+    @Test
+    fun whenBloomFilterClosedTwiceThenSecondCloseIsNoOp() {
+        testee = BloomFilter(context, ProbabilityConfig(FILTER_ELEMENT_COUNT, TARGET_ERROR_RATE))
+        testee.close()
+        testee.close()
+        assertNull(testee.containsOrNull("abc"))
+    }
+
     companion object {
         const val FILTER_ELEMENT_COUNT = 5000
         const val TARGET_ERROR_RATE = 0.001
@@ -47,7 +47,12 @@ class HttpsUpgraderTest {
     fun before() {
         whenever(mockHttpsBloomFilterFactory.create()).thenReturn(bloomFilter)
         whenever(mockFeatureToggle.isFeatureEnabled(PrivacyFeatureName.HttpsFeatureName.value)).thenReturn(true)
-        testee = HttpsUpgraderImpl(mockHttpsBloomFilterFactory, mockBloomFalsePositiveListDao, mockFeatureToggle, mockHttps)
+        testee = HttpsUpgraderImpl(
+            mockHttpsBloomFilterFactory,
+            RealHttpsFalsePositives(mockBloomFalsePositiveListDao),
+            mockFeatureToggle,
+            mockHttps,
+        )
         testee.reloadData()
     }
 
@@ -20,10 +20,24 @@ import android.content.Context
 import com.duckduckgo.httpsupgrade.impl.BloomFilter.Config.PathConfig
 import com.duckduckgo.httpsupgrade.impl.BloomFilter.Config.ProbabilityConfig
 import com.duckduckgo.library.loader.LibraryLoader
+import java.io.Closeable
+import java.util.concurrent.locks.ReentrantReadWriteLock
+import kotlin.concurrent.read
+import kotlin.concurrent.write
 
-class BloomFilter constructor(context: Context, private val config: Config) {
+/**
+ * Native bloom filter. The native memory is released deterministically by [close]; filters are not finalized, so callers
+ * that replace a filter must close the old one.
+ */
+class BloomFilter constructor(context: Context, private val config: Config) : Closeable {
+
+    /**
+     * Guards [nativePointer] so that [close] can't free the native filter while a lookup is using it. Lookups only share the
+     * read lock, so they never wait for each other.
+     */
+    private val lock = ReentrantReadWriteLock()
+    private var nativePointer: Long
 
-    private val nativePointer: Long
     init {
         LibraryLoader.loadLibrary(context, "https-bloom-lib")
 
@@ -45,7 +59,10 @@ class BloomFilter constructor(context: Context, private val config: Config) {
     ): Long
 
     fun add(element: String) {
-        add(nativePointer, element)
+        lock.read {
+            check(nativePointer != 0L) { "BloomFilter is closed" }
+            add(nativePointer, element)
+        }
     }
 
     private external fun add(
@@ -54,7 +71,17 @@ class BloomFilter constructor(context: Context, private val config: Config) {
     )
 
     fun contains(element: String): Boolean {
-        return contains(nativePointer, element)
+        return containsOrNull(element) == true
+    }
+
+    /**
+     * @return whether [element] is in the filter, or null if the filter has already been closed
+     */
+    fun containsOrNull(element: String): Boolean? {
+        lock.read {
+            if (nativePointer == 0L) return null
+            return contains(nativePointer, element)
+        }
     }
 
     private external fun contains(
@@ -62,9 +89,12 @@ class BloomFilter constructor(context: Context, private val config: Config) {
         element: String,
     ): Boolean
 
-    @Suppress("unused", "protectedInFinal")
-    protected fun finalize() {
-        releaseBloomFilter(nativePointer)
+    override fun close() {
+        lock.write {
+            if (nativePointer == 0L) return
+            releaseBloomFilter(nativePointer)
+            nativePointer = 0L
+        }
     }
 
     private external fun releaseBloomFilter(nativePointer: Long)
@@ -30,6 +30,7 @@ class HttpsDataPersister constructor(
     private val httpsBloomSpecDao: HttpsBloomFilterSpecDao,
     private val httpsFalsePositivesDao: HttpsFalsePositivesDao,
     private val httpsUpgradeDatabase: HttpsUpgradeDatabase,
+    private val httpsFalsePositives: HttpsFalsePositives,
 ) {
 
     fun persistBloomFilter(
@@ -40,8 +41,10 @@ class HttpsDataPersister constructor(
         runCatching {
             httpsUpgradeDatabase.runInTransaction {
                 persistBloomFilter(specification, bytes)
-                persistFalsePositives(falsePositives)
+                httpsFalsePositivesDao.updateAll(falsePositives)
             }
+            // only publish the new list once the transaction has committed
+            httpsFalsePositives.update(falsePositives)
         }
     }
 
@@ -62,6 +65,7 @@ class HttpsDataPersister constructor(
 
     fun persistFalsePositives(falsePositives: List<HttpsFalsePositiveDomain>) {
         httpsFalsePositivesDao.updateAll(falsePositives)
+        httpsFalsePositives.update(falsePositives)
     }
 
     fun isPersisted(specification: HttpsBloomFilterSpec): Boolean {
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.httpsupgrade.impl
+
+import androidx.annotation.WorkerThread
+import com.duckduckgo.di.scopes.AppScope
+import com.duckduckgo.httpsupgrade.store.HttpsFalsePositiveDomain
+import com.duckduckgo.httpsupgrade.store.HttpsFalsePositivesDao
+import com.squareup.anvil.annotations.ContributesBinding
+import dagger.SingleInstanceIn
+import javax.inject.Inject
+
+/**
+ * In-memory copy of the https false positives list, so that main frame upgrade checks don't query the database.
+ */
+interface HttpsFalsePositives {
+    @WorkerThread
+    fun contains(host: String): Boolean
+
+    /**
+     * Replaces the in-memory list. Callers must only do so once [domains] have been persisted.
+     */
+    fun update(domains: List<HttpsFalsePositiveDomain>)
+}
+
+@ContributesBinding(AppScope::class)
+@SingleInstanceIn(AppScope::class)
+class RealHttpsFalsePositives @Inject constructor(
+    private val httpsFalsePositivesDao: HttpsFalsePositivesDao,
+) : HttpsFalsePositives {
+
+    @Volatile
+    private var domains: Set<String>? = null
+
+    override fun contains(host: String): Boolean = activeDomains().contains(host)
+
+    override fun update(domains: List<HttpsFalsePositiveDomain>) {
+        this.domains = domains.mapTo(HashSet(domains.size)) { it.domain }
+    }
+
+    private fun activeDomains(): Set<String> {
+        domains?.let { return it }
+        return synchronized(this) {
+            domains?.let { return it }
+            httpsFalsePositivesDao.getAll().mapTo(HashSet()) { it.domain }.also { domains = it }
+        }
+    }
+}
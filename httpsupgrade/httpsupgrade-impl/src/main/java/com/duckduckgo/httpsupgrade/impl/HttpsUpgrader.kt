@@ -20,21 +20,23 @@ import android.net.Uri
 import androidx.annotation.WorkerThread
 import androidx.lifecycle.LifecycleOwner
 import com.duckduckgo.app.lifecycle.MainProcessLifecycleObserver
+import com.duckduckgo.app.lifecycle.MainProcessStartupTask
+import com.duckduckgo.app.lifecycle.MainProcessStartupTask.StartupStage
 import com.duckduckgo.common.utils.isHttps
 import com.duckduckgo.common.utils.toHttps
 import com.duckduckgo.di.scopes.AppScope
 import com.duckduckgo.feature.toggles.api.FeatureToggle
 import com.duckduckgo.httpsupgrade.api.HttpsUpgrader
-import com.duckduckgo.httpsupgrade.store.HttpsFalsePositivesDao
 import com.duckduckgo.privacy.config.api.Https
 import com.duckduckgo.privacy.config.api.PrivacyFeatureName
 import com.squareup.anvil.annotations.ContributesBinding
 import com.squareup.anvil.annotations.ContributesMultibinding
 import dagger.SingleInstanceIn
 import logcat.logcat
+import java.util.concurrent.atomic.AtomicReference
 import java.util.concurrent.locks.ReentrantLock
 import javax.inject.Inject
-import kotlin.concurrent.thread
+import kotlin.concurrent.withLock
 
 @SingleInstanceIn(AppScope::class)
 @ContributesBinding(
@@ -47,16 +49,28 @@ import kotlin.concurrent.thread
 )
 class HttpsUpgraderImpl @Inject constructor(
     private val bloomFactory: HttpsBloomFilterFactory,
-    private val bloomFalsePositiveDao: HttpsFalsePositivesDao,
+    private val httpsFalsePositives: HttpsFalsePositives,
     private val toggle: FeatureToggle,
     private val https: Https,
-) : HttpsUpgrader, MainProcessLifecycleObserver {
+) : HttpsUpgrader, MainProcessLifecycleObserver, MainProcessStartupTask {
 
-    private var bloomFilter: BloomFilter? = null
-    private val bloomReloadLock = ReentrantLock()
+    override val startupStage: StartupStage = StartupStage.BACKGROUND
+
+    /**
+     * Published atomically on reload so that readers never block on a filter being replaced.
+     */
+    private val bloomFilter = AtomicReference<BloomFilter?>(null)
+
+    /**
+     * Only held while the first filter loads, so that early requests don't skip upgrading because no filter exists yet.
+     */
+    private val initialLoadLock = ReentrantLock()
+
+    @Volatile
+    private var hasLoaded = false
 
     override fun onCreate(owner: LifecycleOwner) {
-        thread { reloadData() }
+        reloadData()
     }
 
     @WorkerThread
@@ -77,7 +91,7 @@ class HttpsUpgraderImpl @Inject constructor(
             return false
         }
 
-        if (bloomFalsePositiveDao.contains(host)) {
+        if (httpsFalsePositives.contains(host)) {
             logcat { "$host is in https allowlist and so not upgradable" }
             return false
         }
@@ -91,23 +105,38 @@ class HttpsUpgraderImpl @Inject constructor(
 
     @WorkerThread
     private fun isInUpgradeList(host: String): Boolean {
-        waitForAnyReloadsToComplete()
-        return bloomFilter?.contains(host) == true
+        if (!hasLoaded) waitForInitialLoadToComplete()
+        while (true) {
+            val filter = bloomFilter.get() ?: return false
+            // null means the filter was closed after being replaced, so retry with the one that replaced it
+            filter.containsOrNull(host)?.let { return it }
+        }
     }
 
     @WorkerThread
     override fun reloadData() {
         logcat { "Reload Https upgrader data" }
-        bloomReloadLock.lock()
-        bloomFilter = runCatching { bloomFactory.create() }.getOrNull()
-        bloomReloadLock.unlock()
+        if (hasLoaded) {
+            publishBloomFilter()
+            return
+        }
+        initialLoadLock.withLock {
+            publishBloomFilter()
+            hasLoaded = true
+        }
+    }
+
+    private fun publishBloomFilter() {
+        val newFilter = runCatching { bloomFactory.create() }.getOrNull()
+        // release the replaced filter's native memory now rather than leaving two filters alive
+        val oldFilter = bloomFilter.getAndSet(newFilter)
+        if (oldFilter !== newFilter) oldFilter?.close()
     }
 
-    private fun waitForAnyReloadsToComplete() {
+    private fun waitForInitialLoadToComplete() {
         // wait for lock (by locking and unlocking) before continuing
-        if (bloomReloadLock.isLocked) {
-            bloomReloadLock.lock()
-            bloomReloadLock.unlock()
+        if (initialLoadLock.isLocked) {
+            initialLoadLock.withLock { }
         }
     }
 }
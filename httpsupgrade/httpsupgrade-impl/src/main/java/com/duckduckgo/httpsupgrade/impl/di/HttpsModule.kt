@@ -28,6 +28,7 @@ import com.duckduckgo.httpsupgrade.api.HttpsUpgrader
 import com.duckduckgo.httpsupgrade.impl.HttpsBloomFilterFactory
 import com.duckduckgo.httpsupgrade.impl.HttpsBloomFilterFactoryImpl
 import com.duckduckgo.httpsupgrade.impl.HttpsDataPersister
+import com.duckduckgo.httpsupgrade.impl.HttpsFalsePositives
 import com.duckduckgo.httpsupgrade.impl.HttpsUpgradeDataDownloaderImpl
 import com.duckduckgo.httpsupgrade.impl.HttpsUpgradeService
 import com.duckduckgo.httpsupgrade.store.HttpsBloomFilterSpecDao
@@ -91,7 +92,8 @@ object HttpsModule {
         httpsBloomSpecDao: HttpsBloomFilterSpecDao,
         httpsFalsePositivesDao: HttpsFalsePositivesDao,
         httpsUpgradeDatabase: HttpsUpgradeDatabase,
+        httpsFalsePositives: HttpsFalsePositives,
     ): HttpsDataPersister {
-        return HttpsDataPersister(binaryDataStore, httpsBloomSpecDao, httpsFalsePositivesDao, httpsUpgradeDatabase)
+        return HttpsDataPersister(binaryDataStore, httpsBloomSpecDao, httpsFalsePositivesDao, httpsUpgradeDatabase, httpsFalsePositives)
     }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.httpsupgrade.impl
+
+import com.duckduckgo.httpsupgrade.store.HttpsFalsePositiveDomain
+import com.duckduckgo.httpsupgrade.store.HttpsFalsePositivesDao
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class RealHttpsFalsePositivesTest {
+
+    private val dao = FakeHttpsFalsePositivesDao()
+    private val testee = RealHttpsFalsePositives(dao)
+
+    @Test
+    fun whenHostIsPersistedFalsePositiveThenContainsIsTrue() {
+        dao.insertAll(listOf(HttpsFalsePositiveDomain("example.com")))
+
+        assertTrue(testee.contains("example.com"))
+        assertFalse(testee.contains("www.example.com"))
+    }
+
+    @Test
+    fun whenContainsCalledRepeatedlyThenDatabaseIsReadOnce() {
+        testee.contains("example.com")
+        testee.contains("example.com")
+
+        assertEquals(1, dao.getAllCount)
+    }
+
+    @Test
+    fun whenUpdatedThenNewListIsUsed() {
+        dao.insertAll(listOf(HttpsFalsePositiveDomain("example.com")))
+        assertTrue(testee.contains("example.com"))
+
+        testee.update(listOf(HttpsFalsePositiveDomain("other.com")))
+
+        assertFalse(testee.contains("example.com"))
+        assertTrue(testee.contains("other.com"))
+    }
+
+    private class FakeHttpsFalsePositivesDao : HttpsFalsePositivesDao() {
+        private val domains = mutableListOf<HttpsFalsePositiveDomain>()
+        var getAllCount = 0
+
+        override fun insertAll(domains: List<HttpsFalsePositiveDomain>) {
+            this.domains.addAll(domains)
+        }
+
+        override fun contains(domain: String): Boolean = domains.any { it.domain == domain }
+
+        override fun getAll(): List<HttpsFalsePositiveDomain> {
+            getAllCount++
+            return domains.toList()
+        }
+
+        override fun deleteAll() = domains.clear()
+
+        override fun count(): Int = domains.size
+    }
+}
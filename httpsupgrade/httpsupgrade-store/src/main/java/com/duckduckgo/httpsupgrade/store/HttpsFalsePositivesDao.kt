@@ -33,6 +33,9 @@ abstract class HttpsFalsePositivesDao {
     @Query("select count(1) > 0 from https_false_positive_domain where domain = :domain")
     abstract fun contains(domain: String): Boolean
 
+    @Query("select * from https_false_positive_domain")
+    abstract fun getAll(): List<HttpsFalsePositiveDomain>
+
     @Query("delete from https_false_positive_domain")
     abstract fun deleteAll()
 
@@ -20,4 +20,6 @@ import com.duckduckgo.app.statistics.pixels.Pixel
 
 enum class MaliciousSitePixelName(override val pixelName: String) : Pixel.PixelName {
     MALICIOUS_SITE_CLIENT_TIMEOUT("m_malicious-site-protection_client-timeout"),
+    MALICIOUS_SITE_DATASET_UPDATED("m_malicious-site-protection_dataset-updated"),
+    MALICIOUS_SITE_DATASET_INGESTED("m_malicious-site-protection_dataset-ingested"),
 }
@@ -39,6 +39,16 @@ interface MaliciousSiteProtectionRCFeature {
     fun getFilterSetUpdateFrequency(): Long
     fun stripWWWPrefix(): Boolean
     fun isCachingEnabled(): Boolean
+
+    /**
+     * @return the maximum size, in KB, of the cache of evaluated URLs
+     */
+    fun getResultCacheSizeKb(): Int
+
+    /**
+     * @return how long, in minutes, an evaluated URL is served from the cache
+     */
+    fun getResultCacheTtlMinutes(): Long
 }
 
 @SingleInstanceIn(AppScope::class)
@@ -59,6 +69,8 @@ class RealMaliciousSiteProtectionRCFeature @Inject constructor(
 
     private var hashPrefixUpdateFrequency = 20L
     private var filterSetUpdateFrequency = 720L
+    private var resultCacheSizeKb = DEFAULT_RESULT_CACHE_SIZE_KB
+    private var resultCacheTtlMinutes = DEFAULT_RESULT_CACHE_TTL_MINUTES
 
     init {
         if (isMainProcess) {
@@ -98,6 +110,14 @@ class RealMaliciousSiteProtectionRCFeature @Inject constructor(
         return enableCaching
     }
 
+    override fun getResultCacheSizeKb(): Int {
+        return resultCacheSizeKb
+    }
+
+    override fun getResultCacheTtlMinutes(): Long {
+        return resultCacheTtlMinutes
+    }
+
     private fun loadToMemory() {
         appCoroutineScope.launch(dispatchers.io()) {
             // MSP is disabled in F-Droid builds, as we can't download datasets
@@ -111,8 +131,15 @@ class RealMaliciousSiteProtectionRCFeature @Inject constructor(
                 JSONObject(it).let { settings ->
                     hashPrefixUpdateFrequency = settings.getLong("hashPrefixUpdateFrequency")
                     filterSetUpdateFrequency = settings.getLong("filterSetUpdateFrequency")
+                    resultCacheSizeKb = settings.optInt("resultCacheSizeKb", DEFAULT_RESULT_CACHE_SIZE_KB)
+                    resultCacheTtlMinutes = settings.optLong("resultCacheTtlMinutes", DEFAULT_RESULT_CACHE_TTL_MINUTES)
                 }
             }
         }
     }
+
+    companion object {
+        private const val DEFAULT_RESULT_CACHE_SIZE_KB = 64
+        private const val DEFAULT_RESULT_CACHE_TTL_MINUTES = 30L
+    }
 }
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.malicioussiteprotection.impl.data
+
+import android.content.Context
+import androidx.annotation.WorkerThread
+import com.duckduckgo.di.scopes.AppScope
+import com.duckduckgo.malicioussiteprotection.impl.models.Filter
+import com.squareup.anvil.annotations.ContributesBinding
+import com.squareup.moshi.JsonDataException
+import com.squareup.moshi.JsonReader
+import okhttp3.ResponseBody
+import okio.buffer
+import okio.sink
+import okio.source
+import java.io.Closeable
+import java.io.File
+import javax.inject.Inject
+
+/**
+ * Revision metadata of a dataset response, read before any of its entries.
+ */
+data class DatasetRevisionHeader(
+    val revision: Int,
+    val replace: Boolean,
+)
+
+interface DatasetRevisionReader {
+    /**
+     * Spools a dataset response, `{"insert": [...], "delete": [...], "revision": 1, "replace": false}`, to disk so its parts
+     * can be read in whichever order they need to be applied, without ever holding the whole response in memory.
+     *
+     * The returned file must be closed once read, which deletes it.
+     */
+    @WorkerThread
+    fun spool(body: ResponseBody): DatasetRevisionFile
+}
+
+@ContributesBinding(AppScope::class)
+class FileDatasetRevisionReader @Inject constructor(
+    private val context: Context,
+) : DatasetRevisionReader {
+
+    override fun spool(body: ResponseBody): DatasetRevisionFile {
+        val file = File.createTempFile(FILE_PREFIX, FILE_SUFFIX, context.cacheDir)
+        try {
+            body.use { file.sink().buffer().use { sink -> sink.writeAll(it.source()) } }
+        } catch (e: Exception) {
+            file.delete()
+            throw e
+        }
+        return DatasetRevisionFile(file)
+    }
+
+    companion object {
+        private const val FILE_PREFIX = "malicious-site-dataset"
+        private const val FILE_SUFFIX = ".json"
+    }
+}
+
+class DatasetRevisionFile internal constructor(
+    private val file: File,
+) : Closeable {
+
+    /**
+     * @throws JsonDataException if the response has no revision
+     */
+    @WorkerThread
+    fun readHeader(): DatasetRevisionHeader {
+        var revision: Int? = null
+        var replace = false
+        JsonReader.of(file.source().buffer()).use { json ->
+            json.beginObject()
+            while (json.hasNext()) {
+                when (json.nextName()) {
+                    REVISION -> revision = json.nextInt()
+                    REPLACE -> replace = json.nextBoolean()
+                    else -> json.skipValue()
+                }
+            }
+        }
+        return DatasetRevisionHeader(revision = revision ?: throw JsonDataException("Dataset response has no revision"), replace = replace)
+    }
+
+    /**
+     * Streams the entries of the `insert` array to [block], in chunks of at most [chunkSize] entries.
+     *
+     * @return the number of entries read
+     */
+    suspend fun <T> forEachInsertChunk(
+        chunkSize: Int,
+        readEntry: (JsonReader) -> T,
+        block: suspend (List<T>) -> Unit,
+    ): Int = forEachChunk(INSERT, chunkSize, readEntry, block)
+
+    /**
+     * Streams the entries of the `delete` array to [block], in chunks of at most [chunkSize] entries.
+     *
+     * @return the number of entries read
+     */
+    suspend fun <T> forEachDeleteChunk(
+        chunkSize: Int,
+        readEntry: (JsonReader) -> T,
+        block: suspend (List<T>) -> Unit,
+    ): Int = forEachChunk(DELETE, chunkSize, readEntry, block)
+
+    /**
+     * The chunk passed to [block] is reused for the next one, so it must not be retained.
+     */
+    private suspend fun <T> forEachChunk(
+        name: String,
+        chunkSize: Int,
+        readEntry: (JsonReader) -> T,
+        block: suspend (List<T>) -> Unit,
+    ): Int {
+        var count = 0
+        val chunk = ArrayList<T>(chunkSize)
+        JsonReader.of(file.source().buffer()).use { json ->
+            json.beginObject()
+            while (json.hasNext()) {
+                if (json.nextName() != name || json.peek() != JsonReader.Token.BEGIN_ARRAY) {
+                    json.skipValue()
+                    continue
+                }
+                json.beginArray()
+                while (json.hasNext()) {
+                    chunk.add(readEntry(json))
+                    if (chunk.size == chunkSize) {
+                        block(chunk)
+                        count += chunk.size
+                        chunk.clear()
+                    }
+                }
+                json.endArray()
+            }
+        }
+        if (chunk.isNotEmpty()) {
+            block(chunk)
+            count += chunk.size
+        }
+        return count
+    }
+
+    override fun close() {
+        file.delete()
+    }
+
+    companion object {
+        private const val INSERT = "insert"
+        private const val DELETE = "delete"
+        private const val REVISION = "revision"
+        private const val REPLACE = "replace"
+    }
+}
+
+/**
+ * Reads a filter entry, `{"hash": "...", "regex": "..."}`.
+ */
+internal fun JsonReader.nextFilter(): Filter {
+    var hash: String? = null
+    var regex: String? = null
+    beginObject()
+    while (hasNext()) {
+        when (nextName()) {
+            "hash" -> hash = nextString()
+            "regex" -> regex = nextString()
+            else -> skipValue()
+        }
+    }
+    endObject()
+    return Filter(
+        hash = hash ?: throw JsonDataException("Filter without hash at $path"),
+        regex = regex ?: throw JsonDataException("Filter without regex at $path"),
+    )
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.malicioussiteprotection.impl.data
+
+import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.Feed
+import com.duckduckgo.malicioussiteprotection.impl.models.Filter
+import com.duckduckgo.malicioussiteprotection.impl.models.FilterSet
+
+/**
+ * Immutable in-memory index of filters keyed by full hash, mirroring the `filters` table, where the hash is the primary key.
+ *
+ * Updates never mutate an index; [withUpdate] returns a new one, so readers can keep using the instance they hold.
+ */
+class FilterIndex internal constructor(
+    private val filtersByHash: Map<String, FilterSet>,
+    private val revisionsByFeed: Map<Feed, Int>,
+) {
+
+    val size: Int
+        get() = filtersByHash.size
+
+    fun revision(feed: Feed): Int = revisionsByFeed[feed] ?: 0
+
+    operator fun get(hash: String): FilterSet? = filtersByHash[hash]
+
+    /**
+     * Applies a revision diff for [feed], mirroring how the database applies it: a [replace] revision drops every existing
+     * filter of the feed, otherwise [delete] is removed before [insert] is added. Applying the same diff twice is a no-op.
+     */
+    fun withUpdate(
+        feed: Feed,
+        revision: Int,
+        replace: Boolean,
+        insert: Collection<Filter>,
+        delete: Collection<Filter>,
+    ): FilterIndex {
+        val updated = HashMap<String, FilterSet>(filtersByHash.size + insert.size)
+        if (replace) {
+            filtersByHash.forEach { (hash, filterSet) -> if (filterSet.feed != feed) updated[hash] = filterSet }
+        } else {
+            updated.putAll(filtersByHash)
+            delete.forEach { filter -> if (updated[filter.hash]?.feed == feed) updated.remove(filter.hash) }
+        }
+        insert.forEach { updated[it.hash] = FilterSet(it, feed) }
+        return FilterIndex(updated, revisionsByFeed + (feed to revision))
+    }
+
+    companion object {
+        val EMPTY = FilterIndex(emptyMap(), emptyMap())
+
+        fun of(
+            filters: Collection<FilterSet>,
+            revisions: Map<Feed, Int>,
+        ): FilterIndex = FilterIndex(filters.associateBy { it.filters.hash }, revisions)
+    }
+}
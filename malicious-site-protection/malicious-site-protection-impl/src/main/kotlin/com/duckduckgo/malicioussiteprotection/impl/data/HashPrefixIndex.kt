@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.malicioussiteprotection.impl.data
+
+import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.Feed
+
+/**
+ * Immutable in-memory index of hash prefixes. Prefixes are the first 8 hex chars of a SHA-256 hash, so they are stored as
+ * 32-bit values in a sorted [IntArray] per feed and looked up by binary search, without allocating.
+ *
+ * Updates never mutate an index; [withUpdate] returns a new one, so readers can keep using the instance they hold.
+ *
+ * As in the `hash_prefixes` table, where the prefix is the primary key, a prefix belongs to a single feed at a time.
+ */
+class HashPrefixIndex internal constructor(
+    private val prefixesByFeed: Map<Feed, IntArray>,
+    private val revisionsByFeed: Map<Feed, Int>,
+) {
+
+    val size: Int
+        get() = prefixesByFeed.values.sumOf { it.size }
+
+    fun revision(feed: Feed): Int = revisionsByFeed[feed] ?: 0
+
+    /**
+     * @return the sorted prefixes of [feed]. The returned array must not be modified.
+     */
+    internal fun prefixes(feed: Feed): IntArray = prefixesByFeed[feed] ?: EMPTY_PREFIXES
+
+    /**
+     * @return the feed containing [prefix], or null if none does
+     */
+    fun feedFor(prefix: Int): Feed? {
+        for (feed in FEEDS) {
+            val prefixes = prefixesByFeed[feed] ?: continue
+            if (prefixes.binarySearch(prefix) >= 0) return feed
+        }
+        return null
+    }
+
+    /**
+     * Applies a revision diff for [feed], mirroring how the database applies it: a [replace] revision drops every existing
+     * prefix of the feed, otherwise [delete] is removed before [insert] is added. Inserted prefixes move to [feed], so
+     * they're removed from any other feed, as the database's REPLACE insert does.
+     */
+    fun withUpdate(
+        feed: Feed,
+        revision: Int,
+        replace: Boolean,
+        insert: Collection<String>,
+        delete: Collection<String>,
+    ): HashPrefixIndex = withUpdate(feed, revision, replace, insert.toPrefixBuffer(), delete.toPrefixBuffer())
+
+    /**
+     * Same as the [withUpdate] taking prefix strings, for a diff collected while streaming it.
+     */
+    fun withUpdate(
+        feed: Feed,
+        revision: Int,
+        replace: Boolean,
+        insert: PrefixBuffer,
+        delete: PrefixBuffer,
+    ): HashPrefixIndex {
+        val current = if (replace) EMPTY_PREFIXES else prefixes(feed)
+        val inserted = insert.toSortedArray()
+        val updatedPrefixes = prefixesByFeed.mapValues { (otherFeed, prefixes) ->
+            if (otherFeed == feed || inserted.isEmpty()) prefixes else merge(prefixes, inserted, EMPTY_PREFIXES)
+        }
+        val updated = merge(current, delete.toSortedArray(), inserted)
+        return HashPrefixIndex(updatedPrefixes + (feed to updated), revisionsByFeed + (feed to revision))
+    }
+
+    /**
+     * Growable buffer of parsed prefixes, so a diff can be collected without boxing or keeping its strings around. Prefixes
+     * that aren't exactly 8 hex chars are dropped, as the index can't hold them.
+     */
+    class PrefixBuffer(initialCapacity: Int = DEFAULT_BUFFER_CAPACITY) {
+        private var values = IntArray(initialCapacity.coerceAtLeast(1))
+
+        var size: Int = 0
+            private set
+
+        fun add(prefix: String) {
+            val value = parsePrefix(prefix) ?: return
+            if (size == values.size) values = values.copyOf(size * 2)
+            values[size++] = value
+        }
+
+        internal fun toSortedArray(): IntArray = values.copyOf(size).apply { sort() }.distinctSorted()
+    }
+
+    companion object {
+        private val FEEDS = Feed.entries.toTypedArray()
+        private val EMPTY_PREFIXES = IntArray(0)
+
+        val EMPTY = HashPrefixIndex(emptyMap(), emptyMap())
+
+        fun of(
+            prefixes: Map<Feed, Collection<String>>,
+            revisions: Map<Feed, Int>,
+        ): HashPrefixIndex = HashPrefixIndex(prefixes.mapValues { it.value.toPrefixBuffer().toSortedArray() }, revisions)
+
+        /**
+         * @return [prefix] as a 32-bit value, or null if it isn't exactly 8 hex chars
+         */
+        fun parsePrefix(prefix: String): Int? {
+            if (prefix.length != PREFIX_LENGTH) return null
+            var value = 0
+            for (char in prefix) {
+                val digit = Character.digit(char, 16)
+                if (digit < 0) return null
+                value = (value shl 4) or digit
+            }
+            return value
+        }
+
+        private fun Collection<String>.toPrefixBuffer(): PrefixBuffer = PrefixBuffer(size).also { buffer -> forEach { buffer.add(it) } }
+
+        /**
+         * @return ([current] - [delete]) + [insert], all of them sorted and without duplicates
+         */
+        private fun merge(
+            current: IntArray,
+            delete: IntArray,
+            insert: IntArray,
+        ): IntArray {
+            val result = IntArray(current.size + insert.size)
+            var count = 0
+            var c = 0
+            var i = 0
+            while (c < current.size || i < insert.size) {
+                if (i >= insert.size || (c < current.size && current[c] < insert[i])) {
+                    val value = current[c++]
+                    if (delete.binarySearch(value) < 0) result[count++] = value
+                } else {
+                    if (c < current.size && current[c] == insert[i]) c++
+                    result[count++] = insert[i++]
+                }
+            }
+            return if (count == result.size) result else result.copyOf(count)
+        }
+
+        private fun IntArray.distinctSorted(): IntArray {
+            if (size < 2) return this
+            var count = 1
+            for (index in 1 until size) {
+                if (this[index] != this[count - 1]) this[count++] = this[index]
+            }
+            return if (count == size) this else copyOf(count)
+        }
+
+        private const val PREFIX_LENGTH = 8
+        private const val DEFAULT_BUFFER_CAPACITY = 1_024
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.malicioussiteprotection.impl.data
+
+import android.content.Context
+import androidx.annotation.WorkerThread
+import com.duckduckgo.di.scopes.AppScope
+import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.Feed
+import com.squareup.anvil.annotations.ContributesBinding
+import logcat.LogPriority.WARN
+import logcat.asLog
+import logcat.logcat
+import java.io.BufferedOutputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.FileOutputStream
+import java.io.RandomAccessFile
+import java.nio.channels.FileChannel.MapMode.READ_ONLY
+import javax.inject.Inject
+
+interface HashPrefixIndexStore {
+    /**
+     * @return the persisted index, or null if there is none or it can't be read
+     */
+    @WorkerThread
+    fun load(): HashPrefixIndex?
+
+    @WorkerThread
+    fun save(index: HashPrefixIndex)
+}
+
+/**
+ * Persists a [HashPrefixIndex] as a flat binary file: a header followed, per feed, by its name, revision and sorted 32-bit
+ * prefixes. The file is memory-mapped on load so the prefixes are bulk copied into their arrays without any parsing.
+ */
+@ContributesBinding(AppScope::class)
+class FileHashPrefixIndexStore @Inject constructor(
+    private val context: Context,
+) : HashPrefixIndexStore {
+
+    private val file: File
+        get() = File(context.filesDir, FILE_NAME)
+
+    override fun load(): HashPrefixIndex? {
+        val file = file
+        if (!file.exists()) return null
+
+        return runCatching {
+            RandomAccessFile(file, "r").use { randomAccessFile ->
+                val buffer = randomAccessFile.channel.map(READ_ONLY, 0, randomAccessFile.length())
+                check(buffer.getInt() == MAGIC && buffer.getInt() == VERSION) { "Unknown hash prefix index format" }
+
+                val prefixes = mutableMapOf<Feed, IntArray>()
+                val revisions = mutableMapOf<Feed, Int>()
+                repeat(buffer.getInt()) {
+                    val name = ByteArray(buffer.getShort().toInt()).also { buffer.get(it) }.toString(Charsets.US_ASCII)
+                    val revision = buffer.getInt()
+                    val values = IntArray(buffer.getInt())
+                    buffer.asIntBuffer().get(values)
+                    buffer.position(buffer.position() + values.size * Int.SIZE_BYTES)
+
+                    Feed.entries.firstOrNull { it.name == name }?.let { feed ->
+                        prefixes[feed] = values
+                        revisions[feed] = revision
+                    }
+                }
+                HashPrefixIndex(prefixes, revisions)
+            }
+        }.onFailure {
+            logcat(WARN) { "Failed to load hash prefix index: ${it.asLog()}" }
+        }.getOrNull()
+    }
+
+    override fun save(index: HashPrefixIndex) {
+        val file = file
+        val tmpFile = File(file.parentFile, "$FILE_NAME.tmp")
+        runCatching {
+            DataOutputStream(BufferedOutputStream(FileOutputStream(tmpFile))).use { out ->
+                out.writeInt(MAGIC)
+                out.writeInt(VERSION)
+                out.writeInt(Feed.entries.size)
+                Feed.entries.forEach { feed ->
+                    val name = feed.name.toByteArray(Charsets.US_ASCII)
+                    out.writeShort(name.size)
+                    out.write(name)
+                    out.writeInt(index.revision(feed))
+                    val prefixes = index.prefixes(feed)
+                    out.writeInt(prefixes.size)
+                    prefixes.forEach { out.writeInt(it) }
+                }
+            }
+            check(tmpFile.renameTo(file)) { "Failed to replace $file" }
+        }.onFailure {
+            logcat(WARN) { "Failed to save hash prefix index: ${it.asLog()}" }
+            tmpFile.delete()
+        }
+    }
+
+    companion object {
+        private const val FILE_NAME = "malicious_site_hash_prefixes.bin"
+        private const val MAGIC = 0x4d535048 // "MSPH"
+        private const val VERSION = 1
+    }
+}
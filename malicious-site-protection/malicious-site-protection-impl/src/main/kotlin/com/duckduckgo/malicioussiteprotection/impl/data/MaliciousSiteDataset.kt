@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.malicioussiteprotection.impl.data
+
+/**
+ * Immutable, versioned view of the local malicious site datasets that lookups are served from.
+ *
+ * Dataset updates are first committed to the database, then applied to the current snapshot to build the next one, which is
+ * published with a single reference swap. Lookups running during an update keep reading the previous snapshot, so they never
+ * observe a partially applied revision.
+ */
+class MaliciousSiteDataset internal constructor(
+    val version: Long,
+    val hashPrefixes: HashPrefixIndex,
+    val filters: FilterIndex,
+) {
+
+    fun withHashPrefixes(hashPrefixes: HashPrefixIndex) = MaliciousSiteDataset(version + 1, hashPrefixes, filters)
+
+    fun withFilters(filters: FilterIndex) = MaliciousSiteDataset(version + 1, hashPrefixes, filters)
+}
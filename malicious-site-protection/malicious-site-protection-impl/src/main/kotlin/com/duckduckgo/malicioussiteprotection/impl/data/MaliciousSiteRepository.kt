@@ -16,7 +16,11 @@
 
 package com.duckduckgo.malicioussiteprotection.impl.data
 
+import androidx.lifecycle.LifecycleOwner
+import com.duckduckgo.app.di.AppCoroutineScope
+import com.duckduckgo.app.lifecycle.MainProcessLifecycleObserver
 import com.duckduckgo.app.statistics.pixels.Pixel
+import com.duckduckgo.app.statistics.pixels.Pixel.PixelType.Daily
 import com.duckduckgo.common.utils.DispatcherProvider
 import com.duckduckgo.di.scopes.AppScope
 import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.Feed
@@ -24,47 +28,48 @@ import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.Feed.M
 import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.Feed.PHISHING
 import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.Feed.SCAM
 import com.duckduckgo.malicioussiteprotection.impl.MaliciousSitePixelName.MALICIOUS_SITE_CLIENT_TIMEOUT
+import com.duckduckgo.malicioussiteprotection.impl.MaliciousSitePixelName.MALICIOUS_SITE_DATASET_INGESTED
+import com.duckduckgo.malicioussiteprotection.impl.MaliciousSitePixelName.MALICIOUS_SITE_DATASET_UPDATED
+import com.duckduckgo.malicioussiteprotection.impl.data.db.FilterEntity
+import com.duckduckgo.malicioussiteprotection.impl.data.db.HashPrefixEntity
 import com.duckduckgo.malicioussiteprotection.impl.data.db.MaliciousSiteDao
 import com.duckduckgo.malicioussiteprotection.impl.data.db.RevisionEntity
-import com.duckduckgo.malicioussiteprotection.impl.data.network.FilterResponse
-import com.duckduckgo.malicioussiteprotection.impl.data.network.FilterSetResponse
-import com.duckduckgo.malicioussiteprotection.impl.data.network.HashPrefixResponse
 import com.duckduckgo.malicioussiteprotection.impl.data.network.MaliciousSiteDatasetService
 import com.duckduckgo.malicioussiteprotection.impl.data.network.MaliciousSiteService
-import com.duckduckgo.malicioussiteprotection.impl.domain.WriteInProgressException
 import com.duckduckgo.malicioussiteprotection.impl.models.Filter
 import com.duckduckgo.malicioussiteprotection.impl.models.FilterSet
-import com.duckduckgo.malicioussiteprotection.impl.models.FilterSetWithRevision
-import com.duckduckgo.malicioussiteprotection.impl.models.FilterSetWithRevision.MalwareFilterSetWithRevision
-import com.duckduckgo.malicioussiteprotection.impl.models.FilterSetWithRevision.PhishingFilterSetWithRevision
-import com.duckduckgo.malicioussiteprotection.impl.models.FilterSetWithRevision.ScamFilterSetWithRevision
-import com.duckduckgo.malicioussiteprotection.impl.models.HashPrefixesWithRevision
-import com.duckduckgo.malicioussiteprotection.impl.models.HashPrefixesWithRevision.MalwareHashPrefixesWithRevision
-import com.duckduckgo.malicioussiteprotection.impl.models.HashPrefixesWithRevision.PhishingHashPrefixesWithRevision
-import com.duckduckgo.malicioussiteprotection.impl.models.HashPrefixesWithRevision.ScamHashPrefixesWithRevision
 import com.duckduckgo.malicioussiteprotection.impl.models.Match
 import com.duckduckgo.malicioussiteprotection.impl.models.MatchesResult
 import com.duckduckgo.malicioussiteprotection.impl.models.Type
 import com.duckduckgo.malicioussiteprotection.impl.models.Type.FILTER_SET
 import com.duckduckgo.malicioussiteprotection.impl.models.Type.HASH_PREFIXES
 import com.squareup.anvil.annotations.ContributesBinding
+import com.squareup.anvil.annotations.ContributesMultibinding
+import com.squareup.moshi.JsonReader
 import dagger.SingleInstanceIn
+import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.TimeoutCancellationException
+import kotlinx.coroutines.launch
 import kotlinx.coroutines.sync.Mutex
 import kotlinx.coroutines.sync.withLock
 import kotlinx.coroutines.withContext
 import kotlinx.coroutines.withTimeout
+import logcat.logcat
+import okhttp3.ResponseBody
 import java.net.SocketTimeoutException
+import java.util.concurrent.atomic.AtomicInteger
 import javax.inject.Inject
 
 interface MaliciousSiteRepository {
     /**
-     * @throws WriteInProgressException if a write is in progress
+     * Served from the current dataset snapshot, also while a dataset update is in progress. Until the snapshot has been built,
+     * it is served from the database instead.
      */
     suspend fun getFeedForHashPrefix(hashPrefix: String): Feed?
 
     /**
-     * @throws WriteInProgressException if a write is in progress
+     * Served from the current dataset snapshot, also while a dataset update is in progress. Until the snapshot has been built,
+     * it is served from the database instead.
      */
     suspend fun getFilters(hash: String): FilterSet?
     suspend fun matches(hashPrefix: String): MatchesResult
@@ -73,8 +78,20 @@ interface MaliciousSiteRepository {
 }
 
 private const val MATCHES_ENDPOINT_TIMEOUT = 5000L
+private const val PARAM_TYPE = "type"
+private const val PARAM_SWAP_TIME = "swap_ms"
+private const val PARAM_LOOKUPS = "lookups_during_update"
+private const val PARAM_ENTRIES = "entries"
+private const val PARAM_PEAK_HEAP = "peak_heap_mb"
+
+// stays below SQLite's limit of 999 bound variables per statement, for the chunked deletes
+private const val INGESTION_CHUNK_SIZE = 500
 
 @ContributesBinding(AppScope::class)
+@ContributesMultibinding(
+    scope = AppScope::class,
+    boundType = MainProcessLifecycleObserver::class,
+)
 @SingleInstanceIn(AppScope::class)
 class RealMaliciousSiteRepository @Inject constructor(
     private val maliciousSiteDao: MaliciousSiteDao,
@@ -82,15 +99,33 @@ class RealMaliciousSiteRepository @Inject constructor(
     private val maliciousSiteDatasetService: MaliciousSiteDatasetService,
     private val dispatcherProvider: DispatcherProvider,
     private val pixels: Pixel,
-) : MaliciousSiteRepository {
+    private val hashPrefixIndexStore: HashPrefixIndexStore,
+    private val datasetRevisionReader: DatasetRevisionReader,
+    @AppCoroutineScope private val appCoroutineScope: CoroutineScope,
+) : MaliciousSiteRepository, MainProcessLifecycleObserver {
 
     private val writeMutex = Mutex()
 
+    private val datasetMutex = Mutex()
+
+    @Volatile
+    private var dataset: MaliciousSiteDataset? = null
+
+    private val lookupsDuringUpdate = AtomicInteger(0)
+
+    override fun onCreate(owner: LifecycleOwner) {
+        buildDataset()
+    }
+
     override suspend fun getFeedForHashPrefix(hashPrefix: String): Feed? {
         return withContext(dispatcherProvider.io()) {
-            if (writeMutex.isLocked) {
-                throw WriteInProgressException()
+            countLookupDuringUpdate()
+            val prefix = HashPrefixIndex.parsePrefix(hashPrefix)
+            val snapshot = readyDataset()
+            if (prefix != null && snapshot != null) {
+                return@withContext snapshot.hashPrefixes.feedFor(prefix)
             }
+            // not a prefix the index can hold, or the snapshot isn't built yet, fall back to the database
             maliciousSiteDao.getHashPrefix(hashPrefix)?.type?.let {
                 when (it) {
                     PHISHING.name -> PHISHING
@@ -104,20 +139,10 @@ class RealMaliciousSiteRepository @Inject constructor(
 
     override suspend fun getFilters(hash: String): FilterSet? {
         return withContext(dispatcherProvider.io()) {
-            if (writeMutex.isLocked) {
-                throw WriteInProgressException()
-            }
-            maliciousSiteDao.getFilter(hash)?.let {
-                FilterSet(
-                    filters = Filter(it.hash, it.regex),
-                    feed = when (it.type) {
-                        PHISHING.name -> PHISHING
-                        MALWARE.name -> MALWARE
-                        SCAM.name -> SCAM
-                        else -> return@let null
-                    },
-                )
-            }
+            countLookupDuringUpdate()
+            readyDataset()?.let { return@withContext it.filters[hash] }
+            // the snapshot isn't built yet, fall back to the database
+            maliciousSiteDao.getFilter(hash)?.toFilterSet()
         }
     }
 
@@ -186,87 +211,309 @@ class RealMaliciousSiteRepository @Inject constructor(
         }
     }
 
-    private suspend fun <T> loadAndUpdateData(
+    private suspend fun loadFilters(
         latestRevision: List<RevisionEntity>,
         networkRevision: Int,
         feed: Feed,
-        getFunction: suspend (Int) -> T?,
-        updateFunction: suspend (T?) -> Unit,
     ) {
         val revision = latestRevision.getRevisionForFeed(feed)
-        val data = if (networkRevision > revision) {
-            getFunction(revision)
-        } else {
-            null
-        }
+        if (networkRevision <= revision) return
 
-        updateFunction(data)
+        val response = when (feed) {
+            PHISHING -> maliciousSiteDatasetService.getPhishingFilterSet(revision)
+            MALWARE -> maliciousSiteDatasetService.getMalwareFilterSet(revision)
+            SCAM -> maliciousSiteDatasetService.getScamFilterSet(revision)
+        }
+        var header: DatasetRevisionHeader? = null
+        var feedFilters: List<Filter> = emptyList()
+        updateDataset(
+            type = FILTER_SET,
+            update = {
+                header = ingest(
+                    type = FILTER_SET,
+                    feed = feed,
+                    response = response,
+                    readEntry = { it.nextFilter() },
+                    deleteAll = { maliciousSiteDao.deleteFilters(feed.name) },
+                    delete = { chunk -> maliciousSiteDao.deleteFilters(chunk.map { it.hash }, feed.name) },
+                    insert = { chunk ->
+                        maliciousSiteDao.insertFilters(chunk.mapTo(HashSet(chunk.size)) { FilterEntity(it.hash, it.regex, feed.name) })
+                    },
+                )
+                // read back once committed rather than collected while ingesting, so a replace revision isn't held in memory twice
+                if (header != null) {
+                    feedFilters = maliciousSiteDao.getFilters(feed.name).map { Filter(it.hash, it.regex) }
+                }
+            },
+        ) { dataset ->
+            val applied = header ?: return@updateDataset null
+            // same rule as the database, which only applies newer revisions
+            if (applied.revision <= dataset.filters.revision(feed)) return@updateDataset null
+            dataset.withFilters(
+                dataset.filters.withUpdate(
+                    feed = feed,
+                    revision = applied.revision,
+                    replace = true,
+                    insert = feedFilters,
+                    delete = emptyList(),
+                ),
+            )
+        }
     }
 
-    private suspend fun loadFilters(
+    private suspend fun loadHashPrefixes(
         latestRevision: List<RevisionEntity>,
         networkRevision: Int,
         feed: Feed,
     ) {
-        loadAndUpdateData(
-            latestRevision,
-            networkRevision,
-            feed,
-            when (feed) {
-                PHISHING -> maliciousSiteDatasetService::getPhishingFilterSet
-                MALWARE -> maliciousSiteDatasetService::getMalwareFilterSet
-                SCAM -> maliciousSiteDatasetService::getScamFilterSet
+        val revision = latestRevision.getRevisionForFeed(feed)
+        if (networkRevision <= revision) return
+
+        val response = when (feed) {
+            PHISHING -> maliciousSiteDatasetService.getPhishingHashPrefixes(revision)
+            MALWARE -> maliciousSiteDatasetService.getMalwareHashPrefixes(revision)
+            SCAM -> maliciousSiteDatasetService.getScamHashPrefixes(revision)
+        }
+        val inserted = HashPrefixIndex.PrefixBuffer()
+        val deleted = HashPrefixIndex.PrefixBuffer()
+        var header: DatasetRevisionHeader? = null
+        updateDataset(
+            type = HASH_PREFIXES,
+            update = {
+                header = ingest(
+                    type = HASH_PREFIXES,
+                    feed = feed,
+                    response = response,
+                    readEntry = { it.nextString() },
+                    deleteAll = { maliciousSiteDao.deleteHashPrefixes(feed.name) },
+                    delete = { chunk ->
+                        maliciousSiteDao.deleteHashPrefixes(chunk, feed.name)
+                        chunk.forEach { deleted.add(it) }
+                    },
+                    insert = { chunk ->
+                        maliciousSiteDao.insertHashPrefixes(chunk.map { HashPrefixEntity(hashPrefix = it, type = feed.name) })
+                        chunk.forEach { inserted.add(it) }
+                    },
+                )
             },
-        ) {
-            writeMutex.withLock {
-                maliciousSiteDao.updateFilters(it?.toFilterSetWithRevision(feed))
+        ) { dataset ->
+            val applied = header ?: return@updateDataset null
+            // same rule as the database, which only applies newer revisions
+            if (applied.revision <= dataset.hashPrefixes.revision(feed)) return@updateDataset null
+            dataset.withHashPrefixes(
+                dataset.hashPrefixes.withUpdate(
+                    feed = feed,
+                    revision = applied.revision,
+                    replace = applied.replace,
+                    insert = inserted,
+                    delete = deleted,
+                ),
+            )
+        }?.let { hashPrefixIndexStore.save(it.hashPrefixes) }
+    }
+
+    /**
+     * Streams a dataset revision [response] into the database, [INGESTION_CHUNK_SIZE] entries at a time, so that a large
+     * revision is never parsed into memory as a whole. Entries are applied the way [MaliciousSiteDao.updateHashPrefixes]
+     * applies them: a replace revision drops all the entries of the feed, otherwise deletes are applied before inserts.
+     *
+     * The entries and the revision are committed in one transaction, so an interrupted ingestion leaves the previous
+     * revision in place and is retried from it. Lookups are served from the in-memory dataset meanwhile.
+     *
+     * @return the header of the ingested revision, or null if it wasn't newer than the stored one
+     */
+    private suspend fun <T> ingest(
+        type: Type,
+        feed: Feed,
+        response: ResponseBody,
+        readEntry: (JsonReader) -> T,
+        deleteAll: suspend () -> Unit,
+        delete: suspend (List<T>) -> Unit,
+        insert: suspend (List<T>) -> Unit,
+    ): DatasetRevisionHeader? {
+        return datasetRevisionReader.spool(response).use { revisionFile ->
+            val header = revisionFile.readHeader()
+            val storedRevision = maliciousSiteDao.getLatestRevision(feed = feed.name, type = type.name)?.revision ?: 0
+            if (header.revision <= storedRevision) return@use null
+
+            val progress = IngestionProgress(type, feed)
+            maliciousSiteDao.applyRevision(RevisionEntity(feed = feed.name, type = type.name, revision = header.revision)) {
+                if (header.replace) {
+                    deleteAll()
+                } else {
+                    revisionFile.forEachDeleteChunk(INGESTION_CHUNK_SIZE, readEntry) { chunk ->
+                        delete(chunk)
+                        progress.onChunkApplied(chunk.size)
+                    }
+                }
+                revisionFile.forEachInsertChunk(INGESTION_CHUNK_SIZE, readEntry) { chunk ->
+                    insert(chunk)
+                    progress.onChunkApplied(chunk.size)
+                }
             }
+
+            logcat { "Ingested $feed ${type.name} revision ${header.revision}: ${progress.entries} entries, peak heap +${progress.peakHeapMb}MB" }
+            pixels.fire(
+                pixel = MALICIOUS_SITE_DATASET_INGESTED,
+                parameters = mapOf(
+                    PARAM_TYPE to type.name.lowercase(),
+                    PARAM_ENTRIES to progress.entries.toBucket(),
+                    PARAM_PEAK_HEAP to progress.peakHeapMb.toBucket(),
+                ),
+                type = Daily(tag = type.name),
+            )
+            header
         }
     }
 
-    private suspend fun loadHashPrefixes(
-        latestRevision: List<RevisionEntity>,
-        networkRevision: Int,
-        feed: Feed,
+    /**
+     * Tracks how many entries of a revision have been applied, and how much the heap grew while applying them.
+     */
+    private class IngestionProgress(
+        private val type: Type,
+        private val feed: Feed,
     ) {
-        loadAndUpdateData(
-            latestRevision,
-            networkRevision,
-            feed,
-            when (feed) {
-                PHISHING -> maliciousSiteDatasetService::getPhishingHashPrefixes
-                MALWARE -> maliciousSiteDatasetService::getMalwareHashPrefixes
-                SCAM -> maliciousSiteDatasetService::getScamHashPrefixes
-            },
-        ) {
-            writeMutex.withLock {
-                maliciousSiteDao.updateHashPrefixes(it?.toHashPrefixesWithRevision(feed))
+        private val baselineHeap = usedHeap()
+        private var peakHeap = baselineHeap
+        private var chunks = 0
+
+        var entries = 0L
+            private set
+
+        val peakHeapMb: Long
+            get() = (peakHeap - baselineHeap) / (1024 * 1024)
+
+        fun onChunkApplied(size: Int) {
+            entries += size
+            peakHeap = maxOf(peakHeap, usedHeap())
+            if (++chunks % PROGRESS_LOG_INTERVAL == 0) {
+                logcat { "Ingesting $feed ${type.name}: $entries entries applied" }
             }
         }
+
+        private fun usedHeap(): Long = Runtime.getRuntime().let { it.totalMemory() - it.freeMemory() }
+
+        companion object {
+            private const val PROGRESS_LOG_INTERVAL = 20
+        }
+    }
+
+    private fun countLookupDuringUpdate() {
+        if (writeMutex.isLocked) lookupsDuringUpdate.incrementAndGet()
     }
 
-    private fun FilterSetResponse.toFilterSetWithRevision(feed: Feed): FilterSetWithRevision {
-        val insert = insert.toFilterSet()
-        val delete = delete.toFilterSet()
-        return when (feed) {
-            PHISHING -> PhishingFilterSetWithRevision(insert, delete, revision, replace)
-            MALWARE -> MalwareFilterSetWithRevision(insert, delete, revision, replace)
-            SCAM -> ScamFilterSetWithRevision(insert, delete, revision, replace)
+    /**
+     * Commits [update] to the database, then builds the next dataset snapshot from the current one with [nextDataset] and
+     * publishes it. Lookups keep being served from the current snapshot until then.
+     *
+     * @return the published snapshot, or null if [nextDataset] didn't produce one
+     */
+    private suspend fun updateDataset(
+        type: Type,
+        update: suspend () -> Unit,
+        nextDataset: (MaliciousSiteDataset) -> MaliciousSiteDataset?,
+    ): MaliciousSiteDataset? {
+        return writeMutex.withLock {
+            lookupsDuringUpdate.set(0)
+            update()
+
+            val swapStart = System.nanoTime()
+            val next = nextDataset(activeDataset()) ?: return@withLock null
+            dataset = next
+            val swapMillis = (System.nanoTime() - swapStart) / 1_000_000
+            val lookups = lookupsDuringUpdate.get()
+
+            logcat { "Malicious site dataset v${next.version} published in ${swapMillis}ms, $lookups lookups served during the update" }
+            pixels.fire(
+                pixel = MALICIOUS_SITE_DATASET_UPDATED,
+                parameters = mapOf(
+                    PARAM_TYPE to type.name.lowercase(),
+                    PARAM_SWAP_TIME to swapMillis.toBucket(),
+                    PARAM_LOOKUPS to lookups.toLong().toBucket(),
+                ),
+                type = Daily(tag = type.name),
+            )
+            next
         }
     }
 
-    private fun HashPrefixResponse.toHashPrefixesWithRevision(feed: Feed): HashPrefixesWithRevision {
-        return when (feed) {
-            PHISHING -> PhishingHashPrefixesWithRevision(insert, delete, revision, replace)
-            MALWARE -> MalwareHashPrefixesWithRevision(insert, delete, revision, replace)
-            SCAM -> ScamHashPrefixesWithRevision(insert, delete, revision, replace)
+    /**
+     * @return the current dataset snapshot, or null if it isn't built yet, in which case it is built in the background so
+     * that lookups never wait for the whole dataset to be loaded
+     */
+    private fun readyDataset(): MaliciousSiteDataset? {
+        return dataset ?: buildDataset().let { dataset }
+    }
+
+    private fun buildDataset() {
+        if (dataset != null || datasetMutex.isLocked) return
+        appCoroutineScope.launch(dispatcherProvider.io()) { activeDataset() }
+    }
+
+    /**
+     * @return the current dataset snapshot, loading it if needed. Only called off the main thread: from [buildDataset] and
+     * from [updateDataset], right after an update is persisted.
+     */
+    private suspend fun activeDataset(): MaliciousSiteDataset {
+        dataset?.let { return it }
+        return datasetMutex.withLock {
+            dataset ?: MaliciousSiteDataset(
+                version = 0,
+                hashPrefixes = loadHashPrefixIndex(),
+                filters = loadFilterIndex(),
+            ).also { dataset = it }
         }
     }
 
+    /**
+     * Loads the persisted index, or rebuilds it from the database when it is missing or doesn't match the stored revisions.
+     */
+    private suspend fun loadHashPrefixIndex(): HashPrefixIndex {
+        // revisions are read before the data, so an update committed in between is applied again, which is idempotent
+        val revisions = getLocalRevisions(HASH_PREFIXES).toFeedRevisions()
+
+        hashPrefixIndexStore.load()
+            ?.takeIf { index -> Feed.entries.all { index.revision(it) == (revisions[it] ?: 0) } }
+            ?.let { return it }
+
+        logcat { "Rebuilding hash prefix index from database" }
+        return HashPrefixIndex.of(
+            prefixes = Feed.entries.associateWith { maliciousSiteDao.getHashPrefixes(it.name).orEmpty() },
+            revisions = revisions,
+        ).also { hashPrefixIndexStore.save(it) }
+    }
+
+    private suspend fun loadFilterIndex(): FilterIndex {
+        val revisions = getLocalRevisions(FILTER_SET).toFeedRevisions()
+        return FilterIndex.of(
+            filters = maliciousSiteDao.getAllFilters().orEmpty().mapNotNull { it.toFilterSet() },
+            revisions = revisions,
+        )
+    }
+
+    private fun FilterEntity.toFilterSet(): FilterSet? {
+        return FilterSet(
+            filters = Filter(hash, regex),
+            feed = when (type) {
+                PHISHING.name -> PHISHING
+                MALWARE.name -> MALWARE
+                SCAM.name -> SCAM
+                else -> return null
+            },
+        )
+    }
+
     private suspend fun getLocalRevisions(type: Type) = (maliciousSiteDao.getLatestRevision()?.filter { it.type == type.name } ?: listOf())
 
-    private fun Set<FilterResponse>.toFilterSet(): Set<Filter> {
-        return map { Filter(it.hash, it.regex) }.toSet()
+    private fun List<RevisionEntity>.toFeedRevisions(): Map<Feed, Int> {
+        return mapNotNull { revision -> Feed.entries.firstOrNull { it.name == revision.feed }?.let { it to revision.revision } }.toMap()
+    }
+
+    private fun Long.toBucket(): String = when {
+        this < 10 -> "0-9"
+        this < 100 -> "10-99"
+        this < 1_000 -> "100-999"
+        else -> "1000+"
     }
 
     private fun List<RevisionEntity>.getRevisionForFeed(feed: Feed): Int {
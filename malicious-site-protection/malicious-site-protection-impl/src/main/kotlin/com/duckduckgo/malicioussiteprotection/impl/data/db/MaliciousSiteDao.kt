@@ -58,6 +58,18 @@ interface MaliciousSiteDao {
     @Query("DELETE FROM filters WHERE type = :type")
     suspend fun deleteFilters(type: String)
 
+    @Query("DELETE FROM hash_prefixes WHERE type = :type AND hashPrefix IN (:hashPrefixes)")
+    suspend fun deleteHashPrefixes(
+        hashPrefixes: List<String>,
+        type: String,
+    )
+
+    @Query("DELETE FROM filters WHERE type = :type AND hash IN (:hashes)")
+    suspend fun deleteFilters(
+        hashes: List<String>,
+        type: String,
+    )
+
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     suspend fun insertFilters(items: Set<FilterEntity>)
 
@@ -73,9 +85,31 @@ interface MaliciousSiteDao {
     @Query("SELECT * FROM hash_prefixes WHERE hashPrefix = :prefix LIMIT 1")
     suspend fun getHashPrefix(prefix: String): HashPrefixEntity?
 
+    @Query("SELECT hashPrefix FROM hash_prefixes WHERE type = :type")
+    suspend fun getHashPrefixes(type: String): List<String>
+
     @Query("SELECT * FROM filters WHERE hash = :hash LIMIT 1")
     suspend fun getFilter(hash: String): FilterEntity?
 
+    @Query("SELECT * FROM filters")
+    suspend fun getAllFilters(): List<FilterEntity>
+
+    @Query("SELECT * FROM filters WHERE type = :type")
+    suspend fun getFilters(type: String): List<FilterEntity>
+
+    /**
+     * Runs [update] and stores [revision] in one transaction, so that a revision is applied as a whole or not at all, and the
+     * stored revision always matches the stored entries.
+     */
+    @Transaction
+    suspend fun applyRevision(
+        revision: RevisionEntity,
+        update: suspend () -> Unit,
+    ) {
+        update()
+        insertRevision(revision)
+    }
+
     @Transaction
     suspend fun updateHashPrefixes(
         hashPrefixes: HashPrefixesWithRevision?,
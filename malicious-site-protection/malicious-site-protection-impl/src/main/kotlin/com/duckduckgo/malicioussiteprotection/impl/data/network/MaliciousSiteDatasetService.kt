@@ -17,8 +17,10 @@
 package com.duckduckgo.malicioussiteprotection.impl.data.network
 
 import com.duckduckgo.common.utils.AppUrl.Url.API
+import okhttp3.ResponseBody
 import retrofit2.http.GET
 import retrofit2.http.Query
+import retrofit2.http.Streaming
 
 private const val BASE_URL = "$API/api/protection/v2/android"
 private const val HASH_PREFIX_PATH = "/hashPrefix"
@@ -31,44 +33,31 @@ private const val SCAM = "scam"
 interface MaliciousSiteDatasetService {
     @AuthRequired
     @GET("$BASE_URL$HASH_PREFIX_PATH?$CATEGORY=$PHISHING")
-    suspend fun getPhishingHashPrefixes(@Query("revision") revision: Int): HashPrefixResponse
+    @Streaming
+    suspend fun getPhishingHashPrefixes(@Query("revision") revision: Int): ResponseBody
 
     @AuthRequired
     @GET("$BASE_URL$HASH_PREFIX_PATH?$CATEGORY=$MALWARE")
-    suspend fun getMalwareHashPrefixes(@Query("revision") revision: Int): HashPrefixResponse
+    @Streaming
+    suspend fun getMalwareHashPrefixes(@Query("revision") revision: Int): ResponseBody
 
     @AuthRequired
     @GET("$BASE_URL$HASH_PREFIX_PATH?$CATEGORY=$SCAM")
-    suspend fun getScamHashPrefixes(@Query("revision") revision: Int): HashPrefixResponse
+    @Streaming
+    suspend fun getScamHashPrefixes(@Query("revision") revision: Int): ResponseBody
 
     @AuthRequired
     @GET("$BASE_URL$FILTER_SET_PATH?$CATEGORY=$PHISHING")
-    suspend fun getPhishingFilterSet(@Query("revision") revision: Int): FilterSetResponse
+    @Streaming
+    suspend fun getPhishingFilterSet(@Query("revision") revision: Int): ResponseBody
 
     @AuthRequired
     @GET("$BASE_URL$FILTER_SET_PATH?$CATEGORY=$MALWARE")
-    suspend fun getMalwareFilterSet(@Query("revision") revision: Int): FilterSetResponse
+    @Streaming
+    suspend fun getMalwareFilterSet(@Query("revision") revision: Int): ResponseBody
 
     @AuthRequired
     @GET("$BASE_URL$FILTER_SET_PATH?$CATEGORY=$SCAM")
-    suspend fun getScamFilterSet(@Query("revision") revision: Int): FilterSetResponse
+    @Streaming
+    suspend fun getScamFilterSet(@Query("revision") revision: Int): ResponseBody
 }
-
-data class HashPrefixResponse(
-    val insert: Set<String>,
-    val delete: Set<String>,
-    val revision: Int,
-    val replace: Boolean,
-)
-
-data class FilterSetResponse(
-    val insert: Set<FilterResponse>,
-    val delete: Set<FilterResponse>,
-    val revision: Int,
-    val replace: Boolean,
-)
-
-data class FilterResponse(
-    val hash: String,
-    val regex: String,
-)
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.malicioussiteprotection.impl.domain
+
+import android.util.LruCache
+import java.util.regex.Pattern
+
+/**
+ * Bounded cache of compiled filter and match regexes, keyed by the full hash they were published with.
+ *
+ * A hash can be republished with a different regex in a later dataset revision, so a cached pattern is only reused when its
+ * source still equals the requested regex. The cache is also cleared whenever the filter dataset is reloaded.
+ */
+internal class FilterPatternCache(maxSize: Int = DEFAULT_MAX_SIZE) {
+
+    private val patterns = LruCache<String, Pattern>(maxSize)
+
+    /**
+     * @throws java.util.regex.PatternSyntaxException if [regex] is not a valid pattern
+     */
+    fun get(
+        hash: String,
+        regex: String,
+    ): Pattern {
+        patterns.get(hash)?.takeIf { it.pattern() == regex }?.let { return it }
+        return Pattern.compile(regex).also { patterns.put(hash, it) }
+    }
+
+    fun evictAll() {
+        patterns.evictAll()
+    }
+
+    companion object {
+        private const val DEFAULT_MAX_SIZE = 256
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.malicioussiteprotection.impl.domain
+
+import android.util.LruCache
+import com.duckduckgo.common.utils.CurrentTimeProvider
+import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.MaliciousStatus
+import java.util.concurrent.TimeUnit
+
+/**
+ * Cache of evaluated canonical URLs, bounded by an approximate memory footprint rather than by a number of entries, so long
+ * URLs can't crowd the cache, and with a time-to-live so a verdict is only reused for the rest of a browsing session.
+ */
+internal class MaliciousSiteResultCache(
+    private val currentTimeProvider: CurrentTimeProvider,
+) {
+
+    private val results = object : LruCache<String, CachedResult>(DEFAULT_MAX_SIZE_BYTES) {
+        override fun sizeOf(
+            key: String,
+            value: CachedResult,
+        ): Int = key.length * Char.SIZE_BYTES + ENTRY_OVERHEAD_BYTES
+    }
+
+    fun get(canonicalUrl: String): MaliciousStatus? {
+        val cached = results.get(canonicalUrl) ?: return null
+        if (cached.expiresAt <= currentTimeProvider.elapsedRealtime()) {
+            results.remove(canonicalUrl)
+            return null
+        }
+        return cached.status
+    }
+
+    fun put(
+        canonicalUrl: String,
+        status: MaliciousStatus,
+        maxSizeKb: Int,
+        ttlMinutes: Long,
+    ) {
+        if (maxSizeKb <= 0 || ttlMinutes <= 0) return
+
+        val maxSizeBytes = maxSizeKb * 1024
+        if (results.maxSize() != maxSizeBytes) results.resize(maxSizeBytes)
+        results.put(canonicalUrl, CachedResult(status, currentTimeProvider.elapsedRealtime() + TimeUnit.MINUTES.toMillis(ttlMinutes)))
+    }
+
+    fun evictAll() {
+        results.evictAll()
+    }
+
+    private class CachedResult(
+        val status: MaliciousStatus,
+        val expiresAt: Long,
+    )
+
+    companion object {
+        private const val DEFAULT_MAX_SIZE_BYTES = 64 * 1024
+
+        // object headers, the entry itself and the LinkedHashMap node that holds it
+        private const val ENTRY_OVERHEAD_BYTES = 96
+    }
+}
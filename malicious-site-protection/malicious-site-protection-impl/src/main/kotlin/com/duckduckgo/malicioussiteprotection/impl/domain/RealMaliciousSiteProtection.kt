@@ -18,9 +18,9 @@ package com.duckduckgo.malicioussiteprotection.impl.domain
 
 import android.R.attr.priority
 import android.net.Uri
-import android.util.LruCache
 import com.duckduckgo.app.browser.Domain
 import com.duckduckgo.app.di.AppCoroutineScope
+import com.duckduckgo.common.utils.CurrentTimeProvider
 import com.duckduckgo.common.utils.DispatcherProvider
 import com.duckduckgo.di.scopes.AppScope
 import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection
@@ -46,11 +46,8 @@ import logcat.LogPriority.ERROR
 import logcat.asLog
 import logcat.logcat
 import java.security.MessageDigest
-import java.util.regex.Pattern
 import javax.inject.Inject
 
-class WriteInProgressException : Exception("Write in progress")
-
 interface InternalMaliciousSiteProtection : MaliciousSiteProtection {
     suspend fun loadFilters(vararg feeds: Feed): kotlin.Result<Unit>
     suspend fun loadHashPrefixes(vararg feeds: Feed): kotlin.Result<Unit>
@@ -67,11 +64,13 @@ class RealMaliciousSiteProtection @Inject constructor(
     private val messageDigest: MessageDigest,
     private val maliciousSiteProtectionRCFeature: MaliciousSiteProtectionRCFeature,
     private val urlCanonicalization: UrlCanonicalization,
+    currentTimeProvider: CurrentTimeProvider,
 ) : InternalMaliciousSiteProtection {
 
     private inline fun logcat(logPriority: LogPriority = LogPriority.DEBUG, message: () -> String) =
         logcat(tag = "MaliciousSiteProtection", priority = logPriority, message = message)
-    private val lruCache = LruCache<String, MaliciousStatus>(10)
+    private val resultCache = MaliciousSiteResultCache(currentTimeProvider)
+    private val patternCache = FilterPatternCache()
 
     override fun isFeatureEnabled(): Boolean {
         return maliciousSiteProtectionRCFeature.isFeatureEnabled()
@@ -94,7 +93,7 @@ class RealMaliciousSiteProtection @Inject constructor(
         val hostname = canonicalUri.host ?: return ConfirmedResult(Safe)
 
         if (maliciousSiteProtectionRCFeature.isCachingEnabled()) {
-            lruCache.get(canonicalUriString)?.let {
+            resultCache.get(canonicalUriString)?.let {
                 logcat { "Cached result for $canonicalUriString" }
                 return ConfirmedResult(it)
             }
@@ -109,31 +108,25 @@ class RealMaliciousSiteProtection @Inject constructor(
         val hash = generateHash(hostname)
         val hashPrefix = hash.substring(0, 8)
 
-        try {
-            maliciousSiteRepository.getFeedForHashPrefix(hashPrefix).let {
-                if (it == null) {
-                    logcat { "should not block (no hash) $hashPrefix,  $canonicalUri" }
-                    cacheResult(canonicalUriString, Safe)
-                    return ConfirmedResult(Safe)
-                } else if (it == SCAM && !maliciousSiteProtectionRCFeature.scamProtectionEnabled()) {
-                    logcat { "should not block (scam protection disabled) $canonicalUri" }
-                    cacheResult(canonicalUriString, Ignored)
-                    return ConfirmedResult(Ignored)
-                }
+        maliciousSiteRepository.getFeedForHashPrefix(hashPrefix).let {
+            if (it == null) {
+                logcat { "should not block (no hash) $hashPrefix,  $canonicalUri" }
+                cacheResult(canonicalUriString, Safe)
+                return ConfirmedResult(Safe)
+            } else if (it == SCAM && !maliciousSiteProtectionRCFeature.scamProtectionEnabled()) {
+                logcat { "should not block (scam protection disabled) $canonicalUri" }
+                cacheResult(canonicalUriString, Ignored)
+                return ConfirmedResult(Ignored)
             }
-            maliciousSiteRepository.getFilters(hash)?.let { filterSet ->
-                filterSet.filters.let {
-                    if (Pattern.compile(it.regex).matcher(canonicalUriString).find()) {
-                        logcat { "should block $canonicalUriString" }
-                        cacheResult(canonicalUriString, Malicious(filterSet.feed))
-                        return ConfirmedResult(Malicious(filterSet.feed))
-                    }
+        }
+        maliciousSiteRepository.getFilters(hash)?.let { filterSet ->
+            filterSet.filters.let {
+                if (patternCache.get(it.hash, it.regex).matcher(canonicalUriString).find()) {
+                    logcat { "should block $canonicalUriString" }
+                    cacheResult(canonicalUriString, Malicious(filterSet.feed))
+                    return ConfirmedResult(Malicious(filterSet.feed))
                 }
             }
-        } catch (e: WriteInProgressException) {
-            logcat { "Write in progress, ignoring" }
-            // We don't want to cache these
-            return ConfirmedResult(Ignored)
         }
         appCoroutineScope.launch(dispatchers.io()) {
             try {
@@ -170,9 +163,10 @@ class RealMaliciousSiteProtection @Inject constructor(
         hash: String,
     ): MaliciousStatus = (
         matches.matches.firstOrNull { match ->
-            Pattern.compile(match.regex).matcher(canonicalUriString).find() &&
-                (hostname == match.hostname) &&
-                (hash == match.hash)
+            // cheap comparisons first, so only the regexes of candidate matches get compiled
+            (hostname == match.hostname) &&
+                (hash == match.hash) &&
+                patternCache.get(match.hash, match.regex).matcher(canonicalUriString).find()
         }?.feed?.let { feed: Feed ->
             if (feed == SCAM && !maliciousSiteProtectionRCFeature.scamProtectionEnabled()) return@let Ignored
             return@let Malicious(feed)
@@ -181,13 +175,14 @@ class RealMaliciousSiteProtection @Inject constructor(
 
     override suspend fun loadFilters(vararg feeds: Feed): kotlin.Result<Unit> {
         return maliciousSiteRepository.loadFilters(*feeds).also {
-            lruCache.evictAll()
+            resultCache.evictAll()
+            patternCache.evictAll()
         }
     }
 
     override suspend fun loadHashPrefixes(vararg feeds: Feed): kotlin.Result<Unit> {
         return maliciousSiteRepository.loadHashPrefixes(*feeds).also {
-            lruCache.evictAll()
+            resultCache.evictAll()
         }
     }
 
@@ -196,7 +191,12 @@ class RealMaliciousSiteProtection @Inject constructor(
         result: MaliciousStatus,
     ) {
         if (maliciousSiteProtectionRCFeature.isCachingEnabled()) {
-            lruCache.put(canonicalUriString, result)
+            resultCache.put(
+                canonicalUrl = canonicalUriString,
+                status = result,
+                maxSizeKb = maliciousSiteProtectionRCFeature.getResultCacheSizeKb(),
+                ttlMinutes = maliciousSiteProtectionRCFeature.getResultCacheTtlMinutes(),
+            )
         }
     }
 
@@ -21,15 +21,16 @@ import androidx.room.Room
 import androidx.test.platform.app.InstrumentationRegistry
 import com.duckduckgo.app.statistics.pixels.Pixel
 import com.duckduckgo.common.test.FileUtilities
-import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.Feed
+import com.duckduckgo.common.utils.CurrentTimeProvider
+import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.Feed.MALWARE
+import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.Feed.PHISHING
 import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.IsMaliciousResult.ConfirmedResult
 import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.MaliciousStatus
+import com.duckduckgo.malicioussiteprotection.impl.data.FileDatasetRevisionReader
+import com.duckduckgo.malicioussiteprotection.impl.data.HashPrefixIndexStore
 import com.duckduckgo.malicioussiteprotection.impl.data.RealMaliciousSiteRepository
 import com.duckduckgo.malicioussiteprotection.impl.data.db.MaliciousSiteDao
 import com.duckduckgo.malicioussiteprotection.impl.data.db.MaliciousSitesDatabase
-import com.duckduckgo.malicioussiteprotection.impl.data.network.FilterResponse
-import com.duckduckgo.malicioussiteprotection.impl.data.network.FilterSetResponse
-import com.duckduckgo.malicioussiteprotection.impl.data.network.HashPrefixResponse
 import com.duckduckgo.malicioussiteprotection.impl.data.network.MaliciousSiteDatasetService
 import com.duckduckgo.malicioussiteprotection.impl.data.network.MaliciousSiteService
 import com.duckduckgo.malicioussiteprotection.impl.data.network.RevisionResponse
@@ -39,10 +40,11 @@ import com.duckduckgo.malicioussiteprotection.impl.domain.UrlCanonicalization
 import com.duckduckgo.malicioussiteprotection.impl.remoteconfig.MaliciousSiteProtectionRCRepository
 import com.squareup.moshi.JsonAdapter
 import com.squareup.moshi.Moshi
-import com.squareup.moshi.Types
 import junit.framework.TestCase.assertEquals
 import kotlinx.coroutines.runBlocking
 import kotlinx.coroutines.test.runTest
+import okhttp3.ResponseBody
+import okhttp3.ResponseBody.Companion.toResponseBody
 import org.junit.Before
 import org.junit.Test
 import org.junit.runner.RunWith
@@ -88,7 +90,6 @@ class MaliciousSiteProtectionReferenceTest(private val testCase: TestCase) {
     private val maliciousSiteService: MaliciousSiteService = mock()
     private val maliciousSiteDatasetService: MaliciousSiteDatasetService = mock()
     private val mockPixel: Pixel = mock()
-    private val moshi = Moshi.Builder().build()
     private val mockMaliciousSiteProtectionRCRepository: MaliciousSiteProtectionRCRepository = mock()
     private val mockMaliciousSiteProtectionRCFeature: MaliciousSiteProtectionRCFeature = mock()
     private val urlCanonicalization: UrlCanonicalization = RealUrlCanonicalization(
@@ -101,14 +102,13 @@ class MaliciousSiteProtectionReferenceTest(private val testCase: TestCase) {
         maliciousSiteDatasetService,
         coroutineRule.testDispatcherProvider,
         mockPixel,
+        mock(HashPrefixIndexStore::class.java),
+        FileDatasetRevisionReader(InstrumentationRegistry.getInstrumentation().targetContext),
+        coroutineRule.testScope,
     )
 
     @Before
     fun setup() = runBlocking {
-        val filterSetJsonAdapter: JsonAdapter<Set<FilterResponse>> = moshi.adapter(
-            Types.newParameterizedType(Set::class.java, FilterResponse::class.java),
-        )
-        val hashPrefixesJsonAdapter: JsonAdapter<Set<String>> = moshi.adapter(Types.newParameterizedType(Set::class.java, String::class.java))
         val phishingFilterSetJson = FileUtilities.loadText(
             MaliciousSiteProtectionReferenceTest::class.java.classLoader!!,
             "reference_tests/block/reference_phishing_filterSet.json",
@@ -126,32 +126,14 @@ class MaliciousSiteProtectionReferenceTest(private val testCase: TestCase) {
             "reference_tests/block/reference_malware_hashPrefixes.json",
         )
         whenever(maliciousSiteService.getRevision()).thenReturn(RevisionResponse(1))
-        whenever(maliciousSiteDatasetService.getPhishingFilterSet(any())).thenReturn(
-            FilterSetResponse(insert = filterSetJsonAdapter.fromJson(phishingFilterSetJson)!!, delete = emptySet(), revision = 1, replace = true),
-        )
-        whenever(maliciousSiteDatasetService.getMalwareFilterSet(any())).thenReturn(
-            FilterSetResponse(insert = filterSetJsonAdapter.fromJson(malwareFilterSetJson)!!, delete = emptySet(), revision = 1, replace = true),
-        )
-        whenever(maliciousSiteDatasetService.getPhishingHashPrefixes(any())).thenReturn(
-            HashPrefixResponse(
-                insert = hashPrefixesJsonAdapter.fromJson(phishingHashPrefixesJson)!!,
-                delete = emptySet(),
-                revision = 1,
-                replace = true,
-            ),
-        )
-        whenever(maliciousSiteDatasetService.getMalwareHashPrefixes(any())).thenReturn(
-            HashPrefixResponse(
-                insert = hashPrefixesJsonAdapter.fromJson(malwareHashPrefixesJson)!!,
-                delete = emptySet(),
-                revision = 1,
-                replace = true,
-            ),
-        )
+        whenever(maliciousSiteDatasetService.getPhishingFilterSet(any())).thenReturn(replaceRevision(phishingFilterSetJson))
+        whenever(maliciousSiteDatasetService.getMalwareFilterSet(any())).thenReturn(replaceRevision(malwareFilterSetJson))
+        whenever(maliciousSiteDatasetService.getPhishingHashPrefixes(any())).thenReturn(replaceRevision(phishingHashPrefixesJson))
+        whenever(maliciousSiteDatasetService.getMalwareHashPrefixes(any())).thenReturn(replaceRevision(malwareHashPrefixesJson))
         whenever(mockMaliciousSiteProtectionRCFeature.isFeatureEnabled()).thenReturn(true)
         whenever(mockMaliciousSiteProtectionRCFeature.stripWWWPrefix()).thenReturn(true)
-        repository.loadFilters(*enumValues<Feed>())
-        repository.loadHashPrefixes(*enumValues<Feed>())
+        repository.loadFilters(PHISHING, MALWARE)
+        repository.loadHashPrefixes(PHISHING, MALWARE)
 
         testee = RealMaliciousSiteProtection(
             coroutineRule.testDispatcherProvider,
@@ -161,9 +143,14 @@ class MaliciousSiteProtectionReferenceTest(private val testCase: TestCase) {
             messageDigest,
             mockMaliciousSiteProtectionRCFeature,
             urlCanonicalization,
+            mock(CurrentTimeProvider::class.java),
         )
     }
 
+    private fun replaceRevision(insertJson: String): ResponseBody {
+        return """{"insert": $insertJson, "delete": [], "revision": 1, "replace": true}""".toResponseBody()
+    }
+
     @Test
     fun whenReferenceTestRunsItReturnsTheExpectedResult() = runTest {
         testCase.exceptPlatforms
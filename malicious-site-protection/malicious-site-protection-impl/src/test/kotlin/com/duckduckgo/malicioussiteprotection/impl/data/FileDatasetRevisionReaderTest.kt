@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.malicioussiteprotection.impl.data
+
+import android.content.Context
+import com.duckduckgo.malicioussiteprotection.impl.models.Filter
+import kotlinx.coroutines.test.runTest
+import okhttp3.ResponseBody.Companion.toResponseBody
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.whenever
+
+class FileDatasetRevisionReaderTest {
+
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+
+    private val context: Context = mock()
+    private val testee = FileDatasetRevisionReader(context)
+
+    @Before
+    fun setup() {
+        whenever(context.cacheDir).thenReturn(temporaryFolder.root)
+    }
+
+    @Test
+    fun whenRevisionComesAfterEntriesThenHeaderIsStillRead() {
+        val body = """{"insert": ["a", "b"], "delete": [], "replace": true, "revision": 7}""".toResponseBody()
+
+        testee.spool(body).use { file ->
+            assertEquals(DatasetRevisionHeader(revision = 7, replace = true), file.readHeader())
+        }
+    }
+
+    @Test
+    fun whenEntriesReadThenTheyAreStreamedInBoundedChunks() = runTest {
+        val body = """{"revision": 2, "replace": false, "delete": ["x"], "insert": ["a", "b", "c", "d", "e"]}""".toResponseBody()
+        val chunks = mutableListOf<List<String>>()
+
+        val count = testee.spool(body).use { file ->
+            file.forEachDeleteChunk(2, { it.nextString() }) { }
+            file.forEachInsertChunk(2, { it.nextString() }) { chunks += it.toList() }
+        }
+
+        assertEquals(5, count)
+        assertEquals(listOf(listOf("a", "b"), listOf("c", "d"), listOf("e")), chunks)
+    }
+
+    @Test
+    fun whenFiltersReadThenHashAndRegexAreParsed() = runTest {
+        val body = """{"revision": 1, "insert": [{"regex": ".*evil.*", "hash": "abc"}]}""".toResponseBody()
+        val filters = mutableListOf<Filter>()
+
+        testee.spool(body).use { file ->
+            file.forEachInsertChunk(10, { it.nextFilter() }) { filters += it }
+        }
+
+        assertEquals(listOf(Filter("abc", ".*evil.*")), filters)
+    }
+
+    @Test
+    fun whenFileClosedThenItIsDeleted() {
+        testee.spool("""{"revision": 1}""".toResponseBody()).close()
+
+        assertTrue(temporaryFolder.root.listFiles().isNullOrEmpty())
+    }
+}
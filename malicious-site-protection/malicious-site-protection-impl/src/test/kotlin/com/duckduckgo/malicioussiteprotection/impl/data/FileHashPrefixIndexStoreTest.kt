@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.malicioussiteprotection.impl.data
+
+import android.content.Context
+import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.Feed.MALWARE
+import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.Feed.PHISHING
+import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.Feed.SCAM
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.whenever
+
+class FileHashPrefixIndexStoreTest {
+
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+
+    private val context: Context = mock()
+    private val testee = FileHashPrefixIndexStore(context)
+
+    @Test
+    fun whenNothingSavedThenLoadReturnsNull() {
+        whenever(context.filesDir).thenReturn(temporaryFolder.root)
+
+        assertNull(testee.load())
+    }
+
+    @Test
+    fun whenIndexSavedThenLoadReturnsSameIndex() {
+        whenever(context.filesDir).thenReturn(temporaryFolder.root)
+        val index = HashPrefixIndex.of(
+            prefixes = mapOf(PHISHING to listOf("ffffffff", "00000001"), MALWARE to listOf("80000000")),
+            revisions = mapOf(PHISHING to 3, MALWARE to 7),
+        )
+
+        testee.save(index)
+        val loaded = testee.load()!!
+
+        assertArrayEquals(index.prefixes(PHISHING), loaded.prefixes(PHISHING))
+        assertArrayEquals(index.prefixes(MALWARE), loaded.prefixes(MALWARE))
+        assertEquals(0, loaded.prefixes(SCAM).size)
+        assertEquals(3, loaded.revision(PHISHING))
+        assertEquals(7, loaded.revision(MALWARE))
+        assertEquals(0, loaded.revision(SCAM))
+    }
+
+    @Test
+    fun whenFileIsCorruptThenLoadReturnsNull() {
+        whenever(context.filesDir).thenReturn(temporaryFolder.root)
+        temporaryFolder.newFile("malicious_site_hash_prefixes.bin").writeBytes(byteArrayOf(1, 2, 3))
+
+        assertNull(testee.load())
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.malicioussiteprotection.impl.data
+
+import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.Feed.MALWARE
+import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.Feed.PHISHING
+import com.duckduckgo.malicioussiteprotection.impl.models.Filter
+import com.duckduckgo.malicioussiteprotection.impl.models.FilterSet
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+
+class FilterIndexTest {
+
+    private val index = FilterIndex.of(
+        filters = listOf(
+            FilterSet(Filter("hash1", "regex1"), PHISHING),
+            FilterSet(Filter("hash2", "regex2"), MALWARE),
+        ),
+        revisions = mapOf(PHISHING to 1, MALWARE to 1),
+    )
+
+    @Test
+    fun whenIncrementalUpdateAppliedThenOnlyDeletesOfSameFeedAreRemoved() {
+        val updated = index.withUpdate(
+            feed = PHISHING,
+            revision = 2,
+            replace = false,
+            insert = listOf(Filter("hash3", "regex3")),
+            delete = listOf(Filter("hash1", "regex1"), Filter("hash2", "regex2")),
+        )
+
+        assertNull(updated["hash1"])
+        assertEquals(MALWARE, updated["hash2"]?.feed)
+        assertEquals(PHISHING, updated["hash3"]?.feed)
+        assertEquals(2, updated.revision(PHISHING))
+        assertEquals("regex1", index["hash1"]?.filters?.regex)
+    }
+
+    @Test
+    fun whenReplaceUpdateAppliedThenOnlyFiltersOfThatFeedAreDropped() {
+        val updated = index.withUpdate(feed = MALWARE, revision = 2, replace = true, insert = listOf(Filter("hash3", "regex3")), delete = emptyList())
+
+        assertEquals(PHISHING, updated["hash1"]?.feed)
+        assertNull(updated["hash2"])
+        assertEquals(MALWARE, updated["hash3"]?.feed)
+        assertEquals(2, updated.size)
+    }
+}
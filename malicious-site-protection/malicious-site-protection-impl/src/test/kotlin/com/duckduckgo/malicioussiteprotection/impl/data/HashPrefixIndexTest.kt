@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.malicioussiteprotection.impl.data
+
+import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.Feed.MALWARE
+import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.Feed.PHISHING
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+
+class HashPrefixIndexTest {
+
+    @Test
+    fun whenPrefixIsEightHexCharsThenItIsParsed() {
+        assertEquals(0x0000_0000, HashPrefixIndex.parsePrefix("00000000"))
+        assertEquals(0x1a2b_3c4d, HashPrefixIndex.parsePrefix("1a2b3c4d"))
+        assertEquals(-1, HashPrefixIndex.parsePrefix("ffffffff"))
+    }
+
+    @Test
+    fun whenPrefixIsNotEightHexCharsThenItIsNotParsed() {
+        assertNull(HashPrefixIndex.parsePrefix("1a2b3c4"))
+        assertNull(HashPrefixIndex.parsePrefix("1a2b3c4d5"))
+        assertNull(HashPrefixIndex.parsePrefix("1a2b3c4g"))
+    }
+
+    @Test
+    fun whenPrefixIsInFeedThenFeedIsReturned() {
+        val index = HashPrefixIndex.of(
+            prefixes = mapOf(PHISHING to listOf("ffffffff", "00000001"), MALWARE to listOf("80000000")),
+            revisions = mapOf(PHISHING to 1, MALWARE to 1),
+        )
+
+        assertEquals(PHISHING, index.feedFor(prefix("ffffffff")))
+        assertEquals(PHISHING, index.feedFor(prefix("00000001")))
+        assertEquals(MALWARE, index.feedFor(prefix("80000000")))
+        assertNull(index.feedFor(prefix("00000002")))
+    }
+
+    @Test
+    fun whenIncrementalUpdateAppliedThenDeletesAreRemovedAndInsertsAdded() {
+        val index = HashPrefixIndex.of(mapOf(PHISHING to listOf("00000001", "00000002", "00000003")), mapOf(PHISHING to 1))
+
+        val updated = index.withUpdate(PHISHING, revision = 2, replace = false, insert = listOf("00000004", "00000002"), delete = listOf("00000001"))
+
+        assertArrayEquals(intArrayOf(2, 3, 4), updated.prefixes(PHISHING))
+        assertEquals(2, updated.revision(PHISHING))
+        assertArrayEquals(intArrayOf(1, 2, 3), index.prefixes(PHISHING))
+    }
+
+    @Test
+    fun whenReplaceUpdateAppliedThenPreviousPrefixesAreDropped() {
+        val index = HashPrefixIndex.of(mapOf(PHISHING to listOf("00000001"), MALWARE to listOf("00000005")), mapOf(PHISHING to 1))
+
+        val updated = index.withUpdate(PHISHING, revision = 2, replace = true, insert = listOf("00000002"), delete = emptyList())
+
+        assertArrayEquals(intArrayOf(2), updated.prefixes(PHISHING))
+        assertArrayEquals(intArrayOf(5), updated.prefixes(MALWARE))
+    }
+
+    @Test
+    fun whenPrefixInsertedInAnotherFeedThenItMovesToThatFeed() {
+        val index = HashPrefixIndex.EMPTY
+            .withUpdate(PHISHING, revision = 1, replace = false, insert = listOf("aaaaaaaa"), delete = emptyList())
+            .withUpdate(MALWARE, revision = 1, replace = false, insert = listOf("aaaaaaaa"), delete = emptyList())
+
+        assertEquals(MALWARE, index.feedFor(prefix("aaaaaaaa")))
+        assertArrayEquals(intArrayOf(), index.prefixes(PHISHING))
+
+        val updated = index.withUpdate(MALWARE, revision = 2, replace = false, insert = emptyList(), delete = listOf("aaaaaaaa"))
+
+        assertNull(updated.feedFor(prefix("aaaaaaaa")))
+    }
+
+    private fun prefix(hex: String) = HashPrefixIndex.parsePrefix(hex)!!
+}
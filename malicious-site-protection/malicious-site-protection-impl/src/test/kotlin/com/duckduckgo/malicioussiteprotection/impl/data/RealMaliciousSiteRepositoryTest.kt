@@ -1,5 +1,6 @@
 package com.duckduckgo.malicioussiteprotection.impl.data
 
+import android.content.Context
 import com.duckduckgo.app.statistics.pixels.Pixel
 import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.Feed
 import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.Feed.PHISHING
@@ -8,8 +9,6 @@ import com.duckduckgo.malicioussiteprotection.impl.data.db.FilterEntity
 import com.duckduckgo.malicioussiteprotection.impl.data.db.HashPrefixEntity
 import com.duckduckgo.malicioussiteprotection.impl.data.db.MaliciousSiteDao
 import com.duckduckgo.malicioussiteprotection.impl.data.db.RevisionEntity
-import com.duckduckgo.malicioussiteprotection.impl.data.network.FilterSetResponse
-import com.duckduckgo.malicioussiteprotection.impl.data.network.HashPrefixResponse
 import com.duckduckgo.malicioussiteprotection.impl.data.network.MaliciousSiteDatasetService
 import com.duckduckgo.malicioussiteprotection.impl.data.network.MaliciousSiteService
 import com.duckduckgo.malicioussiteprotection.impl.data.network.MatchResponse
@@ -17,20 +16,26 @@ import com.duckduckgo.malicioussiteprotection.impl.data.network.MatchesResponse
 import com.duckduckgo.malicioussiteprotection.impl.data.network.RevisionResponse
 import com.duckduckgo.malicioussiteprotection.impl.models.Filter
 import com.duckduckgo.malicioussiteprotection.impl.models.FilterSet
-import com.duckduckgo.malicioussiteprotection.impl.models.FilterSetWithRevision.PhishingFilterSetWithRevision
-import com.duckduckgo.malicioussiteprotection.impl.models.HashPrefixesWithRevision.PhishingHashPrefixesWithRevision
 import com.duckduckgo.malicioussiteprotection.impl.models.Match
 import com.duckduckgo.malicioussiteprotection.impl.models.MatchesResult
 import com.duckduckgo.malicioussiteprotection.impl.models.MatchesResult.Ignored
 import com.duckduckgo.malicioussiteprotection.impl.models.Type
+import kotlinx.coroutines.CompletableDeferred
 import kotlinx.coroutines.TimeoutCancellationException
 import kotlinx.coroutines.test.runTest
+import okhttp3.ResponseBody
+import okhttp3.ResponseBody.Companion.toResponseBody
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
 import org.junit.Assert.assertTrue
+import org.junit.Before
 import org.junit.Test
+import org.junit.rules.TemporaryFolder
 import org.mockito.Mockito.mock
 import org.mockito.Mockito.verify
 import org.mockito.kotlin.any
+import org.mockito.kotlin.doSuspendableAnswer
+import org.mockito.kotlin.eq
 import org.mockito.kotlin.never
 import org.mockito.kotlin.whenever
 
@@ -39,32 +44,50 @@ class RealMaliciousSiteRepositoryTest {
     @get:org.junit.Rule
     var coroutineRule = com.duckduckgo.common.test.CoroutineTestRule()
 
+    @get:org.junit.Rule
+    val temporaryFolder = TemporaryFolder()
+
     private val maliciousSiteDao: MaliciousSiteDao = mock()
     private val maliciousSiteService: MaliciousSiteService = mock()
     private val maliciousSiteDatasetService: MaliciousSiteDatasetService = mock()
     private val mockPixel: Pixel = mock()
+    private val mockContext: Context = mock()
     private val repository = RealMaliciousSiteRepository(
         maliciousSiteDao,
         maliciousSiteService,
         maliciousSiteDatasetService,
         coroutineRule.testDispatcherProvider,
         mockPixel,
+        mock(HashPrefixIndexStore::class.java),
+        FileDatasetRevisionReader(mockContext),
+        coroutineRule.testScope,
     )
 
+    @Before
+    fun setup() = runTest {
+        whenever(mockContext.cacheDir).thenReturn(temporaryFolder.root)
+        whenever(maliciousSiteDao.applyRevision(any(), any())).doSuspendableAnswer {
+            it.getArgument<suspend () -> Unit>(1).invoke()
+            maliciousSiteDao.insertRevision(it.getArgument(0))
+        }
+    }
+
     @Test
     fun loadFilters_updatesFiltersWhenNetworkRevisionIsHigher() = runTest {
         val networkRevision = 2
         val latestRevision = listOf(RevisionEntity(PHISHING.name, Type.FILTER_SET.name, 1))
-        val phishingFilterSetResponse = FilterSetResponse(setOf(), setOf(), networkRevision, false)
 
         whenever(maliciousSiteService.getRevision()).thenReturn(RevisionResponse(networkRevision))
         whenever(maliciousSiteDao.getLatestRevision()).thenReturn(latestRevision)
-        whenever(maliciousSiteDatasetService.getPhishingFilterSet(any())).thenReturn(phishingFilterSetResponse)
+        whenever(maliciousSiteDatasetService.getPhishingFilterSet(any())).thenReturn(
+            datasetResponse(insert = """[{"hash": "hash", "regex": "regex"}]""", revision = networkRevision),
+        )
 
-        repository.loadFilters(*enumValues<Feed>())
+        repository.loadFilters(PHISHING)
 
         verify(maliciousSiteDatasetService).getPhishingFilterSet(latestRevision.first().revision)
-        verify(maliciousSiteDao).updateFilters(any<PhishingFilterSetWithRevision>())
+        verify(maliciousSiteDao).insertFilters(setOf(FilterEntity("hash", "regex", PHISHING.name)))
+        verify(maliciousSiteDao).insertRevision(RevisionEntity(PHISHING.name, Type.FILTER_SET.name, networkRevision))
     }
 
     @Test
@@ -78,23 +101,27 @@ class RealMaliciousSiteRepositoryTest {
         repository.loadFilters(*enumValues<Feed>())
 
         verify(maliciousSiteDatasetService, never()).getPhishingFilterSet(any())
-        verify(maliciousSiteDao, never()).updateFilters(any())
+        verify(maliciousSiteDao, never()).insertFilters(any())
+        verify(maliciousSiteDao, never()).insertRevision(any())
     }
 
     @Test
     fun loadHashPrefixes_updatesHashPrefixesWhenNetworkRevisionIsHigher() = runTest {
         val networkRevision = 2
         val latestRevision = listOf(RevisionEntity(PHISHING.name, Type.HASH_PREFIXES.name, 1))
-        val phishingHashPrefixResponse = HashPrefixResponse(setOf(), setOf(), networkRevision, false)
 
         whenever(maliciousSiteService.getRevision()).thenReturn(RevisionResponse(networkRevision))
         whenever(maliciousSiteDao.getLatestRevision()).thenReturn(latestRevision)
-        whenever(maliciousSiteDatasetService.getPhishingHashPrefixes(any())).thenReturn(phishingHashPrefixResponse)
+        whenever(maliciousSiteDatasetService.getPhishingHashPrefixes(any())).thenReturn(
+            datasetResponse(insert = """["1a2b3c4d"]""", delete = """["5e6f7a8b"]""", revision = networkRevision),
+        )
 
-        repository.loadHashPrefixes(*enumValues<Feed>())
+        repository.loadHashPrefixes(PHISHING)
 
         verify(maliciousSiteDatasetService).getPhishingHashPrefixes(latestRevision.first().revision)
-        verify(maliciousSiteDao).updateHashPrefixes(any<PhishingHashPrefixesWithRevision>())
+        verify(maliciousSiteDao).deleteHashPrefixes(listOf("5e6f7a8b"), PHISHING.name)
+        verify(maliciousSiteDao).insertHashPrefixes(listOf(HashPrefixEntity("1a2b3c4d", PHISHING.name)))
+        verify(maliciousSiteDao).insertRevision(RevisionEntity(PHISHING.name, Type.HASH_PREFIXES.name, networkRevision))
     }
 
     @Test
@@ -108,7 +135,67 @@ class RealMaliciousSiteRepositoryTest {
         repository.loadHashPrefixes(*enumValues<Feed>())
 
         verify(maliciousSiteDatasetService, never()).getPhishingHashPrefixes(any())
-        verify(maliciousSiteDao, never()).updateHashPrefixes(any())
+        verify(maliciousSiteDao, never()).insertHashPrefixes(any())
+        verify(maliciousSiteDao, never()).insertRevision(any())
+    }
+
+    @Test
+    fun loadHashPrefixes_replaceRevisionIsAppliedInChunks() = runTest {
+        val prefixes = (0 until 1_200).map { "%08x".format(it) }
+        whenever(maliciousSiteService.getRevision()).thenReturn(RevisionResponse(2))
+        whenever(maliciousSiteDatasetService.getPhishingHashPrefixes(any())).thenReturn(
+            datasetResponse(insert = prefixes.joinToString(prefix = "[", postfix = "]") { "\"$it\"" }, revision = 2, replace = true),
+        )
+
+        repository.loadHashPrefixes(PHISHING)
+
+        verify(maliciousSiteDao).deleteHashPrefixes(PHISHING.name)
+        verify(maliciousSiteDao, never()).deleteHashPrefixes(any<List<String>>(), any())
+        verify(maliciousSiteDao).insertHashPrefixes(prefixes.subList(0, 500).map { HashPrefixEntity(it, PHISHING.name) })
+        verify(maliciousSiteDao).insertHashPrefixes(prefixes.subList(500, 1_000).map { HashPrefixEntity(it, PHISHING.name) })
+        verify(maliciousSiteDao).insertHashPrefixes(prefixes.subList(1_000, 1_200).map { HashPrefixEntity(it, PHISHING.name) })
+        assertEquals(PHISHING, repository.getFeedForHashPrefix(prefixes.last()))
+    }
+
+    @Test
+    fun loadHashPrefixes_replaceRevisionIsAppliedInOneTransaction() = runTest {
+        whenever(maliciousSiteService.getRevision()).thenReturn(RevisionResponse(2))
+        whenever(maliciousSiteDatasetService.getPhishingHashPrefixes(any())).thenReturn(
+            datasetResponse(insert = """["1a2b3c4d"]""", revision = 2, replace = true),
+        )
+        var inTransaction = false
+        val writesInTransaction = mutableListOf<Boolean>()
+        whenever(maliciousSiteDao.applyRevision(any(), any())).doSuspendableAnswer {
+            inTransaction = true
+            it.getArgument<suspend () -> Unit>(1).invoke()
+            inTransaction = false
+        }
+        whenever(maliciousSiteDao.deleteHashPrefixes(PHISHING.name)).doSuspendableAnswer {
+            writesInTransaction += inTransaction
+            Unit
+        }
+        whenever(maliciousSiteDao.insertHashPrefixes(any())).doSuspendableAnswer {
+            writesInTransaction += inTransaction
+            Unit
+        }
+
+        repository.loadHashPrefixes(PHISHING)
+
+        assertEquals(listOf(true, true), writesInTransaction)
+        verify(maliciousSiteDao).applyRevision(eq(RevisionEntity(PHISHING.name, Type.HASH_PREFIXES.name, 2)), any())
+    }
+
+    @Test
+    fun loadHashPrefixes_doesNotApplyRevisionAlreadyStored() = runTest {
+        whenever(maliciousSiteService.getRevision()).thenReturn(RevisionResponse(2))
+        whenever(maliciousSiteDao.getLatestRevision(PHISHING.name, Type.HASH_PREFIXES.name))
+            .thenReturn(RevisionEntity(PHISHING.name, Type.HASH_PREFIXES.name, 2))
+        whenever(maliciousSiteDatasetService.getPhishingHashPrefixes(any())).thenReturn(datasetResponse(insert = """["1a2b3c4d"]""", revision = 2))
+
+        repository.loadHashPrefixes(PHISHING)
+
+        verify(maliciousSiteDao, never()).insertHashPrefixes(any())
+        verify(maliciousSiteDao, never()).insertRevision(any())
     }
 
     @Test
@@ -122,12 +209,42 @@ class RealMaliciousSiteRepositoryTest {
         assertEquals(PHISHING, result)
     }
 
+    @Test
+    fun getFeedForHashPrefix_usesIndexBuiltFromDatabaseForHexPrefixes() = runTest {
+        whenever(maliciousSiteDao.getLatestRevision()).thenReturn(listOf(RevisionEntity(PHISHING.name, Type.HASH_PREFIXES.name, 1)))
+        whenever(maliciousSiteDao.getHashPrefixes(any())).thenReturn(emptyList())
+        whenever(maliciousSiteDao.getHashPrefixes(PHISHING.name)).thenReturn(listOf("1a2b3c4d"))
+
+        assertEquals(PHISHING, repository.getFeedForHashPrefix("1a2b3c4d"))
+        assertEquals(null, repository.getFeedForHashPrefix("1a2b3c4e"))
+        verify(maliciousSiteDao, never()).getHashPrefix(any())
+    }
+
+    @Test
+    fun getFeedForHashPrefix_servedFromDatabaseUntilDatasetIsBuilt() = runTest {
+        val datasetLoaded = CompletableDeferred<Unit>()
+        whenever(maliciousSiteDao.getLatestRevision()).thenReturn(listOf(RevisionEntity(PHISHING.name, Type.HASH_PREFIXES.name, 1)))
+        whenever(maliciousSiteDao.getHashPrefixes(any())).doSuspendableAnswer {
+            datasetLoaded.await()
+            if (it.getArgument<String>(0) == PHISHING.name) listOf("1a2b3c4d") else emptyList()
+        }
+        whenever(maliciousSiteDao.getHashPrefix("1a2b3c4d")).thenReturn(HashPrefixEntity("1a2b3c4d", PHISHING.name))
+
+        assertEquals(PHISHING, repository.getFeedForHashPrefix("1a2b3c4d"))
+        verify(maliciousSiteDao).getHashPrefix("1a2b3c4d")
+
+        datasetLoaded.complete(Unit)
+
+        assertEquals(PHISHING, repository.getFeedForHashPrefix("1a2b3c4d"))
+        verify(maliciousSiteDao).getHashPrefix("1a2b3c4d")
+    }
+
     @Test
     fun getFilters_returnsFiltersWhenHashExists() = runTest {
         val hash = "testHash"
         val filters = FilterEntity(hash, "regex", PHISHING.name)
 
-        whenever(maliciousSiteDao.getFilter(hash)).thenReturn(filters)
+        whenever(maliciousSiteDao.getAllFilters()).thenReturn(listOf(filters))
 
         val result = repository.getFilters(hash)
         val expected = FilterSet(Filter(filters.hash, filters.regex), PHISHING)
@@ -136,6 +253,56 @@ class RealMaliciousSiteRepositoryTest {
         assertEquals(result?.filters, expected.filters)
     }
 
+    @Test
+    fun loadHashPrefixes_lookupsDuringUpdateAreServedFromPreviousDataset() = runTest {
+        val latestRevision = listOf(RevisionEntity(PHISHING.name, Type.HASH_PREFIXES.name, 1))
+        whenever(maliciousSiteService.getRevision()).thenReturn(RevisionResponse(2))
+        whenever(maliciousSiteDao.getLatestRevision()).thenReturn(latestRevision)
+        whenever(maliciousSiteDao.getHashPrefixes(PHISHING.name)).thenReturn(listOf("1a2b3c4d"))
+        whenever(maliciousSiteDatasetService.getPhishingHashPrefixes(any())).thenReturn(
+            datasetResponse(insert = """["5e6f7a8b"]""", delete = """["1a2b3c4d"]""", revision = 2),
+        )
+        val lookupsDuringUpdate = mutableListOf<Feed?>()
+        whenever(maliciousSiteDao.insertHashPrefixes(any())).doSuspendableAnswer {
+            lookupsDuringUpdate += repository.getFeedForHashPrefix("1a2b3c4d")
+            lookupsDuringUpdate += repository.getFeedForHashPrefix("5e6f7a8b")
+            Unit
+        }
+
+        repository.loadHashPrefixes(PHISHING)
+
+        assertEquals(listOf(PHISHING, null), lookupsDuringUpdate)
+        assertNull(repository.getFeedForHashPrefix("1a2b3c4d"))
+        assertEquals(PHISHING, repository.getFeedForHashPrefix("5e6f7a8b"))
+    }
+
+    @Test
+    fun loadFilters_publishesUpdatedFiltersOnceWritten() = runTest {
+        val latestRevision = listOf(RevisionEntity(PHISHING.name, Type.FILTER_SET.name, 1))
+        whenever(maliciousSiteService.getRevision()).thenReturn(RevisionResponse(2))
+        whenever(maliciousSiteDao.getLatestRevision()).thenReturn(latestRevision)
+        whenever(maliciousSiteDao.getAllFilters()).thenReturn(listOf(FilterEntity("oldHash", "regex", PHISHING.name)))
+        whenever(maliciousSiteDatasetService.getPhishingFilterSet(any())).thenReturn(
+            datasetResponse(
+                insert = """[{"hash": "newHash", "regex": "newRegex"}]""",
+                delete = """[{"hash": "oldHash", "regex": "regex"}]""",
+                revision = 2,
+            ),
+        )
+        whenever(maliciousSiteDao.getFilters(PHISHING.name)).thenReturn(listOf(FilterEntity("newHash", "newRegex", PHISHING.name)))
+        var filterDuringUpdate: FilterSet? = null
+        whenever(maliciousSiteDao.insertFilters(any())).doSuspendableAnswer {
+            filterDuringUpdate = repository.getFilters("oldHash")
+            Unit
+        }
+
+        repository.loadFilters(PHISHING)
+
+        assertEquals(Filter("oldHash", "regex"), filterDuringUpdate?.filters)
+        assertNull(repository.getFilters("oldHash"))
+        assertEquals(Filter("newHash", "newRegex"), repository.getFilters("newHash")?.filters)
+    }
+
     @Test
     fun matches_returnsMatchesWhenHashPrefixExists() = runTest {
         val hashPrefix = "testPrefix"
@@ -167,4 +334,11 @@ class RealMaliciousSiteRepositoryTest {
         assertTrue(result is Ignored)
         verify(mockPixel).fire(MALICIOUS_SITE_CLIENT_TIMEOUT)
     }
+
+    private fun datasetResponse(
+        insert: String = "[]",
+        delete: String = "[]",
+        revision: Int,
+        replace: Boolean = false,
+    ): ResponseBody = """{"insert": $insert, "delete": $delete, "revision": $revision, "replace": $replace}""".toResponseBody()
 }
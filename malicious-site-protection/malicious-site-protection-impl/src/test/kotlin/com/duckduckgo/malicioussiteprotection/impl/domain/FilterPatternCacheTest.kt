@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.malicioussiteprotection.impl.domain
+
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertSame
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class FilterPatternCacheTest {
+
+    private val testee = FilterPatternCache()
+
+    @Test
+    fun whenSameHashAndRegexRequestedThenCompiledPatternIsReused() {
+        val first = testee.get("hash", ".*malicious.*")
+
+        assertSame(first, testee.get("hash", ".*malicious.*"))
+    }
+
+    @Test
+    fun whenHashIsRequestedWithDifferentRegexThenPatternIsRecompiled() {
+        val first = testee.get("hash", ".*malicious.*")
+        val second = testee.get("hash", ".*phishing.*")
+
+        assertNotSame(first, second)
+        assertEquals(".*phishing.*", second.pattern())
+    }
+
+    @Test
+    fun whenEvictedThenPatternIsRecompiled() {
+        val first = testee.get("hash", ".*malicious.*")
+        testee.evictAll()
+
+        assertNotSame(first, testee.get("hash", ".*malicious.*"))
+    }
+}
@@ -20,6 +20,7 @@ import android.net.Uri
 import androidx.test.ext.junit.runners.AndroidJUnit4
 import com.duckduckgo.app.browser.Domain
 import com.duckduckgo.common.test.CoroutineTestRule
+import com.duckduckgo.common.utils.CurrentTimeProvider
 import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection
 import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.Feed.PHISHING
 import com.duckduckgo.malicioussiteprotection.api.MaliciousSiteProtection.Feed.SCAM
@@ -44,6 +45,8 @@ import org.junit.Test
 import org.junit.runner.RunWith
 import org.mockito.Mockito.mock
 import org.mockito.kotlin.any
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 import java.security.MessageDigest
 
@@ -59,6 +62,7 @@ class RealMaliciousSiteProtectionTest {
     private val mockMaliciousSiteProtectionRCFeature: MaliciousSiteProtectionRCFeature = mock()
     private val mockMaliciousSiteProtectionRCRepository: MaliciousSiteProtectionRCRepository = mock()
     private val urlCanonicalization: UrlCanonicalization = mock()
+    private val mockCurrentTimeProvider: CurrentTimeProvider = mock()
 
     @Before
     fun setup() {
@@ -70,6 +74,7 @@ class RealMaliciousSiteProtectionTest {
             messageDigest,
             mockMaliciousSiteProtectionRCFeature,
             urlCanonicalization,
+            mockCurrentTimeProvider,
         )
         whenever(mockMaliciousSiteProtectionRCFeature.isFeatureEnabled()).thenReturn(true)
         whenever(urlCanonicalization.canonicalizeUrl(any())).thenAnswer { it.arguments[0] }
@@ -217,4 +222,31 @@ class RealMaliciousSiteProtectionTest {
         assertTrue(onSiteBlockedAsyncCalled)
         assertEquals(Ignored, maliciousStatus)
     }
+
+    @Test
+    fun isMalicious_servesCachedResultUntilItExpires() = runTest {
+        val url = Uri.parse("https://malicious.com")
+        val hostname = url.host!!
+        val hash = messageDigest.digest(hostname.toByteArray()).joinToString("") { "%02x".format(it) }
+        val hashPrefix = hash.substring(0, 8)
+
+        whenever(mockMaliciousSiteProtectionRCFeature.isCachingEnabled()).thenReturn(true)
+        whenever(mockMaliciousSiteProtectionRCFeature.getResultCacheSizeKb()).thenReturn(64)
+        whenever(mockMaliciousSiteProtectionRCFeature.getResultCacheTtlMinutes()).thenReturn(1)
+        whenever(mockMaliciousSiteRepository.getFeedForHashPrefix(hashPrefix)).thenReturn(PHISHING)
+        whenever(mockMaliciousSiteRepository.getFilters(hash)).thenReturn(FilterSet(Filter(hash, ".*malicious.*"), PHISHING))
+        whenever(mockCurrentTimeProvider.elapsedRealtime()).thenReturn(0L)
+
+        realMaliciousSiteProtection.isMalicious(url) {}
+        whenever(mockCurrentTimeProvider.elapsedRealtime()).thenReturn(59_999L)
+        val cached = realMaliciousSiteProtection.isMalicious(url) {}
+        verify(mockMaliciousSiteRepository, times(1)).getFilters(hash)
+
+        whenever(mockCurrentTimeProvider.elapsedRealtime()).thenReturn(60_000L)
+        val expired = realMaliciousSiteProtection.isMalicious(url) {}
+        verify(mockMaliciousSiteRepository, times(2)).getFilters(hash)
+
+        assertEquals(ConfirmedResult(Malicious(PHISHING)), cached)
+        assertEquals(ConfirmedResult(Malicious(PHISHING)), expired)
+    }
 }
@@ -25,4 +25,13 @@ interface ContentBlocking {
      * `false` otherwise.
      */
     fun isAnException(url: String): Boolean
+
+    /**
+     * Same as [isAnException] for a [url] whose [baseHost] (its host without the `www.` prefix) the caller already extracted,
+     * so that it isn't parsed again for every exception.
+     */
+    fun isAnException(
+        url: String,
+        baseHost: String?,
+    ): Boolean = isAnException(url)
 }
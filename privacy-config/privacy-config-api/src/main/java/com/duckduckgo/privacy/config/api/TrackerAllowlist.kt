@@ -27,4 +27,18 @@ interface TrackerAllowlist {
         documentURL: String,
         url: String,
     ): Boolean
+
+    /**
+     * Same as [isAnException] for urls the caller already parsed, so that they aren't parsed again for every rule.
+     * @param documentBaseHost host of [documentURL] without the `www.` prefix
+     * @param baseHost host of [url] without the `www.` prefix
+     * @param portStrippedUrl [url] without its port
+     */
+    fun isAnException(
+        documentURL: String,
+        documentBaseHost: String?,
+        url: String,
+        baseHost: String?,
+        portStrippedUrl: String,
+    ): Boolean = isAnException(documentURL, url)
 }
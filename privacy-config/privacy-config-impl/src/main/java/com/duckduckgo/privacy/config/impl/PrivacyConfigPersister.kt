@@ -27,6 +27,7 @@ import com.duckduckgo.privacy.config.api.PrivacyConfigCallbackPlugin
 import com.duckduckgo.privacy.config.api.PrivacyFeaturePlugin
 import com.duckduckgo.privacy.config.impl.VariantManagerPlugin.Companion.VARIANT_MANAGER_FEATURE_NAME
 import com.duckduckgo.privacy.config.impl.di.ConfigPersisterPreferences
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionIndex
 import com.duckduckgo.privacy.config.impl.models.JsonPrivacyConfig
 import com.duckduckgo.privacy.config.store.PrivacyConfig
 import com.duckduckgo.privacy.config.store.PrivacyConfigDatabase
@@ -41,6 +42,8 @@ import dagger.Provides
 import dagger.SingleInstanceIn
 import logcat.LogPriority.VERBOSE
 import logcat.logcat
+import org.json.JSONObject
+import java.security.MessageDigest
 import java.time.LocalDateTime
 import java.time.format.DateTimeFormatter
 import javax.inject.Inject
@@ -54,6 +57,8 @@ interface PrivacyConfigPersister {
 }
 
 private const val PRIVACY_SIGNATURE_KEY = "plugin_signature"
+private const val FEATURE_HASHES_KEY = "feature_hashes"
+private const val FEATURE_HASH_SEPARATOR = ':'
 
 @WorkerThread
 @SingleInstanceIn(AppScope::class)
@@ -67,6 +72,7 @@ class RealPrivacyConfigPersister @Inject constructor(
     private val database: PrivacyConfigDatabase,
     @ConfigPersisterPreferences private val persisterPreferences: SharedPreferences,
     private val privacyConfigCallbackPlugin: PluginPoint<PrivacyConfigCallbackPlugin>,
+    private val privacyExceptionIndex: PrivacyExceptionIndex,
 ) : PrivacyConfigPersister {
 
     override suspend fun persistPrivacyConfig(
@@ -91,9 +97,14 @@ class RealPrivacyConfigPersister @Inject constructor(
         }
 
         if (shouldPersist) {
+            // when the plugins changed, every feature is stored again as they may read features they didn't before
+            val storeAllFeatures = currentPluginHashCode != previousPluginHashCode
+            val previousFeatureHashes = if (storeAllFeatures) null else persisterPreferences.getFeatureHashes()
             database.runInTransaction {
                 persisterPreferences.setSignature(currentPluginHashCode)
-                privacyFeatureTogglesRepository.deleteAll()
+                if (previousFeatureHashes == null) {
+                    privacyFeatureTogglesRepository.deleteAll()
+                }
                 privacyConfigRepository.insert(
                     PrivacyConfig(
                         version = jsonPrivacyConfig.version,
@@ -110,20 +121,41 @@ class RealPrivacyConfigPersister @Inject constructor(
                     unProtectedExceptions.add(UnprotectedTemporaryEntity(it.domain, it.reason.orEmpty()))
                 }
                 unprotectedTemporaryRepository.updateAll(unProtectedExceptions)
+
+                val featureHashes = mutableMapOf<String, String>()
+                fun storeIfChanged(featureName: String, jsonObject: JSONObject, plugins: List<PrivacyFeaturePlugin>) {
+                    val jsonString = jsonObject.toString()
+                    val hash = jsonString.sha256()
+                    featureHashes[featureName] = hash
+                    if (previousFeatureHashes?.get(featureName) == hash) return
+
+                    previousFeatureHashes?.let { privacyFeatureTogglesRepository.delete(featureName) }
+                    plugins.forEach { plugin ->
+                        val start = System.nanoTime()
+                        plugin.store(featureName, jsonString)
+                        logcat(VERBOSE) { "Stored privacy config feature $featureName in ${(System.nanoTime() - start) / 1_000_000}ms" }
+                    }
+                }
                 // First store the variants...
                 jsonPrivacyConfig.experimentalVariants?.let { jsonObject ->
-                    variantManagerPlugin.store(VARIANT_MANAGER_FEATURE_NAME, jsonObject.toString())
+                    storeIfChanged(VARIANT_MANAGER_FEATURE_NAME, jsonObject, listOf(variantManagerPlugin))
                 }
                 // Then feature flags
+                val pluginsByFeatureName = privacyFeaturePluginPoint.getPlugins().groupBy { it.featureName }
                 jsonPrivacyConfig.features.forEach { feature ->
                     feature.value?.let { jsonObject ->
-                        for (featurePlugin in privacyFeaturePluginPoint.getPlugins().filter { feature.key == it.featureName }) {
-                            featurePlugin.store(feature.key, jsonObject.toString())
-                        }
+                        storeIfChanged(feature.key, jsonObject, pluginsByFeatureName[feature.key].orEmpty())
                     }
                 }
+                // features no longer in the config lose their toggles, as they would with deleteAll()
+                previousFeatureHashes?.keys?.minus(featureHashes.keys)?.forEach { featureName ->
+                    privacyFeatureTogglesRepository.delete(featureName)
+                }
+                persisterPreferences.setFeatureHashes(featureHashes)
             }
         }
+        // Built from what is persisted, not from jsonPrivacyConfig, which can be older than the stored config
+        privacyExceptionIndex.rebuild()
         privacyConfigCallbackPlugin.getPlugins().forEach {
             it.onPrivacyConfigPersisted()
         }
@@ -139,6 +171,25 @@ class RealPrivacyConfigPersister @Inject constructor(
         }
     }
 
+    /**
+     * @return the hash of each feature's JSON as last stored, or null if they were never stored
+     */
+    private fun SharedPreferences.getFeatureHashes(): Map<String, String>? {
+        return getStringSet(FEATURE_HASHES_KEY, null)?.associate { entry ->
+            entry.substringBeforeLast(FEATURE_HASH_SEPARATOR) to entry.substringAfterLast(FEATURE_HASH_SEPARATOR)
+        }
+    }
+
+    private fun SharedPreferences.setFeatureHashes(hashes: Map<String, String>) {
+        edit {
+            putStringSet(FEATURE_HASHES_KEY, hashes.map { (featureName, hash) -> "$featureName$FEATURE_HASH_SEPARATOR$hash" }.toSet())
+        }
+    }
+
+    private fun String.sha256(): String {
+        return MessageDigest.getInstance("SHA-256").digest(toByteArray()).joinToString("") { "%02x".format(it) }
+    }
+
     companion object {
         private val FORMATTER_SECONDS: DateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss")
     }
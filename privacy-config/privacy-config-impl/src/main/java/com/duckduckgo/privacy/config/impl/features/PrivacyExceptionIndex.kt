@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.privacy.config.impl.features
+
+import androidx.annotation.WorkerThread
+import com.duckduckgo.app.browser.DomainSuffixMap
+import com.duckduckgo.app.browser.UriString
+import com.duckduckgo.di.scopes.AppScope
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionList.AMP_LINKS
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionList.CONTENT_BLOCKING
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionList.GPC
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionList.HTTPS
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionList.TRACKING_PARAMETERS
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionList.UNPROTECTED_TEMPORARY
+import com.duckduckgo.privacy.config.store.PrivacyConfigDatabase
+import com.squareup.anvil.annotations.ContributesBinding
+import dagger.SingleInstanceIn
+import logcat.logcat
+import javax.inject.Inject
+
+/**
+ * The remote config domain exception lists served by the [PrivacyExceptionIndex]
+ */
+enum class PrivacyExceptionList {
+    UNPROTECTED_TEMPORARY,
+    CONTENT_BLOCKING,
+    HTTPS,
+    GPC,
+    AMP_LINKS,
+    TRACKING_PARAMETERS,
+    ;
+
+    internal val bit: Int = 1 shl ordinal
+}
+
+/**
+ * The exception lists a host is on, either itself or through one of its parent domains.
+ * Instances are immutable and shared by every host on the same lists, so looking one up does not allocate.
+ */
+class PrivacyExceptions internal constructor(private val lists: Int) {
+
+    operator fun contains(list: PrivacyExceptionList): Boolean = lists and list.bit != 0
+
+    /**
+     * @return whether the host is an exception for the feature that owns [list], i.e. it is on that list or on the
+     * unprotected temporary list, which applies to every feature
+     */
+    fun isAnException(list: PrivacyExceptionList): Boolean = lists and (list.bit or UNPROTECTED_TEMPORARY.bit) != 0
+
+    companion object {
+        val NONE = PrivacyExceptions(0)
+    }
+}
+
+/**
+ * Single index over every remote config domain exception list, answering "is this host an exception for this feature" for all
+ * the features at once with one label walk, instead of each feature scanning and parsing its own list on every request.
+ */
+interface PrivacyExceptionIndex {
+    /**
+     * @return the exception lists [host] is on, or null if the index has not been built yet, in which case callers should
+     * fall back to their own repository
+     */
+    fun exceptionsFor(host: String?): PrivacyExceptions?
+
+    /**
+     * Rebuilds the index from the persisted exception lists and publishes it atomically
+     */
+    @WorkerThread
+    fun rebuild()
+}
+
+@ContributesBinding(AppScope::class)
+@SingleInstanceIn(AppScope::class)
+class RealPrivacyExceptionIndex @Inject constructor(
+    private val database: PrivacyConfigDatabase,
+) : PrivacyExceptionIndex {
+
+    @Volatile
+    private var index: DomainSuffixMap<PrivacyExceptions>? = null
+
+    override fun exceptionsFor(host: String?): PrivacyExceptions? {
+        val index = index ?: return null
+        return index.findSameOrParentOf(host) ?: PrivacyExceptions.NONE
+    }
+
+    override fun rebuild() {
+        val domainsByList = mapOf(
+            UNPROTECTED_TEMPORARY to database.unprotectedTemporaryDao().getAll().map { it.domain },
+            CONTENT_BLOCKING to database.contentBlockingDao().getAll().map { it.domain },
+            HTTPS to database.httpsDao().getAll().map { it.domain },
+            GPC to database.gpcExceptionsDao().getAll().map { it.domain },
+            AMP_LINKS to database.ampLinksDao().getAllExceptions().map { it.domain },
+            TRACKING_PARAMETERS to database.trackingParametersDao().getAllExceptions().map { it.domain },
+        )
+        index = buildPrivacyExceptionIndex(domainsByList).also {
+            logcat { "Privacy exception index rebuilt with ${it.size} domains" }
+        }
+    }
+}
+
+/**
+ * Builds the index for [domainsByList]. Every domain also carries the lists of its parent domains, so the most specific match
+ * of a lookup already holds every list the host is on.
+ */
+internal fun buildPrivacyExceptionIndex(domainsByList: Map<PrivacyExceptionList, List<String>>): DomainSuffixMap<PrivacyExceptions> {
+    val listsByHost = HashMap<String, Int>()
+    domainsByList.forEach { (list, domains) ->
+        domains.forEach { domain ->
+            val host = UriString.normalizedHost(domain)
+            if (!host.isNullOrEmpty()) listsByHost.merge(host, list.bit, Int::or)
+        }
+    }
+
+    val shared = HashMap<Int, PrivacyExceptions>()
+    val entries = HashMap<String, PrivacyExceptions>(listsByHost.size)
+    listsByHost.forEach { (host, lists) ->
+        var inherited = lists
+        var dot = host.indexOf('.')
+        while (dot >= 0) {
+            val parent = host.substring(dot + 1)
+            listsByHost[parent]?.let { inherited = inherited or it }
+            dot = host.indexOf('.', dot + 1)
+        }
+        entries[host] = shared.getOrPut(inherited) { PrivacyExceptions(inherited) }
+    }
+    return DomainSuffixMap(entries)
+}
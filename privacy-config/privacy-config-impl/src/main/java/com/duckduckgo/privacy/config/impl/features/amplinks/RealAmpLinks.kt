@@ -25,6 +25,8 @@ import com.duckduckgo.privacy.config.api.AmpLinkType
 import com.duckduckgo.privacy.config.api.AmpLinks
 import com.duckduckgo.privacy.config.api.PrivacyFeatureName
 import com.duckduckgo.privacy.config.api.UnprotectedTemporary
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionIndex
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionList.AMP_LINKS
 import com.duckduckgo.privacy.config.store.features.amplinks.AmpLinksRepository
 import com.squareup.anvil.annotations.ContributesBinding
 import dagger.SingleInstanceIn
@@ -38,6 +40,7 @@ class RealAmpLinks @Inject constructor(
     private val featureToggle: FeatureToggle,
     private val unprotectedTemporary: UnprotectedTemporary,
     private val userAllowListRepository: UserAllowListRepository,
+    private val privacyExceptionIndex: PrivacyExceptionIndex,
 ) : AmpLinks {
 
     private var lastExtractedUrl: String? = null
@@ -45,7 +48,9 @@ class RealAmpLinks @Inject constructor(
     override var lastAmpLinkInfo: AmpLinkInfo? = null
 
     override fun isAnException(url: String): Boolean {
-        return matches(url) || unprotectedTemporary.isAnException(url) || userAllowListRepository.isUrlInUserAllowList(url)
+        val isConfigException = privacyExceptionIndex.exceptionsFor(UriString.host(url))?.isAnException(AMP_LINKS)
+            ?: (matches(url) || unprotectedTemporary.isAnException(url))
+        return isConfigException || userAllowListRepository.isUrlInUserAllowList(url)
     }
 
     private fun matches(url: String): Boolean {
@@ -16,12 +16,14 @@
 
 package com.duckduckgo.privacy.config.impl.features.contentblocking
 
-import com.duckduckgo.app.browser.UriString.Companion.sameOrSubdomain
+import com.duckduckgo.app.browser.UriString
 import com.duckduckgo.di.scopes.AppScope
 import com.duckduckgo.feature.toggles.api.FeatureToggle
 import com.duckduckgo.privacy.config.api.ContentBlocking
 import com.duckduckgo.privacy.config.api.PrivacyFeatureName
 import com.duckduckgo.privacy.config.api.UnprotectedTemporary
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionIndex
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionList.CONTENT_BLOCKING
 import com.duckduckgo.privacy.config.store.features.contentblocking.ContentBlockingRepository
 import com.squareup.anvil.annotations.ContributesBinding
 import dagger.SingleInstanceIn
@@ -33,17 +35,31 @@ class RealContentBlocking @Inject constructor(
     private val contentBlockingRepository: ContentBlockingRepository,
     private val featureToggle: FeatureToggle,
     private val unprotectedTemporary: UnprotectedTemporary,
+    private val privacyExceptionIndex: PrivacyExceptionIndex,
 ) : ContentBlocking {
 
     override fun isAnException(url: String): Boolean {
         return if (featureToggle.isFeatureEnabled(PrivacyFeatureName.ContentBlockingFeatureName.value, true)) {
-            unprotectedTemporary.isAnException(url) || matches(url)
+            privacyExceptionIndex.exceptionsFor(UriString.host(url))?.isAnException(CONTENT_BLOCKING)
+                ?: (unprotectedTemporary.isAnException(url) || matches(url))
+        } else {
+            false
+        }
+    }
+
+    override fun isAnException(
+        url: String,
+        baseHost: String?,
+    ): Boolean {
+        return if (featureToggle.isFeatureEnabled(PrivacyFeatureName.ContentBlockingFeatureName.value, true)) {
+            privacyExceptionIndex.exceptionsFor(baseHost)?.isAnException(CONTENT_BLOCKING)
+                ?: (unprotectedTemporary.isAnException(url) || contentBlockingRepository.exceptionDomains.containsSameOrParentOf(baseHost))
         } else {
             false
         }
     }
 
     private fun matches(url: String): Boolean {
-        return contentBlockingRepository.exceptions.any { sameOrSubdomain(url, it.domain) }
+        return contentBlockingRepository.exceptionDomains.containsSameOrParentOf(UriString.host(url))
     }
 }
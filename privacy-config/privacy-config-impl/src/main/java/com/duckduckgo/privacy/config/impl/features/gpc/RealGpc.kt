@@ -17,13 +17,15 @@
 package com.duckduckgo.privacy.config.impl.features.gpc
 
 import androidx.annotation.VisibleForTesting
-import com.duckduckgo.app.browser.UriString.Companion.sameOrSubdomain
+import com.duckduckgo.app.browser.UriString
 import com.duckduckgo.app.privacy.db.UserAllowListRepository
 import com.duckduckgo.di.scopes.AppScope
 import com.duckduckgo.feature.toggles.api.FeatureToggle
 import com.duckduckgo.privacy.config.api.Gpc
 import com.duckduckgo.privacy.config.api.PrivacyFeatureName
 import com.duckduckgo.privacy.config.api.UnprotectedTemporary
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionIndex
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionList.GPC
 import com.duckduckgo.privacy.config.store.features.gpc.GpcRepository
 import com.squareup.anvil.annotations.ContributesBinding
 import dagger.SingleInstanceIn
@@ -36,6 +38,7 @@ class RealGpc @Inject constructor(
     private val gpcRepository: GpcRepository,
     private val unprotectedTemporary: UnprotectedTemporary,
     private val userAllowListRepository: UserAllowListRepository,
+    private val privacyExceptionIndex: PrivacyExceptionIndex,
 ) : Gpc {
 
     override fun isEnabled(): Boolean {
@@ -55,7 +58,7 @@ class RealGpc @Inject constructor(
         existingHeaders: Map<String, String>,
     ): Boolean {
         return if (canGpcBeUsedByUrl(url) && !containsGpcHeader(existingHeaders)) {
-            gpcRepository.headerEnabledSites.any { sameOrSubdomain(url, it.domain) }
+            gpcRepository.headerEnabledDomains.containsSameOrParentOf(UriString.host(url))
         } else {
             false
         }
@@ -84,11 +87,13 @@ class RealGpc @Inject constructor(
 
     @VisibleForTesting
     fun isAnException(url: String): Boolean {
-        return matches(url) || unprotectedTemporary.isAnException(url) || userAllowListRepository.isUrlInUserAllowList(url)
+        val isConfigException = privacyExceptionIndex.exceptionsFor(UriString.host(url))?.isAnException(GPC)
+            ?: (matches(url) || unprotectedTemporary.isAnException(url))
+        return isConfigException || userAllowListRepository.isUrlInUserAllowList(url)
     }
 
     private fun matches(url: String): Boolean {
-        return gpcRepository.exceptions.any { sameOrSubdomain(url, it.domain) }
+        return gpcRepository.exceptionDomains.containsSameOrParentOf(UriString.host(url))
     }
 
     companion object {
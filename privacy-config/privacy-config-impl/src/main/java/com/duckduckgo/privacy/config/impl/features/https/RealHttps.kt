@@ -16,11 +16,14 @@
 
 package com.duckduckgo.privacy.config.impl.features.https
 
+import com.duckduckgo.app.browser.UriString
 import com.duckduckgo.app.browser.UriString.Companion.sameOrSubdomain
 import com.duckduckgo.app.privacy.db.UserAllowListRepository
 import com.duckduckgo.di.scopes.AppScope
 import com.duckduckgo.privacy.config.api.Https
 import com.duckduckgo.privacy.config.api.UnprotectedTemporary
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionIndex
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionList.HTTPS
 import com.duckduckgo.privacy.config.store.features.https.HttpsRepository
 import com.squareup.anvil.annotations.ContributesBinding
 import dagger.SingleInstanceIn
@@ -32,10 +35,13 @@ class RealHttps @Inject constructor(
     private val httpsRepository: HttpsRepository,
     private val unprotectedTemporary: UnprotectedTemporary,
     private val userAllowListRepository: UserAllowListRepository,
+    private val privacyExceptionIndex: PrivacyExceptionIndex,
 ) : Https {
 
     override fun isAnException(url: String): Boolean {
-        return unprotectedTemporary.isAnException(url) || matches(url) || userAllowListRepository.isUrlInUserAllowList(url)
+        val isConfigException = privacyExceptionIndex.exceptionsFor(UriString.host(url))?.isAnException(HTTPS)
+            ?: (unprotectedTemporary.isAnException(url) || matches(url))
+        return isConfigException || userAllowListRepository.isUrlInUserAllowList(url)
     }
 
     private fun matches(url: String): Boolean {
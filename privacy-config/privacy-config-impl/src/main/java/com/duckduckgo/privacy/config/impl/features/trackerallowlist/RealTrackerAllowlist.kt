@@ -53,6 +53,27 @@ class RealTrackerAllowlist @Inject constructor(
         }
     }
 
+    override fun isAnException(
+        documentURL: String,
+        documentBaseHost: String?,
+        url: String,
+        baseHost: String?,
+        portStrippedUrl: String,
+    ): Boolean {
+        if (!featureToggle.isFeatureEnabled(PrivacyFeatureName.TrackerAllowlistFeatureName.value, true)) {
+            return false
+        }
+        return if (optimizeTrackerAllowList.enabled) {
+            val host = baseHost ?: return false
+            val rules = findRulesForHost(host, trackerAllowlistRepository.rulesByDomain) ?: return false
+            rules.any { matchesRule(portStrippedUrl, documentBaseHost, it) }
+        } else {
+            trackerAllowlistRepository.exceptions
+                .firstOrNull { UriString.sameOrSubdomainOfHost(baseHost, it.domain) }
+                ?.let { matchesRule(portStrippedUrl, documentBaseHost, it) } ?: false
+        }
+    }
+
     private fun isAnExceptionOptimized(
         url: String,
         documentUrl: String,
@@ -92,4 +113,27 @@ class RealTrackerAllowlist @Inject constructor(
             cleanedUrl.matches(regex) && (it.domains.contains("<all>") || it.domains.any { domain -> UriString.sameOrSubdomain(documentUrl, domain) })
         }
     }
+
+    private fun matchesRule(
+        portStrippedUrl: String,
+        documentBaseHost: String?,
+        compiledRule: CompiledRule,
+    ): Boolean {
+        val regex = compiledRule.regex ?: return false
+        if (!portStrippedUrl.matches(regex)) return false
+        val ruleDomains = compiledRule.rule.domains
+        return ruleDomains.contains("<all>") || ruleDomains.any { domain -> UriString.sameOrSubdomainOfHost(documentBaseHost, domain) }
+    }
+
+    private fun matchesRule(
+        portStrippedUrl: String,
+        documentBaseHost: String?,
+        trackerAllowlist: TrackerAllowlistEntity,
+    ): Boolean {
+        return trackerAllowlist.rules.any {
+            val regex = ".*${it.rule}.*".toRegex()
+            portStrippedUrl.matches(regex) &&
+                (it.domains.contains("<all>") || it.domains.any { domain -> UriString.sameOrSubdomainOfHost(documentBaseHost, domain) })
+        }
+    }
 }
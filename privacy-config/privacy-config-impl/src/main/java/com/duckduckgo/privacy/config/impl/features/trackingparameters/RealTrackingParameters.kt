@@ -28,6 +28,8 @@ import com.duckduckgo.feature.toggles.api.FeatureToggle
 import com.duckduckgo.privacy.config.api.PrivacyFeatureName
 import com.duckduckgo.privacy.config.api.TrackingParameters
 import com.duckduckgo.privacy.config.api.UnprotectedTemporary
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionIndex
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionList.TRACKING_PARAMETERS
 import com.duckduckgo.privacy.config.store.features.trackingparameters.TrackingParametersRepository
 import com.squareup.anvil.annotations.ContributesBinding
 import dagger.SingleInstanceIn
@@ -46,13 +48,28 @@ class RealTrackingParameters @Inject constructor(
     private val featureToggle: FeatureToggle,
     private val unprotectedTemporary: UnprotectedTemporary,
     private val userAllowListRepository: UserAllowListRepository,
+    private val privacyExceptionIndex: PrivacyExceptionIndex,
 ) : TrackingParameters {
 
     override var lastCleanedUrl: String? = null
 
     @VisibleForTesting
     fun isAnException(initiatingUrl: String?, url: String): Boolean {
-        return matches(initiatingUrl) || matches(url) || unprotectedTemporary.isAnException(url) || userAllowListRepository.isUrlInUserAllowList(url)
+        val isConfigException = indexedException(initiatingUrl, url)
+            ?: (matches(initiatingUrl) || matches(url) || unprotectedTemporary.isAnException(url))
+        return isConfigException || userAllowListRepository.isUrlInUserAllowList(url)
+    }
+
+    /**
+     * @return whether [url], or the [initiatingUrl], is a config exception according to the [PrivacyExceptionIndex], or null if the
+     * index has not been built yet
+     */
+    private fun indexedException(initiatingUrl: String?, url: String): Boolean? {
+        val exceptions = privacyExceptionIndex.exceptionsFor(UriString.host(url)) ?: return null
+        if (exceptions.isAnException(TRACKING_PARAMETERS)) return true
+        if (initiatingUrl == null) return false
+        // only the tracking parameters list applies to the initiating url
+        return privacyExceptionIndex.exceptionsFor(UriString.host(initiatingUrl))?.contains(TRACKING_PARAMETERS) == true
     }
 
     private fun matches(url: String?): Boolean {
@@ -37,6 +37,6 @@ class RealUnprotectedTemporary @Inject constructor(private val repository: Unpro
         get() = repository.exceptions
 
     private fun matches(url: String): Boolean {
-        return repository.exceptions.any { UriString.sameOrSubdomain(url, it.domain) }
+        return repository.exceptionDomains.containsSameOrParentOf(UriString.host(url))
     }
 }
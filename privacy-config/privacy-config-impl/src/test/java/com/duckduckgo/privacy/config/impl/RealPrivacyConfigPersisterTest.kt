@@ -27,6 +27,8 @@ import com.duckduckgo.feature.toggles.api.FeatureException
 import com.duckduckgo.privacy.config.api.PrivacyConfigCallbackPlugin
 import com.duckduckgo.privacy.config.api.PrivacyFeatureName
 import com.duckduckgo.privacy.config.api.PrivacyFeaturePlugin
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionList.CONTENT_BLOCKING
+import com.duckduckgo.privacy.config.impl.features.RealPrivacyExceptionIndex
 import com.duckduckgo.privacy.config.impl.models.JsonPrivacyConfig
 import com.duckduckgo.privacy.config.store.PrivacyConfig
 import com.duckduckgo.privacy.config.store.PrivacyConfigDatabase
@@ -40,13 +42,17 @@ import kotlinx.coroutines.test.runTest
 import org.json.JSONObject
 import org.junit.After
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
 import org.junit.Assert.assertNotEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
 import org.junit.Before
 import org.junit.Rule
 import org.junit.Test
 import org.junit.runner.RunWith
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.never
+import org.mockito.kotlin.times
 import org.mockito.kotlin.verify
 import org.robolectric.RuntimeEnvironment
 
@@ -60,6 +66,7 @@ class RealPrivacyConfigPersisterTest {
     private lateinit var db: PrivacyConfigDatabase
     private lateinit var privacyRepository: PrivacyConfigRepository
     private lateinit var unprotectedTemporaryRepository: UnprotectedTemporaryRepository
+    private lateinit var privacyExceptionIndex: RealPrivacyExceptionIndex
     private val pluginPoint = FakePrivacyFeaturePluginPoint(listOf(FakePrivacyFeaturePlugin()))
     private val callback = FakePrivacyConfigCallbackPlugin()
     private val persisterPluginPoint = FakeFakePrivacyConfigCallbackPluginPoint(listOf(callback))
@@ -87,6 +94,7 @@ class RealPrivacyConfigPersisterTest {
                 db,
                 sharedPreferences,
                 persisterPluginPoint,
+                privacyExceptionIndex,
             )
     }
 
@@ -101,6 +109,7 @@ class RealPrivacyConfigPersisterTest {
                 .allowMainThreadQueries()
                 .build()
         privacyRepository = RealPrivacyConfigRepository(db)
+        privacyExceptionIndex = RealPrivacyExceptionIndex(db)
         unprotectedTemporaryRepository =
             RealUnprotectedTemporaryRepository(
                 db,
@@ -147,6 +156,27 @@ class RealPrivacyConfigPersisterTest {
             assertEquals(1, unprotectedTemporaryRepository.exceptions.size)
         }
 
+    @Test
+    fun whenPersistPrivacyConfigThenExceptionIndexIsRebuilt() =
+        runTest {
+            assertNull(privacyExceptionIndex.exceptionsFor("sub.example.com"))
+
+            testee.persistPrivacyConfig(getJsonPrivacyConfig())
+
+            assertTrue(privacyExceptionIndex.exceptionsFor("sub.example.com")!!.isAnException(CONTENT_BLOCKING))
+            assertFalse(privacyExceptionIndex.exceptionsFor("example.org")!!.isAnException(CONTENT_BLOCKING))
+        }
+
+    @Test
+    fun whenPersistPrivacyConfigWithLowerVersionThenExceptionIndexIsBuiltFromStoredExceptions() =
+        runTest {
+            testee.persistPrivacyConfig(getJsonPrivacyConfig())
+
+            testee.persistPrivacyConfig(getJsonPrivacyConfig().copy(version = 1, unprotectedTemporary = emptyList()))
+
+            assertTrue(privacyExceptionIndex.exceptionsFor("example.com")!!.isAnException(CONTENT_BLOCKING))
+        }
+
     @Test
     fun whenPersistPrivacyConfigAndPluginMatchesFeatureNameThenStoreCalled() =
         runTest {
@@ -171,6 +201,7 @@ class RealPrivacyConfigPersisterTest {
                     db,
                     sharedPreferences,
                     persisterPluginPoint,
+                    privacyExceptionIndex,
                 )
             testee.persistPrivacyConfig(getJsonPrivacyConfig())
 
@@ -246,6 +277,58 @@ class RealPrivacyConfigPersisterTest {
             assertEquals(2, privacyRepository.get()!!.version)
         }
 
+    @Test
+    fun whenPersistNewerPrivacyConfigWithUnchangedFeatureThenFeatureNotStoredAgain() =
+        runTest {
+            testee.persistPrivacyConfig(getJsonPrivacyConfig())
+
+            testee.persistPrivacyConfig(getJsonPrivacyConfig().copy(version = 3))
+
+            val plugin = pluginPoint.getPlugins().first() as FakePrivacyFeaturePlugin
+            assertEquals(1, plugin.count)
+            assertEquals(3, privacyRepository.get()!!.version)
+            verify(mockTogglesRepository).deleteAll()
+            verify(mockTogglesRepository, never()).delete(FEATURE_NAME)
+        }
+
+    @Test
+    fun whenPersistNewerPrivacyConfigWithChangedFeatureThenOnlyThatFeatureStoredAgain() =
+        runTest {
+            testee.persistPrivacyConfig(getJsonPrivacyConfig())
+
+            testee.persistPrivacyConfig(
+                getJsonPrivacyConfig().copy(version = 3, features = mapOf(FEATURE_NAME to JSONObject("{\"state\": \"disabled\"}"))),
+            )
+
+            val plugin = pluginPoint.getPlugins().first() as FakePrivacyFeaturePlugin
+            assertEquals(2, plugin.count)
+            verify(mockTogglesRepository).deleteAll()
+            verify(mockTogglesRepository).delete(FEATURE_NAME)
+        }
+
+    @Test
+    fun whenPersistNewerPrivacyConfigWithoutAFeatureThenItsToggleIsDeleted() =
+        runTest {
+            testee.persistPrivacyConfig(getJsonPrivacyConfig())
+
+            testee.persistPrivacyConfig(getJsonPrivacyConfig().copy(version = 3, features = emptyMap()))
+
+            verify(mockTogglesRepository).delete(FEATURE_NAME)
+        }
+
+    @Test
+    fun whenPersistPrivacyConfigWithDifferentPluginsThenUnchangedFeatureStoredAgain() =
+        runTest {
+            testee.persistPrivacyConfig(getJsonPrivacyConfig())
+            sharedPreferences.edit { putInt("plugin_signature", 0) }
+
+            testee.persistPrivacyConfig(getJsonPrivacyConfig().copy(version = 3))
+
+            val plugin = pluginPoint.getPlugins().first() as FakePrivacyFeaturePlugin
+            assertEquals(2, plugin.count)
+            verify(mockTogglesRepository, times(2)).deleteAll()
+        }
+
     @Test
     fun whenPersistPrivacyConfigThenExecutePlugins() =
         runTest {
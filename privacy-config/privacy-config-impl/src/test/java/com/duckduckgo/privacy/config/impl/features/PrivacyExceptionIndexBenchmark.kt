@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.privacy.config.impl.features
+
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.duckduckgo.app.browser.DomainSuffixMap
+import com.duckduckgo.app.browser.UriString.Companion.host
+import com.duckduckgo.app.browser.UriString.Companion.sameOrSubdomain
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionList.AMP_LINKS
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionList.CONTENT_BLOCKING
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionList.GPC
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionList.HTTPS
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionList.TRACKING_PARAMETERS
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionList.UNPROTECTED_TEMPORARY
+import org.json.JSONArray
+import org.json.JSONObject
+import org.junit.Before
+import org.junit.Ignore
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.io.File
+import kotlin.random.Random
+
+/**
+ * Microbenchmark comparing the per-feature exception checks (each feature scanning its own list with sameOrSubdomain) against
+ * a single [PrivacyExceptionIndex] lookup answering every feature at once, using the privacy config bundled in the app
+ * (`R.raw.privacy_config`).
+ *
+ * Not part of the regular test suite — the @Test method is @Ignore'd. To run, remove the @Ignore annotation, then:
+ *
+ *   JAVA_HOME=/path/to/java21 ./gradlew :privacy-config-impl:testDebugUnitTest \
+ *     --tests "com.duckduckgo.privacy.config.impl.features.PrivacyExceptionIndexBenchmark" \
+ *     --info
+ *
+ * Each request asks all six lists, as a page load does across content blocking, https, gpc, amp links and tracking parameters.
+ * 90% of the urls are on no list, the rest are sampled from the config exceptions, half of them as subdomains.
+ */
+@Ignore("Microbenchmark — remove this annotation and run with --info to see results")
+@RunWith(AndroidJUnit4::class)
+class PrivacyExceptionIndexBenchmark {
+
+    private lateinit var domainsByList: Map<PrivacyExceptionList, List<String>>
+    private lateinit var urls: List<String>
+
+    @Before
+    fun loadPrivacyConfig() {
+        val config = JSONObject(locatePrivacyConfigFile().readText())
+        val features = config.getJSONObject("features")
+        fun exceptionsOf(feature: String): List<String> {
+            return features.optJSONObject(feature)?.optJSONArray("exceptions").domains()
+        }
+        domainsByList = mapOf(
+            UNPROTECTED_TEMPORARY to config.optJSONArray("unprotectedTemporary").domains(),
+            CONTENT_BLOCKING to exceptionsOf("contentBlocking"),
+            HTTPS to exceptionsOf("https"),
+            GPC to exceptionsOf("gpc"),
+            AMP_LINKS to exceptionsOf("ampLinks"),
+            TRACKING_PARAMETERS to exceptionsOf("trackingParameters"),
+        )
+        urls = buildUrlMix(domainsByList.values.flatten())
+    }
+
+    private fun locatePrivacyConfigFile(): File {
+        // Test runner CWD is usually the module root; fall back to repo root.
+        listOf("src/main/res/raw/privacy_config.json", "privacy-config/privacy-config-impl/src/main/res/raw/privacy_config.json").forEach {
+            val file = File(it)
+            if (file.exists()) return file
+        }
+        error("Could not locate privacy_config.json. CWD: ${File(".").absolutePath}")
+    }
+
+    @Test
+    fun benchmarkListScansVsIndex() {
+        val index = buildPrivacyExceptionIndex(domainsByList)
+        val lists = domainsByList.values.toList()
+
+        var sink = 0
+        repeat(WARMUP_ITERATIONS) {
+            urls.forEach { url -> sink += scanLists(lists, url) + lookupIndex(index, url) }
+        }
+
+        val scanStart = System.nanoTime()
+        repeat(MEASUREMENT_ITERATIONS) { urls.forEach { url -> sink += scanLists(lists, url) } }
+        val scanTotal = System.nanoTime() - scanStart
+
+        val indexStart = System.nanoTime()
+        repeat(MEASUREMENT_ITERATIONS) { urls.forEach { url -> sink += lookupIndex(index, url) } }
+        val indexTotal = System.nanoTime() - indexStart
+
+        val totalRequests = (MEASUREMENT_ITERATIONS * urls.size).toLong()
+        val scanPerRequest = scanTotal / totalRequests
+        val indexPerRequest = indexTotal / totalRequests
+
+        println("===== Privacy exception index microbenchmark =====")
+        domainsByList.forEach { (list, domains) -> println("${list.name.padEnd(32)} ${domains.size} domains") }
+        println("URL mix size:                    ${urls.size} (90% no exception, 10% exception)")
+        println("Total requests per path:         $totalRequests")
+        println()
+        println("Per-feature list scans:          $scanPerRequest ns/request")
+        println("Single index lookup:             $indexPerRequest ns/request")
+        if (indexPerRequest > 0L) {
+            val speedup = scanPerRequest.toDouble() / indexPerRequest.toDouble()
+            println("Speedup:                         ${"%.1f".format(speedup)}x")
+        }
+        println("(sink $sink)")
+        println("==================================================")
+    }
+
+    private fun scanLists(
+        lists: List<List<String>>,
+        url: String,
+    ): Int {
+        return lists.count { domains -> domains.any { sameOrSubdomain(url, it) } }
+    }
+
+    private fun lookupIndex(
+        index: DomainSuffixMap<PrivacyExceptions>,
+        url: String,
+    ): Int {
+        val exceptions = index.findSameOrParentOf(host(url)) ?: PrivacyExceptions.NONE
+        return PrivacyExceptionList.entries.count { exceptions.isAnException(it) }
+    }
+
+    private fun JSONArray?.domains(): List<String> {
+        this ?: return emptyList()
+        return List(length()) { getJSONObject(it).getString("domain") }
+    }
+
+    private fun buildUrlMix(domains: List<String>): List<String> {
+        val random = Random(SEED)
+        val noException = List(URL_MIX_NO_EXCEPTION) { "https://site$it.example/page.html" }
+        val exceptions = List(URL_MIX_EXCEPTION) { idx ->
+            val domain = domains.random(random)
+            if (idx % 2 == 0) "https://$domain/page.html" else "https://sub.$domain/page.html"
+        }
+        return (noException + exceptions).shuffled(random)
+    }
+
+    companion object {
+        private const val SEED = 42
+        private const val URL_MIX_NO_EXCEPTION = 900
+        private const val URL_MIX_EXCEPTION = 100
+        private const val WARMUP_ITERATIONS = 20
+        private const val MEASUREMENT_ITERATIONS = 100
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.privacy.config.impl.features
+
+import androidx.room.Room
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionList.AMP_LINKS
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionList.CONTENT_BLOCKING
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionList.GPC
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionList.HTTPS
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionList.UNPROTECTED_TEMPORARY
+import com.duckduckgo.privacy.config.store.ContentBlockingExceptionEntity
+import com.duckduckgo.privacy.config.store.PrivacyConfigDatabase
+import org.junit.After
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RuntimeEnvironment
+
+@RunWith(AndroidJUnit4::class)
+class PrivacyExceptionIndexTest {
+
+    private val db = Room.inMemoryDatabaseBuilder(RuntimeEnvironment.getApplication(), PrivacyConfigDatabase::class.java)
+        .allowMainThreadQueries()
+        .build()
+
+    private val testee = RealPrivacyExceptionIndex(db)
+
+    @After
+    fun after() {
+        db.close()
+    }
+
+    @Test
+    fun whenIndexWasNotRebuiltThenExceptionsForReturnsNull() {
+        assertNull(testee.exceptionsFor("example.com"))
+    }
+
+    @Test
+    fun whenIndexIsRebuiltThenExceptionsAreServedFromPersistedLists() {
+        db.contentBlockingDao().insertAll(listOf(ContentBlockingExceptionEntity("example.com", "reason")))
+
+        testee.rebuild()
+
+        assertTrue(testee.exceptionsFor("sub.example.com")!!.isAnException(CONTENT_BLOCKING))
+        assertFalse(testee.exceptionsFor("sub.example.com")!!.isAnException(GPC))
+    }
+
+    @Test
+    fun whenHostIsNotOnAnyListThenExceptionsForReturnsNone() {
+        testee.rebuild()
+
+        assertSame(PrivacyExceptions.NONE, testee.exceptionsFor("example.com"))
+        assertSame(PrivacyExceptions.NONE, testee.exceptionsFor(null))
+    }
+
+    @Test
+    fun whenSubdomainIsOnAnotherListThenItAlsoCarriesTheListsOfItsParent() {
+        val index = buildPrivacyExceptionIndex(
+            mapOf(
+                CONTENT_BLOCKING to listOf("example.com"),
+                HTTPS to listOf("sub.example.com"),
+            ),
+        )
+
+        val exceptions = index.findSameOrParentOf("www.sub.example.com")!!
+
+        assertTrue(CONTENT_BLOCKING in exceptions)
+        assertTrue(HTTPS in exceptions)
+        assertFalse(HTTPS in index.findSameOrParentOf("other.example.com")!!)
+    }
+
+    @Test
+    fun whenHostIsOnUnprotectedTemporaryListThenItIsAnExceptionForEveryList() {
+        val index = buildPrivacyExceptionIndex(mapOf(UNPROTECTED_TEMPORARY to listOf("example.com")))
+
+        val exceptions = index.findSameOrParentOf("example.com")!!
+
+        PrivacyExceptionList.entries.forEach { assertTrue(exceptions.isAnException(it)) }
+        assertFalse(AMP_LINKS in exceptions)
+    }
+
+    @Test
+    fun whenDomainHasWwwPrefixThenItMatchesTheBareDomain() {
+        val index = buildPrivacyExceptionIndex(mapOf(GPC to listOf("www.example.com")))
+
+        assertNotNull(index.findSameOrParentOf("example.com"))
+        assertNull(index.findSameOrParentOf("anotherexample.com"))
+    }
+
+    @Test
+    fun whenHostsAreOnTheSameListsThenTheyShareTheSameExceptions() {
+        val index = buildPrivacyExceptionIndex(mapOf(GPC to listOf("example.com", "example.org")))
+
+        assertSame(index.findSameOrParentOf("example.com"), index.findSameOrParentOf("example.org"))
+    }
+}
@@ -38,7 +38,7 @@ class RealAmpLinksTest {
 
     @Before
     fun setup() {
-        testee = RealAmpLinks(mockAmpLinksRepository, mockFeatureToggle, mockUnprotectedTemporary, mockUserAllowListRepository)
+        testee = RealAmpLinks(mockAmpLinksRepository, mockFeatureToggle, mockUnprotectedTemporary, mockUserAllowListRepository, mock())
     }
 
     @Test
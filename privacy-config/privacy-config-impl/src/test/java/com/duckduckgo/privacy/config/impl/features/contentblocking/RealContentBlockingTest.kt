@@ -17,10 +17,13 @@
 package com.duckduckgo.privacy.config.impl.features.contentblocking
 
 import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.duckduckgo.app.browser.DomainSuffixSet
+import com.duckduckgo.app.browser.ParsedRequest
 import com.duckduckgo.feature.toggles.api.FeatureException
 import com.duckduckgo.feature.toggles.api.FeatureToggle
 import com.duckduckgo.privacy.config.api.PrivacyFeatureName
 import com.duckduckgo.privacy.config.api.UnprotectedTemporary
+import com.duckduckgo.privacy.config.impl.features.PrivacyExceptionIndex
 import com.duckduckgo.privacy.config.store.features.contentblocking.ContentBlockingRepository
 import org.junit.Assert.*
 import org.junit.Before
@@ -38,6 +41,7 @@ class RealContentBlockingTest {
     private val mockContentBlockingRepository: ContentBlockingRepository = mock()
     private val mockUnprotectedTemporary: UnprotectedTemporary = mock()
     private val mockFeatureToggle: FeatureToggle = mock()
+    private val mockPrivacyExceptionIndex: PrivacyExceptionIndex = mock()
 
     @Before
     fun before() {
@@ -48,6 +52,7 @@ class RealContentBlockingTest {
                 mockContentBlockingRepository,
                 mockFeatureToggle,
                 mockUnprotectedTemporary,
+                mockPrivacyExceptionIndex,
             )
     }
 
@@ -68,6 +73,7 @@ class RealContentBlockingTest {
     @Test
     fun whenIsAnExceptionAndDomainIsNotListedInTheExceptionsListThenReturnFalse() {
         whenever(mockContentBlockingRepository.exceptions).thenReturn(CopyOnWriteArrayList())
+        whenever(mockContentBlockingRepository.exceptionDomains).thenReturn(DomainSuffixSet.EMPTY)
 
         assertFalse(testee.isAnException("http://test.example.com"))
     }
@@ -77,6 +83,7 @@ class RealContentBlockingTest {
         val url = "http://test.example.com"
         whenever(mockUnprotectedTemporary.isAnException(url)).thenReturn(true)
         whenever(mockContentBlockingRepository.exceptions).thenReturn(CopyOnWriteArrayList())
+        whenever(mockContentBlockingRepository.exceptionDomains).thenReturn(DomainSuffixSet.EMPTY)
 
         assertTrue(testee.isAnException(url))
     }
@@ -89,12 +96,38 @@ class RealContentBlockingTest {
         assertFalse(testee.isAnException("http://test.example.com"))
     }
 
+    @Test
+    fun whenIsAnExceptionWithParsedHostAndDomainIsListedInTheExceptionsListThenReturnTrue() {
+        givenThereAreExceptions()
+        val request = ParsedRequest.of("http://www.test.example.com")
+
+        assertTrue(testee.isAnException(request.url, request.baseHost))
+    }
+
+    @Test
+    fun whenIsAnExceptionWithParsedHostAndDomainIsOnlyASuffixOfAListedDomainThenReturnFalse() {
+        givenThereAreExceptions()
+        val request = ParsedRequest.of("http://notexample.com")
+
+        assertFalse(testee.isAnException(request.url, request.baseHost))
+    }
+
+    @Test
+    fun whenIsAnExceptionWithParsedHostAndFeatureIsDisabledThenReturnFalse() {
+        givenThereAreExceptions()
+        givenFeatureIsDisabled()
+        val request = ParsedRequest.of("http://test.example.com")
+
+        assertFalse(testee.isAnException(request.url, request.baseHost))
+    }
+
     private fun givenThereAreExceptions() {
         val exceptions =
             CopyOnWriteArrayList<FeatureException>().apply {
                 add(FeatureException("example.com", "my reason here"))
             }
         whenever(mockContentBlockingRepository.exceptions).thenReturn(exceptions)
+        whenever(mockContentBlockingRepository.exceptionDomains).thenReturn(DomainSuffixSet.fromDomains(exceptions.map { it.domain }))
     }
 
     private fun givenFeatureIsEnabled() {
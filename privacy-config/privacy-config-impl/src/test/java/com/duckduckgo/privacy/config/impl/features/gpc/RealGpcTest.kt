@@ -17,6 +17,7 @@
 package com.duckduckgo.privacy.config.impl.features.gpc
 
 import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.duckduckgo.app.browser.DomainSuffixSet
 import com.duckduckgo.app.privacy.db.UserAllowListRepository
 import com.duckduckgo.feature.toggles.api.FeatureToggle
 import com.duckduckgo.privacy.config.api.GpcException
@@ -51,10 +52,12 @@ class RealGpcTest {
         val headers =
             CopyOnWriteArrayList<GpcHeaderEnabledSite>().apply { add(GpcHeaderEnabledSite(VALID_CONSUMER_URL)) }
         whenever(mockGpcRepository.exceptions).thenReturn(exceptions)
+        whenever(mockGpcRepository.exceptionDomains).thenReturn(DomainSuffixSet.fromDomains(exceptions.map { it.domain }))
         whenever(mockGpcRepository.headerEnabledSites).thenReturn(headers)
+        whenever(mockGpcRepository.headerEnabledDomains).thenReturn(DomainSuffixSet.fromDomains(headers.map { it.domain }))
 
         testee =
-            RealGpc(mockFeatureToggle, mockGpcRepository, mockUnprotectedTemporary, mockUserAllowListRepository)
+            RealGpc(mockFeatureToggle, mockGpcRepository, mockUnprotectedTemporary, mockUserAllowListRepository, mock())
     }
 
     @Test
@@ -147,6 +150,7 @@ class RealGpcTest {
         val exceptions =
             CopyOnWriteArrayList<GpcException>().apply { add(GpcException(VALID_CONSUMER_URL)) }
         whenever(mockGpcRepository.exceptions).thenReturn(exceptions)
+        whenever(mockGpcRepository.exceptionDomains).thenReturn(DomainSuffixSet.fromDomains(exceptions.map { it.domain }))
         givenFeatureAndGpcAreEnabled()
 
         assertFalse(testee.canUrlAddHeaders(VALID_CONSUMER_URL, emptyMap()))
@@ -38,7 +38,7 @@ class RealHttpsTest {
 
     @Before
     fun before() {
-        testee = RealHttps(mockHttpsRepository, mockUnprotectedTemporary, mockUserAllowListRepository)
+        testee = RealHttps(mockHttpsRepository, mockUnprotectedTemporary, mockUserAllowListRepository, mock())
     }
 
     @Test
@@ -17,6 +17,7 @@
 package com.duckduckgo.privacy.config.impl.features.trackerallowlist
 
 import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.duckduckgo.app.browser.ParsedRequest
 import com.duckduckgo.feature.toggles.api.FeatureToggle
 import com.duckduckgo.privacy.config.store.AllowlistRuleEntity
 import com.duckduckgo.privacy.config.store.TrackerAllowlistEntity
@@ -183,6 +184,51 @@ class RealTrackerAllowlistTest {
         assertFalse(testee.isAnException("https://site.com", "https://tracker.com/bad.js"))
     }
 
+    @Test
+    fun whenParsedRequestMatchesRuleThenReturnsSameResultAsStringUrls() {
+        givenAllowlistContains(
+            TrackerAllowlistEntity(
+                domain = "tracker.com",
+                rules = listOf(
+                    AllowlistRuleEntity(rule = "tracker.com/videos.js", domains = listOf("site.com"), reason = ""),
+                ),
+            ),
+        )
+
+        listOf(false, true).forEach { optimized ->
+            whenever(mockOptimizeTrackerAllowListRCWrapper.enabled).thenReturn(optimized)
+            listOf(
+                "https://www.site.com" to "https://a.tracker.com:8080/videos.js",
+                "https://site.com" to "https://tracker.com/other.js",
+                "https://other.com" to "https://tracker.com/videos.js",
+                "https://site.com" to "https://nottracker.com/videos.js",
+            ).forEach { (documentUrl, url) ->
+                assertEquals(testee.isAnException(documentUrl, url), isAnException(ParsedRequest.of(documentUrl), ParsedRequest.of(url)))
+            }
+        }
+        assertTrue(isAnException(ParsedRequest.of("https://www.site.com"), ParsedRequest.of("https://a.tracker.com:8080/videos.js")))
+    }
+
+    @Test
+    fun whenParsedRequestAndFeatureDisabledThenReturnsFalse() {
+        whenever(mockFeatureToggle.isFeatureEnabled(any(), any())).thenReturn(false)
+        givenAllowlistContains(
+            TrackerAllowlistEntity(
+                domain = "tracker.com",
+                rules = listOf(
+                    AllowlistRuleEntity(rule = "tracker.com/videos.js", domains = listOf("<all>"), reason = ""),
+                ),
+            ),
+        )
+
+        assertFalse(isAnException(ParsedRequest.of("https://site.com"), ParsedRequest.of("https://tracker.com/videos.js")))
+    }
+
+    private fun isAnException(
+        documentUrl: ParsedRequest,
+        url: ParsedRequest,
+    ): Boolean = testee.isAnException(documentUrl.url, documentUrl.baseHost, url.url, url.baseHost, url.portStrippedUrl)
+
     private fun givenDomainIsAnException(domain: String) {
         givenAllowlistContains(TrackerAllowlistEntity(domain, emptyList()))
     }
@@ -50,7 +50,13 @@ class RealTrackingParametersTest {
         whenever(mockTrackingParametersRepository.parameters).thenReturn(listOf(TRACKING_PARAMETER))
         whenever(mockUserAllowListRepository.isUrlInUserAllowList(anyString())).thenReturn(false)
         whenever(mockUnprotectedTemporary.isAnException(anyString())).thenReturn(false)
-        testee = RealTrackingParameters(mockTrackingParametersRepository, mockFeatureToggle, mockUnprotectedTemporary, mockUserAllowListRepository)
+        testee = RealTrackingParameters(
+            mockTrackingParametersRepository,
+            mockFeatureToggle,
+            mockUnprotectedTemporary,
+            mockUserAllowListRepository,
+            mock(),
+        )
     }
 
     @Test
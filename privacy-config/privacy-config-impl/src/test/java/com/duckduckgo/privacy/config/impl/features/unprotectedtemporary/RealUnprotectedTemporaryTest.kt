@@ -17,6 +17,7 @@
 package com.duckduckgo.privacy.config.impl.features.unprotectedtemporary
 
 import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.duckduckgo.app.browser.DomainSuffixSet
 import com.duckduckgo.feature.toggles.api.FeatureException
 import com.duckduckgo.privacy.config.store.features.unprotectedtemporary.UnprotectedTemporaryRepository
 import org.junit.Assert.*
@@ -55,6 +56,7 @@ class RealUnprotectedTemporaryTest {
     fun whenIsAnExceptionAndDomainIsNotListedInTheExceptionsListThenReturnFalse() {
         val exceptions = CopyOnWriteArrayList<FeatureException>()
         whenever(mockUnprotectedTemporaryRepository.exceptions).thenReturn(exceptions)
+        whenever(mockUnprotectedTemporaryRepository.exceptionDomains).thenReturn(DomainSuffixSet.fromDomains(exceptions.map { it.domain }))
 
         assertFalse(testee.isAnException("http://test.example.com"))
     }
@@ -64,5 +66,6 @@ class RealUnprotectedTemporaryTest {
         exceptions.add(FeatureException("example.com", "my reason here"))
 
         whenever(mockUnprotectedTemporaryRepository.exceptions).thenReturn(exceptions)
+        whenever(mockUnprotectedTemporaryRepository.exceptionDomains).thenReturn(DomainSuffixSet.fromDomains(exceptions.map { it.domain }))
     }
 }
@@ -52,7 +52,7 @@ class AmpKeywordReferenceTest(private val testCase: TestCase) {
     @Before
     fun setup() {
         mockAmpLinks()
-        testee = RealAmpLinks(mockRepository, mockFeatureToggle, mockUnprotectedTemporary, mockUserAllowListRepository)
+        testee = RealAmpLinks(mockRepository, mockFeatureToggle, mockUnprotectedTemporary, mockUserAllowListRepository, mock())
         whenever(mockUnprotectedTemporary.isAnException(any())).thenReturn(false)
         whenever(mockFeatureToggle.isFeatureEnabled(PrivacyFeatureName.AmpLinksFeatureName.value, true)).thenReturn(true)
     }
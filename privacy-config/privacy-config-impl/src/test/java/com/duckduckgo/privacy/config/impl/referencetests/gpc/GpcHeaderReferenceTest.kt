@@ -16,6 +16,7 @@
 
 package com.duckduckgo.privacy.config.impl.referencetests.gpc
 
+import com.duckduckgo.app.browser.DomainSuffixSet
 import com.duckduckgo.app.privacy.db.UserAllowListRepository
 import com.duckduckgo.common.test.FileUtilities
 import com.duckduckgo.feature.toggles.api.FeatureToggle
@@ -72,7 +73,13 @@ class GpcHeaderReferenceTest(private val testCase: TestCase) {
     fun setup() {
         whenever(mockGpcRepository.isGpcEnabled()).thenReturn(testCase.gpcUserSettingOn)
         mockGpcPrivacyConfig()
-        gpc = RealGpc(mockFeatureToggle, mockGpcRepository, RealUnprotectedTemporary(mockUnprotectedTemporaryRepository), mockUserAllowListRepository)
+        gpc = RealGpc(
+            mockFeatureToggle,
+            mockGpcRepository,
+            RealUnprotectedTemporary(mockUnprotectedTemporaryRepository),
+            mockUserAllowListRepository,
+            mock(),
+        )
     }
 
     @Test
@@ -106,7 +113,10 @@ class GpcHeaderReferenceTest(private val testCase: TestCase) {
 
         whenever(mockFeatureToggle.isFeatureEnabled(PrivacyFeatureName.GpcFeatureName.value, isEnabled)).thenReturn(isEnabled)
         whenever(mockGpcRepository.exceptions).thenReturn(CopyOnWriteArrayList(gpcExceptions))
+        whenever(mockGpcRepository.exceptionDomains).thenReturn(DomainSuffixSet.fromDomains(gpcExceptions.map { it.domain }))
         whenever(mockUnprotectedTemporaryRepository.exceptions).thenReturn(exceptionsUnprotectedTemporary)
+        whenever(mockUnprotectedTemporaryRepository.exceptionDomains)
+            .thenReturn(DomainSuffixSet.fromDomains(exceptionsUnprotectedTemporary.map { it.domain }))
     }
 
     data class TestCase(
@@ -87,6 +87,7 @@ class PrivacyConfigDisabledReferenceTest(private val testCase: TestCase) {
             db,
             InMemorySharedPreferences(),
             mock(),
+            mock(),
         )
     }
 
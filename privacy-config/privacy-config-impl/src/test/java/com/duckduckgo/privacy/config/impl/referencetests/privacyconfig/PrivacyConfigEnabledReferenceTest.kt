@@ -86,6 +86,7 @@ class PrivacyConfigEnabledReferenceTest(private val testCase: TestCase) {
             db,
             InMemorySharedPreferences(),
             mock(),
+            mock(),
         )
     }
 
@@ -23,6 +23,7 @@ import com.duckduckgo.common.test.api.InMemorySharedPreferences
 import com.duckduckgo.feature.toggles.api.FeatureToggle
 import com.duckduckgo.privacy.config.impl.RealPrivacyConfigPersister
 import com.duckduckgo.privacy.config.impl.ReferenceTestUtilities
+import com.duckduckgo.privacy.config.impl.features.RealPrivacyExceptionIndex
 import com.duckduckgo.privacy.config.impl.features.contentblocking.RealContentBlocking
 import com.duckduckgo.privacy.config.impl.features.unprotectedtemporary.RealUnprotectedTemporary
 import com.duckduckgo.privacy.config.impl.network.JSONObjectAdapter
@@ -51,6 +52,7 @@ class PrivacyConfigGlobalExceptionsReferenceTest(private val testCase: TestCase)
 
     private lateinit var testee: RealContentBlocking
     private lateinit var privacyConfigPersister: RealPrivacyConfigPersister
+    private lateinit var privacyExceptionIndex: RealPrivacyExceptionIndex
     private val mockTogglesRepository: PrivacyFeatureTogglesRepository = mock()
     private val mockFeatureToggle: FeatureToggle = mock()
 
@@ -101,7 +103,7 @@ class PrivacyConfigGlobalExceptionsReferenceTest(private val testCase: TestCase)
 
     private fun testFeatureEnabledForContentBlocking() {
         val unprotectedTemporary = RealUnprotectedTemporary(referenceTestUtilities.unprotectedTemporaryRepository)
-        testee = RealContentBlocking(referenceTestUtilities.contentBlockingRepository, mockFeatureToggle, unprotectedTemporary)
+        testee = RealContentBlocking(referenceTestUtilities.contentBlockingRepository, mockFeatureToggle, unprotectedTemporary, privacyExceptionIndex)
         val isFeatureEnabled = !testee.isAnException(testCase.siteURL)
 
         assertEquals(testCase.expectFeatureEnabled, isFeatureEnabled)
@@ -116,6 +118,7 @@ class PrivacyConfigGlobalExceptionsReferenceTest(private val testCase: TestCase)
 
     private fun loadPrivacyConfig() = runTest {
         referenceTestUtilities = ReferenceTestUtilities(db, coroutineRule.testDispatcherProvider)
+        privacyExceptionIndex = RealPrivacyExceptionIndex(db)
         privacyConfigPersister = RealPrivacyConfigPersister(
             referenceTestUtilities.getPrivacyFeaturePluginPoint(),
             referenceTestUtilities.getVariantManagerPlugin(),
@@ -125,6 +128,7 @@ class PrivacyConfigGlobalExceptionsReferenceTest(private val testCase: TestCase)
             db,
             InMemorySharedPreferences(),
             mock(),
+            privacyExceptionIndex,
         )
         privacyConfigPersister.persistPrivacyConfig(
             referenceTestUtilities.getJsonPrivacyConfig(
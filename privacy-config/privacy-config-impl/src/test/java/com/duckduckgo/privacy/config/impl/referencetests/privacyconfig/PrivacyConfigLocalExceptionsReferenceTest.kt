@@ -99,7 +99,7 @@ class PrivacyConfigLocalExceptionsReferenceTest(private val testCase: TestCase)
     }
 
     private fun testFeatureEnabledForContentBlocking() {
-        testee = RealContentBlocking(referenceTestUtilities.contentBlockingRepository, mockFeatureToggle, mock())
+        testee = RealContentBlocking(referenceTestUtilities.contentBlockingRepository, mockFeatureToggle, mock(), mock())
         val isFeatureEnabled = !testee.isAnException(testCase.siteURL)
 
         assertEquals(testCase.expectFeatureEnabled, isFeatureEnabled)
@@ -123,6 +123,7 @@ class PrivacyConfigLocalExceptionsReferenceTest(private val testCase: TestCase)
             db,
             InMemorySharedPreferences(),
             mock(),
+            mock(),
         )
         privacyConfigPersister.persistPrivacyConfig(
             referenceTestUtilities.getJsonPrivacyConfig(
@@ -88,6 +88,7 @@ class PrivacyConfigMissingReferenceTest(private val testCase: TestCase) {
             db,
             InMemorySharedPreferences(),
             mock(),
+            mock(),
         )
     }
 
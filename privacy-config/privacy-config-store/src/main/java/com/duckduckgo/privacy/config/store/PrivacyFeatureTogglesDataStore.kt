@@ -30,6 +30,7 @@ interface PrivacyFeatureTogglesDataStore {
     fun getMinSupportedVersion(featureName: PrivacyFeatureName): Int
 
     fun insert(toggle: PrivacyFeatureToggles)
+    fun delete(featureName: String)
     fun deleteAll()
 }
 
@@ -58,6 +59,13 @@ class PrivacyFeatureTogglesSharedPreferences constructor(private val context: Co
         }
     }
 
+    override fun delete(featureName: String) {
+        preferences.edit {
+            remove(featureName)
+            remove("$featureName$MIN_SUPPORTED_VERSION")
+        }
+    }
+
     override fun deleteAll() {
         preferences.edit().clear().apply()
     }
@@ -16,6 +16,7 @@
 
 package com.duckduckgo.privacy.config.store.features.contentblocking
 
+import com.duckduckgo.app.browser.DomainSuffixSet
 import com.duckduckgo.common.utils.DispatcherProvider
 import com.duckduckgo.feature.toggles.api.FeatureException
 import com.duckduckgo.privacy.config.store.ContentBlockingExceptionEntity
@@ -28,6 +29,9 @@ import java.util.concurrent.CopyOnWriteArrayList
 interface ContentBlockingRepository {
     fun updateAll(exceptions: List<ContentBlockingExceptionEntity>)
     val exceptions: CopyOnWriteArrayList<FeatureException>
+
+    /** The domains of [exceptions], indexed for same-or-subdomain lookups */
+    val exceptionDomains: DomainSuffixSet
 }
 
 class RealContentBlockingRepository(
@@ -40,6 +44,10 @@ class RealContentBlockingRepository(
     private val contentBlockingDao: ContentBlockingDao = database.contentBlockingDao()
     override val exceptions = CopyOnWriteArrayList<FeatureException>()
 
+    @Volatile
+    override var exceptionDomains: DomainSuffixSet = DomainSuffixSet.EMPTY
+        private set
+
     init {
         coroutineScope.launch(dispatcherProvider.io()) {
             if (isMainProcess) {
@@ -56,5 +64,6 @@ class RealContentBlockingRepository(
     private fun loadToMemory() {
         exceptions.clear()
         contentBlockingDao.getAll().map { exceptions.add(it.toFeatureException()) }
+        exceptionDomains = DomainSuffixSet.fromDomains(exceptions.map { it.domain })
     }
 }
@@ -16,6 +16,7 @@
 
 package com.duckduckgo.privacy.config.store.features.gpc
 
+import com.duckduckgo.app.browser.DomainSuffixSet
 import com.duckduckgo.common.utils.DispatcherProvider
 import com.duckduckgo.privacy.config.api.GpcException
 import com.duckduckgo.privacy.config.api.GpcHeaderEnabledSite
@@ -42,6 +43,12 @@ interface GpcRepository {
     val exceptions: CopyOnWriteArrayList<GpcException>
     val headerEnabledSites: CopyOnWriteArrayList<GpcHeaderEnabledSite>
     val gpcContentScopeConfig: String
+
+    /** The domains of [exceptions], indexed for same-or-subdomain lookups */
+    val exceptionDomains: DomainSuffixSet
+
+    /** The domains of [headerEnabledSites], indexed for same-or-subdomain lookups */
+    val headerEnabledDomains: DomainSuffixSet
 }
 
 class RealGpcRepository(
@@ -59,6 +66,14 @@ class RealGpcRepository(
     override val headerEnabledSites = CopyOnWriteArrayList<GpcHeaderEnabledSite>()
     override var gpcContentScopeConfig: String = emptyJson
 
+    @Volatile
+    override var exceptionDomains: DomainSuffixSet = DomainSuffixSet.EMPTY
+        private set
+
+    @Volatile
+    override var headerEnabledDomains: DomainSuffixSet = DomainSuffixSet.EMPTY
+        private set
+
     init {
         coroutineScope.launch(dispatcherProvider.io()) {
             if (isMainProcess) {
@@ -93,6 +108,8 @@ class RealGpcRepository(
         headerEnabledSites.clear()
         gpcExceptionsDao.getAll().map { exceptions.add(it.toGpcException()) }
         gpcHeadersDao.getAll().map { headerEnabledSites.add(it.toGpcHeaderEnabledSite()) }
+        exceptionDomains = DomainSuffixSet.fromDomains(exceptions.map { it.domain })
+        headerEnabledDomains = DomainSuffixSet.fromDomains(headerEnabledSites.map { it.domain })
         gpcContentScopeConfigDao.getConfig()?.let { entity ->
             gpcContentScopeConfig = entity.config
         }
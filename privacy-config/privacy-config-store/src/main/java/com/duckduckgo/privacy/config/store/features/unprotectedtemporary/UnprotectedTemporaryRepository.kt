@@ -16,6 +16,7 @@
 
 package com.duckduckgo.privacy.config.store.features.unprotectedtemporary
 
+import com.duckduckgo.app.browser.DomainSuffixSet
 import com.duckduckgo.common.utils.DispatcherProvider
 import com.duckduckgo.feature.toggles.api.FeatureException
 import com.duckduckgo.privacy.config.store.PrivacyConfigDatabase
@@ -28,6 +29,9 @@ interface UnprotectedTemporaryRepository {
     fun updateAll(exceptions: List<UnprotectedTemporaryEntity>)
 
     val exceptions: List<FeatureException>
+
+    /** The domains of [exceptions], indexed for same-or-subdomain lookups */
+    val exceptionDomains: DomainSuffixSet
 }
 
 class RealUnprotectedTemporaryRepository(
@@ -41,9 +45,10 @@ class RealUnprotectedTemporaryRepository(
         database.unprotectedTemporaryDao()
 
     @Volatile
-    private var snapshot: List<FeatureException> = emptyList()
+    private var snapshot: Snapshot = Snapshot(emptyList(), DomainSuffixSet.EMPTY)
 
-    override val exceptions get() = snapshot
+    override val exceptions get() = snapshot.exceptions
+    override val exceptionDomains get() = snapshot.exceptionDomains
 
     init {
         coroutineScope.launch(dispatcherProvider.io()) {
@@ -59,6 +64,12 @@ class RealUnprotectedTemporaryRepository(
     }
 
     private fun loadToMemory() {
-        snapshot = unprotectedTemporaryDao.getAll().map { it.toFeatureException() }
+        val fresh = unprotectedTemporaryDao.getAll().map { it.toFeatureException() }
+        snapshot = Snapshot(fresh, DomainSuffixSet.fromDomains(fresh.map { it.domain }))
     }
+
+    private data class Snapshot(
+        val exceptions: List<FeatureException>,
+        val exceptionDomains: DomainSuffixSet,
+    )
 }
@@ -23,6 +23,8 @@ import com.duckduckgo.privacy.config.store.toFeatureException
 import kotlinx.coroutines.test.TestScope
 import kotlinx.coroutines.test.runTest
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
 import org.junit.Before
 import org.junit.Rule
 import org.junit.Test
@@ -99,6 +101,25 @@ class RealContentBlockingRepositoryTest {
             assertEquals(0, testee.exceptions.size)
         }
 
+    @Test
+    fun whenUpdateAllThenExceptionDomainsAreReindexed() =
+        runTest {
+            givenContentBlockingDaoContainsExceptions()
+            testee =
+                RealContentBlockingRepository(
+                    mockDatabase,
+                    TestScope(),
+                    coroutineRule.testDispatcherProvider,
+                    true,
+                )
+            assertTrue(testee.exceptionDomains.containsSameOrParentOf("sub.example.com"))
+            reset(mockContentBlockingDao)
+
+            testee.updateAll(listOf())
+
+            assertFalse(testee.exceptionDomains.containsSameOrParentOf("sub.example.com"))
+        }
+
     private fun givenContentBlockingDaoContainsExceptions() {
         whenever(mockContentBlockingDao.getAll()).thenReturn(listOf(contentBlockingException))
     }
@@ -76,6 +76,24 @@ class RealGpcRepositoryTest {
         assertEquals(gpcException.toGpcException(), testee.exceptions.first())
     }
 
+    @Test
+    fun whenRepositoryIsCreatedThenExceptionAndHeaderDomainsAreIndexed() {
+        givenGpcDaoContainsExceptions()
+        givenGpcDaoContainsHeaders()
+
+        testee =
+            RealGpcRepository(
+                mockGpcDataStore,
+                mockDatabase,
+                TestScope(),
+                coroutineRule.testDispatcherProvider,
+                isMainProcess = true,
+            )
+
+        assertTrue(testee.exceptionDomains.containsSameOrParentOf("sub.example.com"))
+        assertTrue(testee.headerEnabledDomains.containsSameOrParentOf("sub.example.com"))
+    }
+
     @Test
     fun whenUpdateAllThenUpdateAllCalled() =
         runTest {
@@ -17,6 +17,7 @@
 package com.duckduckgo.request.interception.api
 
 import android.net.Uri
+import com.duckduckgo.app.browser.ParsedRequest
 
 interface RequestBlocklist {
     /**
@@ -28,4 +29,14 @@ interface RequestBlocklist {
      * @return true if the request matches a blocklist rule
      */
     fun containedInBlocklist(documentUrl: Uri, requestUrl: Uri): Boolean
+
+    /**
+     * Same as [containedInBlocklist] for urls that were already parsed by the caller.
+     *
+     * @param documentUrl the URL of the page making the request
+     * @param requestUrl the URL being requested
+     * @return true if the request matches a blocklist rule
+     */
+    fun containedInBlocklist(documentUrl: ParsedRequest, requestUrl: ParsedRequest): Boolean =
+        containedInBlocklist(documentUrl.uri, requestUrl.uri)
 }
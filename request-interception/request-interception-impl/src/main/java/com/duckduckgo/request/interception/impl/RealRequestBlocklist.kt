@@ -18,6 +18,8 @@ package com.duckduckgo.request.interception.impl
 
 import android.net.Uri
 import com.duckduckgo.app.browser.Domain
+import com.duckduckgo.app.browser.DomainSuffixSet
+import com.duckduckgo.app.browser.ParsedRequest
 import com.duckduckgo.app.browser.UriString
 import com.duckduckgo.app.di.AppCoroutineScope
 import com.duckduckgo.app.di.IsMainProcess
@@ -52,7 +54,7 @@ class RealRequestBlocklist @Inject constructor(
     private val blockedRequests = ConcurrentHashMap<String, List<BlocklistRuleEntity>>()
 
     @Volatile
-    private var exceptions = listOf<Domain>()
+    private var exceptions = DomainSuffixSet.EMPTY
 
     private val blockListSettingsJsonAdapter: JsonAdapter<RequestBlocklistSettings> =
         moshi.adapter(RequestBlocklistSettings::class.java)
@@ -82,12 +84,37 @@ class RealRequestBlocklist @Inject constructor(
         val httpUrl = requestUrl.toString().toHttpUrlOrNull() ?: return false
         val requestDomain = httpUrl.topPrivateDomain() ?: return false
 
+        return matchesRules(documentHost, requestDomain) { httpUrl.toString() }
+    }
+
+    override fun containedInBlocklist(
+        documentUrl: ParsedRequest,
+        requestUrl: ParsedRequest,
+    ): Boolean {
+        if (!requestBlocklistFeature.self().isEnabled()) {
+            return false
+        }
+
+        val documentHost = documentUrl.baseHost.orEmpty()
+
+        if (isAnException(documentHost)) return false
+
+        val requestDomain = requestUrl.eTldPlusOne ?: return false
+
+        return matchesRules(documentHost, requestDomain) { requestUrl.normalizedUrl.orEmpty() }
+    }
+
+    private inline fun matchesRules(
+        documentHost: String,
+        requestDomain: String,
+        normalizedUrl: () -> String,
+    ): Boolean {
         val rules = blockedRequests[requestDomain] ?: return false
 
-        val normalizedUrl = httpUrl.toString()
+        val url = normalizedUrl()
 
         return rules.any { rule ->
-            rule.rule.containsMatchIn(normalizedUrl) && domainMatches(documentHost, rule)
+            rule.rule.containsMatchIn(url) && domainMatches(documentHost, rule)
         }
     }
 
@@ -116,14 +143,12 @@ class RealRequestBlocklist @Inject constructor(
 
             blockedRequests.clear()
             blockedRequests.putAll(newBlockedRequests)
-            exceptions = requestBlocklistFeature.self().getExceptions().map { Domain(it.domain) }
+            exceptions = DomainSuffixSet(requestBlocklistFeature.self().getExceptions().map { it.domain })
         }
     }
 
     private fun isAnException(documentHost: String): Boolean {
-        return exceptions.any { exception ->
-            UriString.sameOrSubdomain(documentHost.toDomain(), exception)
-        }
+        return exceptions.containsSameOrParentOf(documentHost)
     }
 
     private fun domainMatches(
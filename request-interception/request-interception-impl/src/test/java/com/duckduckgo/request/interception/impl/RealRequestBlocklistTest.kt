@@ -18,10 +18,12 @@ package com.duckduckgo.request.interception.impl
 
 import android.net.Uri
 import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.duckduckgo.app.browser.ParsedRequest
 import com.duckduckgo.common.test.CoroutineTestRule
 import com.duckduckgo.feature.toggles.api.FeatureException
 import com.duckduckgo.feature.toggles.api.Toggle
 import com.squareup.moshi.Moshi
+import org.junit.Assert.assertEquals
 import org.junit.Assert.assertFalse
 import org.junit.Assert.assertTrue
 import org.junit.Rule
@@ -417,6 +419,29 @@ class RealRequestBlocklistTest {
         assertFalse(testee.containedInBlocklist(Uri.parse("https://sub.example.com"), Uri.parse("https://testing.com/image.jpg")))
     }
 
+    @Test
+    fun whenParsedRequestsThenReturnSameResultAsUris() {
+        val testee = createTestee(
+            settingsWithRule(entry = "testing.com", rule = "testing.com/*.jpg", domains = listOf("example.com")),
+            exceptions = listOf(FeatureException("excepted.com", "reason")),
+        )
+
+        listOf(
+            "https://www.example.com" to "https://cdn.testing.com/image.jpg",
+            "https://sub.example.com" to "https://testing.com:8443/image.jpg",
+            "https://example.com" to "https://testing.com/image.png",
+            "https://other.com" to "https://testing.com/image.jpg",
+            "https://excepted.com" to "https://testing.com/image.jpg",
+            "https://example.com" to "not a url",
+        ).forEach { (documentUrl, requestUrl) ->
+            assertEquals(
+                testee.containedInBlocklist(Uri.parse(documentUrl), Uri.parse(requestUrl)),
+                testee.containedInBlocklist(ParsedRequest.of(documentUrl), ParsedRequest.of(requestUrl)),
+            )
+        }
+        assertTrue(testee.containedInBlocklist(ParsedRequest.of("https://www.example.com"), ParsedRequest.of("https://cdn.testing.com/image.jpg")))
+    }
+
     private fun settingsWithRule(
         entry: String,
         rule: String,
@@ -444,6 +444,18 @@ class RealSyncSavedSitesRepository(
         }
     }
 
+    override fun getLocalEntityIds(ids: Collection<String>): Set<String> {
+        // stays below SQLite's limit of bound parameters per statement
+        return ids.distinct().chunked(MAX_QUERY_PARAMETERS).flatMapTo(HashSet()) { savedSitesEntitiesDao.existingEntityIds(it) }
+    }
+
+    override fun <T> runInTransaction(block: () -> T): T {
+        var result: Any? = null
+        savedSitesEntitiesDao.runInTransaction { result = block() }
+        @Suppress("UNCHECKED_CAST")
+        return result as T
+    }
+
     private fun Entity.modifiedAfter(since: String): Boolean {
         return if (this.lastModified == null) {
             false
@@ -453,4 +465,8 @@ class RealSyncSavedSitesRepository(
             entityModified.isAfter(sinceModified)
         }
     }
+
+    companion object {
+        private const val MAX_QUERY_PARAMETERS = 900
+    }
 }
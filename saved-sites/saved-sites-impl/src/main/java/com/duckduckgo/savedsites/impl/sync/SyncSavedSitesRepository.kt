@@ -201,4 +201,16 @@ interface SyncSavedSitesRepository {
      * Marks as Invalid a list of [SavedSite] with the given ids
      */
     fun markSavedSitesAsInvalid(ids: List<String>)
+
+    /**
+     * Returns which of the given ids belong to a local entity that is not deleted, looked up in bulk
+     * @param ids of the entities
+     * @return [Set] of the ids present locally
+     */
+    fun getLocalEntityIds(ids: Collection<String>): Set<String>
+
+    /**
+     * Runs [block] in a single database transaction, so that all of its writes are committed at once
+     */
+    fun <T> runInTransaction(block: () -> T): T
 }
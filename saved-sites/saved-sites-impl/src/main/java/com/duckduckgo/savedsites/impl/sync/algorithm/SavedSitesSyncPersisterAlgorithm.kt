@@ -57,32 +57,45 @@ class RealSavedSitesSyncPersisterAlgorithm @Inject constructor(
         bookmarks: SyncBookmarkEntries,
         conflictResolution: SyncConflictResolution,
         clientModifiedSince: String,
+    ): SyncMergeResult {
+        // the strategies write entity by entity, committing them together is what makes merging large trees affordable
+        return syncSavedSitesRepository.runInTransaction {
+            mergeEntries(bookmarks, conflictResolution, clientModifiedSince)
+        }
+    }
+
+    private fun mergeEntries(
+        bookmarks: SyncBookmarkEntries,
+        conflictResolution: SyncConflictResolution,
+        clientModifiedSince: String,
     ): SyncMergeResult {
         var orphans = false
         var timestampConflict = false
 
-        val processIds: MutableList<String> = mutableListOf(SavedSitesNames.BOOKMARKS_ROOT)
+        // when an id is repeated in the payload the first entry wins
+        val entriesById = HashMap<String, SyncSavedSitesResponseEntry>(bookmarks.entries.size)
+        bookmarks.entries.forEach { entriesById.putIfAbsent(it.id, it) }
+
+        val processIds: MutableSet<String> = hashSetOf(SavedSitesNames.BOOKMARKS_ROOT)
         val allResponseIds = bookmarks.entries.filterNot { it.deleted != null }.map { it.id }
+        val responseIds = allResponseIds.toHashSet()
         val allFolders = bookmarks.entries.filter { it.isFolder() }
             .filterNot {
                 it.id == FAVORITES_ROOT || it.id == FAVORITES_MOBILE_ROOT || it.id == FAVORITES_DESKTOP_ROOT
             }
         val allFolderIds = allFolders.map { it.id }
-        val allChildren = mutableListOf<String>()
+        val allChildren = HashSet<String>()
         allFolders.forEach { entry ->
-            entry.folder?.children?.forEach {
-                if (!allChildren.contains(it)) {
-                    allChildren.add(it)
-                }
-            }
+            entry.folder?.children?.let { allChildren.addAll(it) }
         }
 
         // Iterate over received items and find:
         // 1. All folders without a parent in the payload
         // check all children, the ones that are not in allFolders don't have a parent
         val foldersWithoutParent = allFolderIds.filterNot { allChildren.contains(it) }
+        val localFolderIds = syncSavedSitesRepository.getLocalEntityIds(foldersWithoutParent)
         foldersWithoutParent.forEach { folderId ->
-            val folder = savedSitesRepository.getFolder(folderId)
+            val folder = if (localFolderIds.contains(folderId)) savedSitesRepository.getFolder(folderId) else null
             if (folder != null) {
                 processIds.add(folderId)
             }
@@ -90,15 +103,16 @@ class RealSavedSitesSyncPersisterAlgorithm @Inject constructor(
                 logcat { "Sync-Bookmarks: Timestamp conflict found for folder $folderId" }
                 timestampConflict = true
             } else {
-                processFolder(folderId, SavedSitesNames.BOOKMARKS_ROOT, bookmarks.entries, clientModifiedSince, processIds, conflictResolution)
+                processFolder(folderId, SavedSitesNames.BOOKMARKS_ROOT, entriesById, clientModifiedSince, processIds, conflictResolution)
             }
         }
 
         // 2. All bookmarks without a parent in the payload
         val allBookmarkIds = bookmarks.entries.filter { it.isBookmark() }.map { it.id }
         val bookmarksWithoutParent = allBookmarkIds.filterNot { allChildren.contains(it) }
+        val localBookmarkIds = syncSavedSitesRepository.getLocalEntityIds(bookmarksWithoutParent)
         bookmarksWithoutParent.forEach { bookmarkId ->
-            val savedSite = savedSitesRepository.getSavedSite(bookmarkId)
+            val savedSite = if (localBookmarkIds.contains(bookmarkId)) savedSitesRepository.getSavedSite(bookmarkId) else null
             if (savedSite != null) {
                 processIds.add(bookmarkId)
             }
@@ -110,7 +124,7 @@ class RealSavedSitesSyncPersisterAlgorithm @Inject constructor(
                     conflictResolution,
                     bookmarkId,
                     processIds,
-                    bookmarks.entries,
+                    entriesById,
                     SavedSitesNames.BOOKMARKS_ROOT,
                     clientModifiedSince,
                 )
@@ -124,10 +138,10 @@ class RealSavedSitesSyncPersisterAlgorithm @Inject constructor(
         // Favourites
         val favoriteFolders = listOf(FAVORITES_ROOT, FAVORITES_MOBILE_ROOT, FAVORITES_DESKTOP_ROOT)
         favoriteFolders.forEach { favoriteFolder ->
-            if (allResponseIds.contains(favoriteFolder)) {
+            if (responseIds.contains(favoriteFolder)) {
                 processFavouritesFolder(
                     conflictResolution = conflictResolution,
-                    entries = bookmarks.entries,
+                    entriesById = entriesById,
                     favoriteFolder = favoriteFolder,
                 )
                 processIds.add(favoriteFolder)
@@ -135,8 +149,8 @@ class RealSavedSitesSyncPersisterAlgorithm @Inject constructor(
         }
 
         // Bookmarks Root
-        if (allResponseIds.contains(BOOKMARKS_ROOT)) {
-            processBookmarksRootFolder(bookmarks.entries)
+        if (responseIds.contains(BOOKMARKS_ROOT)) {
+            processBookmarksRootFolder(entriesById)
         }
 
         // there are two types of orphans
@@ -162,12 +176,12 @@ class RealSavedSitesSyncPersisterAlgorithm @Inject constructor(
     private fun processFolder(
         folderId: String,
         parentId: String,
-        remoteEntries: List<SyncSavedSitesResponseEntry>,
+        entriesById: Map<String, SyncSavedSitesResponseEntry>,
         lastModified: String,
-        processIds: MutableList<String>,
+        processIds: MutableSet<String>,
         conflictResolution: SyncConflictResolution,
     ) {
-        val remoteFolder = remoteEntries.find { it.id == folderId }
+        val remoteFolder = entriesById[folderId]
         if (remoteFolder == null) {
             logcat { "Sync-Bookmarks: processing folder $folderId with parentId $parentId" }
             logcat { "Sync-Bookmarks: can't find folder $folderId" }
@@ -175,7 +189,7 @@ class RealSavedSitesSyncPersisterAlgorithm @Inject constructor(
             processBookmarkFolder(conflictResolution, remoteFolder, parentId, lastModified)
             remoteFolder.folder?.children?.forEach { child ->
                 processIds.add(child)
-                processChild(conflictResolution, child, processIds, remoteEntries, folderId, lastModified)
+                processChild(conflictResolution, child, processIds, entriesById, folderId, lastModified)
             }
         }
     }
@@ -201,13 +215,13 @@ class RealSavedSitesSyncPersisterAlgorithm @Inject constructor(
     private fun processChild(
         conflictResolution: SyncConflictResolution,
         child: String,
-        processIds: MutableList<String>,
-        entries: List<SyncSavedSitesResponseEntry>,
+        processIds: MutableSet<String>,
+        entriesById: Map<String, SyncSavedSitesResponseEntry>,
         folderId: String,
         lastModified: String,
     ) {
         logcat { "Sync-Bookmarks: processing id $child" }
-        val childEntry = entries.find { it.id == child }
+        val childEntry = entriesById[child]
         if (childEntry == null) {
             logcat { "Sync-Bookmarks: id $child not present in the payload, omitting" }
         } else {
@@ -218,7 +232,7 @@ class RealSavedSitesSyncPersisterAlgorithm @Inject constructor(
 
                 childEntry.isFolder() -> {
                     logcat { "Sync-Bookmarks: child $child is a Folder" }
-                    processFolder(childEntry.id, folderId, entries, lastModified, processIds, conflictResolution)
+                    processFolder(childEntry.id, folderId, entriesById, lastModified, processIds, conflictResolution)
                 }
             }
         }
@@ -242,11 +256,11 @@ class RealSavedSitesSyncPersisterAlgorithm @Inject constructor(
 
     private fun processFavouritesFolder(
         conflictResolution: SyncConflictResolution,
-        entries: List<SyncSavedSitesResponseEntry>,
+        entriesById: Map<String, SyncSavedSitesResponseEntry>,
         favoriteFolder: String,
     ) {
         logcat(INFO) { "Sync-Bookmarks: processing favourites folder $favoriteFolder" }
-        val favouriteFolder = entries.find { it.id == favoriteFolder } ?: return
+        val favouriteFolder = entriesById[favoriteFolder] ?: return
         val favourites = favouriteFolder.folder?.children ?: emptyList()
 
         when (conflictResolution) {
@@ -257,9 +271,9 @@ class RealSavedSitesSyncPersisterAlgorithm @Inject constructor(
         }
     }
 
-    private fun processBookmarksRootFolder(entries: List<SyncSavedSitesResponseEntry>) {
+    private fun processBookmarksRootFolder(entriesById: Map<String, SyncSavedSitesResponseEntry>) {
         logcat(INFO) { "Sync-Bookmarks: processing bookmarks root folder" }
-        val rootEntry = entries.find { it.id == BOOKMARKS_ROOT } ?: return
+        val rootEntry = entriesById[BOOKMARKS_ROOT] ?: return
         val rootContent = rootEntry.folder?.children ?: emptyList()
         if (rootContent.isNotEmpty()) {
             val rootFolder = savedSitesRepository.getFolder(BOOKMARKS_ROOT)
@@ -271,7 +285,9 @@ class RealSavedSitesSyncPersisterAlgorithm @Inject constructor(
 
     private fun processDeletedItems(deletedItems: List<String>) {
         logcat { "Sync-Bookmarks: processing deleted items $deletedItems" }
-        deletedItems.forEach { id ->
+        // only the items that are present locally need to be looked up one by one
+        val localIds = syncSavedSitesRepository.getLocalEntityIds(deletedItems)
+        deletedItems.filter { localIds.contains(it) }.forEach { id ->
             val isBookmark = savedSitesRepository.getBookmarkById(id)
             if (isBookmark != null) {
                 logcat { "Sync-Bookmarks: item $id is a bookmark, deleting it" }
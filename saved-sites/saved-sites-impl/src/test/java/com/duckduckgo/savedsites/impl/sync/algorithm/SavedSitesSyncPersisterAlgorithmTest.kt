@@ -39,7 +39,9 @@ import org.junit.Before
 import org.junit.Rule
 import org.junit.Test
 import org.junit.runner.RunWith
+import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.verifyNoInteractions
 import org.mockito.kotlin.whenever
@@ -70,6 +72,9 @@ class SavedSitesSyncPersisterAlgorithmTest {
 
     @Before
     fun setup() {
+        whenever(syncSavedSitesRepository.runInTransaction(any<() -> SyncMergeResult>())).thenAnswer { invocation ->
+            invocation.getArgument<() -> SyncMergeResult>(0).invoke()
+        }
         algorithm = RealSavedSitesSyncPersisterAlgorithm(
             FakeCrypto(),
             repository,
@@ -219,6 +224,54 @@ class SavedSitesSyncPersisterAlgorithmTest {
         assertTrue(success.orphans)
     }
 
+    @Test
+    fun whenProcessingEntriesThenEntriesAreMergedInATransaction() {
+        val bookmark = rootBookmark()
+        val someEntries = SyncBookmarkEntries(listOf(fromSavedSite(bookmark)), twoHoursAgo)
+
+        algorithm.processEntries(someEntries, TIMESTAMP, threeHoursAgo)
+
+        verify(syncSavedSitesRepository).runInTransaction(any<() -> SyncMergeResult>())
+    }
+
+    @Test
+    fun whenBookmarkWithoutParentIsModifiedLocallyAfterLastSyncThenTimestampConflict() {
+        val bookmark = rootBookmark()
+        val someEntries = SyncBookmarkEntries(listOf(fromSavedSite(bookmark)), twoHoursAgo)
+        whenever(syncSavedSitesRepository.getLocalEntityIds(listOf(bookmark.id))).thenReturn(setOf(bookmark.id))
+        whenever(repository.getSavedSite(bookmark.id)).thenReturn(bookmark)
+
+        val result = algorithm.processEntries(someEntries, TIMESTAMP, threeHoursAgo) as Success
+
+        assertTrue(result.timestampConflict)
+        verifyNoInteractions(timestampStrategy)
+    }
+
+    @Test
+    fun whenBookmarkWithoutParentIsNotPresentLocallyThenItIsNotLookedUp() {
+        val bookmark = rootBookmark()
+        val someEntries = SyncBookmarkEntries(listOf(fromSavedSite(bookmark)), twoHoursAgo)
+
+        algorithm.processEntries(someEntries, TIMESTAMP, threeHoursAgo)
+
+        verify(repository, never()).getSavedSite(bookmark.id)
+        verify(timestampStrategy).processBookmark(bookmark, SavedSitesNames.BOOKMARKS_ROOT)
+    }
+
+    @Test
+    fun whenDeletedItemIsNotPresentLocallyThenItIsNotLookedUp() {
+        val bookmark = rootBookmark()
+        val someEntries = SyncBookmarkEntries(listOf(fromSavedSite(bookmark).copy(deleted = "1")), twoHoursAgo)
+
+        algorithm.processEntries(someEntries, TIMESTAMP, threeHoursAgo)
+
+        verify(repository, never()).getBookmarkById(bookmark.id)
+        verify(repository, never()).getFolder(bookmark.id)
+    }
+
+    private fun rootBookmark() =
+        Bookmark(id = "bookmark1", title = "title", url = "foo.com", lastModified = twoHoursAgo, parentId = SavedSitesNames.BOOKMARKS_ROOT)
+
     private fun fromSavedSite(savedSite: SavedSite): SyncSavedSitesResponseEntry {
         return SyncSavedSitesResponseEntry(
             id = savedSite.id,
@@ -44,6 +44,9 @@ interface SavedSitesEntitiesDao {
     @Query("select * from entities where entities.entityId IN (:ids)")
     fun entities(ids: List<String>): List<Entity>
 
+    @Query("select entityId from entities where entities.entityId IN (:ids) and entities.deleted = 0")
+    fun existingEntityIds(ids: List<String>): List<String>
+
     @Query(
         "select * from entities inner join relations on entities.entityId = relations.entityId " +
             "and entities.type = :type and relations.folderId = :folderId and entities.deleted = 0",
@@ -92,6 +95,14 @@ interface SavedSitesEntitiesDao {
         newId: String,
     )
 
+    /**
+     * Runs [block] in a single transaction, so that all of its writes are committed at once
+     */
+    @Transaction
+    fun runInTransaction(block: () -> Unit) {
+        block()
+    }
+
     @Transaction
     fun updateModified(entities: List<String>, lastModified: String = DatabaseDateFormatter.iso8601()) {
         entities.forEach {
@@ -35,7 +35,10 @@ import com.squareup.anvil.annotations.ContributesBinding
 import com.squareup.anvil.annotations.ContributesMultibinding
 import dagger.Lazy
 import dagger.SingleInstanceIn
+import io.reactivex.BackpressureStrategy
 import io.reactivex.Completable
+import io.reactivex.Maybe
+import io.reactivex.Observable
 import io.reactivex.Single
 import io.reactivex.disposables.CompositeDisposable
 import io.reactivex.schedulers.Schedulers
@@ -45,6 +48,7 @@ import logcat.LogPriority.VERBOSE
 import logcat.LogPriority.WARN
 import logcat.asLog
 import logcat.logcat
+import java.util.concurrent.TimeUnit
 import javax.inject.Inject
 
 @ContributesBinding(
@@ -73,11 +77,18 @@ class RxPixelSender @Inject constructor(
         if (statisticsLibraryConfig.shouldFirePixelsAsDev()) 1 else null
     }
 
+    /**
+     * Drains the queue whenever it changes. The queue depth, and the latency of each batch in [sendAndDeletePixels], are
+     * only logged: reporting them as pixels would add to the very queue they measure.
+     */
     override fun onStart(owner: LifecycleOwner) {
         compositeDisposable.add(
-            pendingPixelDao.pixels()
-                .flatMapIterable { it }
-                .switchMapCompletable(this::sendAndDeletePixel)
+            pendingPixelDao.pixelCount()
+                .doOnNext { logcat(VERBOSE) { "Pixel queue depth: $it" } }
+                .filter { it > 0 }
+                // every change to the queue triggers a drain, changes that happen while draining collapse into a single follow-up
+                .toFlowable(BackpressureStrategy.LATEST)
+                .concatMapCompletable({ sendPendingPixels() }, 1)
                 .subscribeOn(Schedulers.io())
                 .subscribe(
                     { logcat(VERBOSE) { "Pixel finished sync" } },
@@ -90,10 +101,52 @@ class RxPixelSender @Inject constructor(
         compositeDisposable.clear()
     }
 
-    private fun sendAndDeletePixel(pixel: PixelEntity): Completable {
-        return sendPixel(pixel)
-            .andThen(deletePixel(pixel))
-            .andThen {
+    /**
+     * Sends the queued pixels, oldest first, in batches of [MAX_BATCH_SIZE]. The pixels of a batch are sent with up to
+     * [MAX_CONCURRENT_SENDS] requests in flight, and the ones that were sent are deleted together once the batch completes.
+     * Draining stops at the first batch with a failure, the remaining pixels are retried the next time the queue changes.
+     */
+    private fun sendPendingPixels(): Completable {
+        return Single.fromCallable { pendingPixelDao.oldestPixels(MAX_BATCH_SIZE) }
+            .flatMapCompletable { batch ->
+                if (batch.isEmpty()) return@flatMapCompletable Completable.complete()
+                sendAndDeletePixels(batch).flatMapCompletable { allSent ->
+                    if (allSent && batch.size == MAX_BATCH_SIZE) sendPendingPixels() else Completable.complete()
+                }
+            }
+    }
+
+    /**
+     * @return whether every pixel in [batch] was sent
+     */
+    private fun sendAndDeletePixels(batch: List<PixelEntity>): Single<Boolean> {
+        val startTime = System.nanoTime()
+        return Observable.fromIterable(batch)
+            .flatMapMaybe(
+                { pixel -> sendPixelOrSkip(pixel).subscribeOn(Schedulers.io()) },
+                false,
+                MAX_CONCURRENT_SENDS,
+            )
+            .toList()
+            .map { sent ->
+                if (sent.isNotEmpty()) {
+                    pendingPixelDao.delete(sent)
+                }
+                logcat(VERBOSE) {
+                    "Pixel batch sent ${sent.size}/${batch.size} in ${TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)}ms"
+                }
+                sent.size == batch.size
+            }
+    }
+
+    /**
+     * @return the [pixel] once it was sent, or nothing if sending it failed
+     */
+    private fun sendPixelOrSkip(pixel: PixelEntity): Maybe<PixelEntity> {
+        return Completable.defer { sendPixel(pixel) }
+            .toSingleDefault(pixel)
+            .toMaybe()
+            .doOnSuccess {
                 with(pixel) {
                     logcat(INFO) { "Pixel sent: $id $pixelName with params: $additionalQueryParams $encodedQueryParams" }
                 }
@@ -102,7 +155,8 @@ class RxPixelSender @Inject constructor(
                 with(pixel) {
                     logcat(INFO) { "Pixel failed: $id $pixelName with params: $additionalQueryParams $encodedQueryParams" }
                 }
-            }.onErrorComplete()
+            }
+            .onErrorComplete()
     }
 
     override fun sendPixel(
@@ -110,9 +164,12 @@ class RxPixelSender @Inject constructor(
         parameters: Map<String, String>,
         encodedParameters: Map<String, String>,
         type: Pixel.PixelType,
-    ): Single<PixelSender.SendPixelResult> = Single.fromCallable {
-        runBlocking {
-            if (shouldFirePixel(pixelName, type)) {
+    ): Single<PixelSender.SendPixelResult> {
+        // runBlocking only bridges the fired pixel checks, which PixelFiredRepository serves from memory; the request
+        // itself is a plain Completable, so no thread is blocked while the pixel is in flight
+        return Single.fromCallable { runBlocking { shouldFirePixel(pixelName, type) } }
+            .flatMap { shouldFire ->
+                if (!shouldFire) return@flatMap Single.just(PixelSender.SendPixelResult.PIXEL_IGNORED)
                 val completable = if (shouldSendAtb(pixelName)) {
                     api.fire(
                         pixelName,
@@ -131,13 +188,10 @@ class RxPixelSender @Inject constructor(
                         devMode = shouldFirePixelsAsDev,
                     )
                 }
-                completable.blockingAwait()
-                storePixelFired(pixelName, type)
-                PixelSender.SendPixelResult.PIXEL_SENT
-            } else {
-                PixelSender.SendPixelResult.PIXEL_IGNORED
+                completable
+                    .andThen(Completable.fromAction { runBlocking { storePixelFired(pixelName, type) } })
+                    .toSingleDefault(PixelSender.SendPixelResult.PIXEL_SENT)
             }
-        }
     }
 
     override fun enqueuePixel(
@@ -188,12 +242,6 @@ class RxPixelSender @Inject constructor(
         }
     }
 
-    private fun deletePixel(pixel: PixelEntity): Completable {
-        return Completable.fromAction {
-            pendingPixelDao.delete(pixel)
-        }
-    }
-
     private fun addDeviceParametersTo(parameters: Map<String, String>): Map<String, String> {
         val defaultParameters = mapOf(Pixel.PixelParameter.APP_VERSION to deviceInfo.appVersion)
         return defaultParameters.plus(parameters)
@@ -232,4 +280,11 @@ class RxPixelSender @Inject constructor(
             is Unique -> pixelFiredRepository.storeUniquePixelFired(type.tag ?: pixelName)
         }
     }
+
+    companion object {
+        private const val MAX_BATCH_SIZE = 50
+
+        // below OkHttp's default of 5 requests per host, so the sends share the pooled connections instead of queueing
+        private const val MAX_CONCURRENT_SENDS = 4
+    }
 }
@@ -26,8 +26,16 @@ interface PendingPixelDao {
     @Query("select * from pixel_store")
     fun pixels(): Observable<List<PixelEntity>>
 
+    @Query("select count(*) from pixel_store")
+    fun pixelCount(): Observable<Int>
+
+    @Query("select * from pixel_store order by id limit :limit")
+    fun oldestPixels(limit: Int): List<PixelEntity>
+
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     fun insert(pixel: PixelEntity): Long
 
     @Delete fun delete(pixel: PixelEntity)
+
+    @Delete fun delete(pixels: List<PixelEntity>)
 }
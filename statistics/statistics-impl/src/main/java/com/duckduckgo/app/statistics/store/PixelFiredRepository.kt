@@ -16,12 +16,18 @@
 
 package com.duckduckgo.app.statistics.store
 
+import com.duckduckgo.app.di.AppCoroutineScope
 import com.duckduckgo.app.statistics.model.DailyPixelFired
 import com.duckduckgo.app.statistics.model.UniquePixelFired
+import com.duckduckgo.common.utils.DispatcherProvider
 import com.duckduckgo.di.scopes.AppScope
 import com.squareup.anvil.annotations.ContributesBinding
+import dagger.SingleInstanceIn
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.launch
 import java.time.LocalDate
 import java.time.ZoneOffset
+import java.util.concurrent.ConcurrentHashMap
 import javax.inject.Inject
 
 interface PixelFiredRepository {
@@ -31,27 +37,53 @@ interface PixelFiredRepository {
     suspend fun hasUniquePixelFired(name: String): Boolean
 }
 
+/**
+ * Keeps the daily and unique pixels known to have fired in memory, so that checking them again doesn't hit the database.
+ * Pixels are recorded in memory right away and persisted in the background.
+ */
 @ContributesBinding(AppScope::class)
+@SingleInstanceIn(AppScope::class)
 class PixelFiredRepositoryImpl @Inject constructor(
     private val dailyPixelFiredDao: DailyPixelFiredDao,
     private val uniquePixelFiredDao: UniquePixelFiredDao,
     private val timeProvider: TimeProvider,
+    @AppCoroutineScope private val appCoroutineScope: CoroutineScope,
+    private val dispatcherProvider: DispatcherProvider,
 ) : PixelFiredRepository {
 
+    private val dailyPixelsFired = ConcurrentHashMap<String, LocalDate>()
+    private val uniquePixelsFired = ConcurrentHashMap.newKeySet<String>()
+
     private val currentDate: LocalDate
         get() = LocalDate.ofInstant(timeProvider.getCurrentTime(), ZoneOffset.UTC)
 
     override suspend fun storeDailyPixelFiredToday(name: String) {
-        dailyPixelFiredDao.insert(DailyPixelFired(name, currentDate))
+        val date = currentDate
+        dailyPixelsFired[name] = date
+        appCoroutineScope.launch(dispatcherProvider.io()) {
+            dailyPixelFiredDao.insert(DailyPixelFired(name, date))
+        }
     }
 
-    override suspend fun hasDailyPixelFiredToday(name: String): Boolean =
-        dailyPixelFiredDao.hasDailyPixelFired(name, currentDate)
+    override suspend fun hasDailyPixelFiredToday(name: String): Boolean {
+        val date = currentDate
+        if (dailyPixelsFired[name] == date) return true
+        return dailyPixelFiredDao.hasDailyPixelFired(name, date).also { fired ->
+            if (fired) dailyPixelsFired[name] = date
+        }
+    }
 
     override suspend fun storeUniquePixelFired(name: String) {
-        uniquePixelFiredDao.insert(UniquePixelFired(name))
+        uniquePixelsFired += name
+        appCoroutineScope.launch(dispatcherProvider.io()) {
+            uniquePixelFiredDao.insert(UniquePixelFired(name))
+        }
     }
 
-    override suspend fun hasUniquePixelFired(name: String): Boolean =
-        uniquePixelFiredDao.hasUniquePixelFired(name)
+    override suspend fun hasUniquePixelFired(name: String): Boolean {
+        if (name in uniquePixelsFired) return true
+        return uniquePixelFiredDao.hasUniquePixelFired(name).also { fired ->
+            if (fired) uniquePixelsFired += name
+        }
+    }
 }
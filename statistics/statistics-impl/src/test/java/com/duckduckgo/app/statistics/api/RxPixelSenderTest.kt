@@ -324,6 +324,45 @@ class RxPixelSenderTest {
         )
     }
 
+    @Test
+    fun whenAppForegroundedWithMorePixelsThanABatchThenAllPixelsSentAndRemoved() {
+        givenPixelApiSucceeds()
+        val pixelEntity = PixelEntity(
+            pixelName = "test",
+            atb = "atbvariant",
+            additionalQueryParams = mapOf("appVersion" to "1.0.0"),
+            encodedQueryParams = emptyMap(),
+        )
+        pendingPixelDao.insert(pixelEntity, times = 120)
+        givenFormFactor(DeviceInfo.FormFactor.PHONE)
+
+        testee.onStart(mockLifecycleOwner)
+
+        verify(api, times(120)).fire(
+            pixelEntity.pixelName,
+            "phone",
+            pixelEntity.atb,
+            pixelEntity.additionalQueryParams,
+            pixelEntity.encodedQueryParams,
+        )
+        val pixels = pendingPixelDao.pixels().test().assertNoErrors().values().last()
+        assertTrue(pixels.isEmpty())
+    }
+
+    @Test
+    fun whenAppForegroundedAndSomePixelsFailThenOnlySentPixelsRemoved() {
+        whenever(api.fire(eq("sent"), any(), any(), anyOrNull(), any(), any())).thenReturn(Completable.complete())
+        whenever(api.fire(eq("failed"), any(), any(), anyOrNull(), any(), any())).thenReturn(Completable.error(TimeoutException()))
+        pendingPixelDao.insert(PixelEntity(pixelName = "sent", atb = "atbvariant"), times = 3)
+        pendingPixelDao.insert(PixelEntity(pixelName = "failed", atb = "atbvariant"), times = 2)
+        givenFormFactor(DeviceInfo.FormFactor.PHONE)
+
+        testee.onStart(mockLifecycleOwner)
+
+        val pixels = pendingPixelDao.pixels().test().assertNoErrors().values().last()
+        assertEquals(listOf("failed", "failed"), pixels.map { it.pixelName })
+    }
+
     @Test
     fun whenDailyPixelIsFiredThenPixelNameIsStored() = runTest {
         givenPixelApiSucceeds()
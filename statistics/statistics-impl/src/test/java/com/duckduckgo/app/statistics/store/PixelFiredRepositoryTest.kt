@@ -21,6 +21,7 @@ import androidx.test.core.app.ApplicationProvider
 import androidx.test.ext.junit.runners.AndroidJUnit4
 import com.duckduckgo.common.test.CoroutineTestRule
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.job
 import kotlinx.coroutines.test.runTest
 import org.junit.After
 import org.junit.Assert.assertFalse
@@ -54,11 +55,7 @@ class PixelFiredRepositoryTest {
             )
             .build()
 
-        subject = PixelFiredRepositoryImpl(
-            dailyPixelFiredDao = database.dailyPixelFiredDao(),
-            uniquePixelFiredDao = database.uniquePixelFiredDao(),
-            timeProvider = timeProvider,
-        )
+        subject = createSubject()
     }
 
     @After
@@ -81,6 +78,18 @@ class PixelFiredRepositoryTest {
         assertTrue(subject.hasUniquePixelFired("pixel_u"))
     }
 
+    @Test
+    fun whenPixelWasFiredThenPixelFiredIsPersisted() = runTest {
+        subject.storeDailyPixelFiredToday("pixel_d")
+        subject.storeUniquePixelFired("pixel_u")
+        coroutineRule.testScope.coroutineContext.job.children.forEach { it.join() }
+
+        val newSubject = createSubject()
+
+        assertTrue(newSubject.hasDailyPixelFiredToday("pixel_d"))
+        assertTrue(newSubject.hasUniquePixelFired("pixel_u"))
+    }
+
     @Test
     fun whenADayHasPassedThenDailyPixelFiredIsFalse() = runTest {
         subject.storeDailyPixelFiredToday("pixel_d")
@@ -101,6 +110,14 @@ class PixelFiredRepositoryTest {
         subject.storeDailyPixelFiredToday("pixel_d")
         assertTrue(subject.hasDailyPixelFiredToday("pixel_d"))
     }
+
+    private fun createSubject(): PixelFiredRepository = PixelFiredRepositoryImpl(
+        dailyPixelFiredDao = database.dailyPixelFiredDao(),
+        uniquePixelFiredDao = database.uniquePixelFiredDao(),
+        timeProvider = timeProvider,
+        appCoroutineScope = coroutineRule.testScope,
+        dispatcherProvider = coroutineRule.testDispatcherProvider,
+    )
 }
 
 private class FakeTimeProvider : TimeProvider {
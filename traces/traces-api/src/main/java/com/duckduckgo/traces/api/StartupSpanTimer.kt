@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.traces.api
+
+import android.os.Debug
+
+/**
+ * Measures a [StartupSpan] on the current thread. Use [span] instead, unless [StartupTraces] is only available once the work is done,
+ * e.g. when timing the creation of the DI graph
+ */
+class StartupSpanTimer private constructor(
+    private val startTimeNanos: Long,
+    private val startCpuTimeNanos: Long,
+) {
+
+    /**
+     * Must be called on the thread that started the timer
+     */
+    fun stop(
+        name: String,
+        category: String,
+    ): StartupSpan {
+        return StartupSpan(
+            name = name,
+            category = category,
+            thread = Thread.currentThread().name,
+            startTimeNanos = startTimeNanos,
+            durationNanos = System.nanoTime() - startTimeNanos,
+            // threadCpuTimeNanos is -1 when the platform doesn't support measuring thread CPU time
+            cpuTimeNanos = (Debug.threadCpuTimeNanos() - startCpuTimeNanos).coerceAtLeast(0),
+        )
+    }
+
+    companion object {
+        fun start(): StartupSpanTimer = StartupSpanTimer(System.nanoTime(), Debug.threadCpuTimeNanos())
+    }
+}
+
+/**
+ * Runs [block] and records how long it took as a [StartupSpan]
+ */
+inline fun <T> StartupTraces.span(
+    name: String,
+    category: String,
+    block: () -> T,
+): T {
+    val timer = StartupSpanTimer.start()
+    try {
+        return block()
+    } finally {
+        recordSpan(timer.stop(name, category))
+    }
+}
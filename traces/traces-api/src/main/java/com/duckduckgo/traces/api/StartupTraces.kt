@@ -18,4 +18,53 @@ package com.duckduckgo.traces.api
 
 interface StartupTraces {
     var isTraceEnabled: Boolean
+
+    /**
+     * Records a span of start-up work, e.g. creating the DI graph or a `MainProcessLifecycleObserver` plugin's `onCreate`
+     */
+    fun recordSpan(span: StartupSpan)
+
+    /**
+     * @return the recorded spans, oldest first. Only the most recent spans are kept
+     */
+    fun spans(): List<StartupSpan>
+
+    /**
+     * @param headroom how many times its budget a span may take, e.g. to leave room for slower emulators
+     * @return the recorded spans that took longer than [headroom] times their budget, oldest first
+     */
+    fun spansOverBudget(headroom: Int): List<StartupSpan>
+
+    /**
+     * @return the recorded spans as JSON in the Chrome trace event format, which Perfetto (ui.perfetto.dev) can open
+     */
+    fun exportTrace(): String
+}
+
+/**
+ * @param name name of the span, see the constants in the companion object for the well-known ones
+ * @param category category of the span, one of the CATEGORY_ constants
+ * @param thread name of the thread the span ran on
+ * @param startTimeNanos [System.nanoTime] when the span started
+ * @param durationNanos wall-clock time the span took
+ * @param cpuTimeNanos CPU time the span's thread spent running it
+ */
+data class StartupSpan(
+    val name: String,
+    val category: String,
+    val thread: String,
+    val startTimeNanos: Long,
+    val durationNanos: Long,
+    val cpuTimeNanos: Long,
+) {
+    companion object {
+        const val CATEGORY_APP = "app"
+        const val CATEGORY_PLUGIN = "plugin"
+        const val CATEGORY_UI = "ui"
+
+        const val DEPENDENCY_INJECTION = "DependencyInjection"
+        const val PLUGIN_POINT_INSTANTIATION = "MainProcessLifecycleObserverPlugins"
+        const val FIRST_BROWSER_TAB_INFLATION = "FirstBrowserTabFragmentInflation"
+        const val FIRST_WEBVIEW_CREATION = "FirstWebViewCreation"
+    }
 }
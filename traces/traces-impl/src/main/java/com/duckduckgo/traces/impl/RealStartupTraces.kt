@@ -18,27 +18,60 @@ package com.duckduckgo.traces.impl
 
 import android.content.Context
 import android.content.SharedPreferences
+import android.os.Process
 import androidx.core.content.edit
 import com.duckduckgo.di.scopes.AppScope
+import com.duckduckgo.traces.api.StartupSpan
 import com.duckduckgo.traces.api.StartupTraces
 import com.squareup.anvil.annotations.ContributesBinding
+import dagger.SingleInstanceIn
+import logcat.LogPriority.WARN
+import logcat.logcat
+import java.util.concurrent.TimeUnit
 import javax.inject.Inject
 
-@ContributesBinding(AppScope::class)
+@SingleInstanceIn(AppScope::class)
+@ContributesBinding(
+    scope = AppScope::class,
+    rank = ContributesBinding.RANK_HIGHEST, // binding for internal build wins
+)
 class RealStartupTraces @Inject constructor(
     private val context: Context,
 ) : StartupTraces {
 
     private val preferences: SharedPreferences by lazy { context.getSharedPreferences(FILENAME, Context.MODE_PRIVATE) }
 
+    private val spans = StartupSpanRingBuffer(MAX_SPANS)
+
     override var isTraceEnabled: Boolean
         get() = preferences.getBoolean(ENABLE_KEY, false)
         set(value) {
             preferences.edit(true) { putBoolean(ENABLE_KEY, value) }
         }
 
+    override fun recordSpan(span: StartupSpan) {
+        spans.add(span)
+        if (StartupSpanBudgets.isOverBudget(span)) {
+            logcat(WARN) {
+                "Startup span ${span.name} took ${TimeUnit.NANOSECONDS.toMillis(span.durationNanos)}ms on ${span.thread}, " +
+                    "over its ${StartupSpanBudgets.budgetMillis(span)}ms budget"
+            }
+        } else {
+            logcat { "Startup span ${span.name} took ${TimeUnit.NANOSECONDS.toMillis(span.durationNanos)}ms on ${span.thread}" }
+        }
+    }
+
+    override fun spans(): List<StartupSpan> = spans.snapshot()
+
+    override fun spansOverBudget(headroom: Int): List<StartupSpan> = spans.snapshot().filter { StartupSpanBudgets.isOverBudget(it, headroom) }
+
+    override fun exportTrace(): String = StartupTraceExporter.export(spans.snapshot(), Process.myPid())
+
     companion object {
         private const val FILENAME = "com.duckduckgo.traces.preference"
         private const val ENABLE_KEY = "com.duckduckgo.traces.preference.enable"
+
+        // enough for every start-up span, including one per MainProcessLifecycleObserver plugin
+        private const val MAX_SPANS = 1024
     }
 }
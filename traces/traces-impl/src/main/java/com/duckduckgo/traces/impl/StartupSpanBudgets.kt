@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.traces.impl
+
+import com.duckduckgo.traces.api.StartupSpan
+import java.util.concurrent.TimeUnit
+
+/**
+ * How long start-up spans are expected to take on a mid-range device. Spans over budget are logged as warnings, so regressions
+ * show up in logcat without attaching a profiler, and returned by [RealStartupTraces.spansOverBudget], which an instrumented
+ * test checks against the internal build in CI, with headroom for the emulators it runs on.
+ */
+internal object StartupSpanBudgets {
+
+    private val budgetsMillis = mapOf(
+        StartupSpan.DEPENDENCY_INJECTION to 300L,
+        StartupSpan.PLUGIN_POINT_INSTANTIATION to 150L,
+        StartupSpan.FIRST_BROWSER_TAB_INFLATION to 250L,
+        StartupSpan.FIRST_WEBVIEW_CREATION to 150L,
+    )
+
+    // a plugin blocking the main thread for longer than a frame delays the first frame
+    private const val MAIN_THREAD_PLUGIN_BUDGET_MILLIS = 16L
+    private const val MAIN_THREAD_NAME = "main"
+
+    fun budgetMillis(span: StartupSpan): Long? {
+        return budgetsMillis[span.name] ?: if (span.category == StartupSpan.CATEGORY_PLUGIN && span.thread == MAIN_THREAD_NAME) {
+            MAIN_THREAD_PLUGIN_BUDGET_MILLIS
+        } else {
+            null
+        }
+    }
+
+    /**
+     * @param headroom how many times its budget [span] may take
+     */
+    fun isOverBudget(
+        span: StartupSpan,
+        headroom: Int = 1,
+    ): Boolean {
+        val budgetMillis = budgetMillis(span) ?: return false
+        return TimeUnit.NANOSECONDS.toMillis(span.durationNanos) > budgetMillis * headroom
+    }
+}
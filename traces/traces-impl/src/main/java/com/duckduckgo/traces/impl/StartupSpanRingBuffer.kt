@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.traces.impl
+
+import com.duckduckgo.traces.api.StartupSpan
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicReferenceArray
+
+/**
+ * Keeps the last [capacity] spans. Writers claim a sequence number with a single atomic increment and never wait on each other, so
+ * spans can be recorded from any thread during start-up without contention.
+ *
+ * Each slot keeps the sequence number it was written for. A snapshot taken while spans are being recorded leaves out the slots that
+ * were claimed but not written yet, instead of returning the span they held one lap earlier.
+ */
+internal class StartupSpanRingBuffer(private val capacity: Int) {
+
+    private class Entry(val sequence: Long, val span: StartupSpan)
+
+    private val slots = AtomicReferenceArray<Entry?>(capacity)
+    private val nextSlot = AtomicLong(0)
+
+    init {
+        require(capacity > 0) { "capacity must be positive" }
+    }
+
+    fun add(span: StartupSpan) {
+        val sequence = nextSlot.getAndIncrement()
+        slots.set((sequence % capacity).toInt(), Entry(sequence, span))
+    }
+
+    /**
+     * @return the spans in the buffer, oldest first
+     */
+    fun snapshot(): List<StartupSpan> {
+        val end = nextSlot.get()
+        val start = (end - capacity).coerceAtLeast(0)
+        return (start until end).mapNotNull { sequence ->
+            slots.get((sequence % capacity).toInt())?.takeIf { it.sequence == sequence }?.span
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.traces.impl
+
+import com.duckduckgo.traces.api.StartupSpan
+import org.json.JSONArray
+import org.json.JSONObject
+import java.util.concurrent.TimeUnit
+
+/**
+ * Writes spans in the Chrome JSON trace event format, as complete ("X") events plus a thread name ("M") event per thread.
+ * Perfetto (ui.perfetto.dev) and chrome://tracing both open it.
+ */
+internal object StartupTraceExporter {
+
+    fun export(
+        spans: List<StartupSpan>,
+        pid: Int,
+    ): String {
+        val threadIds = linkedMapOf<String, Int>()
+        val events = JSONArray()
+
+        spans.forEach { span ->
+            val tid = threadIds.getOrPut(span.thread) { threadIds.size + 1 }
+            events.put(
+                JSONObject()
+                    .put("name", span.name)
+                    .put("cat", span.category)
+                    .put("ph", "X")
+                    .put("ts", TimeUnit.NANOSECONDS.toMicros(span.startTimeNanos))
+                    .put("dur", TimeUnit.NANOSECONDS.toMicros(span.durationNanos))
+                    .put("pid", pid)
+                    .put("tid", tid)
+                    .put("args", JSONObject().put("cpu_us", TimeUnit.NANOSECONDS.toMicros(span.cpuTimeNanos))),
+            )
+        }
+        threadIds.forEach { (thread, tid) ->
+            events.put(
+                JSONObject()
+                    .put("name", "thread_name")
+                    .put("ph", "M")
+                    .put("pid", pid)
+                    .put("tid", tid)
+                    .put("args", JSONObject().put("name", thread)),
+            )
+        }
+
+        return JSONObject()
+            .put("traceEvents", events)
+            .put("displayTimeUnit", "ms")
+            .toString()
+    }
+}
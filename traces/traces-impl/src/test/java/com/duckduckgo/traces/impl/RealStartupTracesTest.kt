@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.traces.impl
+
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import com.duckduckgo.traces.api.StartupSpan
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.util.concurrent.TimeUnit
+
+@RunWith(AndroidJUnit4::class)
+class RealStartupTracesTest {
+
+    private val testee = RealStartupTraces(InstrumentationRegistry.getInstrumentation().targetContext)
+
+    @Test
+    fun whenRecordedSpanExceedsItsBudgetThenItIsOverBudget() {
+        testee.recordSpan(span(StartupSpan.DEPENDENCY_INJECTION, durationMillis = 301))
+        testee.recordSpan(span(StartupSpan.FIRST_WEBVIEW_CREATION, durationMillis = 100))
+
+        assertEquals(listOf(StartupSpan.DEPENDENCY_INJECTION), testee.spansOverBudget(headroom = 1).map { it.name })
+    }
+
+    @Test
+    fun whenRecordedSpansWithinBudgetThenNoneIsOverBudget() {
+        testee.recordSpan(span(StartupSpan.DEPENDENCY_INJECTION, durationMillis = 300))
+
+        assertEquals(emptyList<StartupSpan>(), testee.spansOverBudget(headroom = 1))
+    }
+
+    @Test
+    fun whenRecordedSpanWithinHeadroomThenItIsNotOverBudget() {
+        testee.recordSpan(span(StartupSpan.DEPENDENCY_INJECTION, durationMillis = 900))
+
+        assertEquals(emptyList<StartupSpan>(), testee.spansOverBudget(headroom = 3))
+    }
+
+    private fun span(
+        name: String,
+        durationMillis: Long,
+    ) = StartupSpan(
+        name = name,
+        category = StartupSpan.CATEGORY_APP,
+        thread = "main",
+        startTimeNanos = 0,
+        durationNanos = TimeUnit.MILLISECONDS.toNanos(durationMillis),
+        cpuTimeNanos = 0,
+    )
+}
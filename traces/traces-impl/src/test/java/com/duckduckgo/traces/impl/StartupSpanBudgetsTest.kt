@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.traces.impl
+
+import com.duckduckgo.traces.api.StartupSpan
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.concurrent.TimeUnit
+
+class StartupSpanBudgetsTest {
+
+    @Test
+    fun whenWellKnownSpanWithinBudgetThenNotOverBudget() {
+        assertFalse(StartupSpanBudgets.isOverBudget(span(StartupSpan.DEPENDENCY_INJECTION, durationMillis = 300)))
+    }
+
+    @Test
+    fun whenWellKnownSpanOverBudgetThenOverBudget() {
+        assertTrue(StartupSpanBudgets.isOverBudget(span(StartupSpan.DEPENDENCY_INJECTION, durationMillis = 301)))
+    }
+
+    @Test
+    fun whenPluginOnMainThreadThenBudgetIsOneFrame() {
+        val span = span("SomePlugin", category = StartupSpan.CATEGORY_PLUGIN, durationMillis = 17)
+
+        assertEquals(16L, StartupSpanBudgets.budgetMillis(span))
+        assertTrue(StartupSpanBudgets.isOverBudget(span))
+    }
+
+    @Test
+    fun whenPluginOffMainThreadThenNoBudget() {
+        val span = span("SomePlugin", category = StartupSpan.CATEGORY_PLUGIN, thread = "DefaultDispatcher-worker-1", durationMillis = 500)
+
+        assertNull(StartupSpanBudgets.budgetMillis(span))
+        assertFalse(StartupSpanBudgets.isOverBudget(span))
+    }
+
+    @Test
+    fun whenUnknownSpanThenNoBudget() {
+        assertFalse(StartupSpanBudgets.isOverBudget(span("Unknown", durationMillis = 10_000)))
+    }
+
+    private fun span(
+        name: String,
+        category: String = StartupSpan.CATEGORY_APP,
+        thread: String = "main",
+        durationMillis: Long,
+    ) = StartupSpan(
+        name = name,
+        category = category,
+        thread = thread,
+        startTimeNanos = 0,
+        durationNanos = TimeUnit.MILLISECONDS.toNanos(durationMillis),
+        cpuTimeNanos = 0,
+    )
+}
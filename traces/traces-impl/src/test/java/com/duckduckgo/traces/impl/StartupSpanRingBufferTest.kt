@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.traces.impl
+
+import com.duckduckgo.traces.api.StartupSpan
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import kotlin.concurrent.thread
+
+class StartupSpanRingBufferTest {
+
+    @Test
+    fun whenEmptyThenSnapshotIsEmpty() {
+        assertTrue(StartupSpanRingBuffer(4).snapshot().isEmpty())
+    }
+
+    @Test
+    fun whenNotFullThenSnapshotHasSpansOldestFirst() {
+        val buffer = StartupSpanRingBuffer(4)
+
+        buffer.add(span("first"))
+        buffer.add(span("second"))
+
+        assertEquals(listOf("first", "second"), buffer.snapshot().map { it.name })
+    }
+
+    @Test
+    fun whenFullThenOldestSpansAreOverwritten() {
+        val buffer = StartupSpanRingBuffer(3)
+
+        (1..5).forEach { buffer.add(span("$it")) }
+
+        assertEquals(listOf("3", "4", "5"), buffer.snapshot().map { it.name })
+    }
+
+    @Test
+    fun whenSpansAddedConcurrentlyThenNoneLost() {
+        val buffer = StartupSpanRingBuffer(1000)
+
+        (0 until 4).map { writer ->
+            thread { repeat(250) { buffer.add(span("$writer-$it")) } }
+        }.forEach { it.join() }
+
+        assertEquals(1000, buffer.snapshot().map { it.name }.toSet().size)
+    }
+
+    private fun span(name: String) = StartupSpan(
+        name = name,
+        category = StartupSpan.CATEGORY_APP,
+        thread = "main",
+        startTimeNanos = 0,
+        durationNanos = 0,
+        cpuTimeNanos = 0,
+    )
+}
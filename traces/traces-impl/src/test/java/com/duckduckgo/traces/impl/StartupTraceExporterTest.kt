@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.traces.impl
+
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.duckduckgo.traces.api.StartupSpan
+import org.json.JSONObject
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class StartupTraceExporterTest {
+
+    @Test
+    fun whenExportedThenSpansAreCompleteEventsInMicroseconds() {
+        val json = JSONObject(StartupTraceExporter.export(listOf(span("DependencyInjection", "main")), pid = 42))
+
+        val event = json.getJSONArray("traceEvents").getJSONObject(0)
+        assertEquals("DependencyInjection", event.getString("name"))
+        assertEquals(StartupSpan.CATEGORY_APP, event.getString("cat"))
+        assertEquals("X", event.getString("ph"))
+        assertEquals(2_000L, event.getLong("ts"))
+        assertEquals(3_000L, event.getLong("dur"))
+        assertEquals(42, event.getInt("pid"))
+        assertEquals(1_000L, event.getJSONObject("args").getLong("cpu_us"))
+        assertEquals("ms", json.getString("displayTimeUnit"))
+    }
+
+    @Test
+    fun whenSpansOnDifferentThreadsThenEachThreadGetsIdAndName() {
+        val json = JSONObject(
+            StartupTraceExporter.export(
+                listOf(span("first", "main"), span("second", "worker"), span("third", "main")),
+                pid = 42,
+            ),
+        )
+
+        val events = json.getJSONArray("traceEvents")
+        assertEquals(5, events.length())
+        assertEquals(listOf(1, 2, 1), (0 until 3).map { events.getJSONObject(it).getInt("tid") })
+
+        val threadNames = (3 until 5).map { events.getJSONObject(it) }
+        assertEquals(listOf("M", "M"), threadNames.map { it.getString("ph") })
+        assertEquals(listOf(1, 2), threadNames.map { it.getInt("tid") })
+        assertEquals(listOf("main", "worker"), threadNames.map { it.getJSONObject("args").getString("name") })
+    }
+
+    @Test
+    fun whenNoSpansThenNoEvents() {
+        val json = JSONObject(StartupTraceExporter.export(emptyList(), pid = 42))
+
+        assertEquals(0, json.getJSONArray("traceEvents").length())
+    }
+
+    private fun span(
+        name: String,
+        thread: String,
+    ) = StartupSpan(
+        name = name,
+        category = StartupSpan.CATEGORY_APP,
+        thread = thread,
+        startTimeNanos = 2_000_000,
+        durationNanos = 3_000_000,
+        cpuTimeNanos = 1_000_000,
+    )
+}
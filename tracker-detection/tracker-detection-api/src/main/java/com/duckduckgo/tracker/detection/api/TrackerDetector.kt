@@ -17,6 +17,7 @@
 package com.duckduckgo.tracker.detection.api
 
 import android.net.Uri
+import com.duckduckgo.app.browser.ParsedRequest
 import com.duckduckgo.app.trackerdetection.model.TrackingEvent
 
 interface TrackerDetector {
@@ -51,4 +52,30 @@ interface TrackerDetector {
         checkFirstParty: Boolean = true,
         requestHeaders: Map<String, String>,
     ): TrackingEvent?
+
+    /**
+     * Evaluates whether the given [url] is a tracker in the context of [documentUrl], reusing the parsing already done for both
+     * of them.
+     *
+     * @param url the resource URL to evaluate.
+     * @param documentUrl the URL of the document that initiated the request.
+     * @param checkFirstParty if true, first-party requests are excluded from blocking.
+     * @param requestHeaders the HTTP headers associated with the request.
+     * @return a [TrackingEvent] if the URL is identified as a tracker, or null otherwise.
+     */
+    fun evaluate(
+        url: ParsedRequest,
+        documentUrl: ParsedRequest,
+        checkFirstParty: Boolean = true,
+        requestHeaders: Map<String, String>,
+    ): TrackingEvent? = evaluate(url.uri, documentUrl.uri, checkFirstParty, requestHeaders)
+
+    /**
+     * Starts a new evaluation context for [documentUrl]. Document-level state used by [evaluate] for the requests of that
+     * document (entity, allowlist and exception checks, rule matching results) is computed once and reused until the next
+     * page load.
+     *
+     * @param documentUrl the URL of the page that started loading.
+     */
+    fun onPageStarted(documentUrl: String)
 }
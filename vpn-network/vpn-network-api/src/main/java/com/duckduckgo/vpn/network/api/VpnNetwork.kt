@@ -62,8 +62,21 @@ interface VpnNetwork {
      * @param callback the [VpnNetworkCallback] instance or `null` to unregister previous callback
      */
     fun addCallback(callback: VpnNetworkCallback?)
+
+    /**
+     * @return the hit/miss counters of the connection owner UID cache, used for internal diagnostics
+     */
+    fun connectionOwnerCacheStats(): ConnectionOwnerCacheStats
 }
 
+/**
+ * Connection owner UID cache counters
+ * [hits] is the number of UID lookups served from the cache
+ * [misses] is the number of UID lookups that required a system call
+ * [size] is the current number of cached connections
+ */
+data class ConnectionOwnerCacheStats(val hits: Long, val misses: Long, val size: Int)
+
 enum class VpnNetworkLog {
     ASSERT,
     ERROR,
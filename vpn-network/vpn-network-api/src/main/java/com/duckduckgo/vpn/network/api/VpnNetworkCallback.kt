@@ -37,12 +37,32 @@ interface VpnNetworkCallback {
      */
     fun onDnsResolved(dnsRR: DnsRR)
 
+    /**
+     * Called when the VPN network has accumulated several resolved DNS resources.
+     * The [batch] instance is reused by the VPN network, do not keep references to it after this method returns.
+     * Default implementation calls [onDnsResolved] for every record in the batch.
+     * @param batch the DNS records
+     */
+    fun onDnsResolved(batch: DnsRRBatch) {
+        for (index in 0 until batch.size) {
+            onDnsResolved(DnsRR(batch.time(index), batch.qName(index), batch.aName(index), batch.resource(index), batch.ttl(index)))
+        }
+    }
+
     /**
      * Called by the VPN network to know if a domain is blocked or not. This is used to perform DNS-base tracker blocking
      * @param domainRR is the domain record
      */
     fun isDomainBlocked(domainRR: DomainRR): Boolean
 
+    /**
+     * Same as [isDomainBlocked] without allocating a [DomainRR] for every call.
+     * Default implementation delegates to [isDomainBlocked]
+     * @param name is the name of the domain
+     * @param uid is the UID of the app that's trying to access the domain
+     */
+    fun isDomainBlocked(name: String, uid: Int): Boolean = isDomainBlocked(DomainRR(name, uid))
+
     /**
      * Called by the VPN network to report an error parsing TLS packets.
      * The implementation of this method should just log the issue and continue
@@ -68,6 +88,19 @@ interface VpnNetworkCallback {
  */
 data class DnsRR(val time: Long, val qName: String, val aName: String, val resource: String, val ttl: Int)
 
+/**
+ * Read-only view over a batch of DNS records, see [DnsRR] for the meaning of each field.
+ * [size] is the number of records in the batch, valid indexes are `0 until size`
+ */
+interface DnsRRBatch {
+    val size: Int
+    fun time(index: Int): Long
+    fun qName(index: Int): String
+    fun aName(index: Int): String
+    fun resource(index: Int): String
+    fun ttl(index: Int): Int
+}
+
 /**
  * SNI record type
  * [name] is the name of the server
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.vpn.network.impl
+
+import android.os.SystemClock
+import android.util.LruCache
+import com.duckduckgo.vpn.network.api.ConnectionOwnerCacheStats
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Remembers the owner UID of a connection for a few seconds, keyed by its (protocol, saddr, sport, daddr, dport) tuple,
+ * so that repeated [android.net.ConnectivityManager.getConnectionOwnerUid] binder calls for the same tuple in quick
+ * succession, e.g. retransmits and retries that reach the native layer before its session is set up, are made once.
+ *
+ * The native layer does not tell us when a session closes, and once it does the tuple can be reused by another socket,
+ * possibly owned by another app. Entries therefore expire [TTL_MILLIS] after the lookup, well below the time the kernel
+ * holds a closed TCP tuple in TIME_WAIT, and a hit never extends them. Entries are LRU-evicted when the table is full.
+ */
+internal class ConnectionOwnerUidCache(
+    maxSize: Int = DEFAULT_MAX_SIZE,
+    private val clock: () -> Long = { SystemClock.elapsedRealtime() },
+) {
+
+    private val entries = LruCache<FlowKey, Entry>(maxSize)
+    private val hits = AtomicLong(0)
+    private val misses = AtomicLong(0)
+
+    fun getOrPut(
+        protocol: Int,
+        saddr: String,
+        sport: Int,
+        daddr: String,
+        dport: Int,
+        resolveUid: () -> Int,
+    ): Int {
+        val key = FlowKey(protocol, saddr, sport, daddr, dport)
+        val now = clock()
+        entries.get(key)?.let { entry ->
+            if (entry.expiresAt > now) {
+                hits.incrementAndGet()
+                return entry.uid
+            }
+            entries.remove(key)
+        }
+
+        misses.incrementAndGet()
+        return resolveUid().also { uid ->
+            if (uid >= 0) entries.put(key, Entry(uid, now + TTL_MILLIS))
+        }
+    }
+
+    fun stats(): ConnectionOwnerCacheStats {
+        return ConnectionOwnerCacheStats(hits = hits.get(), misses = misses.get(), size = entries.size())
+    }
+
+    fun clear() {
+        entries.evictAll()
+    }
+
+    private data class FlowKey(
+        val protocol: Int,
+        val saddr: String,
+        val sport: Int,
+        val daddr: String,
+        val dport: Int,
+    )
+
+    private class Entry(
+        val uid: Int,
+        val expiresAt: Long,
+    )
+
+    companion object {
+        private const val DEFAULT_MAX_SIZE = 1_024
+        private const val TTL_MILLIS = 5 * 1_000L
+    }
+}
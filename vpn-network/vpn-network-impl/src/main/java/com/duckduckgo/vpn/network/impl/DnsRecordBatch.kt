@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.vpn.network.impl
+
+import com.duckduckgo.vpn.network.api.DnsRRBatch
+
+/**
+ * Fixed capacity, reusable buffer of DNS records backed by parallel arrays, so accumulating records does not allocate.
+ * Not thread safe, callers must synchronize access.
+ */
+internal class DnsRecordBatch(private val capacity: Int) : DnsRRBatch {
+    private val times = LongArray(capacity)
+    private val qNames = arrayOfNulls<String>(capacity)
+    private val aNames = arrayOfNulls<String>(capacity)
+    private val resources = arrayOfNulls<String>(capacity)
+    private val ttls = IntArray(capacity)
+
+    override var size: Int = 0
+        private set
+
+    /** elapsed realtime at which the first record of the current batch was added */
+    var firstAddedAt: Long = 0L
+        private set
+
+    fun add(
+        time: Long,
+        qName: String,
+        aName: String,
+        resource: String,
+        ttl: Int,
+        now: Long,
+    ) {
+        check(!isFull()) { "DNS record batch is full" }
+        if (size == 0) firstAddedAt = now
+        times[size] = time
+        qNames[size] = qName
+        aNames[size] = aName
+        resources[size] = resource
+        ttls[size] = ttl
+        size++
+    }
+
+    fun isFull(): Boolean = size == capacity
+
+    fun isEmpty(): Boolean = size == 0
+
+    fun clear() {
+        // release the references so the strings can be collected
+        qNames.fill(null, 0, size)
+        aNames.fill(null, 0, size)
+        resources.fill(null, 0, size)
+        size = 0
+    }
+
+    override fun time(index: Int): Long = times[checkIndex(index)]
+
+    override fun qName(index: Int): String = qNames[checkIndex(index)]!!
+
+    override fun aName(index: Int): String = aNames[checkIndex(index)]!!
+
+    override fun resource(index: Int): String = resources[checkIndex(index)]!!
+
+    override fun ttl(index: Int): Int = ttls[checkIndex(index)]
+
+    private fun checkIndex(index: Int): Int {
+        if (index < 0 || index >= size) throw IndexOutOfBoundsException("index=$index size=$size")
+        return index
+    }
+}
@@ -21,6 +21,7 @@ import android.net.ConnectivityManager
 import android.net.VpnService
 import android.os.Build
 import android.os.Process
+import android.os.SystemClock
 import android.util.Log
 import androidx.annotation.RequiresApi
 import com.duckduckgo.appbuildconfig.api.AppBuildConfig
@@ -40,6 +41,10 @@ import logcat.LogPriority.WARN
 import logcat.asLog
 import logcat.logcat
 import java.net.InetSocketAddress
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
 import java.util.concurrent.atomic.AtomicReference
 import javax.inject.Inject
 import kotlin.system.exitProcess
@@ -71,15 +76,33 @@ class RealVpnNetwork @Inject constructor(
 
     private external fun jni_done(context: Long)
 
-    private val uidPackageIdMap = mutableMapOf<Int, String>()
+    private val uidPackageIdMap = ConcurrentHashMap<Int, String>()
+
+    private val connectionOwnerUidCache = ConnectionOwnerUidCache()
+
+    private val connectivityManager: ConnectivityManager? by lazy {
+        context.getSystemService(VpnService.CONNECTIVITY_SERVICE) as ConnectivityManager?
+    }
 
     private var callback = AtomicReference<VpnNetworkCallback?>(null)
 
+    private val dnsRecordBatch = DnsRecordBatch(DNS_BATCH_SIZE)
+
+    // flushes DNS batches that are not filled within DNS_BATCH_MAX_DELAY_MILLIS, guarded by the dnsRecordBatch lock
+    private var dnsFlushScheduler: ScheduledExecutorService? = null
+
     override fun create(): Long {
         return jni_init(appBuildConfig.sdkInt)
     }
 
     override fun start(contextId: Long, logLevel: VpnNetworkLog) {
+        synchronized(dnsRecordBatch) {
+            if (dnsFlushScheduler == null) {
+                dnsFlushScheduler = Executors.newSingleThreadScheduledExecutor { runnable ->
+                    Thread(runnable, "VpnNetworkDnsFlush").apply { isDaemon = true }
+                }
+            }
+        }
         jni_socks5("", 0, "", "")
         jni_start(contextId, logLevel.toAndroidLevel())
     }
@@ -90,6 +113,12 @@ class RealVpnNetwork @Inject constructor(
 
     override fun stop(contextId: Long) {
         jni_stop(contextId)
+        connectionOwnerUidCache.clear()
+        synchronized(dnsRecordBatch) {
+            flushDnsRecords()
+            dnsFlushScheduler?.shutdownNow()
+            dnsFlushScheduler = null
+        }
     }
 
     override fun destroy(contextId: Long) {
@@ -105,6 +134,10 @@ class RealVpnNetwork @Inject constructor(
         this.callback.set(callback)
     }
 
+    override fun connectionOwnerCacheStats(): ConnectionOwnerCacheStats {
+        return connectionOwnerUidCache.stats()
+    }
+
     // Called from native code
     @Suppress("unused")
     private fun nativeExit(reason: String) {
@@ -129,14 +162,45 @@ class RealVpnNetwork @Inject constructor(
     @Suppress("unused")
     private fun dnsResolved(rr: ResourceRecord) {
         logcat { "dnsResolved called for $rr" }
-        callback.get()?.onDnsResolved(rr.toDnsRR())
+        val now = SystemClock.elapsedRealtime()
+        synchronized(dnsRecordBatch) {
+            dnsRecordBatch.add(rr.Time, rr.QName.orEmpty(), rr.AName.orEmpty(), rr.Resource.orEmpty(), rr.TTL, now)
+            if (dnsRecordBatch.isFull() || isDnsBatchDue(now)) {
+                flushDnsRecords()
+            } else if (dnsRecordBatch.size == 1) {
+                // a new batch started, make sure it is delivered even if no other record arrives
+                dnsFlushScheduler?.schedule(::flushDueDnsRecords, DNS_BATCH_MAX_DELAY_MILLIS, TimeUnit.MILLISECONDS)
+            }
+        }
+    }
+
+    private fun flushDueDnsRecords() {
+        synchronized(dnsRecordBatch) {
+            // the batch this was scheduled for may already be flushed, and a newer one schedules its own flush
+            if (isDnsBatchDue(SystemClock.elapsedRealtime())) flushDnsRecords()
+        }
+    }
+
+    // must be called holding the dnsRecordBatch lock
+    private fun isDnsBatchDue(now: Long): Boolean {
+        return !dnsRecordBatch.isEmpty() && now - dnsRecordBatch.firstAddedAt >= DNS_BATCH_MAX_DELAY_MILLIS
+    }
+
+    // must be called holding the dnsRecordBatch lock
+    private fun flushDnsRecords() {
+        if (dnsRecordBatch.isEmpty()) return
+        try {
+            callback.get()?.onDnsResolved(dnsRecordBatch)
+        } finally {
+            dnsRecordBatch.clear()
+        }
     }
 
     // Called from native code
     @Suppress("unused")
     private fun isDomainBlocked(name: String, uid: Int): Boolean {
         logcat { "isDomainBlocked for $name ($uid)" }
-        return callback.get()?.isDomainBlocked(DomainRR(name, uid)) ?: false
+        return callback.get()?.isDomainBlocked(name, uid) ?: false
     }
 
     // Called from native code
@@ -190,7 +254,15 @@ class RealVpnNetwork @Inject constructor(
         @Suppress("ktlint:standard:comment-wrapping")
         if (protocol != 6 /* TCP */ && protocol != 17 /* UDP */) return Process.INVALID_UID
 
-        val cm = context.getSystemService(VpnService.CONNECTIVITY_SERVICE) as ConnectivityManager? ?: return Process.INVALID_UID
+        // native asks once per new session, so the cache only absorbs lookups repeated within a few seconds
+        return connectionOwnerUidCache.getOrPut(protocol, saddr, sport, daddr, dport) {
+            resolveConnectionOwnerUid(protocol, saddr, sport, daddr, dport)
+        }
+    }
+
+    @RequiresApi(Build.VERSION_CODES.Q)
+    private fun resolveConnectionOwnerUid(protocol: Int, saddr: String, sport: Int, daddr: String, dport: Int): Int {
+        val cm = connectivityManager ?: return Process.INVALID_UID
 
         val local = InetSocketAddress(saddr, sport)
         val remote = InetSocketAddress(daddr, dport)
@@ -244,6 +316,9 @@ class RealVpnNetwork @Inject constructor(
     }
 }
 
+private const val DNS_BATCH_SIZE = 32
+private const val DNS_BATCH_MAX_DELAY_MILLIS = 500L
+
 private fun VpnNetworkLog.toAndroidLevel(): Int {
     return when (this) {
         VpnNetworkLog.ASSERT -> Log.ASSERT
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.vpn.network.impl
+
+import android.os.Process
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class ConnectionOwnerUidCacheTest {
+
+    private var now = 0L
+    private var resolveCount = 0
+    private val cache = ConnectionOwnerUidCache(clock = { now })
+
+    @Test
+    fun whenSameConnectionLookedUpTwiceThenResolveOnce() {
+        assertEquals(APP_UID, lookup(sport = 40000))
+        assertEquals(APP_UID, lookup(sport = 40000))
+
+        assertEquals(1, resolveCount)
+        assertEquals(1L, cache.stats().hits)
+        assertEquals(1L, cache.stats().misses)
+    }
+
+    @Test
+    fun whenDifferentSourcePortThenResolveAgain() {
+        lookup(sport = 40000)
+        lookup(sport = 40001)
+
+        assertEquals(2, resolveCount)
+        assertEquals(2, cache.stats().size)
+    }
+
+    @Test
+    fun whenEntryExpiredThenResolveAgain() {
+        lookup(protocol = UDP, sport = 40000)
+        now += 5_000L
+        lookup(protocol = UDP, sport = 40000)
+
+        assertEquals(2, resolveCount)
+    }
+
+    @Test
+    fun whenEntryHitThenExpiryIsNotExtended() {
+        lookup(sport = 40000)
+        now += 4_000L
+        lookup(sport = 40000)
+        now += 1_000L
+        assertEquals(OTHER_APP_UID, lookup(sport = 40000, uid = OTHER_APP_UID))
+
+        assertEquals(2, resolveCount)
+    }
+
+    @Test
+    fun whenUidInvalidThenDoNotCache() {
+        lookup(sport = 40000, uid = Process.INVALID_UID)
+        lookup(sport = 40000, uid = Process.INVALID_UID)
+
+        assertEquals(2, resolveCount)
+        assertEquals(0, cache.stats().size)
+    }
+
+    @Test
+    fun whenClearedThenResolveAgain() {
+        lookup(sport = 40000)
+        cache.clear()
+        lookup(sport = 40000)
+
+        assertEquals(2, resolveCount)
+    }
+
+    private fun lookup(
+        protocol: Int = TCP,
+        sport: Int,
+        uid: Int = APP_UID,
+    ): Int {
+        return cache.getOrPut(protocol, "10.0.0.2", sport, "1.1.1.1", 443) {
+            resolveCount++
+            uid
+        }
+    }
+
+    companion object {
+        private const val TCP = 6
+        private const val UDP = 17
+        private const val APP_UID = 10123
+        private const val OTHER_APP_UID = 10124
+    }
+}
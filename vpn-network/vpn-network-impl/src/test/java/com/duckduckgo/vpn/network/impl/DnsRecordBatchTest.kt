@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2026 DuckDuckGo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.duckduckgo.vpn.network.impl
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class DnsRecordBatchTest {
+
+    private val batch = DnsRecordBatch(capacity = 2)
+
+    @Test
+    fun whenRecordsAddedThenReadBackInOrder() {
+        batch.add(1L, "a.com", "a.com", "1.1.1.1", 60, now = 100L)
+        batch.add(2L, "b.com", "cname.b.com", "2.2.2.2", 30, now = 200L)
+
+        assertEquals(2, batch.size)
+        assertEquals(100L, batch.firstAddedAt)
+        assertEquals("a.com", batch.qName(0))
+        assertEquals("cname.b.com", batch.aName(1))
+        assertEquals("2.2.2.2", batch.resource(1))
+        assertEquals(30, batch.ttl(1))
+        assertEquals(2L, batch.time(1))
+        assertTrue(batch.isFull())
+    }
+
+    @Test
+    fun whenClearedThenBatchIsEmptyAndReusable() {
+        batch.add(1L, "a.com", "a.com", "1.1.1.1", 60, now = 100L)
+        batch.clear()
+
+        assertTrue(batch.isEmpty())
+        assertFalse(batch.isFull())
+
+        batch.add(2L, "b.com", "b.com", "2.2.2.2", 60, now = 300L)
+        assertEquals(300L, batch.firstAddedAt)
+        assertEquals("b.com", batch.qName(0))
+    }
+
+    @Test(expected = IndexOutOfBoundsException::class)
+    fun whenReadingPastSizeThenThrow() {
+        batch.add(1L, "a.com", "a.com", "1.1.1.1", 60, now = 100L)
+        batch.qName(1)
+    }
+
+    @Test(expected = IllegalStateException::class)
+    fun whenAddingToFullBatchThenThrow() {
+        repeat(3) { batch.add(1L, "a.com", "a.com", "1.1.1.1", 60, now = 100L) }
+    }
+}